@@ -22,6 +22,7 @@ import org.eclipse.che.api.workspace.server.WorkspaceStatusCache;
 import org.eclipse.che.multiuser.api.distributed.JGroupsServiceTermination;
 import org.eclipse.che.multiuser.api.distributed.WorkspaceStopPropagator;
 import org.eclipse.che.multiuser.api.distributed.subscription.DistributedRemoteSubscriptionStorage;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsInvalidationChannel;
 import org.eclipse.persistence.config.CacheCoordinationProtocol;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 
@@ -51,6 +52,10 @@ public class ReplicationModule extends AbstractModule {
         .to(org.eclipse.che.multiuser.api.distributed.lock.JGroupsWorkspaceLockService.class);
     bind(WorkspaceStatusCache.class)
         .to(org.eclipse.che.multiuser.api.distributed.cache.JGroupsWorkspaceStatusCache.class);
+    bind(PermissionsInvalidationChannel.class)
+        .to(
+            org.eclipse.che.multiuser.api.distributed.cache.JGroupsPermissionsInvalidationChannel
+                .class);
 
     Multibinder.newSetBinder(binder(), ServiceTermination.class)
         .addBinding()
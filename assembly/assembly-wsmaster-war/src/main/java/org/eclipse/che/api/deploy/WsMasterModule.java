@@ -84,6 +84,9 @@ import org.eclipse.che.mail.template.TemplateProcessor;
 import org.eclipse.che.multiuser.api.permission.server.AdminPermissionInitializer;
 import org.eclipse.che.multiuser.api.permission.server.PermissionChecker;
 import org.eclipse.che.multiuser.api.permission.server.PermissionCheckerImpl;
+import org.eclipse.che.multiuser.api.permission.server.cache.DefaultPermissionsInvalidationChannel;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsCacheMetricsModule;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsInvalidationChannel;
 import org.eclipse.che.multiuser.api.workspace.activity.MultiUserWorkspaceActivityModule;
 import org.eclipse.che.multiuser.keycloak.server.deploy.KeycloakModule;
 import org.eclipse.che.multiuser.machine.authentication.server.MachineAuthModule;
@@ -280,6 +283,11 @@ public class WsMasterModule extends AbstractModule {
     } else {
       install(new LocalDockerModule());
       install(new DockerInfraModule());
+      if (Boolean.valueOf(System.getenv("CHE_METRICS_ENABLED"))) {
+        install(
+            new org.eclipse.che.infrastructure.docker.client.connection
+                .DockerConnectionMetricsModule());
+      }
     }
 
     bind(org.eclipse.che.api.user.server.AppStatesPreferenceCleaner.class);
@@ -330,6 +338,9 @@ public class WsMasterModule extends AbstractModule {
     if (OpenShiftInfrastructure.NAME.equals(infrastructure)
         || KubernetesInfrastructure.NAME.equals(infrastructure)) {
       install(new ReplicationModule(persistenceProperties));
+      if (Boolean.valueOf(System.getenv("CHE_METRICS_ENABLED"))) {
+        install(new org.eclipse.che.multiuser.api.distributed.lock.WorkspaceLockMetricsModule());
+      }
       bind(
           org.eclipse.che.multiuser.permission.workspace.infra.kubernetes
               .BrokerServicePermissionFilter.class);
@@ -341,6 +352,7 @@ public class WsMasterModule extends AbstractModule {
           .to(org.eclipse.che.api.workspace.server.DefaultWorkspaceLockService.class);
       bind(WorkspaceStatusCache.class)
           .to(org.eclipse.che.api.workspace.server.DefaultWorkspaceStatusCache.class);
+      bind(PermissionsInvalidationChannel.class).to(DefaultPermissionsInvalidationChannel.class);
     }
 
     if (OpenShiftInfrastructure.NAME.equals(infrastructure)) {
@@ -356,6 +368,9 @@ public class WsMasterModule extends AbstractModule {
 
     install(new org.eclipse.che.multiuser.api.permission.server.jpa.SystemPermissionsJpaModule());
     install(new org.eclipse.che.multiuser.api.permission.server.PermissionsModule());
+    if (Boolean.valueOf(System.getenv("CHE_METRICS_ENABLED"))) {
+      install(new PermissionsCacheMetricsModule());
+    }
     install(
         new org.eclipse.che.multiuser.permission.workspace.server.WorkspaceApiPermissionsModule());
     install(
@@ -15,7 +15,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.websocket.commons.WebSocketMessageReceiver;
@@ -24,8 +23,9 @@ import org.slf4j.Logger;
 /**
  * Receives and process messages coming from web socket service. Basically it validates, qualifies
  * and transforms a raw web socket message to a JSON RPC known structure and pass it further to
- * appropriate dispatchers. In case of any {@link JsonRpcException} happens during request/response
- * processing this class is also responsible for an error transmission.
+ * appropriate dispatchers. The message is parsed only once, validation and qualification are
+ * performed on the parsed structure. In case of any {@link JsonRpcException} happens during
+ * request/response processing this class is also responsible for an error transmission.
  */
 @Singleton
 public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
@@ -34,7 +34,6 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
   private final RequestDispatcher requestDispatcher;
   private final ResponseDispatcher responseDispatcher;
   private final JsonRpcErrorTransmitter errorTransmitter;
-  private final JsonRpcQualifier jsonRpcQualifier;
   private final JsonRpcUnmarshaller jsonRpcUnmarshaller;
   private final RequestProcessor requestProcessor;
 
@@ -43,13 +42,11 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
       RequestDispatcher requestDispatcher,
       ResponseDispatcher responseDispatcher,
       JsonRpcErrorTransmitter errorTransmitter,
-      JsonRpcQualifier jsonRpcQualifier,
       JsonRpcUnmarshaller jsonRpcUnmarshaller,
       RequestProcessor requestProcessor) {
     this.requestDispatcher = requestDispatcher;
     this.responseDispatcher = responseDispatcher;
     this.errorTransmitter = errorTransmitter;
-    this.jsonRpcQualifier = jsonRpcQualifier;
     this.jsonRpcUnmarshaller = jsonRpcUnmarshaller;
     this.requestProcessor = requestProcessor;
   }
@@ -62,53 +59,50 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
     checkArgument(!message.isEmpty(), "Message must not be empty");
 
     LOGGER.debug("Receiving message: " + message + ", from endpoint: " + endpointId);
-    if (!jsonRpcQualifier.isValidJson(message)) {
-      String error = "An error occurred on the server while parsing the JSON text";
-      errorTransmitter.transmit(endpointId, new JsonRpcException(-32700, error));
+    try {
+      jsonRpcUnmarshaller.unmarshal(
+          message,
+          request -> processRequest(endpointId, request),
+          response -> responseDispatcher.dispatch(endpointId, response));
+    } catch (JsonRpcException e) {
+      LOGGER.debug("Can't process message from endpoint {}: {}", endpointId, e.getMessage());
+      errorTransmitter.transmit(endpointId, e);
     }
+  }
 
-    List<String> messages = jsonRpcUnmarshaller.unmarshalArray(message);
-    for (String innerMessage : messages) {
-      if (jsonRpcQualifier.isJsonRpcRequest(innerMessage)) {
-        requestProcessor.process(new ProcessRequestTask(endpointId, innerMessage));
-      } else if (jsonRpcQualifier.isJsonRpcResponse(innerMessage)) {
-        processResponse(endpointId, innerMessage);
+  private void processRequest(String endpointId, JsonRpcRequest request) {
+    try {
+      requestProcessor.process(endpointId, request, new ProcessRequestTask(endpointId, request));
+    } catch (JsonRpcException e) {
+      if (request.hasId()) {
+        errorTransmitter.transmit(
+            endpointId, new JsonRpcException(e.getCode(), e.getMessage(), request.getId()));
       } else {
-        processError();
+        LOGGER.warn(
+            "Notification '{}' from endpoint '{}' is dropped: {}",
+            request.getMethod(),
+            endpointId,
+            e.getMessage());
       }
     }
   }
 
-  private void processError() {
-    String error = "Something wen't wrong during incoming websocket message parsing";
-    IllegalStateException exception = new IllegalStateException(error);
-    LOGGER.error(error, exception);
-    throw exception;
-  }
-
-  private void processResponse(String endpointId, String innerMessage) {
-    JsonRpcResponse response = jsonRpcUnmarshaller.unmarshalResponse(innerMessage);
-    responseDispatcher.dispatch(endpointId, response);
-  }
-
   private class ProcessRequestTask implements Runnable {
 
     private final String endpointId;
-    private final String innerMessage;
+    private final JsonRpcRequest request;
 
-    public ProcessRequestTask(String endpointId, String innerMessage) {
+    public ProcessRequestTask(String endpointId, JsonRpcRequest request) {
       this.endpointId = endpointId;
-      this.innerMessage = innerMessage;
+      this.request = request;
     }
 
     @Override
     public void run() {
-      JsonRpcRequest request = null;
       try {
-        request = jsonRpcUnmarshaller.unmarshalRequest(innerMessage);
         requestDispatcher.dispatch(endpointId, request);
       } catch (JsonRpcException e) {
-        if (request == null || request.getId() == null) {
+        if (request.getId() == null) {
           errorTransmitter.transmit(endpointId, e);
         } else {
           errorTransmitter.transmit(
@@ -119,7 +113,7 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
 
     @Override
     public String toString() {
-      return "JsonRPC request `" + innerMessage + "` for " + endpointId;
+      return "JsonRPC request `" + request.getMethod() + "` for " + endpointId;
     }
   }
 }
@@ -12,6 +12,7 @@
 package org.eclipse.che.api.core.jsonrpc.commons;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /** Transforms plain text messages into JSON RPC structures. */
 public interface JsonRpcUnmarshaller {
@@ -24,6 +25,22 @@ public interface JsonRpcUnmarshaller {
    */
   List<String> unmarshalArray(String message);
 
+  /**
+   * Parses a plain text message, that is either a single JSON RPC structure or an array of them,
+   * in a single pass. Every element is classified and passed to the corresponding consumer in the
+   * order of appearance without going back through its text representation.
+   *
+   * @param message incoming message
+   * @param requestConsumer consumer of parsed requests and notifications
+   * @param responseConsumer consumer of parsed responses
+   * @throws JsonRpcException with code -32700 if the message is not a valid JSON, or with code
+   *     -32600 if an element is neither a request nor a response
+   */
+  void unmarshal(
+      String message,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer);
+
   /**
    * Creates a request out of a plain text message
    *
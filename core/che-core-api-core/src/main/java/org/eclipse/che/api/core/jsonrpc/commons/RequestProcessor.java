@@ -19,4 +19,17 @@ public interface RequestProcessor {
    * @param runnable runnable to be called for processing of a request
    */
   void process(Runnable runnable);
+
+  /**
+   * Process a runnable interface that handles a request received from an endpoint. Implementations
+   * may use the endpoint and the request to schedule the processing.
+   *
+   * @param endpointId endpoint the request is received from
+   * @param request request that is handled by the runnable
+   * @param runnable runnable to be called for processing of the request
+   * @throws JsonRpcException when the request can't be accepted for processing
+   */
+  default void process(String endpointId, JsonRpcRequest request, Runnable runnable) {
+    process(runnable);
+  }
 }
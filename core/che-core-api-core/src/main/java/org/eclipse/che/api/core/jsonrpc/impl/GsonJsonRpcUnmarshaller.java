@@ -18,13 +18,16 @@ import static java.util.Collections.singletonList;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
@@ -45,6 +48,33 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     return getArray(message, jsonParser.parse(message).isJsonArray());
   }
 
+  @Override
+  public void unmarshal(
+      String message,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer) {
+    checkNotNull(message, "Message must not be null");
+    checkArgument(!message.isEmpty(), "Message must not be empty");
+
+    JsonElement root;
+    try {
+      root = jsonParser.parse(message);
+    } catch (JsonParseException e) {
+      throw new JsonRpcException(
+          -32700, "An error occurred on the server while parsing the JSON text");
+    }
+
+    if (!root.isJsonArray()) {
+      unmarshalElement(root, requestConsumer, responseConsumer);
+      return;
+    }
+
+    JsonArray jsonArray = root.getAsJsonArray();
+    for (int i = 0; i < jsonArray.size(); i++) {
+      unmarshalElement(jsonArray.get(i), requestConsumer, responseConsumer);
+    }
+  }
+
   @Override
   public JsonRpcRequest unmarshalRequest(String message) {
     checkNotNull(message, "Message must not be null");
@@ -73,6 +103,26 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     return new JsonRpcResponse(id, result, error);
   }
 
+  private void unmarshalElement(
+      JsonElement jsonElement,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer) {
+    if (!jsonElement.isJsonObject()) {
+      throw new JsonRpcException(-32600, "JSON RPC message must be an object");
+    }
+
+    JsonObject jsonObject = jsonElement.getAsJsonObject();
+    if (jsonObject.has("method")) {
+      requestConsumer.accept(
+          new JsonRpcRequest(getId(jsonObject), getMethod(jsonObject), getParams(jsonObject)));
+    } else if (jsonObject.has("error") != jsonObject.has("result")) {
+      responseConsumer.accept(
+          new JsonRpcResponse(getId(jsonObject), getResult(jsonObject), getError(jsonObject)));
+    } else {
+      throw new JsonRpcException(-32600, "JSON RPC message is neither a request nor a response");
+    }
+  }
+
   private JsonRpcError getError(JsonObject response) {
     if (!response.has("error")) {
       return null;
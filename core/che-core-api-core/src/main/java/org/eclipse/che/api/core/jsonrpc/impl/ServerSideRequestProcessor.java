@@ -13,40 +13,83 @@ package org.eclipse.che.api.core.jsonrpc.impl;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.SynchronousQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Named;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Processes requests on a bounded pool of threads. Requests are queued per endpoint in bounded
+ * queues and taken for processing in a round-robin manner, so a single chatty endpoint can't starve
+ * the others. Requests of an endpoint are taken in the order they came, so a request never
+ * overtakes a notification that changed the state it depends on. Lanes only decide which endpoint
+ * goes next: endpoints waiting with a request for the configured priority methods go first, then
+ * endpoints waiting with other requests and then with notifications. When an endpoint queue is full
+ * the request is rejected with {@link JsonRpcException} that is reported back to the caller.
+ */
 @Singleton
 public class ServerSideRequestProcessor implements RequestProcessor {
 
   private static final Logger LOG = LoggerFactory.getLogger(ServerSideRequestProcessor.class);
 
-  private ExecutorService executorService;
+  /** Implementation defined server error code used when a request can't be queued. */
+  static final int SERVER_OVERLOADED_ERROR_CODE = -32000;
+
+  /** Endpoint key for runnables that are processed without an endpoint. */
+  private static final String NO_ENDPOINT = "";
+
   private final int maxPoolSize;
+  private final int endpointQueueCapacity;
+  private final Set<String> priorityMethods;
+
+  private final Map<String, EndpointQueue> endpointQueues = new HashMap<>();
+  private final Map<Lane, Deque<EndpointQueue>> readyQueues = new EnumMap<>(Lane.class);
+  private int queuedCount;
+
+  private final LongAdder rejectedCount = new LongAdder();
+  private final LongAdder processedCount = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
+
+  private ThreadPoolExecutor executorService;
 
   @Inject
   public ServerSideRequestProcessor(
-      @Named("che.core.jsonrpc.processor_max_pool_size") int maxPoolSize) {
+      @Named("che.core.jsonrpc.processor_max_pool_size") int maxPoolSize,
+      @Named("che.core.jsonrpc.processor_endpoint_queue_capacity") int endpointQueueCapacity,
+      @Named("che.core.jsonrpc.processor_priority_methods") String[] priorityMethods) {
     this.maxPoolSize = maxPoolSize;
+    this.endpointQueueCapacity = endpointQueueCapacity;
+    this.priorityMethods = ImmutableSet.copyOf(priorityMethods);
+    for (Lane lane : Lane.values()) {
+      readyQueues.put(lane, new ArrayDeque<>());
+    }
     LOG.debug("che.core.jsonrpc.processor_max_pool_size {}  ", maxPoolSize);
+    LOG.debug("che.core.jsonrpc.processor_endpoint_queue_capacity {}  ", endpointQueueCapacity);
   }
 
   @PostConstruct
-  private void postConstruct() {
+  void postConstruct() {
     ThreadFactory factory =
         new ThreadFactoryBuilder()
             .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
@@ -54,16 +97,16 @@ public class ServerSideRequestProcessor implements RequestProcessor {
             .setDaemon(true)
             .build();
 
+    // queue of the executor only holds 'take next' signals, the requests itself are
+    // held in the endpoint queues which are bounded
     executorService =
         new ThreadPoolExecutor(
-            0, maxPoolSize, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
-    ((ThreadPoolExecutor) executorService)
-        .setRejectedExecutionHandler(
-            (r, executor) -> LOG.warn("Message {} rejected for execution", r));
+            maxPoolSize, maxPoolSize, 60L, SECONDS, new LinkedBlockingQueue<>(), factory);
+    executorService.allowCoreThreadTimeOut(true);
   }
 
   @PreDestroy
-  private void preDestroy() {
+  void preDestroy() {
     executorService.shutdown();
     try {
       if (executorService.awaitTermination(5, SECONDS)) {
@@ -78,6 +121,139 @@ public class ServerSideRequestProcessor implements RequestProcessor {
 
   @Override
   public void process(Runnable runnable) {
-    executorService.execute(ThreadLocalPropagateContext.wrap(runnable));
+    enqueue(NO_ENDPOINT, Lane.REQUEST, runnable);
+  }
+
+  @Override
+  public void process(String endpointId, JsonRpcRequest request, Runnable runnable) {
+    Lane lane;
+    if (priorityMethods.contains(request.getMethod())) {
+      lane = Lane.PRIORITY;
+    } else if (request.hasId()) {
+      lane = Lane.REQUEST;
+    } else {
+      lane = Lane.NOTIFICATION;
+    }
+    enqueue(endpointId, lane, runnable);
+  }
+
+  /** Returns the number of requests that are waiting for processing. */
+  public synchronized int getQueuedCount() {
+    return queuedCount;
+  }
+
+  /** Returns the number of requests rejected because of the endpoint queue overflow. */
+  public long getRejectedCount() {
+    return rejectedCount.sum();
+  }
+
+  /** Returns the number of requests taken for processing. */
+  public long getProcessedCount() {
+    return processedCount.sum();
+  }
+
+  /** Returns the total time processed requests spent in the queue. */
+  public double getTotalWaitTime(TimeUnit unit) {
+    return (double) totalWaitNanos.sum() / unit.toNanos(1);
+  }
+
+  private void enqueue(String endpointId, Lane lane, Runnable runnable) {
+    QueuedTask task =
+        new QueuedTask(lane, ThreadLocalPropagateContext.wrap(runnable), System.nanoTime());
+    synchronized (this) {
+      EndpointQueue queue = endpointQueues.computeIfAbsent(endpointId, EndpointQueue::new);
+      if (queue.size() >= endpointQueueCapacity) {
+        rejectedCount.increment();
+        LOG.warn("Message {} rejected for execution, queue of endpoint is full", runnable);
+        throw new JsonRpcException(
+            SERVER_OVERLOADED_ERROR_CODE,
+            "Server is overloaded, too many requests are pending for processing");
+      }
+      if (queue.add(task)) {
+        readyQueues.get(lane).addLast(queue);
+      }
+      queuedCount++;
+    }
+    executorService.execute(this::processNext);
+  }
+
+  private void processNext() {
+    QueuedTask task = poll();
+    if (task == null) {
+      return;
+    }
+    processedCount.increment();
+    totalWaitNanos.add(System.nanoTime() - task.queuedAt);
+    task.runnable.run();
+  }
+
+  /**
+   * Takes the first task of an endpoint from the highest non empty lane, endpoints of the lane are
+   * taken in turn. The endpoint is then moved to the lane of its next task.
+   */
+  private synchronized QueuedTask poll() {
+    for (Lane lane : Lane.values()) {
+      Deque<EndpointQueue> ready = readyQueues.get(lane);
+      EndpointQueue queue = ready.pollFirst();
+      if (queue == null) {
+        continue;
+      }
+      QueuedTask task = queue.poll();
+      QueuedTask next = queue.peek();
+      if (next != null) {
+        readyQueues.get(next.lane).addLast(queue);
+      } else {
+        endpointQueues.remove(queue.endpointId);
+      }
+      queuedCount--;
+      return task;
+    }
+    return null;
+  }
+
+  /** Processing lanes in order of their priority. */
+  private enum Lane {
+    PRIORITY,
+    REQUEST,
+    NOTIFICATION
+  }
+
+  private static class QueuedTask {
+    private final Lane lane;
+    private final Runnable runnable;
+    private final long queuedAt;
+
+    private QueuedTask(Lane lane, Runnable runnable, long queuedAt) {
+      this.lane = lane;
+      this.runnable = runnable;
+      this.queuedAt = queuedAt;
+    }
+  }
+
+  private static class EndpointQueue {
+    private final String endpointId;
+    private final Deque<QueuedTask> tasks = new ArrayDeque<>();
+
+    private EndpointQueue(String endpointId) {
+      this.endpointId = endpointId;
+    }
+
+    /** Adds the task and returns true if the queue was empty before. */
+    private boolean add(QueuedTask task) {
+      tasks.addLast(task);
+      return tasks.size() == 1;
+    }
+
+    private QueuedTask poll() {
+      return tasks.pollFirst();
+    }
+
+    private QueuedTask peek() {
+      return tasks.peekFirst();
+    }
+
+    private int size() {
+      return tasks.size();
+    }
   }
 }
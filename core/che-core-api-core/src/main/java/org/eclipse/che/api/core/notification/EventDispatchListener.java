@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Receives timings of the events dispatched by {@link EventService}. Methods are called on the
+ * publisher and subscriber threads, so implementations must be thread safe and fast.
+ *
+ * @see EventService#setDispatchListener(EventDispatchListener)
+ */
+public interface EventDispatchListener {
+
+  /**
+   * Called when the event has been published. For synchronous subscribers the time includes the
+   * processing of the event, asynchronous subscribers are only notified about the event.
+   *
+   * @param eventType concrete type of the published event
+   * @param nanos time the publisher spent publishing the event
+   */
+  void onPublished(Class<?> eventType, long nanos);
+
+  /**
+   * Called when a subscriber has processed the event.
+   *
+   * @param eventType concrete type of the processed event
+   * @param nanos time the subscriber spent processing the event
+   */
+  void onDelivered(Class<?> eventType, long nanos);
+}
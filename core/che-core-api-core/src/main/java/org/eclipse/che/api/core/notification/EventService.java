@@ -11,19 +11,30 @@
  */
 package org.eclipse.che.api.core.notification;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,50 +52,41 @@ import org.slf4j.LoggerFactory;
  *     bus.publish(new MyEvent());
  * </pre>
  *
+ * <p>Subscribers registered with {@link #subscribe(EventSubscriber)} are called on the publisher
+ * thread. Subscribers registered with {@link #subscribeAsync(EventSubscriber)} are called on a
+ * shared pool of threads, each of them has its own mailbox so events are processed by the
+ * subscriber one by one in order of publishing, and a slow subscriber doesn't block the publisher.
+ *
  * @author andrew00x
  */
 @Singleton
 public class EventService {
   private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
-  private static final int CACHE_NUM = 1 << 2;
-  private static final int CACHE_MASK = CACHE_NUM - 1;
-  private static final int SEG_SIZE = 32;
+  /** Max number of events processed by a mailbox before it gives the thread to other mailboxes. */
+  private static final int MAILBOX_BATCH_SIZE = 64;
 
-  private final LoadingCache<Class<?>, Set<Class<?>>>[] typeCache;
-  private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+  private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+  /** Event type -> subscriptions, values are never modified but replaced. */
+  private final ConcurrentMap<Class<?>, Map<EventSubscriber, Subscription>> subscribersByEventType;
+
+  /** Event type -> event type and all its super types and interfaces. */
+  private final ConcurrentMap<Class<?>, Class<?>[]> typeHierarchy;
+
+  /**
+   * Concrete event type -> subscriptions for all the types of its hierarchy. The map is replaced
+   * on each subscription change, so concurrent dispatching can't put outdated subscriptions in it.
+   */
+  private volatile ConcurrentMap<Class<?>, Subscription[]> dispatchCache;
+
+  private volatile EventDispatchListener dispatchListener;
+  private volatile ExecutorService asyncExecutor;
 
-  @SuppressWarnings("unchecked")
   public EventService() {
     subscribersByEventType = new ConcurrentHashMap<>();
-    typeCache = new LoadingCache[CACHE_NUM];
-    for (int i = 0; i < CACHE_NUM; i++) {
-      typeCache[i] =
-          CacheBuilder.newBuilder()
-              .concurrencyLevel(SEG_SIZE)
-              .build(
-                  new CacheLoader<Class<?>, Set<Class<?>>>() {
-                    @Override
-                    public Set<Class<?>> load(Class<?> eventClass) {
-                      LinkedList<Class<?>> parents = new LinkedList<>();
-                      Set<Class<?>> classes = new HashSet<>();
-                      parents.add(eventClass);
-                      while (!parents.isEmpty()) {
-                        Class<?> clazz = parents.pop();
-                        classes.add(clazz);
-                        Class<?> parent = clazz.getSuperclass();
-                        if (parent != null) {
-                          parents.add(parent);
-                        }
-                        Class<?>[] interfaces = clazz.getInterfaces();
-                        if (interfaces.length > 0) {
-                          Collections.addAll(parents, interfaces);
-                        }
-                      }
-                      return classes;
-                    }
-                  });
-    }
+    typeHierarchy = new ConcurrentHashMap<>();
+    dispatchCache = new ConcurrentHashMap<>();
   }
 
   /**
@@ -93,28 +95,76 @@ public class EventService {
    * @param event event
    * @return published event
    */
-  @SuppressWarnings("unchecked")
   public <T> T publish(T event) {
     if (event == null) {
       throw new IllegalArgumentException("Null event.");
     }
+    final EventDispatchListener listener = dispatchListener;
+    final long start = listener != null ? System.nanoTime() : 0;
     final Class<?> eventClass = event.getClass();
-    for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-      final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-      if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-        for (EventSubscriber eventSubscriber : eventSubscribers) {
-          try {
-            LOG.debug("Publish event {} for {}", event, eventSubscriber);
-            eventSubscriber.onEvent(event);
-          } catch (RuntimeException e) {
-            LOG.error(e.getMessage(), e);
-          }
-        }
+    for (Subscription subscription : getSubscriptions(eventClass)) {
+      if (subscription.async) {
+        subscription.mailbox.post(() -> deliver(subscription, eventClass, event));
+      } else {
+        deliver(subscription, eventClass, event);
       }
     }
+    if (listener != null) {
+      listener.onPublished(eventClass, System.nanoTime() - start);
+    }
     return event;
   }
 
+  /**
+   * Publish event {@code event} without blocking the caller. All the subscribers, including
+   * synchronous ones, are called on the shared pool of threads. Events published with this method
+   * are processed by each subscriber in order of publishing.
+   *
+   * @param event event
+   * @return future which is completed with the published event when all the subscribers processed
+   *     the event, subscriber failures are logged and don't fail the future
+   */
+  public <T> CompletableFuture<T> publishAsync(T event) {
+    if (event == null) {
+      throw new IllegalArgumentException("Null event.");
+    }
+    final EventDispatchListener listener = dispatchListener;
+    final long start = listener != null ? System.nanoTime() : 0;
+    final Class<?> eventClass = event.getClass();
+    final Subscription[] subscriptions = getSubscriptions(eventClass);
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    if (subscriptions.length == 0) {
+      future.complete(event);
+    } else {
+      final AtomicInteger remaining = new AtomicInteger(subscriptions.length);
+      for (Subscription subscription : subscriptions) {
+        subscription.mailbox.post(
+            () -> {
+              try {
+                deliver(subscription, eventClass, event);
+              } finally {
+                if (remaining.decrementAndGet() == 0) {
+                  future.complete(event);
+                }
+              }
+            });
+      }
+    }
+    if (listener != null) {
+      listener.onPublished(eventClass, System.nanoTime() - start);
+    }
+    return future;
+  }
+
+  /**
+   * Sets a listener of the event dispatching timings, e.g. to collect metrics.
+   *
+   * @param listener listener or null to stop collecting timings
+   */
+  public void setDispatchListener(EventDispatchListener listener) {
+    this.dispatchListener = listener;
+  }
+
   /**
    * Subscribe event listener. The event to subscribe to is inferred by checking the generic type
    * arguments of the given subscriber.
@@ -123,7 +173,7 @@ public class EventService {
    */
   public void subscribe(EventSubscriber<?> subscriber) {
     final Class<?> eventType = getEventType(subscriber);
-    doSubscribe(subscriber, eventType);
+    doSubscribe(subscriber, eventType, false);
   }
 
   /**
@@ -134,19 +184,44 @@ public class EventService {
    * @param eventType The event to subscribe to.
    */
   public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-    doSubscribe(subscriber, eventType);
+    doSubscribe(subscriber, eventType, false);
+  }
+
+  /**
+   * Subscribe event listener which is called asynchronously. The event to subscribe to is inferred
+   * by checking the generic type arguments of the given subscriber.
+   *
+   * @param subscriber event subscriber
+   */
+  public void subscribeAsync(EventSubscriber<?> subscriber) {
+    final Class<?> eventType = getEventType(subscriber);
+    doSubscribe(subscriber, eventType, true);
+  }
+
+  /**
+   * Subscribe to an event asynchronously. The given subscriber will be called on the shared pool
+   * of threads whenever an instance of the specified event is published, the subscriber processes
+   * events one by one in order of publishing.
+   *
+   * @param subscriber The subscriber to call when an event is published.
+   * @param eventType The event to subscribe to.
+   */
+  public <T> void subscribeAsync(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
+    doSubscribe(subscriber, eventType, true);
   }
 
-  private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-    Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
-    if (entries == null) {
-      Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
-      entries = subscribersByEventType.putIfAbsent(eventType, newEntries);
-      if (entries == null) {
-        entries = newEntries;
+  private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType, boolean async) {
+    synchronized (subscribersByEventType) {
+      final Map<EventSubscriber, Subscription> entries = subscribersByEventType.get(eventType);
+      if (entries != null && entries.containsKey(subscriber)) {
+        return;
       }
+      final Map<EventSubscriber, Subscription> newEntries =
+          entries == null ? new LinkedHashMap<>() : new LinkedHashMap<>(entries);
+      newEntries.put(subscriber, new Subscription(subscriber, async));
+      subscribersByEventType.put(eventType, newEntries);
+      dispatchCache = new ConcurrentHashMap<>();
     }
-    entries.add(subscriber);
   }
 
   /**
@@ -164,17 +239,99 @@ public class EventService {
   }
 
   private void doUnsubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-    final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
-    if (entries != null && !entries.isEmpty()) {
-      boolean changed = entries.remove(subscriber);
-      if (changed) {
-        if (entries.isEmpty()) {
+    synchronized (subscribersByEventType) {
+      final Map<EventSubscriber, Subscription> entries = subscribersByEventType.get(eventType);
+      if (entries != null && entries.containsKey(subscriber)) {
+        if (entries.size() == 1) {
           subscribersByEventType.remove(eventType);
+        } else {
+          final Map<EventSubscriber, Subscription> newEntries = new LinkedHashMap<>(entries);
+          newEntries.remove(subscriber);
+          subscribersByEventType.put(eventType, newEntries);
         }
+        dispatchCache = new ConcurrentHashMap<>();
       }
     }
   }
 
+  private Subscription[] getSubscriptions(Class<?> eventClass) {
+    final ConcurrentMap<Class<?>, Subscription[]> cache = dispatchCache;
+    Subscription[] subscriptions = cache.get(eventClass);
+    if (subscriptions == null) {
+      final List<Subscription> result = new ArrayList<>();
+      for (Class<?> clazz : typeHierarchy.computeIfAbsent(eventClass, EventService::getHierarchy)) {
+        final Map<EventSubscriber, Subscription> entries = subscribersByEventType.get(clazz);
+        if (entries != null) {
+          result.addAll(entries.values());
+        }
+      }
+      subscriptions = result.isEmpty() ? NO_SUBSCRIPTIONS : result.toArray(NO_SUBSCRIPTIONS);
+      cache.putIfAbsent(eventClass, subscriptions);
+    }
+    return subscriptions;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void deliver(Subscription subscription, Class<?> eventClass, Object event) {
+    final EventDispatchListener listener = dispatchListener;
+    final long start = listener != null ? System.nanoTime() : 0;
+    try {
+      LOG.debug("Publish event {} for {}", event, subscription.subscriber);
+      subscription.subscriber.onEvent(event);
+    } catch (RuntimeException e) {
+      LOG.error(e.getMessage(), e);
+    }
+    if (listener != null) {
+      listener.onDelivered(eventClass, System.nanoTime() - start);
+    }
+  }
+
+  private ExecutorService getAsyncExecutor() {
+    ExecutorService executor = asyncExecutor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = asyncExecutor;
+        if (executor == null) {
+          final int poolSize = Runtime.getRuntime().availableProcessors();
+          final ThreadPoolExecutor pool =
+              new ThreadPoolExecutor(
+                  poolSize,
+                  poolSize,
+                  60L,
+                  TimeUnit.SECONDS,
+                  new LinkedBlockingQueue<>(),
+                  new ThreadFactoryBuilder()
+                      .setNameFormat(EventService.class.getSimpleName() + "-%d")
+                      .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                      .setDaemon(true)
+                      .build());
+          pool.allowCoreThreadTimeOut(true);
+          asyncExecutor = executor = pool;
+        }
+      }
+    }
+    return executor;
+  }
+
+  private static Class<?>[] getHierarchy(Class<?> eventClass) {
+    final LinkedList<Class<?>> parents = new LinkedList<>();
+    final Set<Class<?>> classes = new LinkedHashSet<>();
+    parents.add(eventClass);
+    while (!parents.isEmpty()) {
+      final Class<?> clazz = parents.pop();
+      classes.add(clazz);
+      final Class<?> parent = clazz.getSuperclass();
+      if (parent != null) {
+        parents.add(parent);
+      }
+      final Class<?>[] interfaces = clazz.getInterfaces();
+      if (interfaces.length > 0) {
+        Collections.addAll(parents, interfaces);
+      }
+    }
+    return classes.toArray(new Class<?>[0]);
+  }
+
   private Class<?> getEventType(EventSubscriber<?> subscriber) {
     Class<?> eventType = null;
     Class<?> clazz = subscriber.getClass();
@@ -201,4 +358,49 @@ public class EventService {
     }
     return eventType;
   }
+
+  private final class Subscription {
+    private final EventSubscriber subscriber;
+    private final boolean async;
+    private final Mailbox mailbox = new Mailbox();
+
+    private Subscription(EventSubscriber subscriber, boolean async) {
+      this.subscriber = subscriber;
+      this.async = async;
+    }
+  }
+
+  /** Runs posted deliveries one by one in order of posting on the shared pool of threads. */
+  private final class Mailbox implements Runnable {
+    private final Queue<Runnable> deliveries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private void post(Runnable delivery) {
+      deliveries.add(delivery);
+      schedule();
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        getAsyncExecutor().execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      Runnable delivery;
+      int processed = 0;
+      try {
+        while (processed++ < MAILBOX_BATCH_SIZE && (delivery = deliveries.poll()) != null) {
+          delivery.run();
+        }
+      } finally {
+        // the mailbox must keep running even if a delivery fails with an error
+        scheduled.set(false);
+        if (!deliveries.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+  }
 }
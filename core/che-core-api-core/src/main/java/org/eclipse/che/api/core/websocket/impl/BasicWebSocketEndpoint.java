@@ -68,8 +68,20 @@ public abstract class BasicWebSocketEndpoint {
     session.setMaxIdleTimeout(0);
 
     registry.add(combinedEndpointId, session);
-    reSender.resend(combinedEndpointId);
     sessionMessagesBuffer.put(session, new StringBuffer());
+
+    String lastSeq =
+        getQueryParamsMap(session.getQueryString()).get(MessagesReSender.LAST_SEQ_PARAMETER);
+    if (lastSeq == null) {
+      reSender.resend(combinedEndpointId);
+    } else {
+      try {
+        reSender.resume(combinedEndpointId, session, Long.parseLong(lastSeq));
+      } catch (NumberFormatException e) {
+        LOG.warn("Illegal last sequence number '{}', replaying all the messages", lastSeq);
+        reSender.resume(combinedEndpointId, session, 0);
+      }
+    }
   }
 
   @OnMessage
@@ -124,6 +136,7 @@ public abstract class BasicWebSocketEndpoint {
       LOG.debug("Close reason: {}:{}", closeReason.getReasonPhrase(), closeReason.getCloseCode());
 
       registry.remove(combinedEndpointId);
+      reSender.suspend(combinedEndpointId);
       sessionMessagesBuffer.remove(session);
     } else {
       LOG.warn("Closing unidentified session");
@@ -24,7 +24,8 @@ import org.slf4j.Logger;
 /**
  * Transmits messages over WEB SOCKET to a specific endpoint or broadcasts them. If WEB SOCKET
  * session is not opened adds messages to re-sender to try to send them when session will be opened
- * again.
+ * again. Messages of the endpoints that use sequenced mode are always sent by {@link
+ * MessagesReSender}.
  *
  * @author Dmitry Kuleshov
  */
@@ -44,10 +45,22 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
 
   @Override
   public synchronized void transmit(String endpointId, String message) {
+    if (reSender.transmit(endpointId, message)) {
+      LOG.debug("Endpoint uses sequenced mode, message is sent by re-sender");
+      return;
+    }
+
     Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent()) {
       sessionOptional = registry.getByPartialMatch(endpointId).stream().findFirst();
+
+      Optional<String> combinedEndpointId = sessionOptional.flatMap(registry::get);
+      if (combinedEndpointId.isPresent()
+          && reSender.transmit(combinedEndpointId.get(), message)) {
+        LOG.debug("Endpoint uses sequenced mode, message is sent by re-sender");
+        return;
+      }
     }
 
     if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
@@ -11,60 +11,135 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import com.google.common.collect.EvictingQueue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gson.JsonPrimitive;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period when WEB
  * SOCKET session was closed. If session is closed during re-send process it stops and left messages
  * will be re-sent as WEB SOCKET session becomes open again.
  *
+ * <p>Clients that pass {@value #LAST_SEQ_PARAMETER} query parameter on connection use sequenced
+ * mode. All the messages sent to such a client are numbered per endpoint starting from 1 and kept
+ * in a replay buffer, including the delivered ones, as the client may have not received them before
+ * the connection was lost. Messages are sent in frames:
+ *
+ * <pre>
+ *     {"seq":&lt;sequence number of the first message&gt;,"messages":["message",...]}
+ * </pre>
+ *
+ * On reconnection the client passes the sequence number of the last message it received and all
+ * the following messages are replayed in batched frames. If the messages the client expects are
+ * already evicted from the buffer the client detects the gap by the sequence number of the first
+ * replayed message. If the sequence number of a frame is not greater than the last one the client
+ * received, the sequence is restarted, e.g. because of the server restart.
+ *
+ * <p>Frames of a sequenced endpoint are sent out of the buffer lock by a single thread at a time,
+ * so a slow client doesn't block the other threads that transmit messages to it.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
+  private static final Logger LOG = LoggerFactory.getLogger(MessagesReSender.class);
 
-  private static final int MAX_MESSAGES = 100;
+  /** Query parameter which holds the sequence number of the last message a client received. */
+  public static final String LAST_SEQ_PARAMETER = "lastSeq";
 
   private final WebSocketSessionRegistry registry;
+  private final long maxBufferBytes;
+  private final Path spillDir;
+  private final long maxSpillBytes;
+  private final int maxFrameBytes;
+  private final long retentionMillis;
 
-  private final Map<String, Queue<DelayedMessage>> delayedMessageRegistry =
-      new ConcurrentHashMap<>();
+  private final Map<String, EndpointBuffer> buffers = new ConcurrentHashMap<>();
 
   @Inject
-  public MessagesReSender(WebSocketSessionRegistry registry) {
+  public MessagesReSender(
+      WebSocketSessionRegistry registry,
+      @Named("che.websocket.replay.buffer_bytes") long maxBufferBytes,
+      @Nullable @Named("che.websocket.replay.spill_dir") String spillDir,
+      @Named("che.websocket.replay.spill_bytes") long maxSpillBytes,
+      @Named("che.websocket.replay.frame_bytes") int maxFrameBytes,
+      @Named("che.websocket.replay.retention_seconds") long retentionSeconds) {
     this.registry = registry;
+    this.maxBufferBytes = maxBufferBytes;
+    this.spillDir = spillDir == null ? null : Paths.get(spillDir);
+    this.maxSpillBytes = maxSpillBytes;
+    this.maxFrameBytes = maxFrameBytes;
+    this.retentionMillis = TimeUnit.SECONDS.toMillis(retentionSeconds);
   }
 
   @ScheduleDelay(initialDelay = 60, delay = 60)
   void cleanStaleMessages() {
-    long currentTimeMillis = System.currentTimeMillis();
+    long now = System.currentTimeMillis();
+    long staleTime = now - retentionMillis;
 
-    delayedMessageRegistry
+    buffers
         .values()
-        .forEach(it -> it.removeIf(m -> currentTimeMillis - m.timeMillis > 60_000));
+        .removeIf(
+            buffer -> {
+              synchronized (buffer) {
+                boolean abandoned =
+                    buffer.sequenced && buffer.session == null && buffer.detachedAt < staleTime;
+                if (abandoned) {
+                  buffer.messages.clear();
+                } else {
+                  buffer.messages.trimOlderThan(staleTime);
+                }
+                buffer.retired = abandoned || (!buffer.sequenced && buffer.messages.isEmpty());
+                return buffer.retired;
+              }
+            });
+  }
 
-    delayedMessageRegistry.values().removeIf(Queue::isEmpty);
+  @PreDestroy
+  void cleanUp() {
+    buffers.values().forEach(EndpointBuffer::clear);
+    buffers.clear();
   }
 
+  /** Adds a message that can't be delivered to the endpoint now. */
   public void add(String endpointId, String message) {
-
-    delayedMessageRegistry
-        .computeIfAbsent(endpointId, k -> EvictingQueue.create(MAX_MESSAGES))
-        .offer(new DelayedMessage(message));
+    while (true) {
+      EndpointBuffer buffer =
+          buffers.compute(
+              endpointId, (id, current) -> isLive(current) ? current : newBuffer(false));
+      synchronized (buffer) {
+        // the buffer may be replaced or removed since it is taken from the map
+        if (!buffer.retired) {
+          buffer.messages.append(message);
+          return;
+        }
+      }
+    }
   }
 
+  /** Sends the messages that were not delivered to the endpoint. */
   public void resend(String endpointId) {
-    Queue<DelayedMessage> delayedMessages = delayedMessageRegistry.remove(endpointId);
+    EndpointBuffer buffer = buffers.get(endpointId);
 
-    if (delayedMessages == null || delayedMessages.isEmpty()) {
+    if (buffer == null || buffer.sequenced) {
       return;
     }
 
@@ -74,33 +149,274 @@ public class MessagesReSender {
       return;
     }
 
-    Queue<DelayedMessage> backingQueue = EvictingQueue.create(delayedMessages.size());
-    while (!delayedMessages.isEmpty()) {
-      backingQueue.offer(delayedMessages.poll());
+    Session session = sessionOptional.get();
+    boolean sent;
+    synchronized (buffer) {
+      if (buffer.retired) {
+        return;
+      }
+      long[] lastSent = {0};
+      try {
+        buffer.messages.readAfter(
+            0,
+            (seq, message) -> {
+              if (!session.isOpen()) {
+                return false;
+              }
+              session.getAsyncRemote().sendText(new String(message, UTF_8));
+              lastSent[0] = seq;
+              return true;
+            });
+      } catch (IOException e) {
+        LOG.error("Error while trying to re-send messages to endpoint {}", endpointId, e);
+      }
+      buffer.messages.trimTo(lastSent[0]);
+      sent = buffer.messages.isEmpty();
+      buffer.retired = sent;
     }
+    if (sent) {
+      // removed out of the buffer lock, the map locks are taken before the buffer ones
+      buffers.remove(endpointId, buffer);
+    }
+  }
 
-    Session session = sessionOptional.get();
-    for (DelayedMessage delayedMessage : backingQueue) {
-      if (session.isOpen()) {
-        session.getAsyncRemote().sendText(delayedMessage.message);
+  /**
+   * Opens sequenced mode for the endpoint and replays the messages following the one the client
+   * received last. All the following messages of the endpoint are sent to the given session.
+   *
+   * @param endpointId combined endpoint identifier
+   * @param session newly opened session of the endpoint
+   * @param lastSeq sequence number of the last message the client received, 0 if none
+   */
+  public void resume(String endpointId, Session session, long lastSeq) {
+    // swapped atomically, so that messages added concurrently are not lost with a replaced buffer
+    EndpointBuffer buffer =
+        buffers.compute(
+            endpointId,
+            (id, current) -> {
+              if (isLive(current) && current.sequenced) {
+                return current;
+              }
+              EndpointBuffer sequenced = newBuffer(true);
+              if (current != null) {
+                // messages added before the client switched to sequenced mode
+                synchronized (current) {
+                  if (!current.retired) {
+                    sequenced.takeOver(current);
+                  }
+                }
+              }
+              return sequenced;
+            });
+
+    FrameSender sender = new FrameSender(endpointId, session);
+    boolean start;
+    synchronized (buffer) {
+      buffer.session = session;
+      buffer.sender = sender;
+      if (lastSeq >= buffer.messages.getNextSeq()) {
+        // client received messages of another buffer, e.g. before the server restart
+        LOG.debug("Sequence of endpoint {} is restarted", endpointId);
+        lastSeq = 0;
+      }
+      if (lastSeq > 0 && lastSeq < buffer.messages.getOldestSeq() - 1) {
+        LOG.debug(
+            "Messages {}-{} of endpoint {} are lost",
+            lastSeq + 1,
+            buffer.messages.getOldestSeq() - 1,
+            endpointId);
+      }
+      buffer.messages.trimTo(lastSeq);
+
+      FrameWriter writer = new FrameWriter(sender);
+      try {
+        buffer.messages.readAfter(lastSeq, writer::add);
+      } catch (IOException e) {
+        LOG.error("Error while trying to replay messages to endpoint {}", endpointId, e);
+      }
+      start = writer.flush();
+    }
+    if (start) {
+      sender.sendAll();
+    }
+  }
+
+  /**
+   * Sends the message if the endpoint uses sequenced mode.
+   *
+   * @return true if the endpoint uses sequenced mode and the message is sent or buffered, false if
+   *     the message is not handled
+   */
+  public boolean transmit(String endpointId, String message) {
+    EndpointBuffer buffer = buffers.get(endpointId);
+    if (buffer == null || !buffer.sequenced) {
+      return false;
+    }
+
+    FrameSender sender;
+    boolean start;
+    synchronized (buffer) {
+      if (buffer.retired) {
+        return false;
+      }
+      long seq = buffer.messages.append(message);
+      sender = buffer.sender;
+      // queued under the buffer lock to keep frames in the order of their sequence numbers
+      start = sender != null && sender.add(frame(seq, new JsonPrimitive(message).toString()));
+    }
+    if (start) {
+      sender.sendAll();
+    }
+    return true;
+  }
+
+  /** Detaches the closed session, messages are buffered until the client reconnects. */
+  public void suspend(String endpointId) {
+    EndpointBuffer buffer = buffers.get(endpointId);
+    if (buffer != null) {
+      synchronized (buffer) {
+        buffer.session = null;
+        buffer.sender = null;
+        buffer.detachedAt = System.currentTimeMillis();
+      }
+    }
+  }
+
+  private static boolean isLive(EndpointBuffer buffer) {
+    if (buffer == null) {
+      return false;
+    }
+    synchronized (buffer) {
+      return !buffer.retired;
+    }
+  }
+
+  private EndpointBuffer newBuffer(boolean sequenced) {
+    return new EndpointBuffer(
+        new ReplayBuffer(maxBufferBytes, spillDir, maxSpillBytes), sequenced);
+  }
+
+  private static String frame(long seq, String jsonMessages) {
+    return "{\"seq\":" + seq + ",\"messages\":[" + jsonMessages + "]}";
+  }
+
+  private static class EndpointBuffer {
+    private final ReplayBuffer messages;
+    private final boolean sequenced;
+    private Session session;
+    private FrameSender sender;
+    private long detachedAt = System.currentTimeMillis();
+    /** Set when the buffer is replaced or removed from the map, messages must not be added */
+    private boolean retired;
+
+    private EndpointBuffer(ReplayBuffer messages, boolean sequenced) {
+      this.messages = messages;
+      this.sequenced = sequenced;
+    }
+
+    private void takeOver(EndpointBuffer other) {
+      try {
+        other.messages.readAfter(
+            0,
+            (seq, message) -> {
+              messages.append(new String(message, UTF_8));
+              return true;
+            });
+      } catch (IOException e) {
+        LOG.error("Error while trying to take over buffered messages", e);
+      }
+      other.clear();
+      other.retired = true;
+    }
+
+    private synchronized void clear() {
+      messages.clear();
+    }
+  }
+
+  /** Groups messages into frames of limited size. */
+  private class FrameWriter {
+    private final FrameSender sender;
+    private final StringBuilder messages = new StringBuilder();
+    private long firstSeq;
+    private boolean start;
+
+    private FrameWriter(FrameSender sender) {
+      this.sender = sender;
+    }
+
+    private boolean add(long seq, byte[] message) {
+      if (!sender.session.isOpen()) {
+        return false;
+      }
+      if (messages.length() > 0 && messages.length() + message.length > maxFrameBytes) {
+        flush();
+      }
+      if (messages.length() == 0) {
+        firstSeq = seq;
       } else {
-        delayedMessages.add(delayedMessage);
+        messages.append(',');
       }
+      messages.append(new JsonPrimitive(new String(message, UTF_8)).toString());
+      return true;
     }
 
-    if (!delayedMessages.isEmpty()) {
-      delayedMessageRegistry.put(endpointId, delayedMessages);
+    /** Queues the collected messages, returns true if sending of the frames must be started. */
+    private boolean flush() {
+      if (messages.length() > 0) {
+        start |= sender.add(frame(firstSeq, messages.toString()));
+      }
+      messages.setLength(0);
+      return start;
     }
   }
 
-  private static class DelayedMessage {
+  /**
+   * Sends the frames to the session in the order they are queued. Only one thread sends at a time,
+   * others just queue their frames and return.
+   */
+  private static class FrameSender {
+    private final String endpointId;
+    private final Session session;
+    private final Deque<String> frames = new ArrayDeque<>();
+    private boolean sending;
 
-    private final long timeMillis;
-    private final String message;
+    private FrameSender(String endpointId, Session session) {
+      this.endpointId = endpointId;
+      this.session = session;
+    }
 
-    private DelayedMessage(String message) {
-      this.message = message;
-      this.timeMillis = System.currentTimeMillis();
+    /** Queues the frame, returns true if the caller must start sending with {@link #sendAll()}. */
+    private synchronized boolean add(String frame) {
+      frames.addLast(frame);
+      if (sending) {
+        return false;
+      }
+      sending = true;
+      return true;
+    }
+
+    /** Sends the queued frames, including the ones queued by other threads meanwhile. */
+    private void sendAll() {
+      while (true) {
+        String frame;
+        synchronized (this) {
+          if (!session.isOpen()) {
+            // the frames are replayed from the buffer when the client reconnects
+            frames.clear();
+          }
+          frame = frames.pollFirst();
+          if (frame == null) {
+            sending = false;
+            return;
+          }
+        }
+        try {
+          session.getBasicRemote().sendText(frame);
+        } catch (IOException e) {
+          LOG.error("Error while trying to send a message to endpoint {}", endpointId, e);
+        }
+      }
     }
   }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sequence numbered messages of a single endpoint. Messages are kept in memory as UTF-8 encoded
+ * byte arrays in a ring bounded by the total size of the messages. When the ring is full the oldest
+ * messages are moved to a spill file if spill directory is configured, otherwise they are dropped.
+ * The spill file is bounded too, when it is full it is started from scratch.
+ *
+ * <p>Sequence numbers start from 1 and have no gaps, messages kept in memory always have greater
+ * sequence numbers than the spilled ones. Instances are not thread safe.
+ */
+class ReplayBuffer {
+  private static final Logger LOG = LoggerFactory.getLogger(ReplayBuffer.class);
+
+  /** Receives messages read from the buffer. */
+  interface MessageConsumer {
+    /** Returns false to stop reading. */
+    boolean accept(long seq, byte[] message) throws IOException;
+  }
+
+  private final long maxMemoryBytes;
+  private final Path spillDir;
+  private final long maxSpillBytes;
+
+  private byte[][] messages = new byte[16][];
+  private long[] timestamps = new long[16];
+  private int head;
+  private int size;
+  private long memoryBytes;
+  /** Sequence number of the message at the head of the ring. */
+  private long firstSeq = 1;
+
+  private Path spillFile;
+  private DataOutputStream spillOutput;
+  private long spillBytes;
+  /** Sequence number of the first spilled message, valid only if spill bytes are not 0. */
+  private long spillFirstSeq;
+
+  ReplayBuffer(long maxMemoryBytes, Path spillDir, long maxSpillBytes) {
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.spillDir = spillDir;
+    this.maxSpillBytes = maxSpillBytes;
+  }
+
+  /** Returns the sequence number the next appended message gets. */
+  long getNextSeq() {
+    return firstSeq + size;
+  }
+
+  /** Returns the sequence number of the oldest message kept by the buffer. */
+  long getOldestSeq() {
+    return spillBytes > 0 ? spillFirstSeq : firstSeq;
+  }
+
+  boolean isEmpty() {
+    return size == 0 && spillBytes == 0;
+  }
+
+  /**
+   * Appends the message to the buffer evicting the oldest messages if needed.
+   *
+   * @return the sequence number of the message
+   */
+  long append(String message) {
+    byte[] bytes = message.getBytes(UTF_8);
+    while (size > 0 && memoryBytes + bytes.length > maxMemoryBytes) {
+      evictHead();
+    }
+    if (size == messages.length) {
+      grow();
+    }
+    int tail = (head + size) % messages.length;
+    messages[tail] = bytes;
+    timestamps[tail] = System.currentTimeMillis();
+    memoryBytes += bytes.length;
+    size++;
+    return getNextSeq() - 1;
+  }
+
+  /**
+   * Passes the messages with sequence numbers greater than the given one to the consumer in order
+   * of their sequence numbers.
+   */
+  void readAfter(long seq, MessageConsumer consumer) throws IOException {
+    if (spillBytes > 0 && seq + 1 < firstSeq && !readSpilled(seq, consumer)) {
+      return;
+    }
+    for (int i = 0; i < size; i++) {
+      long current = firstSeq + i;
+      if (current > seq && !consumer.accept(current, messages[(head + i) % messages.length])) {
+        return;
+      }
+    }
+  }
+
+  /** Removes the messages with sequence numbers less or equal to the given one. */
+  void trimTo(long seq) {
+    while (size > 0 && firstSeq <= seq) {
+      removeHead();
+    }
+    if (spillBytes > 0 && seq >= firstSeq - 1) {
+      deleteSpill();
+    }
+  }
+
+  /** Removes the messages that were appended before the given time. */
+  void trimOlderThan(long timeMillis) {
+    long lastStale = 0;
+    for (int i = 0; i < size && timestamps[(head + i) % messages.length] < timeMillis; i++) {
+      lastStale = firstSeq + i;
+    }
+    if (lastStale > 0) {
+      trimTo(lastStale);
+    } else if (spillBytes > 0 && size > 0 && timestamps[head] < timeMillis) {
+      // spilled messages are older than the ones in memory
+      deleteSpill();
+    }
+  }
+
+  /** Releases the resources of the buffer, the buffer stays usable. */
+  void clear() {
+    trimTo(getNextSeq() - 1);
+    deleteSpill();
+  }
+
+  private void evictHead() {
+    if (spillDir != null) {
+      spill(firstSeq, messages[head]);
+    }
+    removeHead();
+  }
+
+  private void removeHead() {
+    memoryBytes -= messages[head].length;
+    messages[head] = null;
+    head = (head + 1) % messages.length;
+    size--;
+    firstSeq++;
+  }
+
+  private void grow() {
+    byte[][] newMessages = new byte[messages.length * 2][];
+    long[] newTimestamps = new long[messages.length * 2];
+    for (int i = 0; i < size; i++) {
+      newMessages[i] = messages[(head + i) % messages.length];
+      newTimestamps[i] = timestamps[(head + i) % messages.length];
+    }
+    messages = newMessages;
+    timestamps = newTimestamps;
+    head = 0;
+  }
+
+  private void spill(long seq, byte[] message) {
+    long recordBytes = Long.BYTES + Integer.BYTES + message.length;
+    if (recordBytes > maxSpillBytes) {
+      return;
+    }
+    try {
+      if (spillBytes + recordBytes > maxSpillBytes) {
+        // start from scratch, all the spilled messages are older than this one
+        deleteSpill();
+      }
+      if (spillOutput == null) {
+        spillFile = Files.createTempFile(spillDir, "replay-", ".bin");
+        spillOutput =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile)));
+      }
+      if (spillBytes == 0) {
+        spillFirstSeq = seq;
+      }
+      spillOutput.writeLong(seq);
+      spillOutput.writeInt(message.length);
+      spillOutput.write(message);
+      spillBytes += recordBytes;
+    } catch (IOException e) {
+      LOG.warn("Can't spill message to disk, it is dropped. Error: {}", e.getMessage());
+      deleteSpill();
+    }
+  }
+
+  private boolean readSpilled(long seq, MessageConsumer consumer) throws IOException {
+    spillOutput.flush();
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile)))) {
+      long read = 0;
+      while (read < spillBytes) {
+        long current = input.readLong();
+        byte[] message = new byte[input.readInt()];
+        input.readFully(message);
+        read += Long.BYTES + Integer.BYTES + message.length;
+        if (current > seq && !consumer.accept(current, message)) {
+          return false;
+        }
+      }
+    } catch (EOFException e) {
+      LOG.warn("Spill file '{}' is truncated", spillFile);
+    }
+    return true;
+  }
+
+  private void deleteSpill() {
+    spillBytes = 0;
+    if (spillOutput != null) {
+      try {
+        spillOutput.close();
+      } catch (IOException ignored) {
+        // the file is deleted anyway
+      }
+      spillOutput = null;
+    }
+    if (spillFile != null) {
+      try {
+        Files.deleteIfExists(spillFile);
+      } catch (IOException e) {
+        LOG.warn("Can't delete spill file '{}'. Error: {}", spillFile, e.getMessage());
+      }
+      spillFile = null;
+    }
+  }
+}
@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.everrest;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.JSON_SERIALIZABLE;
 import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.STRING;
 import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.UNKNOWN;
@@ -19,10 +20,16 @@ import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
-import java.nio.charset.Charset;
+import com.google.common.hash.HashingOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.List;
+import javax.inject.Singleton;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
@@ -37,17 +44,40 @@ import org.everrest.core.ResponseFilter;
  * clients that want to use conditional requests. It is applying on GET method and JSON content type
  * only.
  *
+ * <p>DTO entities and lists of them are serialized only once: the JSON is written to a per-thread
+ * buffer and hashed in the same pass, then the serialized bytes replace the entity of the response,
+ * so they are sent as is when the client's ETag doesn't match.
+ *
  * @author Florent Benoit
  */
 @Filter
+@Singleton
 public class ETagResponseFilter implements ResponseFilter {
 
+  /** Non-cryptographic hash function, ETags only need to detect changes of the content. */
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  /** The same value as the one set by {@link org.eclipse.che.api.core.rest.CheJsonProvider}. */
+  private static final String CACHE_CONTROL = "public, no-cache, no-store, no-transform";
+
+  /** Buffers bigger than this are not kept by the threads to not retain too much memory. */
+  private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+  private static final ThreadLocal<JsonBuffer> BUFFERS = ThreadLocal.withInitial(JsonBuffer::new);
+
   public enum EntityType {
     JSON_SERIALIZABLE,
     STRING,
     UNKNOWN
   }
 
+  private volatile SerializationListener serializationListener;
+
+  /** Sets the listener which receives timings of the serialization of the response entities. */
+  public void setSerializationListener(SerializationListener serializationListener) {
+    this.serializationListener = serializationListener;
+  }
+
   /**
    * Filter the given container response
    *
@@ -77,87 +107,113 @@ public class ETagResponseFilter implements ResponseFilter {
       return;
     }
 
-    // calculate hash with MD5
-    HashFunction hashFunction = Hashing.md5();
-    Hasher hasher = hashFunction.newHasher();
-    boolean hashingSuccess = true;
-
-    // Manage a list
-    if (entity instanceof List) {
-      List<?> entities = (List) entity;
-      for (Object simpleEntity : entities) {
-        hashingSuccess = addHash(simpleEntity, hasher);
-        if (!hashingSuccess) {
-          break;
+    EntityType entityType = getEntityType(entity);
+    if (entityType == JSON_SERIALIZABLE) {
+      filterSerializable(containerResponse, request, entity);
+    } else if (entityType == STRING) {
+      // strings are written as is, so they are just hashed
+      Hasher hasher = HASH_FUNCTION.newHasher();
+      if (entity instanceof List) {
+        for (Object element : (List<?>) entity) {
+          hasher.putString((String) element, UTF_8);
         }
+      } else {
+        hasher.putString((String) entity, UTF_8);
       }
-    } else {
-      hashingSuccess = addHash(entity, hasher);
+      setEntityTag(containerResponse, request, hasher.hash(), null);
     }
+  }
 
-    // if we're able to handle the hash
-    if (hashingSuccess) {
-
-      // get result of the hash
-      HashCode hashCode = hasher.hash();
-
-      // Create the entity tag
-      EntityTag entityTag = new EntityTag(hashCode.toString());
-
-      // Check the etag
-      Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
-
-      // not modified ?
-      if (builder != null) {
-        containerResponse.setResponse(builder.tag(entityTag).build());
+  private void filterSerializable(
+      GenericContainerResponse containerResponse, Request request, Object entity) {
+    long start = System.nanoTime();
+    JsonBuffer buffer = BUFFERS.get();
+    buffer.reset();
+    HashingOutputStream hashingStream = new HashingOutputStream(HASH_FUNCTION, buffer);
+    try (Writer writer = new OutputStreamWriter(hashingStream, UTF_8)) {
+      if (entity instanceof List) {
+        writer.write('[');
+        boolean first = true;
+        for (Object element : (List<?>) entity) {
+          if (!first) {
+            writer.write(',');
+          }
+          ((JsonSerializable) element).toJson(writer);
+          first = false;
+        }
+        writer.write(']');
       } else {
-        // it has been changed, so send response with new ETag and entity
-        Response.ResponseBuilder responseBuilder =
-            Response.fromResponse(containerResponse.getResponse()).tag(entityTag);
-        containerResponse.setResponse(responseBuilder.build());
+        ((JsonSerializable) entity).toJson(writer);
       }
+    } catch (IOException | RuntimeException e) {
+      // cannot perform hash, the entity is written by the providers
+      return;
+    }
+    HashCode hashCode = hashingStream.hash();
+    byte[] body = buffer.toByteArray();
+    buffer.release();
+
+    SerializationListener listener = serializationListener;
+    if (listener != null) {
+      listener.onSerialized(getEntityTypeName(entity), System.nanoTime() - start);
     }
+    setEntityTag(containerResponse, request, hashCode, body);
   }
 
   /**
-   * Helper method to add entity to hash. If there is an invalid entity type it will return false
+   * Sets the ETag to the response, or replaces the response with 304 if the ETag matches the one
+   * sent by the client.
    *
-   * @param entity the entity object to analyze and extract JSON for hashing it
-   * @param hasher the hasher used to add the hashes
+   * @param body serialized entity which should replace the response entity, or null if the entity
+   *     should be kept
    */
-  protected boolean addHash(Object entity, Hasher hasher) {
-    // get entity type
-    EntityType entityType = getElementType(entity);
-
-    // check
-    if (entityType == UNKNOWN) {
-      // unknown entity type, cannot perform hash
-      return false;
-    }
-    // add hash if all is OK
-    try {
-      hasher.putString(getJson(entity, entityType), Charset.defaultCharset());
-    } catch (RuntimeException e) {
-      return false;
-    }
-    return true;
+  private void setEntityTag(
+      GenericContainerResponse containerResponse,
+      Request request,
+      HashCode hashCode,
+      byte[] body) {
+    // Create the entity tag
+    EntityTag entityTag = new EntityTag(hashCode.toString());
+
+    // Check the etag
+    Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+
+    // not modified ?
+    if (builder != null) {
+      containerResponse.setResponse(builder.tag(entityTag).build());
+    } else {
+      // it has been changed, so send response with new ETag and entity
+      Response.ResponseBuilder responseBuilder =
+          Response.fromResponse(containerResponse.getResponse()).tag(entityTag);
+      if (body != null) {
+        responseBuilder.entity(body).header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+      }
+      containerResponse.setResponse(responseBuilder.build());
+    }
   }
 
   /**
-   * Helper method to retrieving the JSON content based on the entity type
+   * Helper method for getting the type of the JSON entity. Lists have the type of their elements
+   * if all of them have the same type.
    *
-   * @param entity the object to analyze
-   * @return the JSON string or null if it's an unknown type
+   * @param entity the entity object
+   * @return the type of the entity
    */
-  protected String getJson(Object entity, EntityType entityType) {
-    switch (entityType) {
-      case JSON_SERIALIZABLE:
-        return ((JsonSerializable) entity).toJson();
-      case STRING:
-        return (String) entity;
-      default:
-        return null;
+  protected EntityType getEntityType(Object entity) {
+    if (!(entity instanceof List)) {
+      return getElementType(entity);
+    }
+    List<?> entities = (List<?>) entity;
+    if (entities.isEmpty()) {
+      return UNKNOWN;
+    }
+    EntityType listType = getElementType(entities.get(0));
+    for (Object element : entities) {
+      if (element == null || getElementType(element) != listType) {
+        return UNKNOWN;
+      }
     }
+    return listType;
   }
 
   /**
@@ -167,6 +223,10 @@ public class ETagResponseFilter implements ResponseFilter {
    * @return the type of the element
    */
   protected EntityType getElementType(Object entity) {
+    if (entity == null) {
+      return UNKNOWN;
+    }
+
     if (JsonSerializable.class.isAssignableFrom(entity.getClass())) {
       return JSON_SERIALIZABLE;
     }
@@ -177,4 +237,35 @@ public class ETagResponseFilter implements ResponseFilter {
 
     return UNKNOWN;
   }
+
+  private static String getEntityTypeName(Object entity) {
+    if (entity instanceof List) {
+      return "List<" + getDtoName(((List<?>) entity).get(0).getClass()) + ">";
+    }
+    return getDtoName(entity.getClass());
+  }
+
+  /** Returns the name of the DTO interface implemented by the generated DTO class. */
+  private static String getDtoName(Class<?> type) {
+    for (Class<?> dtoInterface : type.getInterfaces()) {
+      if (dtoInterface != JsonSerializable.class) {
+        return dtoInterface.getSimpleName();
+      }
+    }
+    return type.getSimpleName();
+  }
+
+  /** Byte array stream which may be reused by the thread if it did not grow too much. */
+  private static class JsonBuffer extends ByteArrayOutputStream {
+
+    JsonBuffer() {
+      super(8192);
+    }
+
+    void release() {
+      if (buf.length > MAX_POOLED_BUFFER_SIZE) {
+        BUFFERS.remove();
+      }
+    }
+  }
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.everrest;
+
+/**
+ * Receives timings of the serialization of the response entities by {@link ETagResponseFilter}.
+ * Methods are called on the request threads, so implementations must be thread safe and fast.
+ *
+ * @see ETagResponseFilter#setSerializationListener(SerializationListener)
+ */
+public interface SerializationListener {
+
+  /**
+   * Called when the response entity has been serialized.
+   *
+   * @param entityType type of the serialized entity, e.g. {@code WorkspaceDto} or {@code
+   *     List<WorkspaceDto>}
+   * @param nanos time spent on serialization and hashing of the entity
+   */
+  void onSerialized(String entityType, long nanos);
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GsonJsonRpcUnmarshaller} */
+public class GsonJsonRpcUnmarshallerTest {
+
+  private GsonJsonRpcUnmarshaller unmarshaller;
+  private List<JsonRpcRequest> requests;
+  private List<JsonRpcResponse> responses;
+
+  @BeforeMethod
+  public void setUp() {
+    unmarshaller = new GsonJsonRpcUnmarshaller(new JsonParser());
+    requests = new ArrayList<>();
+    responses = new ArrayList<>();
+  }
+
+  @Test
+  public void shouldUnmarshalSingleRequest() {
+    unmarshaller.unmarshal(
+        "{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"method\":\"textDocument/didChange\","
+            + "\"params\":{\"uri\":\"/a/b.java\"}}",
+        requests::add,
+        responses::add);
+
+    assertEquals(requests.size(), 1);
+    assertTrue(responses.isEmpty());
+    JsonRpcRequest request = requests.get(0);
+    assertEquals(request.getId(), "1");
+    assertEquals(request.getMethod(), "textDocument/didChange");
+    assertTrue(request.getParams().isSingle());
+    assertEquals(
+        ((JsonObject) request.getParams().getOne()).get("uri").getAsString(), "/a/b.java");
+  }
+
+  @Test
+  public void shouldUnmarshalNotification() {
+    unmarshaller.unmarshal(
+        "{\"jsonrpc\":\"2.0\",\"method\":\"event\"}", requests::add, responses::add);
+
+    assertEquals(requests.size(), 1);
+    assertFalse(requests.get(0).hasId());
+    assertFalse(requests.get(0).hasParams());
+  }
+
+  @Test
+  public void shouldUnmarshalSingleResponse() {
+    unmarshaller.unmarshal(
+        "{\"jsonrpc\":\"2.0\",\"id\":\"2\",\"result\":[\"a\",\"b\"]}",
+        requests::add,
+        responses::add);
+
+    assertTrue(requests.isEmpty());
+    assertEquals(responses.size(), 1);
+    JsonRpcResponse response = responses.get(0);
+    assertEquals(response.getId(), "2");
+    assertTrue(response.hasResult());
+    assertNull(response.getError());
+  }
+
+  @Test
+  public void shouldUnmarshalMixedBatchPreservingOrder() {
+    List<String> order = new ArrayList<>();
+
+    unmarshaller.unmarshal(
+        "[{\"jsonrpc\":\"2.0\",\"method\":\"first\"},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"3\",\"error\":{\"code\":-1,\"message\":\"e\"}},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"4\",\"method\":\"second\",\"params\":[1,2]}]",
+        request -> order.add(request.getMethod()),
+        response -> order.add(response.getId()));
+
+    assertEquals(order, asList("first", "3", "second"));
+  }
+
+  @Test
+  public void shouldFailWithParseErrorOnInvalidJson() {
+    try {
+      unmarshaller.unmarshal("{\"method\":", requests::add, responses::add);
+      fail("JsonRpcException expected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), -32700);
+    }
+  }
+
+  @Test
+  public void shouldFailWithInvalidRequestErrorOnUnknownStructure() {
+    try {
+      unmarshaller.unmarshal("{\"jsonrpc\":\"2.0\",\"id\":\"5\"}", requests::add, responses::add);
+      fail("JsonRpcException expected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), -32600);
+    }
+    assertTrue(requests.isEmpty());
+    assertTrue(responses.isEmpty());
+  }
+}
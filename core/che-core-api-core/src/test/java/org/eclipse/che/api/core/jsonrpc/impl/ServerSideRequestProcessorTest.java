@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ServerSideRequestProcessor} */
+public class ServerSideRequestProcessorTest {
+
+  private static final String PRIORITY_METHOD = "textDocument/completion";
+
+  private ServerSideRequestProcessor processor;
+  private CountDownLatch blockLatch;
+  private CountDownLatch blockedLatch;
+  private volatile CountDownLatch processedLatch;
+  private List<String> processed;
+
+  @BeforeMethod
+  public void setUp() {
+    processor = new ServerSideRequestProcessor(1, 3, new String[] {PRIORITY_METHOD});
+    processor.postConstruct();
+    blockLatch = new CountDownLatch(1);
+    blockedLatch = new CountDownLatch(1);
+    processed = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    blockLatch.countDown();
+    processor.preDestroy();
+  }
+
+  @Test
+  public void shouldProcessEndpointsWithPriorityMethodsFirstAndNotificationsLast()
+      throws Exception {
+    blockSingleThread();
+
+    submit("first", request("1", "notification"), "notification");
+    submit("second", request("2", "other"), "request");
+    submit("third", request("3", PRIORITY_METHOD), "priority");
+
+    awaitProcessing(3);
+    assertEquals(processed, asList("priority", "request", "notification"));
+  }
+
+  @Test
+  public void shouldNotProcessPriorityMethodsAheadOfEarlierMessagesOfSameEndpoint()
+      throws Exception {
+    blockSingleThread();
+
+    submit("endpoint", request("1", "notification"), "didChange");
+    submit("endpoint", request("2", PRIORITY_METHOD), "completion");
+    submit("other", request("1", "other"), "other");
+
+    awaitProcessing(3);
+    assertEquals(processed, asList("other", "didChange", "completion"));
+  }
+
+  @Test
+  public void shouldTakeRequestsOfDifferentEndpointsInTurn() throws Exception {
+    blockSingleThread();
+
+    submit("first", request("1", "method"), "first-1");
+    submit("first", request("2", "method"), "first-2");
+    submit("first", request("3", "method"), "first-3");
+    submit("second", request("1", "method"), "second-1");
+
+    awaitProcessing(4);
+    assertEquals(processed, asList("first-1", "second-1", "first-2", "first-3"));
+  }
+
+  @Test
+  public void shouldRejectRequestWhenEndpointQueueIsFull() throws Exception {
+    blockSingleThread();
+    submit("endpoint", request("1", "method"), "1");
+    submit("endpoint", request("2", "method"), "2");
+    submit("endpoint", request("3", "method"), "3");
+
+    try {
+      submit("endpoint", request("4", "method"), "4");
+      fail("JsonRpcException expected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), ServerSideRequestProcessor.SERVER_OVERLOADED_ERROR_CODE);
+    }
+
+    // other endpoints are not affected
+    submit("other", request("1", "method"), "other");
+    assertEquals(processor.getRejectedCount(), 1);
+    assertEquals(processor.getQueuedCount(), 4);
+
+    awaitProcessing(4);
+    assertEquals(processor.getQueuedCount(), 0);
+  }
+
+  private void blockSingleThread() throws InterruptedException {
+    processor.process(
+        () -> {
+          blockedLatch.countDown();
+          try {
+            blockLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    assertTrue(blockedLatch.await(5, SECONDS));
+  }
+
+  private void awaitProcessing(int count) throws InterruptedException {
+    processedLatch = new CountDownLatch(count);
+    blockLatch.countDown();
+    assertTrue(processedLatch.await(5, SECONDS));
+  }
+
+  private void submit(String endpointId, JsonRpcRequest request, String name) {
+    processor.process(
+        endpointId,
+        request,
+        () -> {
+          processed.add(name);
+          processedLatch.countDown();
+        });
+  }
+
+  private static JsonRpcRequest request(String id, String method) {
+    return new JsonRpcRequest("notification".equals(method) ? null : id, method, null);
+  }
+}
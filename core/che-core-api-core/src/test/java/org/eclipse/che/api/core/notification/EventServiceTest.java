@@ -11,9 +11,15 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -193,6 +199,112 @@ public class EventServiceTest {
     bus.unsubscribe(sb, CustomEventImpl.class);
   }
 
+  @Test
+  public void shouldNotBlockPublisherByAsyncSubscriber() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch processed = new CountDownLatch(1);
+    bus.subscribeAsync(
+        event -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          processed.countDown();
+        },
+        Event.class);
+
+    bus.publish(new Event());
+
+    Assert.assertEquals(processed.getCount(), 1);
+    release.countDown();
+    Assert.assertTrue(processed.await(5, SECONDS));
+  }
+
+  @Test
+  public void shouldDeliverEventsToAsyncSubscriberInOrder() throws Exception {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    final CountDownLatch processed = new CountDownLatch(100);
+    bus.subscribeAsync(
+        event -> {
+          events.add(event);
+          processed.countDown();
+        },
+        String.class);
+
+    final List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      expected.add(String.valueOf(i));
+      bus.publish(String.valueOf(i));
+    }
+
+    Assert.assertTrue(processed.await(5, SECONDS));
+    Assert.assertEquals(events, expected);
+  }
+
+  @Test
+  public void shouldDeliverEventsToAsyncSubscriberAfterError() throws Exception {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    final CountDownLatch processed = new CountDownLatch(1);
+    bus.subscribeAsync(
+        event -> {
+          if ("error".equals(event)) {
+            throw new AssertionError(event);
+          }
+          events.add(event);
+          processed.countDown();
+        },
+        String.class);
+
+    bus.publish("error");
+    bus.publish("next");
+
+    Assert.assertTrue(processed.await(5, SECONDS));
+    Assert.assertEquals(events, singletonList("next"));
+  }
+
+  @Test
+  public void shouldCompletePublishAsyncFutureWhenAllSubscribersProcessedEvent() throws Exception {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    bus.subscribe(
+        event -> {
+          events.add("sync:" + event);
+        },
+        Event.class);
+    bus.subscribeAsync(event -> events.add("async:" + event), Event.class);
+    bus.subscribeAsync(
+        event -> {
+          throw new IllegalStateException("failure");
+        },
+        Event.class);
+
+    final Event event = new Event();
+    final CompletableFuture<Event> future = bus.publishAsync(event);
+
+    Assert.assertSame(future.get(5, SECONDS), event);
+    Assert.assertEquals(events.size(), 2);
+    Assert.assertTrue(events.contains("sync:event"));
+    Assert.assertTrue(events.contains("async:event"));
+  }
+
+  @Test
+  public void shouldCompletePublishAsyncFutureWhenThereAreNoSubscribers() throws Exception {
+    Assert.assertEquals(bus.publishAsync("hello").get(5, SECONDS), "hello");
+  }
+
+  @Test
+  public void shouldNotDeliverEventsAfterUnsubscribe() {
+    final List<String> events = new ArrayList<>();
+    final EventSubscriber<String> subscriber = events::add;
+    bus.subscribe(subscriber, String.class);
+    bus.publish("first");
+    bus.unsubscribe(subscriber, String.class);
+    bus.publish("second");
+
+    Assert.assertEquals(events.size(), 1);
+    Assert.assertEquals(events.get(0), "first");
+  }
+
   static class CustomEventSubscriber<T extends CustomEvent> implements EventSubscriber<T> {
     final List<String> events = new ArrayList<>();
 
@@ -11,16 +11,31 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
+import com.google.gson.JsonParser;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.websocket.RemoteEndpoint;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -38,21 +53,23 @@ public class MessagesReSenderTest {
   private static final String ENDPOINT_ID = "id";
 
   @Mock private WebSocketSessionRegistry sessionRegistry;
-  @InjectMocks private MessagesReSender reSender;
+  private MessagesReSender reSender;
 
   @Mock private Session session;
   @Mock private RemoteEndpoint.Async endpoint;
+  @Mock private RemoteEndpoint.Basic basicEndpoint;
 
   @BeforeMethod
   public void beforeMethod() {
-    when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
-    when(session.getAsyncRemote()).thenReturn(endpoint);
-    when(session.isOpen()).thenReturn(true);
+    lenient().when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
+    lenient().when(session.getAsyncRemote()).thenReturn(endpoint);
+    lenient().when(session.getBasicRemote()).thenReturn(basicEndpoint);
+    lenient().when(session.isOpen()).thenReturn(true);
   }
 
   @BeforeMethod
   public void before() {
-    reSender = new MessagesReSender(sessionRegistry);
+    reSender = new MessagesReSender(sessionRegistry, 1024, null, 0, 12, 300);
   }
 
   @Test
@@ -146,4 +163,128 @@ public class MessagesReSenderTest {
     verify(session, times(2)).getAsyncRemote();
     verify(endpoint, times(2)).sendText(MESSAGE);
   }
+
+  @Test
+  public void shouldNotTransmitMessagesOfNotSequencedEndpoint() {
+    assertFalse(reSender.transmit(ENDPOINT_ID, MESSAGE));
+  }
+
+  @Test
+  public void shouldSendSequencedMessagesInFrames() throws Exception {
+    reSender.resume(ENDPOINT_ID, session, 0);
+
+    assertTrue(reSender.transmit(ENDPOINT_ID, "first"));
+    assertTrue(reSender.transmit(ENDPOINT_ID, "second"));
+
+    InOrder order = inOrder(basicEndpoint);
+    order.verify(basicEndpoint).sendText("{\"seq\":1,\"messages\":[\"first\"]}");
+    order.verify(basicEndpoint).sendText("{\"seq\":2,\"messages\":[\"second\"]}");
+  }
+
+  @Test
+  public void shouldNotBlockTransmittingWhileFrameIsSent() throws Exception {
+    reSender.resume(ENDPOINT_ID, session, 0);
+    CountDownLatch sendingLatch = new CountDownLatch(1);
+    CountDownLatch sentLatch = new CountDownLatch(1);
+    doAnswer(
+            inv -> {
+              if (sendingLatch.getCount() > 0) {
+                sendingLatch.countDown();
+                sentLatch.await(5, SECONDS);
+              }
+              return null;
+            })
+        .when(basicEndpoint)
+        .sendText(anyString());
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Boolean> first = executor.submit(() -> reSender.transmit(ENDPOINT_ID, "first"));
+      assertTrue(sendingLatch.await(5, SECONDS));
+
+      // queued for the thread that is sending now
+      assertTrue(reSender.transmit(ENDPOINT_ID, "second"));
+      verify(basicEndpoint, never()).sendText("{\"seq\":2,\"messages\":[\"second\"]}");
+
+      sentLatch.countDown();
+      assertTrue(first.get(5, SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    InOrder order = inOrder(basicEndpoint);
+    order.verify(basicEndpoint).sendText("{\"seq\":1,\"messages\":[\"first\"]}");
+    order.verify(basicEndpoint).sendText("{\"seq\":2,\"messages\":[\"second\"]}");
+  }
+
+  @Test
+  public void shouldReplayMessagesFollowingLastReceivedInBatchedFrames() throws Exception {
+    reSender.resume(ENDPOINT_ID, session, 0);
+    reSender.suspend(ENDPOINT_ID);
+    for (String message : new String[] {"m1", "m2", "m3", "m4", "m5"}) {
+      reSender.transmit(ENDPOINT_ID, message);
+    }
+    verify(basicEndpoint, never()).sendText(anyString());
+
+    reSender.resume(ENDPOINT_ID, session, 1);
+
+    InOrder order = inOrder(basicEndpoint);
+    order.verify(basicEndpoint).sendText("{\"seq\":2,\"messages\":[\"m2\",\"m3\",\"m4\"]}");
+    order.verify(basicEndpoint).sendText("{\"seq\":5,\"messages\":[\"m5\"]}");
+  }
+
+  @Test
+  public void shouldReplayAllMessagesWhenSequenceIsRestarted() throws Exception {
+    reSender.resume(ENDPOINT_ID, session, 0);
+    reSender.suspend(ENDPOINT_ID);
+    reSender.transmit(ENDPOINT_ID, "m1");
+
+    reSender.resume(ENDPOINT_ID, session, 100);
+
+    verify(basicEndpoint).sendText("{\"seq\":1,\"messages\":[\"m1\"]}");
+  }
+
+  @Test
+  public void shouldReplayMessagesAddedBeforeSwitchingToSequencedMode() throws Exception {
+    reSender.add(ENDPOINT_ID, MESSAGE);
+
+    reSender.resume(ENDPOINT_ID, session, 0);
+
+    verify(basicEndpoint).sendText("{\"seq\":1,\"messages\":[\"message\"]}");
+    verify(endpoint, never()).sendText(anyString());
+  }
+
+  @Test
+  public void shouldNotLoseMessagesAddedWhileSwitchingToSequencedMode() throws Exception {
+    MessagesReSender reSender =
+        new MessagesReSender(sessionRegistry, 1024 * 1024, null, 0, 1024, 300);
+    int count = 2000;
+    Thread adder =
+        new Thread(
+            () -> {
+              for (int i = 0; i < count; i++) {
+                reSender.add(ENDPOINT_ID, MESSAGE + i);
+              }
+            });
+
+    Session closedSession = mock(Session.class);
+    adder.start();
+    while (adder.isAlive()) {
+      reSender.resume(ENDPOINT_ID, closedSession, Long.MAX_VALUE);
+      reSender.suspend(ENDPOINT_ID);
+    }
+    adder.join();
+
+    Session replaySession = mock(Session.class);
+    RemoteEndpoint.Basic replayEndpoint = mock(RemoteEndpoint.Basic.class);
+    when(replaySession.isOpen()).thenReturn(true);
+    when(replaySession.getBasicRemote()).thenReturn(replayEndpoint);
+    reSender.resume(ENDPOINT_ID, replaySession, 0);
+
+    ArgumentCaptor<String> frames = ArgumentCaptor.forClass(String.class);
+    verify(replayEndpoint, atLeastOnce()).sendText(frames.capture());
+    int replayed = 0;
+    for (String frame : frames.getAllValues()) {
+      replayed += new JsonParser().parse(frame).getAsJsonObject().getAsJsonArray("messages").size();
+    }
+    assertEquals(replayed, count);
+  }
 }
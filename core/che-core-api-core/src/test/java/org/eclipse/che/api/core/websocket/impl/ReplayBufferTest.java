@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ReplayBuffer} */
+public class ReplayBufferTest {
+
+  private Path spillDir;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    spillDir = Files.createTempDirectory("replay-buffer-test");
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    IoUtil.deleteRecursive(spillDir.toFile());
+  }
+
+  @Test
+  public void shouldNumberMessagesSequentially() throws Exception {
+    ReplayBuffer buffer = new ReplayBuffer(1024, null, 0);
+
+    assertEquals(buffer.append("a"), 1);
+    assertEquals(buffer.append("b"), 2);
+    assertEquals(buffer.getNextSeq(), 3);
+    assertEquals(readAfter(buffer, 1), Arrays.asList("b"));
+  }
+
+  @Test
+  public void shouldDropEvictedMessagesWithoutSpillDir() throws Exception {
+    ReplayBuffer buffer = new ReplayBuffer(4, null, 0);
+
+    buffer.append("aa");
+    buffer.append("bb");
+    buffer.append("cc");
+
+    assertEquals(buffer.getOldestSeq(), 2);
+    assertEquals(readAfter(buffer, 0), Arrays.asList("bb", "cc"));
+  }
+
+  @Test
+  public void shouldReadSpilledMessagesBeforeMessagesInMemory() throws Exception {
+    ReplayBuffer buffer = new ReplayBuffer(4, spillDir, 1024);
+
+    for (String message : new String[] {"aa", "bb", "cc", "dd"}) {
+      buffer.append(message);
+    }
+
+    assertEquals(buffer.getOldestSeq(), 1);
+    assertEquals(readAfter(buffer, 0), Arrays.asList("aa", "bb", "cc", "dd"));
+    assertEquals(readAfter(buffer, 1), Arrays.asList("bb", "cc", "dd"));
+  }
+
+  @Test
+  public void shouldRemoveSpillFileWhenTrimmed() throws Exception {
+    ReplayBuffer buffer = new ReplayBuffer(4, spillDir, 1024);
+    for (String message : new String[] {"aa", "bb", "cc"}) {
+      buffer.append(message);
+    }
+
+    buffer.trimTo(2);
+
+    assertEquals(readAfter(buffer, 0), Arrays.asList("cc"));
+    assertEquals(Files.list(spillDir).count(), 0);
+  }
+
+  @Test
+  public void shouldBeEmptyAfterClear() throws Exception {
+    ReplayBuffer buffer = new ReplayBuffer(4, spillDir, 1024);
+    buffer.append("aa");
+    buffer.append("bb");
+    buffer.append("cc");
+
+    buffer.clear();
+
+    assertTrue(buffer.isEmpty());
+    assertEquals(buffer.getNextSeq(), 4);
+    assertEquals(Files.list(spillDir).count(), 0);
+  }
+
+  private static List<String> readAfter(ReplayBuffer buffer, long seq) throws IOException {
+    List<String> messages = new ArrayList<>();
+    buffer.readAfter(
+        seq,
+        (current, message) -> {
+          messages.add(new String(message, UTF_8));
+          return true;
+        });
+    return messages;
+  }
+}
@@ -11,12 +11,16 @@
  */
 package org.eclipse.che.everrest;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
 import static javax.ws.rs.core.Response.Status.OK;
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
 import static org.everrest.core.ApplicationContext.anApplicationContext;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
+import com.google.common.hash.Hashing;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,6 +35,8 @@ import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import org.eclipse.che.api.core.rest.ApiExceptionMapper;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.DtoFactory;
 import org.everrest.core.ApplicationContext;
 import org.everrest.core.impl.ApplicationProviderBinder;
 import org.everrest.core.impl.ContainerRequest;
@@ -59,6 +65,12 @@ public class ETagResponseFilterTest {
   /** Base Service */
   private static final String SERVICE_PATH = BASE_URI + "/myservice";
 
+  /** DTO entities */
+  private static final List<Link> LINKS =
+      Arrays.asList(
+          createLink("GET", "http://localhost/service/a", "a"),
+          createLink("GET", "http://localhost/service/b", "b"));
+
   /** Dummy JAX-RS POJO */
   @Path("/myservice")
   public static class MyJaxRSService {
@@ -77,6 +89,13 @@ public class ETagResponseFilterTest {
       return "hello";
     }
 
+    @GET
+    @Path("/links")
+    @Produces(APPLICATION_JSON)
+    public List<Link> getLinks() {
+      return LINKS;
+    }
+
     @GET
     @Path("/modify")
     @Produces(APPLICATION_JSON)
@@ -133,7 +152,7 @@ public class ETagResponseFilterTest {
     List<Object> headerTags = response.getHttpHeaders().get("ETag");
     Assert.assertNotNull(headerTags);
     Assert.assertEquals(headerTags.size(), 1);
-    Assert.assertEquals(headerTags.get(0), new EntityTag("900150983cd24fb0d6963f7d28e17f72"));
+    Assert.assertEquals(headerTags.get(0), new EntityTag("6778ad3f3f3f96b4522dca264174a23b"));
   }
 
   /** Check if ETag is added in response if we're also using a custom header */
@@ -159,7 +178,7 @@ public class ETagResponseFilterTest {
     // Check etag
     List<Object> headerTags = response.getHttpHeaders().get("ETag");
     Assert.assertNotNull(headerTags);
-    Assert.assertEquals(headerTags.get(0), new EntityTag("77e671575d94cfd400ed26c5ef08e0fd"));
+    Assert.assertEquals(headerTags.get(0), new EntityTag("2915591287dfb635d1b17b33cb80d30c"));
   }
 
   /** Check if ETag is generated for a simple entity of JSON */
@@ -176,7 +195,7 @@ public class ETagResponseFilterTest {
     List<Object> headerTags = response.getHttpHeaders().get("ETag");
     Assert.assertNotNull(headerTags);
     Assert.assertEquals(headerTags.size(), 1);
-    Assert.assertEquals(headerTags.get(0), new EntityTag("5d41402abc4b2a76b9719d911017c592"));
+    Assert.assertEquals(headerTags.get(0), new EntityTag("029bbd41b3a7d8cb191dae486a901e5b"));
   }
 
   /** Check if ETag sent with header is redirecting to NOT_MODIFIED */
@@ -186,7 +205,7 @@ public class ETagResponseFilterTest {
     Map<String, List<String>> headers = new HashMap<>();
     headers.put(
         "If-None-Match",
-        Collections.singletonList(new EntityTag("900150983cd24fb0d6963f7d28e17f72").toString()));
+        Collections.singletonList(new EntityTag("6778ad3f3f3f96b4522dca264174a23b").toString()));
 
     final ContainerResponse response =
         resourceLauncher.service(
@@ -203,7 +222,7 @@ public class ETagResponseFilterTest {
     Map<String, List<String>> headers = new HashMap<>();
     headers.put(
         "If-None-Match",
-        Collections.singletonList(new EntityTag("5d41402abc4b2a76b9719d911017c592").toString()));
+        Collections.singletonList(new EntityTag("029bbd41b3a7d8cb191dae486a901e5b").toString()));
 
     final ContainerResponse response =
         resourceLauncher.service(
@@ -212,4 +231,44 @@ public class ETagResponseFilterTest {
     // check null body
     Assert.assertNull(response.getEntity());
   }
+
+  /** Check if DTO entities are replaced with their serialized form hashed by the ETag */
+  @Test
+  public void filterDtoListEntityTest() throws Exception {
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/links", BASE_URI, null, null, null);
+    assertEquals(response.getStatus(), OK.getStatusCode());
+    // check entity is serialized
+    assertTrue(response.getEntity() instanceof byte[]);
+    byte[] body = (byte[]) response.getEntity();
+    assertEquals(
+        DtoFactory.getInstance().createListDtoFromJson(new String(body, UTF_8), Link.class), LINKS);
+    // Check etag
+    List<Object> headerTags = response.getHttpHeaders().get("ETag");
+    Assert.assertNotNull(headerTags);
+    Assert.assertEquals(
+        headerTags.get(0), new EntityTag(Hashing.murmur3_128().hashBytes(body).toString()));
+    Assert.assertNotNull(response.getHttpHeaders().get(HttpHeaders.CACHE_CONTROL));
+  }
+
+  /** Check if ETag of DTO entities sent with header is redirecting to NOT_MODIFIED */
+  @Test
+  public void filterDtoListEntityTestWithEtag() throws Exception {
+    final ContainerResponse first =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/links", BASE_URI, null, null, null);
+    Object entityTag = first.getHttpHeaders().getFirst("ETag");
+
+    Map<String, List<String>> headers = new HashMap<>();
+    headers.put("If-None-Match", Collections.singletonList(entityTag.toString()));
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/links", BASE_URI, headers, null, null);
+    assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+    // check null body
+    Assert.assertNull(response.getEntity());
+  }
 }
@@ -27,4 +27,8 @@ public interface ExtMediaType {
   String APPLICATION_X_TAR = "application/x-tar";
   /** A {@link MediaType} constant representing "{@value #APPLICATION_X_TAR}" media type. */
   MediaType APPLICATION_X_TAR_TYPE = new MediaType("application", "x-tar");
+  /** A {@code String} constant representing "{@value #APPLICATION_GZIP}" media type. */
+  String APPLICATION_GZIP = "application/gzip";
+  /** A {@link MediaType} constant representing "{@value #APPLICATION_GZIP}" media type. */
+  MediaType APPLICATION_GZIP_TYPE = new MediaType("application", "gzip");
 }
@@ -16,19 +16,23 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static elemental.json.JsonType.ARRAY;
 import static elemental.json.JsonType.BOOLEAN;
 import static elemental.json.JsonType.NUMBER;
+import static elemental.json.JsonType.OBJECT;
 import static elemental.json.JsonType.STRING;
 import static java.util.Collections.singletonList;
 
 import elemental.json.JsonArray;
+import elemental.json.JsonException;
 import elemental.json.JsonFactory;
 import elemental.json.JsonObject;
 import elemental.json.JsonType;
 import elemental.json.JsonValue;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
@@ -49,6 +53,32 @@ public class ElementalJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     return getArray(message, jsonFactory.parse(message));
   }
 
+  @Override
+  public void unmarshal(
+      String message,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer) {
+    checkNotNull(message, "Message must not be null");
+    checkArgument(!message.isEmpty(), "Message must not be empty");
+
+    JsonValue root;
+    try {
+      root = jsonFactory.parse(message);
+    } catch (JsonException e) {
+      throw new JsonRpcException(-32700, "An error occurred while parsing the JSON text");
+    }
+
+    if (!ARRAY.equals(root.getType())) {
+      unmarshalValue(root, requestConsumer, responseConsumer);
+      return;
+    }
+
+    JsonArray jsonArray = (JsonArray) root;
+    for (int i = 0; i < jsonArray.length(); i++) {
+      unmarshalValue(jsonArray.get(i), requestConsumer, responseConsumer);
+    }
+  }
+
   @Override
   public JsonRpcRequest unmarshalRequest(String message) {
     checkNotNull(message, "Message must not be null");
@@ -77,6 +107,26 @@ public class ElementalJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     return new JsonRpcResponse(id, result, error);
   }
 
+  private void unmarshalValue(
+      JsonValue jsonValue,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer) {
+    if (!OBJECT.equals(jsonValue.getType())) {
+      throw new JsonRpcException(-32600, "JSON RPC message must be an object");
+    }
+
+    JsonObject jsonObject = (JsonObject) jsonValue;
+    if (jsonObject.hasKey("method")) {
+      requestConsumer.accept(
+          new JsonRpcRequest(getId(jsonObject), getMethod(jsonObject), getParams(jsonObject)));
+    } else if (jsonObject.hasKey("error") != jsonObject.hasKey("result")) {
+      responseConsumer.accept(
+          new JsonRpcResponse(getId(jsonObject), getResult(jsonObject), getError(jsonObject)));
+    } else {
+      throw new JsonRpcException(-32600, "JSON RPC message is neither a request nor a response");
+    }
+  }
+
   private JsonRpcError getError(JsonObject response) {
     if (response.hasKey("error")) {
       JsonObject errorJsonValue = response.get("error");
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.ide.jsonrpc;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gson.JsonParser;
+import elemental.json.impl.JreJsonFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcUnmarshaller;
+import org.eclipse.che.api.core.jsonrpc.impl.GsonJsonRpcUnmarshaller;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ElementalJsonRpcUnmarshaller}, messages are classified the same way as by the
+ * {@link GsonJsonRpcUnmarshaller} used on the server side.
+ */
+public class ElementalJsonRpcUnmarshallerTest {
+  private static final List<String> MALFORMED_MESSAGES =
+      asList(
+          "{\"jsonrpc\":\"2.0\",\"id\":\"1\"}",
+          "{\"jsonrpc\":\"2.0\",\"id\":\"2\",\"result\":\"r\",\"error\":{\"code\":-1}}",
+          "\"not an object\"",
+          "[{\"jsonrpc\":\"2.0\",\"method\":\"first\"},{\"jsonrpc\":\"2.0\",\"id\":\"3\"}]",
+          "[1]");
+
+  private ElementalJsonRpcUnmarshaller elementalUnmarshaller;
+  private GsonJsonRpcUnmarshaller gsonUnmarshaller;
+
+  @Before
+  public void setUp() {
+    elementalUnmarshaller = new ElementalJsonRpcUnmarshaller(new JreJsonFactory());
+    gsonUnmarshaller = new GsonJsonRpcUnmarshaller(new JsonParser());
+  }
+
+  @Test
+  public void shouldClassifyRequestsAndResponsesInOrder() {
+    String message =
+        "[{\"jsonrpc\":\"2.0\",\"method\":\"first\"},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"3\",\"error\":{\"code\":-1,\"message\":\"e\"}},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"4\",\"result\":\"r\"},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"5\",\"method\":\"second\",\"params\":[1,2]}]";
+
+    assertEquals(asList("first", "3", "4", "second"), classify(elementalUnmarshaller, message));
+    assertEquals(asList("first", "3", "4", "second"), classify(gsonUnmarshaller, message));
+  }
+
+  @Test
+  public void shouldRejectMalformedMessagesAsGsonUnmarshallerDoes() {
+    for (String message : MALFORMED_MESSAGES) {
+      assertEquals(message, -32600, errorCode(gsonUnmarshaller, message));
+      assertEquals(message, -32600, errorCode(elementalUnmarshaller, message));
+    }
+  }
+
+  @Test
+  public void shouldRejectInvalidJsonAsGsonUnmarshallerDoes() {
+    String message = "{\"method\":";
+
+    assertEquals(-32700, errorCode(gsonUnmarshaller, message));
+    assertEquals(-32700, errorCode(elementalUnmarshaller, message));
+  }
+
+  @Test
+  public void shouldNotPassResponseWithoutResultAndError() {
+    List<String> classified = new ArrayList<>();
+    try {
+      elementalUnmarshaller.unmarshal(
+          "{\"jsonrpc\":\"2.0\",\"id\":\"1\"}",
+          request -> classified.add(request.getMethod()),
+          response -> classified.add(response.getId()));
+    } catch (JsonRpcException e) {
+      // expected
+    }
+
+    assertTrue(classified.isEmpty());
+  }
+
+  private static List<String> classify(JsonRpcUnmarshaller unmarshaller, String message) {
+    List<String> classified = new ArrayList<>();
+    unmarshaller.unmarshal(
+        message,
+        request -> classified.add(request.getMethod()),
+        response -> classified.add(response.getId()));
+    return classified;
+  }
+
+  private static int errorCode(JsonRpcUnmarshaller unmarshaller, String message) {
+    try {
+      unmarshaller.unmarshal(message, request -> {}, response -> {});
+    } catch (JsonRpcException e) {
+      return e.getCode();
+    }
+    fail("JsonRpcException expected for " + message);
+    return 0;
+  }
+}
@@ -13,22 +13,34 @@ package org.eclipse.che.infrastructure.docker.client.connection;
 
 import com.google.inject.Inject;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.net.ssl.SSLSocketFactory;
 import org.eclipse.che.infrastructure.docker.client.DockerCertificates;
 import org.eclipse.che.infrastructure.docker.client.DockerConnectorConfiguration;
 
 /**
  * Factory for connections to docker API.
  *
- * <p>Detects connection implementation by checking docker daemon URI.
+ * <p>Detects connection implementation by checking docker daemon URI. Connections to the unix
+ * socket are taken from the pool of the sockets kept alive between requests, connections over TCP
+ * are kept alive by the JDK.
  *
  * @author Alexander Garagatyi
  */
+@Singleton
 public class DockerConnectionFactory {
   public static final String CONNECTION_TIMEOUT_MS_PROPERTY =
       "che.docker.tcp_connection_timeout_ms";
   public static final String CONNECTION_READ_TIMEOUT_MS_PROPERTY =
       "che.docker.tcp_connection_read_timeout_ms";
+  public static final String UNIX_SOCKET_MAX_IDLE_CONNECTIONS_PROPERTY =
+      "che.docker.unix_socket_max_idle_connections";
+  public static final String UNIX_SOCKET_IDLE_TIMEOUT_MS_PROPERTY =
+      "che.docker.unix_socket_idle_timeout_ms";
 
   @Inject(optional = true)
   @Named(CONNECTION_TIMEOUT_MS_PROPERTY)
@@ -38,19 +50,51 @@ public class DockerConnectionFactory {
   @Named(CONNECTION_READ_TIMEOUT_MS_PROPERTY)
   private int connectionReadTimeoutMs = 60000;
 
-  private final DockerCertificates dockerCertificates;
+  /** The maximum number of idle sockets kept in the pool, 0 disables reuse of the sockets. */
+  @Inject(optional = true)
+  @Named(UNIX_SOCKET_MAX_IDLE_CONNECTIONS_PROPERTY)
+  private int unixSocketMaxIdleConnections = 10;
+
+  @Inject(optional = true)
+  @Named(UNIX_SOCKET_IDLE_TIMEOUT_MS_PROPERTY)
+  private int unixSocketIdleTimeoutMs = 30000;
+
+  private final SSLSocketFactory sslSocketFactory;
+  private final DockerConnectionPoolStats poolStats = new DockerConnectionPoolStats();
+  private final Map<String, UnixSocketConnectionPool> unixSocketPools = new ConcurrentHashMap<>();
 
   @Inject
   public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
-    this.dockerCertificates = connectorConfiguration.getDockerCertificates();
+    DockerCertificates dockerCertificates = connectorConfiguration.getDockerCertificates();
+    // the same factory is needed to reuse kept alive https connections
+    this.sslSocketFactory =
+        dockerCertificates != null ? dockerCertificates.getSslContext().getSocketFactory() : null;
   }
 
   public DockerConnection openConnection(URI dockerDaemonUri) {
     if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
-      return new UnixSocketConnection(dockerDaemonUri.getPath());
+      final String socketPath = dockerDaemonUri.getPath();
+      return new UnixSocketConnection(
+          socketPath,
+          unixSocketPools.computeIfAbsent(
+              socketPath,
+              path ->
+                  new UnixSocketConnectionPool(
+                      path, unixSocketMaxIdleConnections, unixSocketIdleTimeoutMs, poolStats)));
     } else {
       return new TcpConnection(
-          dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs);
+          dockerDaemonUri, sslSocketFactory, connectionTimeoutMs, connectionReadTimeoutMs);
     }
   }
+
+  /** Returns statistics of the pooled unix socket connections. */
+  public DockerConnectionPoolStats getPoolStats() {
+    return poolStats;
+  }
+
+  /** Closes the idle pooled connections. */
+  @PreDestroy
+  public void closePools() {
+    unixSocketPools.values().forEach(UnixSocketConnectionPool::close);
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/** Provides metrics of the pooled connections to the docker API. */
+@Singleton
+public class DockerConnectionPoolMeterBinder implements MeterBinder {
+
+  private final DockerConnectionPoolStats stats;
+
+  @Inject
+  public DockerConnectionPoolMeterBinder(DockerConnectionFactory connectionFactory) {
+    this.stats = connectionFactory.getPoolStats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("che.docker.connection.idle", stats, DockerConnectionPoolStats::getIdle)
+        .tags("area", "docker")
+        .description("The number of idle connections in the pool")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.docker.connection.created", stats, DockerConnectionPoolStats::getCreated)
+        .tags("area", "docker")
+        .description("The number of opened connections")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.docker.connection.reused", stats, DockerConnectionPoolStats::getReused)
+        .tags("area", "docker")
+        .description("The number of requests sent over the connections taken from the pool")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.docker.connection.discarded", stats, DockerConnectionPoolStats::getDiscarded)
+        .tags("area", "docker")
+        .description("The number of connections closed instead of returning to the pool")
+        .register(registry);
+  }
+}
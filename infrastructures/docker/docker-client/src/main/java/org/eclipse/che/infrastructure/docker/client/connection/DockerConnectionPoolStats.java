@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the pooled connections to the docker API which are kept alive between requests.
+ *
+ * @see UnixSocketConnectionPool
+ */
+public class DockerConnectionPoolStats {
+
+  private final LongAdder created = new LongAdder();
+  private final LongAdder reused = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+  private final AtomicInteger idle = new AtomicInteger();
+
+  /** Returns the number of opened connections. */
+  public long getCreated() {
+    return created.sum();
+  }
+
+  /** Returns the number of requests sent over the connections taken from the pool. */
+  public long getReused() {
+    return reused.sum();
+  }
+
+  /**
+   * Returns the number of connections which were closed instead of returning to the pool, e.g.
+   * because the response was not read completely or the connection was idle for too long.
+   */
+  public long getDiscarded() {
+    return discarded.sum();
+  }
+
+  /** Returns the number of idle connections in the pool. */
+  public int getIdle() {
+    return idle.get();
+  }
+
+  void created() {
+    created.increment();
+  }
+
+  void reused() {
+    reused.increment();
+  }
+
+  void discarded() {
+    discarded.increment();
+  }
+
+  void idleChanged(int delta) {
+    idle.addAndGet(delta);
+  }
+}
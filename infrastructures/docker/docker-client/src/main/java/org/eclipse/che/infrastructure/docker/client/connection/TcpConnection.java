@@ -18,7 +18,9 @@ import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.util.List;
+import java.util.regex.Pattern;
 import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.infrastructure.docker.client.DockerCertificates;
 
@@ -27,17 +29,41 @@ import org.eclipse.che.infrastructure.docker.client.DockerCertificates;
  * @author Alexander Garagatyi
  */
 public class TcpConnection extends DockerConnection {
+  /**
+   * Paths of the endpoints which hijack the connection or stream the response until the client
+   * closes it, such connections are never kept alive.
+   */
+  private static final Pattern STREAMING_PATH =
+      Pattern.compile(
+          ".*/(containers/[^/]+/(attach|logs)|exec/[^/]+/start|events|build|images/create"
+              + "|images/.+/push)$");
+
   private final URI baseUri;
-  private final DockerCertificates certificates;
+  private final SSLSocketFactory sslSocketFactory;
   private final int connectionTimeout;
   private final int readTimeout;
 
   private HttpURLConnection connection;
+  private TcpDockerResponse response;
 
   public TcpConnection(
       URI baseUri, DockerCertificates certificates, int connectionTimeoutMs, int readTimeoutMs) {
+    this(
+        baseUri,
+        certificates != null ? certificates.getSslContext().getSocketFactory() : null,
+        connectionTimeoutMs,
+        readTimeoutMs);
+  }
+
+  /**
+   * Creates connection which uses the given SSL socket factory for https connections. The same
+   * factory should be passed to all the connections to the same daemon, otherwise the kept alive
+   * https connections are not reused.
+   */
+  public TcpConnection(
+      URI baseUri, SSLSocketFactory sslSocketFactory, int connectionTimeoutMs, int readTimeoutMs) {
     if ("https".equals(baseUri.getScheme())) {
-      if (certificates == null) {
+      if (sslSocketFactory == null) {
         throw new IllegalArgumentException("Certificates are required for https connection.");
       }
     } else if (!("http".equals(baseUri.getScheme()))) {
@@ -45,7 +71,7 @@ public class TcpConnection extends DockerConnection {
           String.format("Invalid URL '%s', only http and https protocols are supported.", baseUri));
     }
     this.baseUri = baseUri;
-    this.certificates = certificates;
+    this.sslSocketFactory = sslSocketFactory;
     this.connectionTimeout = connectionTimeoutMs;
     this.readTimeout = readTimeoutMs;
   }
@@ -61,12 +87,13 @@ public class TcpConnection extends DockerConnection {
     connection.setConnectTimeout(connectionTimeout);
     connection.setReadTimeout(readTimeout);
     if ("https".equals(protocol)) {
-      ((HttpsURLConnection) connection)
-          .setSSLSocketFactory(certificates.getSslContext().getSocketFactory());
+      ((HttpsURLConnection) connection).setSSLSocketFactory(sslSocketFactory);
     }
     connection.setRequestMethod(method);
-    // needed to fix bug https://github.com/docker/docker/issues/12845
-    connection.setRequestProperty("Connection", "close");
+    if (STREAMING_PATH.matcher(path).matches()) {
+      // needed to fix bug https://github.com/docker/docker/issues/12845
+      connection.setRequestProperty("Connection", "close");
+    }
     for (Pair<String, ?> header : headers) {
       connection.setRequestProperty(header.first, String.valueOf(header.second));
     }
@@ -82,12 +109,16 @@ public class TcpConnection extends DockerConnection {
         entity.writeTo(output);
       }
     }
-    return new TcpDockerResponse(connection);
+    return response = new TcpDockerResponse(connection);
   }
 
+  /**
+   * Closes the response stream, so the JDK keeps the connection alive for the next requests if the
+   * response has been read completely. Connection is closed if the response was not read.
+   */
   @Override
   public void close() {
-    if (connection != null) {
+    if (connection != null && (response == null || !response.close())) {
       connection.disconnect();
     }
   }
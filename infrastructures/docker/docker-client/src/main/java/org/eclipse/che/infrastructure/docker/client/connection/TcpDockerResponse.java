@@ -21,6 +21,8 @@ import java.util.Map;
 public class TcpDockerResponse implements DockerResponse {
   private final HttpURLConnection connection;
 
+  private InputStream entityStream;
+
   TcpDockerResponse(HttpURLConnection connection) {
     this.connection = connection;
   }
@@ -53,11 +55,31 @@ public class TcpDockerResponse implements DockerResponse {
   }
 
   @Override
-  public InputStream getInputStream() throws IOException {
-    InputStream entityStream = connection.getErrorStream();
+  public synchronized InputStream getInputStream() throws IOException {
     if (entityStream == null) {
-      entityStream = connection.getInputStream();
+      entityStream = connection.getErrorStream();
+      if (entityStream == null) {
+        entityStream = connection.getInputStream();
+      }
     }
     return entityStream;
   }
+
+  /**
+   * Closes the entity stream, the JDK skips the rest of the entity if it has been already received
+   * and keeps the connection alive, otherwise the connection is closed.
+   *
+   * @return false if the entity stream was not opened or failed to close
+   */
+  synchronized boolean close() {
+    if (entityStream == null) {
+      return false;
+    }
+    try {
+      entityStream.close();
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
 }
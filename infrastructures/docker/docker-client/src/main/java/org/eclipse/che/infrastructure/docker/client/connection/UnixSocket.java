@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.AF_UNIX;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.EAGAIN;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.EWOULDBLOCK;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.MSG_DONTWAIT;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.MSG_PEEK;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.SOCK_STREAM;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.SockAddrUn;
+import static org.eclipse.che.infrastructure.docker.client.CLibraryFactory.getCLibrary;
+
+import com.sun.jna.Native;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import org.eclipse.che.infrastructure.docker.client.CLibrary;
+
+/**
+ * Connected unix socket with the buffered streams which are kept together with the socket, so it
+ * may be used for several HTTP requests.
+ */
+class UnixSocket {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int fd;
+  private final UnixSocketInputStream socketInput;
+  private final InputStream input;
+  private final OutputStream output;
+
+  private long lastUsedNanos;
+
+  static UnixSocket connect(String socketPath) throws IOException {
+    final CLibrary cLib = getCLibrary();
+    int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
+    if (fd == -1) {
+      throw new ConnectException(String.format("Unable connect to unix socket: '%s'", socketPath));
+    }
+    final SockAddrUn sockAddr = new SockAddrUn(socketPath);
+    int c = cLib.connect(fd, sockAddr, sockAddr.size());
+    if (c == -1) {
+      cLib.close(fd);
+      throw new ConnectException(String.format("Unable connect to unix socket: '%s'", socketPath));
+    }
+    return new UnixSocket(fd);
+  }
+
+  private UnixSocket(int fd) {
+    this.fd = fd;
+    this.socketInput = new UnixSocketInputStream(fd);
+    this.input = new BufferedInputStream(socketInput, BUFFER_SIZE);
+    this.output = new BufferedOutputStream(new UnixSocketOutputStream(fd), BUFFER_SIZE);
+  }
+
+  InputStream getInputStream() {
+    return input;
+  }
+
+  OutputStream getOutputStream() {
+    return output;
+  }
+
+  /** @see UnixSocketInputStream#setNonBlocking(boolean) */
+  void setNonBlocking(boolean nonBlocking) {
+    socketInput.setNonBlocking(nonBlocking);
+  }
+
+  long getLastUsedNanos() {
+    return lastUsedNanos;
+  }
+
+  void setLastUsedNanos(long lastUsedNanos) {
+    this.lastUsedNanos = lastUsedNanos;
+  }
+
+  /**
+   * Checks without blocking that the socket is still open and there is no unexpected data left in
+   * it from the previous requests.
+   */
+  boolean isReusable() {
+    try {
+      if (input.available() > 0) {
+        return false;
+      }
+    } catch (IOException e) {
+      return false;
+    }
+    if (getCLibrary().recv(fd, new byte[1], 1, MSG_PEEK | MSG_DONTWAIT) != -1) {
+      // 0 means that the peer closed the connection, positive value means unexpected data
+      return false;
+    }
+    // the socket is open only if it just has nothing to read, any other error makes it unusable
+    final int errno = Native.getLastError();
+    return errno == EAGAIN || errno == EWOULDBLOCK;
+  }
+
+  void close() {
+    getCLibrary().close(fd);
+  }
+}
@@ -11,101 +11,95 @@
  */
 package org.eclipse.che.infrastructure.docker.client.connection;
 
-import static org.eclipse.che.infrastructure.docker.client.CLibrary.AF_UNIX;
-import static org.eclipse.che.infrastructure.docker.client.CLibrary.SOCK_STREAM;
-import static org.eclipse.che.infrastructure.docker.client.CLibrary.SockAddrUn;
-import static org.eclipse.che.infrastructure.docker.client.CLibraryFactory.getCLibrary;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.base.Strings;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.net.ConnectException;
 import java.util.List;
 import org.eclipse.che.commons.lang.Pair;
-import org.eclipse.che.infrastructure.docker.client.CLibrary;
 
 /**
  * @author andrew00x
  * @author Alexander Garagatyi
  */
 public class UnixSocketConnection extends DockerConnection {
+  /** The maximum size of the unread rest of the response which is skipped to reuse the socket. */
+  private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
   private final String dockerSocketPath;
+  private final UnixSocketConnectionPool pool;
 
-  private int fd = -1;
+  private UnixSocket socket;
+  private UnixSocketDockerResponse response;
 
+  /** Creates connection which uses its own socket closed with the connection. */
   public UnixSocketConnection(String dockerSocketPath) {
+    this(dockerSocketPath, null);
+  }
+
+  /** Creates connection which takes the socket from the given pool and returns it on close. */
+  UnixSocketConnection(String dockerSocketPath, UnixSocketConnectionPool pool) {
     this.dockerSocketPath = dockerSocketPath;
+    this.pool = pool;
   }
 
   @Override
   protected DockerResponse request(
       String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
       throws IOException {
-    fd = connect();
-    final OutputStream output = new BufferedOutputStream(openOutputStream(fd));
+    socket = pool != null ? pool.acquire() : UnixSocket.connect(dockerSocketPath);
+    final OutputStream output = socket.getOutputStream();
     writeHttpHeaders(output, method, path, query, headers);
     if (entity != null) {
       entity.writeTo(output);
     }
-    return new UnixSocketDockerResponse(new BufferedInputStream(openInputStream(fd)));
+    output.flush();
+    return response = new UnixSocketDockerResponse(socket.getInputStream());
   }
 
   @Override
   public void close() {
-    if (fd != -1) {
-      getCLibrary().close(fd);
+    if (socket == null) {
+      return;
     }
+    if (pool == null) {
+      socket.close();
+    } else if (response != null && drainResponse()) {
+      pool.release(socket);
+    } else {
+      pool.discard(socket);
+    }
+    socket = null;
   }
 
-  private int connect() throws IOException {
-    final CLibrary cLib = getCLibrary();
-    int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
-    if (fd == -1) {
-      throw new ConnectException(
-          String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
-    }
-    final SockAddrUn sockAddr = new SockAddrUn(dockerSocketPath);
-    int c = cLib.connect(fd, sockAddr, sockAddr.size());
-    if (c == -1) {
-      throw new ConnectException(
-          String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+  /**
+   * Skips the unread rest of the response if it is already received, streamed responses which are
+   * still being sent by the daemon are not waited for.
+   */
+  private boolean drainResponse() {
+    socket.setNonBlocking(true);
+    try {
+      return response.drain(MAX_DRAIN_BYTES);
+    } finally {
+      socket.setNonBlocking(false);
     }
-    return fd;
   }
 
   private void writeHttpHeaders(
       OutputStream output, String method, String path, String query, List<Pair<String, ?>> headers)
       throws IOException {
-    final Writer writer = new OutputStreamWriter(output);
-    writer.write(method);
-    writer.write(' ');
-    writer.write(path);
+    final StringBuilder head = new StringBuilder(256);
+    head.append(method).append(' ').append(path);
     if (!Strings.isNullOrEmpty(query)) {
-      writer.write("?");
-      writer.write(query);
+      head.append('?').append(query);
     }
-    writer.write(" HTTP/1.1\r\n");
+    head.append(" HTTP/1.1\r\n");
     for (Pair<String, ?> header : headers) {
-      writer.write(header.first);
-      writer.write(": ");
-      writer.write(String.valueOf(header.second));
-      writer.write("\r\n");
+      head.append(header.first).append(": ").append(header.second).append("\r\n");
     }
     // Host header is mandatory in HTTP 1.1
-    writer.write("Host: \r\n\r\n");
-    writer.flush();
-  }
-
-  private InputStream openInputStream(int fd) {
-    return new UnixSocketInputStream(fd);
-  }
-
-  private OutputStream openOutputStream(int fd) {
-    return new UnixSocketOutputStream(fd);
+    head.append("Host: \r\n\r\n");
+    output.write(head.toString().getBytes(UTF_8));
   }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the unix sockets of the docker API alive between requests (HTTP/1.1 keep-alive), so the
+ * subsequent requests don't have to connect to the socket again.
+ *
+ * <p>Sockets are returned to the pool only when the response was read completely, the most recently
+ * used socket is taken first. Sockets which are idle for too long, or closed by the daemon, are
+ * closed when they are found in the pool.
+ */
+class UnixSocketConnectionPool {
+  private final String socketPath;
+  private final int maxIdle;
+  private final long idleTimeoutNanos;
+  private final DockerConnectionPoolStats stats;
+
+  // guarded by this, head is the most recently used socket
+  private final Deque<UnixSocket> idle = new ArrayDeque<>();
+  private boolean closed;
+
+  UnixSocketConnectionPool(
+      String socketPath, int maxIdle, long idleTimeoutMs, DockerConnectionPoolStats stats) {
+    this.socketPath = socketPath;
+    this.maxIdle = maxIdle;
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+    this.stats = stats;
+  }
+
+  /** Returns the idle socket from the pool or connects the new one. */
+  UnixSocket acquire() throws IOException {
+    for (UnixSocket socket = poll(); socket != null; socket = poll()) {
+      if (socket.isReusable()) {
+        stats.reused();
+        return socket;
+      }
+      discard(socket);
+    }
+    UnixSocket socket = UnixSocket.connect(socketPath);
+    stats.created();
+    return socket;
+  }
+
+  /** Returns the socket to the pool, the response to the previous request must be fully read. */
+  void release(UnixSocket socket) {
+    final long now = System.nanoTime();
+    socket.setLastUsedNanos(now);
+    UnixSocket evicted = null;
+    synchronized (this) {
+      if (!closed && maxIdle > 0) {
+        idle.addFirst(socket);
+        stats.idleChanged(1);
+        socket = null;
+        if (idle.size() > maxIdle || now - idle.getLast().getLastUsedNanos() > idleTimeoutNanos) {
+          evicted = idle.removeLast();
+          stats.idleChanged(-1);
+        }
+      }
+    }
+    if (socket != null) {
+      discard(socket);
+    }
+    if (evicted != null) {
+      discard(evicted);
+    }
+  }
+
+  /** Closes the socket which cannot be reused. */
+  void discard(UnixSocket socket) {
+    stats.discarded();
+    socket.close();
+  }
+
+  /** Closes all the idle sockets, sockets which are released afterwards are closed as well. */
+  void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    for (UnixSocket socket = poll(); socket != null; socket = poll()) {
+      socket.close();
+    }
+  }
+
+  /** Takes the most recently used socket which is not idle for too long. */
+  private UnixSocket poll() {
+    UnixSocket expired = null;
+    UnixSocket socket;
+    synchronized (this) {
+      socket = idle.pollFirst();
+      if (socket == null) {
+        return null;
+      }
+      stats.idleChanged(-1);
+      if (System.nanoTime() - socket.getLastUsedNanos() > idleTimeoutNanos) {
+        // the rest of the sockets have been idle even longer
+        expired = socket;
+        socket = null;
+        stats.idleChanged(-idle.size());
+        idle.forEach(this::discard);
+        idle.clear();
+      }
+    }
+    if (expired != null) {
+      discard(expired);
+    }
+    return socket;
+  }
+}
@@ -155,4 +155,35 @@ public class UnixSocketDockerResponse implements DockerResponse {
             ? new ChunkedInputStream(rawData)
             : rawData;
   }
+
+  /**
+   * Reads the rest of the response entity, so the connection may be used for the next request.
+   *
+   * @param maxBytes the maximum number of bytes to skip
+   * @return true if the whole response has been read and the connection may be reused, false
+   *     otherwise, e.g. when the entity is streamed until the connection is closed
+   */
+  synchronized boolean drain(int maxBytes) {
+    if (headersFields == null || data == rawData) {
+      // the response was not read or its end may be detected only by closing of the connection
+      return false;
+    }
+    try {
+      if (getStatus() == 101 || "close".equalsIgnoreCase(getHeader("Connection"))) {
+        return false;
+      }
+      final byte[] buf = new byte[Math.min(maxBytes + 1, 8192)];
+      int skipped = 0;
+      int n;
+      while ((n = data.read(buf, 0, Math.min(buf.length, maxBytes + 1 - skipped))) != -1) {
+        skipped += n;
+        if (skipped > maxBytes) {
+          return false;
+        }
+      }
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
 }
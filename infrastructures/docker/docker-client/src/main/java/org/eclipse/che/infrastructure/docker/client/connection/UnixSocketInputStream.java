@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.infrastructure.docker.client.connection;
 
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.MSG_DONTWAIT;
 import static org.eclipse.che.infrastructure.docker.client.CLibraryFactory.getCLibrary;
 
 import com.sun.jna.LastErrorException;
@@ -23,10 +24,20 @@ public class UnixSocketInputStream extends InputStream {
   private final int fd;
   private final CLibrary cLib = getCLibrary();
 
+  private boolean nonBlocking;
+
   UnixSocketInputStream(int fd) {
     this.fd = fd;
   }
 
+  /**
+   * Switches the stream to the mode in which reads fail with {@link IOException} instead of waiting
+   * when there is no data received from the socket.
+   */
+  void setNonBlocking(boolean nonBlocking) {
+    this.nonBlocking = nonBlocking;
+  }
+
   @Override
   public int read() throws IOException {
     final byte[] bytes = new byte[1];
@@ -54,10 +65,13 @@ public class UnixSocketInputStream extends InputStream {
     }
     int n;
     try {
-      n = cLib.recv(fd, b, len, 0);
+      n = cLib.recv(fd, b, len, nonBlocking ? MSG_DONTWAIT : 0);
     } catch (LastErrorException e) {
       throw new IOException("error: " + cLib.strerror(e.getErrorCode()));
     }
+    if (n == -1 && nonBlocking) {
+      throw new IOException("No data available in the socket");
+    }
     if (n == 0) {
       return -1;
     }
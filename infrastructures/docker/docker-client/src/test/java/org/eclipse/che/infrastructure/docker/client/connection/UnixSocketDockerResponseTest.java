@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.io.CharStreams;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import org.testng.annotations.Test;
+
+/** Tests {@link UnixSocketDockerResponse#drain(int)}. */
+public class UnixSocketDockerResponseTest {
+
+  @Test
+  public void shouldDrainPartiallyReadEntityWithContentLength() throws IOException {
+    InputStream input =
+        stream(
+            "HTTP/1.1 200 OK\r\nContent-Length: 6\r\n\r\n{...}\n"
+                + "HTTP/1.1 204 No Content\r\nContent-Length: 0\r\n\r\n");
+    UnixSocketDockerResponse response = new UnixSocketDockerResponse(input);
+    assertEquals(response.getStatus(), 200);
+    assertEquals(response.getInputStream().read(new byte[5]), 5);
+
+    assertTrue(response.drain(1024));
+
+    // next response is read from the same stream
+    UnixSocketDockerResponse next = new UnixSocketDockerResponse(input);
+    assertEquals(next.getStatus(), 204);
+    assertTrue(next.drain(1024));
+  }
+
+  @Test
+  public void shouldDrainChunkedEntity() throws IOException {
+    InputStream input =
+        stream(
+            "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "3\r\nabc\r\n2\r\nde\r\n0\r\n\r\n"
+                + "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok");
+    UnixSocketDockerResponse response = new UnixSocketDockerResponse(input);
+    assertEquals(response.getStatus(), 200);
+
+    assertTrue(response.drain(1024));
+
+    UnixSocketDockerResponse next = new UnixSocketDockerResponse(input);
+    assertEquals(CharStreams.toString(new InputStreamReader(next.getInputStream(), UTF_8)), "ok");
+  }
+
+  @Test
+  public void shouldNotReuseConnectionWhenEntityIsBiggerThanLimit() throws IOException {
+    UnixSocketDockerResponse response =
+        new UnixSocketDockerResponse(
+            stream("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\n0123456789"));
+    response.getStatus();
+
+    assertFalse(response.drain(5));
+  }
+
+  @Test
+  public void shouldNotReuseConnectionWhenEntityEndsWithConnection() throws IOException {
+    UnixSocketDockerResponse response =
+        new UnixSocketDockerResponse(stream("HTTP/1.1 200 OK\r\n\r\nraw stream"));
+    response.getStatus();
+
+    assertFalse(response.drain(1024));
+  }
+
+  @Test
+  public void shouldNotReuseConnectionWhenDaemonClosesIt() throws IOException {
+    UnixSocketDockerResponse response =
+        new UnixSocketDockerResponse(
+            stream("HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: 0\r\n\r\n"));
+    response.getStatus();
+
+    assertFalse(response.drain(1024));
+  }
+
+  @Test
+  public void shouldNotReuseConnectionWhenItIsUpgraded() throws IOException {
+    UnixSocketDockerResponse response =
+        new UnixSocketDockerResponse(
+            stream("HTTP/1.1 101 UPGRADED\r\nUpgrade: tcp\r\nContent-Length: 0\r\n\r\n"));
+    response.getStatus();
+
+    assertFalse(response.drain(1024));
+  }
+
+  @Test
+  public void shouldNotReuseConnectionWhenResponseWasNotRead() {
+    UnixSocketDockerResponse response =
+        new UnixSocketDockerResponse(stream("HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n"));
+
+    assertFalse(response.drain(1024));
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(UTF_8));
+  }
+}
@@ -60,6 +60,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import okhttp3.Response;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfrastructureException;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.event.PodActionHandler;
@@ -100,6 +101,7 @@ public class KubernetesDeployments {
   protected final String namespace;
   protected final String workspaceId;
   private final KubernetesClientFactory clientFactory;
+  private final KubernetesNamespaceInformers informers;
   private final ConcurrentLinkedQueue<PodActionHandler> podActionHandlers;
   private final ConcurrentLinkedQueue<PodEventHandler> containerEventsHandlers;
   private Watch podWatch;
@@ -108,9 +110,22 @@ public class KubernetesDeployments {
 
   protected KubernetesDeployments(
       String namespace, String workspaceId, KubernetesClientFactory clientFactory) {
+    this(namespace, workspaceId, clientFactory, null);
+  }
+
+  /**
+   * Creates deployments which receive the pods and the events of the namespace from the shared
+   * informer, if the informers are not provided, each workspace watches the namespace on its own.
+   */
+  protected KubernetesDeployments(
+      String namespace,
+      String workspaceId,
+      KubernetesClientFactory clientFactory,
+      @Nullable KubernetesNamespaceInformers informers) {
     this.namespace = namespace;
     this.workspaceId = workspaceId;
     this.clientFactory = clientFactory;
+    this.informers = informers;
     this.containerEventsHandlers = new ConcurrentLinkedQueue<>();
     this.podActionHandlers = new ConcurrentLinkedQueue<>();
   }
@@ -170,12 +185,12 @@ public class KubernetesDeployments {
       throws InfrastructureException {
     final String deploymentName = deployment.getMetadata().getName();
     final CompletableFuture<Pod> createFuture = new CompletableFuture<>();
+    final CreateWatcher createWatcher = new CreateWatcher(createFuture, workspaceId, deploymentName);
+    final NamespaceInformer informer = getInformer();
     final Watch createWatch =
-        clientFactory
-            .create(workspaceId)
-            .pods()
-            .inNamespace(namespace)
-            .watch(new CreateWatcher(createFuture, workspaceId, deploymentName));
+        informer != null
+            ? informer.watchPods(workspaceId, createWatcher)
+            : clientFactory.create(workspaceId).pods().inNamespace(namespace).watch(createWatcher);
     try {
       clientFactory
           .create(workspaceId)
@@ -229,6 +244,11 @@ public class KubernetesDeployments {
    * @throws InfrastructureException when any exception occurs
    */
   public List<Pod> get() throws InfrastructureException {
+    NamespaceInformer informer = getInformer();
+    List<Pod> cachedPods = informer != null ? informer.getPods(workspaceId) : null;
+    if (cachedPods != null) {
+      return cachedPods;
+    }
     try {
       return clientFactory
           .create(workspaceId)
@@ -270,12 +290,9 @@ public class KubernetesDeployments {
     CompletableFuture<Pod> future = new CompletableFuture<>();
     Watch watch = null;
     try {
-
-      PodResource<Pod, DoneablePod> podResource =
-          clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName);
-
       watch =
-          podResource.watch(
+          watchPod(
+              podName,
               new Watcher<Pod>() {
                 @Override
                 public void eventReceived(Action action, Pod pod) {
@@ -292,7 +309,7 @@ public class KubernetesDeployments {
                 }
               });
 
-      Pod actualPod = podResource.get();
+      Pod actualPod = getPod(podName);
       if (actualPod == null) {
         if (name.equals(podName)) { // `name` refers to a bare pod
           throw new InfrastructureException("Specified pod " + podName + " doesn't exist");
@@ -346,10 +363,9 @@ public class KubernetesDeployments {
     final CompletableFuture<Void> podRunningFuture = new CompletableFuture<>();
     try {
       final String podName = getPodName(name);
-      final PodResource<Pod, DoneablePod> podResource =
-          clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName);
       final Watch watch =
-          podResource.watch(
+          watchPod(
+              podName,
               new Watcher<Pod>() {
                 @Override
                 public void eventReceived(Action action, Pod pod) {
@@ -365,7 +381,7 @@ public class KubernetesDeployments {
               });
 
       podRunningFuture.whenComplete((ok, ex) -> watch.close());
-      final Pod pod = podResource.get();
+      final Pod pod = getPod(podName);
       if (pod == null) {
         InfrastructureException ex;
         if (name.equals(podName)) { // `name` refers to bare pod
@@ -442,14 +458,17 @@ public class KubernetesDeployments {
             @Override
             public void onClose(KubernetesClientException ignored) {}
           };
+      final NamespaceInformer informer = getInformer();
       try {
         podWatch =
-            clientFactory
-                .create(workspaceId)
-                .pods()
-                .inNamespace(namespace)
-                .withLabel(CHE_WORKSPACE_ID_LABEL, workspaceId)
-                .watch(watcher);
+            informer != null
+                ? informer.watchPods(workspaceId, watcher)
+                : clientFactory
+                    .create(workspaceId)
+                    .pods()
+                    .inNamespace(namespace)
+                    .withLabel(CHE_WORKSPACE_ID_LABEL, workspaceId)
+                    .watch(watcher);
       } catch (KubernetesClientException ex) {
         throw new KubernetesInfrastructureException(ex);
       }
@@ -465,73 +484,14 @@ public class KubernetesDeployments {
    */
   public void watchEvents(PodEventHandler handler) throws InfrastructureException {
     if (containerWatch == null) {
-      final Watcher<Event> watcher =
-          new Watcher<Event>() {
-            @Override
-            public void eventReceived(Action action, Event event) {
-              ObjectReference involvedObject = event.getInvolvedObject();
-
-              if (POD_OBJECT_KIND.equals(involvedObject.getKind())) {
-
-                String podName = involvedObject.getName();
-
-                PodEvent podEvent =
-                    new PodEvent(
-                        podName,
-                        getContainerName(involvedObject.getFieldPath()),
-                        event.getReason(),
-                        event.getMessage(),
-                        event.getMetadata().getCreationTimestamp(),
-                        event.getLastTimestamp());
-
-                try {
-                  if (happenedAfterWatcherInitialization(podEvent)) {
-                    containerEventsHandlers.forEach(h -> h.handle(podEvent));
-                  }
-                } catch (ParseException | IllegalArgumentException e) {
-                  LOG.error(
-                      "Failed to parse last timestamp of the event. Cause: {}. Event: {}",
-                      e.getMessage(),
-                      podEvent);
-                }
-              }
-            }
-
-            @Override
-            public void onClose(KubernetesClientException ignored) {}
-
-            /**
-             * Returns the container name if the event is related to container. When the event is
-             * related to container `fieldPath` field contain information in the following format:
-             * `spec.container{web}`, where `web` is container name
-             */
-            private String getContainerName(String fieldPath) {
-              String containerName = null;
-              if (fieldPath != null) {
-                Matcher containerFieldMatcher = CONTAINER_FIELD_PATH_PATTERN.matcher(fieldPath);
-                if (containerFieldMatcher.matches()) {
-                  containerName = containerFieldMatcher.group(CONTAINER_NAME_GROUP);
-                }
-              }
-              return containerName;
-            }
-
-            /**
-             * Returns true if 'lastTimestamp' of the event is *after* the time of the watcher
-             * initialization
-             */
-            private boolean happenedAfterWatcherInitialization(PodEvent event)
-                throws ParseException {
-              String eventLastTimestamp = event.getLastTimestamp();
-              Date eventLastTimestampDate =
-                  PodEvents.convertEventTimestampToDate(eventLastTimestamp);
-              return eventLastTimestampDate.after(watcherInitializationDate);
-            }
-          };
+      final Watcher<Event> watcher = new PodEventsWatcher();
+      final NamespaceInformer informer = getInformer();
       try {
         watcherInitializationDate = new Date();
         containerWatch =
-            clientFactory.create(workspaceId).events().inNamespace(namespace).watch(watcher);
+            informer != null
+                ? informer.watchEvents(workspaceId, watcher)
+                : clientFactory.create(workspaceId).events().inNamespace(namespace).watch(watcher);
       } catch (KubernetesClientException ex) {
         throw new KubernetesInfrastructureException(ex);
       }
@@ -778,9 +738,7 @@ public class KubernetesDeployments {
       // If we have a Pod, we have to watch to make sure it is deleted, otherwise, we watch the
       // Deployment we are deleting.
       if (!Strings.isNullOrEmpty(podName)) {
-        PodResource<Pod, DoneablePod> podResource =
-            clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName);
-        watch = podResource.watch(new DeleteWatcher<Pod>(deleteFuture));
+        watch = watchPod(podName, new DeleteWatcher<Pod>(deleteFuture));
         toCloseOnException = watch;
       } else {
         watch = deploymentResource.watch(new DeleteWatcher<Deployment>(deleteFuture));
@@ -823,7 +781,7 @@ public class KubernetesDeployments {
       }
 
       final CompletableFuture<Void> deleteFuture = new CompletableFuture<>();
-      final Watch watch = podResource.watch(new DeleteWatcher<Pod>(deleteFuture));
+      final Watch watch = watchPod(podName, new DeleteWatcher<Pod>(deleteFuture));
       toCloseOnException = watch;
 
       Boolean deleteSucceeded = podResource.delete();
@@ -863,10 +821,22 @@ public class KubernetesDeployments {
   }
 
   private Optional<Pod> findPod(String name) throws InfrastructureException {
-    Pod pod = clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(name).get();
+    Pod pod = getPod(name);
     if (pod != null) {
       return Optional.of(pod);
     }
+    NamespaceInformer informer = getInformer();
+    List<Pod> cachedPods = informer != null ? informer.getPods(workspaceId) : null;
+    if (cachedPods != null) {
+      List<Pod> deploymentPods =
+          cachedPods
+              .stream()
+              .filter(p -> name.equals(p.getMetadata().getLabels().get(CHE_DEPLOYMENT_NAME_LABEL)))
+              .collect(Collectors.toList());
+      if (deploymentPods.size() == 1) {
+        return Optional.of(deploymentPods.get(0));
+      }
+    }
     Deployment deployment =
         clientFactory
             .create(workspaceId)
@@ -897,6 +867,43 @@ public class KubernetesDeployments {
     return Optional.of(pods.get(0));
   }
 
+  /**
+   * Returns the pod with the given name from the informer of the namespace if the pod is cached,
+   * otherwise fetches it from the API server.
+   */
+  @Nullable
+  private Pod getPod(String podName) throws InfrastructureException {
+    NamespaceInformer informer = getInformer();
+    Pod pod = informer != null ? informer.getPod(podName) : null;
+    if (pod != null) {
+      return pod;
+    }
+    try {
+      return clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName).get();
+    } catch (KubernetesClientException e) {
+      throw new KubernetesInfrastructureException(e);
+    }
+  }
+
+  /** Registers the watcher on the informer of the namespace or watches the pod on its own. */
+  private Watch watchPod(String podName, Watcher<Pod> watcher) throws InfrastructureException {
+    NamespaceInformer informer = getInformer();
+    if (informer != null) {
+      return informer.watchPod(podName, watcher);
+    }
+    return clientFactory
+        .create(workspaceId)
+        .pods()
+        .inNamespace(namespace)
+        .withName(podName)
+        .watch(watcher);
+  }
+
+  @Nullable
+  private NamespaceInformer getInformer() {
+    return informers != null ? informers.get(namespace) : null;
+  }
+
   /**
    * Returns the name of a specified Pod given either the actual Pod name or the name of the
    * Deployment that controls it. <br>
@@ -916,6 +923,67 @@ public class KubernetesDeployments {
     }
   }
 
+  private class PodEventsWatcher implements Watcher<Event> {
+
+    @Override
+    public void eventReceived(Action action, Event event) {
+      ObjectReference involvedObject = event.getInvolvedObject();
+
+      if (POD_OBJECT_KIND.equals(involvedObject.getKind())) {
+
+        String podName = involvedObject.getName();
+
+        PodEvent podEvent =
+            new PodEvent(
+                podName,
+                getContainerName(involvedObject.getFieldPath()),
+                event.getReason(),
+                event.getMessage(),
+                event.getMetadata().getCreationTimestamp(),
+                event.getLastTimestamp());
+
+        try {
+          if (happenedAfterWatcherInitialization(podEvent)) {
+            containerEventsHandlers.forEach(h -> h.handle(podEvent));
+          }
+        } catch (ParseException | IllegalArgumentException e) {
+          LOG.error(
+              "Failed to parse last timestamp of the event. Cause: {}. Event: {}",
+              e.getMessage(),
+              podEvent);
+        }
+      }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException ignored) {}
+
+    /**
+     * Returns the container name if the event is related to container. When the event is related
+     * to container `fieldPath` field contain information in the following format:
+     * `spec.container{web}`, where `web` is container name
+     */
+    private String getContainerName(String fieldPath) {
+      String containerName = null;
+      if (fieldPath != null) {
+        Matcher containerFieldMatcher = CONTAINER_FIELD_PATH_PATTERN.matcher(fieldPath);
+        if (containerFieldMatcher.matches()) {
+          containerName = containerFieldMatcher.group(CONTAINER_NAME_GROUP);
+        }
+      }
+      return containerName;
+    }
+
+    /**
+     * Returns true if 'lastTimestamp' of the event is *after* the time of the watcher initialization
+     */
+    private boolean happenedAfterWatcherInitialization(PodEvent event) throws ParseException {
+      String eventLastTimestamp = event.getLastTimestamp();
+      Date eventLastTimestampDate = PodEvents.convertEventTimestampToDate(eventLastTimestamp);
+      return eventLastTimestampDate.after(watcherInitializationDate);
+    }
+  }
+
   private static class CreateWatcher implements Watcher<Pod> {
 
     private final CompletableFuture<Pod> future;
@@ -16,6 +16,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.commons.annotation.Nullable;
@@ -33,16 +34,26 @@ public class KubernetesNamespaceFactory {
   private final boolean isPredefined;
   private final String serviceAccountName;
   private final KubernetesClientFactory clientFactory;
+  private final KubernetesNamespaceInformers informers;
 
   @Inject
   public KubernetesNamespaceFactory(
       @Nullable @Named("che.infra.kubernetes.namespace") String namespaceName,
       @Nullable @Named("che.infra.kubernetes.service_account_name") String serviceAccountName,
+      @Named("che.infra.kubernetes.informer.enabled") boolean informerEnabled,
+      @Named("che.infra.kubernetes.informer.resync_period_min") long informerResyncPeriodMin,
+      @Named("che.infra.kubernetes.informer.max_cached_pods") int informerMaxCachedPods,
       KubernetesClientFactory clientFactory) {
     this.namespaceName = namespaceName;
     this.isPredefined = !isNullOrEmpty(namespaceName);
     this.serviceAccountName = serviceAccountName;
     this.clientFactory = clientFactory;
+    // the informer is shared by the workspaces only when they run in the same namespace
+    this.informers =
+        isPredefined && informerEnabled
+            ? new KubernetesNamespaceInformers(
+                clientFactory, informerResyncPeriodMin, informerMaxCachedPods)
+            : null;
   }
 
   /**
@@ -94,7 +105,24 @@ public class KubernetesNamespaceFactory {
 
   @VisibleForTesting
   KubernetesNamespace doCreateNamespace(String workspaceId, String name) {
-    return new KubernetesNamespace(clientFactory, name, workspaceId);
+    return new KubernetesNamespace(clientFactory, name, workspaceId, getInformers(name));
+  }
+
+  /**
+   * Returns the informers which are shared by the workspaces of the predefined namespace, or null
+   * if the given namespace is not predefined or the informers are disabled.
+   */
+  @Nullable
+  protected KubernetesNamespaceInformers getInformers(String name) {
+    return informers != null && namespaceName.equals(name) ? informers : null;
+  }
+
+  /** Stops the informers of the predefined namespace. */
+  @PreDestroy
+  public void stopInformers() {
+    if (informers != null) {
+      informers.stop();
+    }
   }
 
   @VisibleForTesting
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the informers of the namespaces which are shared by the workspaces, so that the pods and
+ * the events of all the workspaces in a namespace are received by a single pair of watches instead
+ * of a pair of watches per workspace.
+ *
+ * <p>Informers are started lazily with the credentials of the infrastructure and are resynced
+ * periodically. When an informer can't be started, {@link #get(String)} returns null and callers
+ * are expected to talk to the API server directly. An informer is started by the first caller
+ * without holding any lock, the concurrent callers wait for the start of the same informer.
+ */
+public class KubernetesNamespaceInformers {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KubernetesNamespaceInformers.class);
+
+  private static final long START_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+
+  private final KubernetesClientFactory clientFactory;
+  private final long resyncPeriodMin;
+  private final int maxCachedPods;
+
+  private final Map<String, CompletableFuture<NamespaceInformer>> informers =
+      new ConcurrentHashMap<>();
+  private final Map<String, Long> failedStarts = new ConcurrentHashMap<>();
+
+  // guarded by this
+  private ScheduledExecutorService scheduler;
+  private volatile boolean stopped;
+
+  public KubernetesNamespaceInformers(
+      KubernetesClientFactory clientFactory, long resyncPeriodMin, int maxCachedPods) {
+    this.clientFactory = clientFactory;
+    this.resyncPeriodMin = resyncPeriodMin;
+    this.maxCachedPods = maxCachedPods;
+  }
+
+  /**
+   * Returns the started informer of the namespace, or null if the informer can't be started.
+   *
+   * @param namespace name of the namespace
+   */
+  @Nullable
+  NamespaceInformer get(String namespace) {
+    if (stopped) {
+      return null;
+    }
+    CompletableFuture<NamespaceInformer> informer = informers.get(namespace);
+    if (informer == null) {
+      Long failedAt = failedStarts.get(namespace);
+      if (failedAt != null && System.currentTimeMillis() - failedAt < START_RETRY_DELAY_MS) {
+        return null;
+      }
+      CompletableFuture<NamespaceInformer> starting = new CompletableFuture<>();
+      informer = informers.putIfAbsent(namespace, starting);
+      if (informer == null) {
+        informer = starting;
+        start(namespace, starting);
+      }
+    }
+    return informer.join();
+  }
+
+  /** Stops all the informers. */
+  public synchronized void stop() {
+    stopped = true;
+    for (CompletableFuture<NamespaceInformer> informer : informers.values()) {
+      // informers which are being started are stopped by the starting thread
+      NamespaceInformer started = informer.getNow(null);
+      if (started != null) {
+        started.stop();
+      }
+    }
+    informers.clear();
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private void start(String namespace, CompletableFuture<NamespaceInformer> future) {
+    NamespaceInformer informer = null;
+    try {
+      // created under the try, so that the waiting callers are released if it fails
+      informer = newInformer(namespace);
+      informer.start();
+    } catch (InfrastructureException | RuntimeException e) {
+      LOG.warn(
+          "Pods of namespace '{}' will be fetched from the API server. Cause: {}",
+          namespace,
+          e.getMessage());
+      if (informer != null) {
+        informer.stop();
+      }
+      failedStarts.put(namespace, System.currentTimeMillis());
+      informers.remove(namespace, future);
+      future.complete(null);
+      return;
+    }
+    failedStarts.remove(namespace);
+    synchronized (this) {
+      if (stopped) {
+        informer.stop();
+        future.complete(null);
+        return;
+      }
+      if (resyncPeriodMin > 0) {
+        scheduler.scheduleWithFixedDelay(
+            informer::resync, resyncPeriodMin, resyncPeriodMin, TimeUnit.MINUTES);
+      }
+      // completed under the lock, so the informer is either stopped here or seen by stop()
+      future.complete(informer);
+    }
+  }
+
+  @VisibleForTesting
+  NamespaceInformer newInformer(String namespace) {
+    return new NamespaceInformer(namespace, clientFactory, scheduler(), maxCachedPods);
+  }
+
+  private synchronized ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("KubernetesNamespaceInformer")
+                  .build());
+    }
+    return scheduler;
+  }
+}
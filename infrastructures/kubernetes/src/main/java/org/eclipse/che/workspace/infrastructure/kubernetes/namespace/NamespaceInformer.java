@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace;
+
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
+
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.ObjectReference;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared cache of the workspace pods of a namespace which is kept up to date by a single watch of
+ * the pods labeled with the workspace id. Events of the namespace are received by a single watch as
+ * well.
+ *
+ * <p>Instead of opening their own watches, {@link KubernetesDeployments} of the workspaces register
+ * watchers of the pods of a workspace, of a pod with a given name or of the events related to the
+ * pods of a workspace. Watchers are called from the threads of the shared watches and are not
+ * closed when the shared watch is restarted: the pods are listed again and the changes missed while
+ * the watch was down are dispatched to the watchers.
+ *
+ * @see KubernetesNamespaceInformers
+ */
+class NamespaceInformer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NamespaceInformer.class);
+
+  private static final String POD_OBJECT_KIND = "Pod";
+  private static final long RESTART_DELAY_SEC = 5;
+
+  private final String namespace;
+  private final KubernetesClientFactory clientFactory;
+  private final ScheduledExecutorService scheduler;
+  private final int maxCachedPods;
+
+  private final Map<String, Pod> pods = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> podNamesByWorkspace = new ConcurrentHashMap<>();
+  private final Map<String, Set<Watcher<Pod>>> workspacePodWatchers = new ConcurrentHashMap<>();
+  private final Map<String, Set<Watcher<Pod>>> podWatchers = new ConcurrentHashMap<>();
+  private final Map<String, Set<Watcher<Event>>> eventWatchers = new ConcurrentHashMap<>();
+  // names of the pods which are not cached because of the cache limit
+  private final Set<String> uncachedPods = ConcurrentHashMap.newKeySet();
+
+  // guarded by this, events of the closed watches are ignored
+  private long podWatchGeneration;
+  private Watch podWatch;
+  private Watch eventWatch;
+  private boolean stopped;
+
+  private volatile boolean synced;
+  private volatile boolean overflowWarned;
+
+  NamespaceInformer(
+      String namespace,
+      KubernetesClientFactory clientFactory,
+      ScheduledExecutorService scheduler,
+      int maxCachedPods) {
+    this.namespace = namespace;
+    this.clientFactory = clientFactory;
+    this.scheduler = scheduler;
+    this.maxCachedPods = maxCachedPods;
+  }
+
+  /**
+   * Lists the pods and starts the shared watches.
+   *
+   * @throws InfrastructureException if the pods cannot be listed or watched
+   */
+  synchronized void start() throws InfrastructureException {
+    try {
+      restartPodWatch();
+      if (eventWatch == null) {
+        eventWatch = client().events().inNamespace(namespace).watch(new EventWatcher());
+      }
+    } catch (KubernetesClientException e) {
+      throw new InfrastructureException(
+          String.format(
+              "Failed to start informer of namespace '%s'. Cause: %s", namespace, e.getMessage()),
+          e);
+    }
+  }
+
+  /**
+   * Lists the pods again and dispatches the changes which may be missed by the watch, then watches
+   * the pods starting from the listed version.
+   */
+  synchronized void resync() {
+    if (stopped) {
+      return;
+    }
+    try {
+      restartPodWatch();
+    } catch (InfrastructureException | KubernetesClientException e) {
+      LOG.warn("Failed to resync pods of namespace '{}'. Cause: {}", namespace, e.getMessage());
+      synced = false;
+      scheduleRestart();
+    }
+  }
+
+  /** Closes the shared watches, registered watchers are not notified. */
+  synchronized void stop() {
+    stopped = true;
+    synced = false;
+    closeQuietly(podWatch);
+    closeQuietly(eventWatch);
+  }
+
+  /**
+   * Returns the cached pod with the given name, or null if the pod is not cached or the cache may
+   * be stale because the watch is being restarted.
+   */
+  @Nullable
+  Pod getPod(String name) {
+    return synced ? pods.get(name) : null;
+  }
+
+  /**
+   * Returns the cached pods of the workspace, or null if the cache may be stale because the watch
+   * is being restarted or some of the pods were not cached because of the cache limit.
+   */
+  @Nullable
+  List<Pod> getPods(String workspaceId) {
+    if (!synced || !uncachedPods.isEmpty()) {
+      return null;
+    }
+    List<Pod> workspacePods = new ArrayList<>();
+    for (String podName : podNamesByWorkspace.getOrDefault(workspaceId, new HashSet<>())) {
+      Pod pod = pods.get(podName);
+      if (pod != null) {
+        workspacePods.add(pod);
+      }
+    }
+    return workspacePods;
+  }
+
+  /** Registers watcher of the pods labeled with the given workspace id. */
+  Watch watchPods(String workspaceId, Watcher<Pod> watcher) {
+    return register(workspacePodWatchers, workspaceId, watcher);
+  }
+
+  /** Registers watcher of the pod with the given name. */
+  Watch watchPod(String podName, Watcher<Pod> watcher) {
+    return register(podWatchers, podName, watcher);
+  }
+
+  /**
+   * Registers watcher of the events related to the pods labeled with the given workspace id.
+   * Events related to the pods which are not cached yet are delivered to all the event watchers.
+   */
+  Watch watchEvents(String workspaceId, Watcher<Event> watcher) {
+    return register(eventWatchers, workspaceId, watcher);
+  }
+
+  private <T> Watch register(
+      Map<String, Set<Watcher<T>>> watchers, String key, Watcher<T> watcher) {
+    watchers.computeIfAbsent(key, k -> new CopyOnWriteArraySet<>()).add(watcher);
+    return () ->
+        watchers.computeIfPresent(
+            key,
+            (k, keyWatchers) -> {
+              keyWatchers.remove(watcher);
+              return keyWatchers.isEmpty() ? null : keyWatchers;
+            });
+  }
+
+  private void restartPodWatch() throws InfrastructureException {
+    closeQuietly(podWatch);
+    final long generation = ++podWatchGeneration;
+    PodList list =
+        client().pods().inNamespace(namespace).withLabel(CHE_WORKSPACE_ID_LABEL).list();
+    Set<String> listed = new HashSet<>();
+    for (Pod pod : list.getItems()) {
+      String name = pod.getMetadata().getName();
+      listed.add(name);
+      Pod cached = pods.get(name);
+      if (cached == null) {
+        onPodEvent(Action.ADDED, pod);
+      } else if (!Objects.equals(
+          cached.getMetadata().getResourceVersion(), pod.getMetadata().getResourceVersion())) {
+        onPodEvent(Action.MODIFIED, pod);
+      }
+    }
+    for (Pod cached : new ArrayList<>(pods.values())) {
+      if (!listed.contains(cached.getMetadata().getName())) {
+        onPodEvent(Action.DELETED, cached);
+      }
+    }
+    uncachedPods.retainAll(listed);
+    // the deletions above may free the cache for the pods which didn't fit into it while listing
+    for (Pod pod : list.getItems()) {
+      if (uncachedPods.contains(pod.getMetadata().getName()) && pods.size() < maxCachedPods) {
+        cache(pod);
+      }
+    }
+    checkOverflow();
+    podWatch =
+        client()
+            .pods()
+            .inNamespace(namespace)
+            .withLabel(CHE_WORKSPACE_ID_LABEL)
+            .watch(list.getMetadata().getResourceVersion(), new PodWatcher(generation));
+    synced = true;
+  }
+
+  private void onPodEvent(Action action, Pod pod) {
+    String name = pod.getMetadata().getName();
+    String workspaceId = getWorkspaceId(pod);
+    if (action == Action.DELETED) {
+      pods.remove(name);
+      uncachedPods.remove(name);
+      if (workspaceId != null) {
+        podNamesByWorkspace.computeIfPresent(
+            workspaceId,
+            (id, names) -> {
+              names.remove(name);
+              return names.isEmpty() ? null : names;
+            });
+      }
+    } else if (pods.size() < maxCachedPods || pods.containsKey(name)) {
+      cache(pod);
+    } else {
+      uncachedPods.add(name);
+    }
+    checkOverflow();
+    if (workspaceId != null) {
+      dispatch(workspacePodWatchers.get(workspaceId), action, pod);
+    }
+    dispatch(podWatchers.get(name), action, pod);
+  }
+
+  private void cache(Pod pod) {
+    String name = pod.getMetadata().getName();
+    String workspaceId = getWorkspaceId(pod);
+    pods.put(name, pod);
+    uncachedPods.remove(name);
+    if (workspaceId != null) {
+      podNamesByWorkspace
+          .computeIfAbsent(workspaceId, id -> ConcurrentHashMap.newKeySet())
+          .add(name);
+    }
+  }
+
+  /** Warns once when the cache limit is exceeded, the warning is repeated after a recovery. */
+  private void checkOverflow() {
+    if (uncachedPods.isEmpty()) {
+      if (overflowWarned) {
+        overflowWarned = false;
+        LOG.info("All the pods of namespace '{}' are cached again", namespace);
+      }
+    } else if (!overflowWarned) {
+      overflowWarned = true;
+      LOG.warn(
+          "The number of pods in namespace '{}' exceeds the cache limit of {} pods, "
+              + "missing pods are fetched from the API server",
+          namespace,
+          maxCachedPods);
+    }
+  }
+
+  private void onEvent(Action action, Event event) {
+    ObjectReference involvedObject = event.getInvolvedObject();
+    if (involvedObject == null || !POD_OBJECT_KIND.equals(involvedObject.getKind())) {
+      return;
+    }
+    Pod pod = pods.get(involvedObject.getName());
+    String workspaceId = pod != null ? getWorkspaceId(pod) : null;
+    if (workspaceId != null) {
+      dispatch(eventWatchers.get(workspaceId), action, event);
+    } else {
+      // the pod is not cached yet or is not a workspace pod
+      eventWatchers.values().forEach(watchers -> dispatch(watchers, action, event));
+    }
+  }
+
+  private <T> void dispatch(Collection<Watcher<T>> watchers, Action action, T resource) {
+    if (watchers == null) {
+      return;
+    }
+    for (Watcher<T> watcher : watchers) {
+      try {
+        watcher.eventReceived(action, resource);
+      } catch (RuntimeException e) {
+        LOG.error(
+            "Watcher of namespace '{}' failed to handle event. Cause: {}",
+            namespace,
+            e.getMessage(),
+            e);
+      }
+    }
+  }
+
+  private synchronized void onPodWatchClosed(long generation, KubernetesClientException cause) {
+    if (stopped || generation != podWatchGeneration || cause == null) {
+      return;
+    }
+    LOG.warn("Pods watch of namespace '{}' is closed. Cause: {}", namespace, cause.getMessage());
+    synced = false;
+    scheduleRestart();
+  }
+
+  private synchronized void onEventWatchClosed(KubernetesClientException cause) {
+    if (stopped || cause == null) {
+      return;
+    }
+    LOG.warn("Events watch of namespace '{}' is closed. Cause: {}", namespace, cause.getMessage());
+    eventWatch = null;
+    scheduleRestart();
+  }
+
+  private void scheduleRestart() {
+    scheduler.schedule(
+        () -> {
+          synchronized (this) {
+            if (stopped) {
+              return;
+            }
+            try {
+              start();
+            } catch (InfrastructureException e) {
+              LOG.warn(e.getMessage());
+              scheduleRestart();
+            }
+          }
+        },
+        RESTART_DELAY_SEC,
+        TimeUnit.SECONDS);
+  }
+
+  private KubernetesClient client() throws InfrastructureException {
+    return clientFactory.create();
+  }
+
+  private static String getWorkspaceId(Pod pod) {
+    Map<String, String> labels = pod.getMetadata().getLabels();
+    return labels != null ? labels.get(CHE_WORKSPACE_ID_LABEL) : null;
+  }
+
+  private static void closeQuietly(Watch watch) {
+    if (watch != null) {
+      try {
+        watch.close();
+      } catch (KubernetesClientException ignored) {
+        // the watch is already closed
+      }
+    }
+  }
+
+  private class PodWatcher implements Watcher<Pod> {
+
+    private final long generation;
+
+    private PodWatcher(long generation) {
+      this.generation = generation;
+    }
+
+    @Override
+    public void eventReceived(Action action, Pod pod) {
+      synchronized (NamespaceInformer.this) {
+        if (generation != podWatchGeneration) {
+          return;
+        }
+      }
+      onPodEvent(action, pod);
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+      onPodWatchClosed(generation, cause);
+    }
+  }
+
+  private class EventWatcher implements Watcher<Event> {
+
+    @Override
+    public void eventReceived(Action action, Event event) {
+      onEvent(action, event);
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+      onEventWatchClosed(cause);
+    }
+  }
+}
@@ -40,7 +40,7 @@ public class KubernetesNamespaceFactoryTest {
   @Test
   public void shouldReturnTrueIfNamespaceIsNotEmptyOnCheckingIfNamespaceIsPredefined() {
     // given
-    namespaceFactory = new KubernetesNamespaceFactory("predefined", "", clientFactory);
+    namespaceFactory = new KubernetesNamespaceFactory("predefined", "", false, 0, 0, clientFactory);
 
     // when
     boolean isPredefined = namespaceFactory.isPredefined();
@@ -52,7 +52,7 @@ public class KubernetesNamespaceFactoryTest {
   @Test
   public void shouldReturnTrueIfNamespaceIsEmptyOnCheckingIfNamespaceIsPredefined() {
     // given
-    namespaceFactory = new KubernetesNamespaceFactory("", "", clientFactory);
+    namespaceFactory = new KubernetesNamespaceFactory("", "", false, 0, 0, clientFactory);
 
     // when
     boolean isPredefined = namespaceFactory.isPredefined();
@@ -64,7 +64,7 @@ public class KubernetesNamespaceFactoryTest {
   @Test
   public void shouldReturnTrueIfNamespaceIsNullOnCheckingIfNamespaceIsPredefined() {
     // given
-    namespaceFactory = new KubernetesNamespaceFactory(null, "", clientFactory);
+    namespaceFactory = new KubernetesNamespaceFactory(null, "", false, 0, 0, clientFactory);
 
     // when
     boolean isPredefined = namespaceFactory.isPredefined();
@@ -76,7 +76,8 @@ public class KubernetesNamespaceFactoryTest {
   @Test
   public void shouldCreateAndPrepareNamespaceWithPredefinedValueIfItIsNotEmpty() throws Exception {
     // given
-    namespaceFactory = spy(new KubernetesNamespaceFactory("predefined", "", clientFactory));
+    namespaceFactory =
+        spy(new KubernetesNamespaceFactory("predefined", "", false, 0, 0, clientFactory));
     KubernetesNamespace toReturnNamespace = mock(KubernetesNamespace.class);
     doReturn(toReturnNamespace).when(namespaceFactory).doCreateNamespace(any(), any());
 
@@ -93,7 +94,7 @@ public class KubernetesNamespaceFactoryTest {
   public void shouldCreateAndPrepareNamespaceWithWorkspaceIdAsNameIfConfiguredNameIsNotPredefined()
       throws Exception {
     // given
-    namespaceFactory = spy(new KubernetesNamespaceFactory("", "", clientFactory));
+    namespaceFactory = spy(new KubernetesNamespaceFactory("", "", false, 0, 0, clientFactory));
     KubernetesNamespace toReturnNamespace = mock(KubernetesNamespace.class);
     doReturn(toReturnNamespace).when(namespaceFactory).doCreateNamespace(any(), any());
 
@@ -111,7 +112,7 @@ public class KubernetesNamespaceFactoryTest {
       shouldCreateNamespaceAndDoNotPrepareNamespaceOnCreatingNamespaceWithWorkspaceIdAndNameSpecified()
           throws Exception {
     // given
-    namespaceFactory = spy(new KubernetesNamespaceFactory("", "", clientFactory));
+    namespaceFactory = spy(new KubernetesNamespaceFactory("", "", false, 0, 0, clientFactory));
     KubernetesNamespace toReturnNamespace = mock(KubernetesNamespace.class);
     doReturn(toReturnNamespace).when(namespaceFactory).doCreateNamespace(any(), any());
 
@@ -128,7 +129,8 @@ public class KubernetesNamespaceFactoryTest {
   public void shouldPrepareWorkspaceServiceAccountIfItIsConfiguredAndNamespaceIsNotPredefined()
       throws Exception {
     // given
-    namespaceFactory = spy(new KubernetesNamespaceFactory("", "serviceAccount", clientFactory));
+    namespaceFactory =
+        spy(new KubernetesNamespaceFactory("", "serviceAccount", false, 0, 0, clientFactory));
     KubernetesNamespace toReturnNamespace = mock(KubernetesNamespace.class);
     doReturn(toReturnNamespace).when(namespaceFactory).doCreateNamespace(any(), any());
 
@@ -149,7 +151,9 @@ public class KubernetesNamespaceFactoryTest {
       throws Exception {
     // given
     namespaceFactory =
-        spy(new KubernetesNamespaceFactory("namespace", "serviceAccount", clientFactory));
+        spy(
+            new KubernetesNamespaceFactory(
+                "namespace", "serviceAccount", false, 0, 0, clientFactory));
     KubernetesNamespace toReturnNamespace = mock(KubernetesNamespace.class);
     doReturn(toReturnNamespace).when(namespaceFactory).doCreateNamespace(any(), any());
 
@@ -168,7 +172,7 @@ public class KubernetesNamespaceFactoryTest {
   public void shouldNotPrepareWorkspaceServiceAccountIfItIsNotConfiguredAndProjectIsNotPredefined()
       throws Exception {
     // given
-    namespaceFactory = spy(new KubernetesNamespaceFactory("", "", clientFactory));
+    namespaceFactory = spy(new KubernetesNamespaceFactory("", "", false, 0, 0, clientFactory));
     KubernetesNamespace toReturnNamespace = mock(KubernetesNamespace.class);
     doReturn(toReturnNamespace).when(namespaceFactory).doCreateNamespace(any(), any());
 
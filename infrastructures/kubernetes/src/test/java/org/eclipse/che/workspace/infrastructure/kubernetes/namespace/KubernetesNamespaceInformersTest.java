@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class KubernetesNamespaceInformersTest {
+
+  private static final String NAMESPACE = "che";
+
+  @Mock private KubernetesClientFactory clientFactory;
+
+  private ExecutorService executor;
+  private KubernetesNamespaceInformers informers;
+
+  @BeforeMethod
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+    informers = new KubernetesNamespaceInformers(clientFactory, 0, 10);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    informers.stop();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldStartInformerOnceForConcurrentCallers() throws Exception {
+    // given
+    CountDownLatch startLatch = new CountDownLatch(1);
+    when(clientFactory.create())
+        .thenAnswer(
+            inv -> {
+              startLatch.await(5, SECONDS);
+              throw new InfrastructureException("unavailable");
+            });
+    Future<NamespaceInformer> first = executor.submit(() -> informers.get(NAMESPACE));
+    verify(clientFactory, timeout(5000)).create();
+
+    // when
+    Future<NamespaceInformer> second = executor.submit(() -> informers.get(NAMESPACE));
+    startLatch.countDown();
+
+    // then
+    assertNull(first.get(5, SECONDS));
+    assertNull(second.get(5, SECONDS));
+    verify(clientFactory).create();
+  }
+
+  @Test
+  public void shouldNotRetryFailedStartImmediately() throws Exception {
+    // given
+    when(clientFactory.create()).thenThrow(new InfrastructureException("unavailable"));
+    assertNull(informers.get(NAMESPACE));
+
+    // when
+    NamespaceInformer informer = informers.get(NAMESPACE);
+
+    // then
+    assertNull(informer);
+    verify(clientFactory).create();
+  }
+
+  @Test
+  public void shouldReleaseCallersIfInformerCannotBeCreated() throws Exception {
+    // given
+    informers =
+        new KubernetesNamespaceInformers(clientFactory, 0, 10) {
+          @Override
+          NamespaceInformer newInformer(String namespace) {
+            throw new IllegalStateException("unable to create thread");
+          }
+        };
+
+    // when
+    Future<NamespaceInformer> informer = executor.submit(() -> informers.get(NAMESPACE));
+
+    // then
+    assertNull(informer.get(5, SECONDS));
+    assertNull(informers.get(NAMESPACE));
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class NamespaceInformerTest {
+
+  private static final String NAMESPACE = "che";
+  private static final String WORKSPACE_ID = "workspace123";
+
+  @Mock private KubernetesClientFactory clientFactory;
+  @Mock private KubernetesClient client;
+  @Mock private ScheduledExecutorService scheduler;
+
+  @Mock private MixedOperation podsMixedOperation;
+  @Mock private NonNamespaceOperation podsNamespaceOperation;
+  @Mock private FilterWatchListDeletable podsLabeled;
+  @Mock private MixedOperation eventsMixedOperation;
+  @Mock private NonNamespaceOperation eventsNamespaceOperation;
+  @Mock private Watch podWatch;
+  @Mock private Watch eventWatch;
+
+  @Captor private ArgumentCaptor<Watcher<Pod>> podWatcherCaptor;
+  @Captor private ArgumentCaptor<Watcher<Event>> eventWatcherCaptor;
+
+  private NamespaceInformer informer;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    lenient().when(clientFactory.create()).thenReturn(client);
+
+    // Model DSL: client.pods().inNamespace(...).withLabel(...).list()
+    lenient().doReturn(podsMixedOperation).when(client).pods();
+    lenient().doReturn(podsNamespaceOperation).when(podsMixedOperation).inNamespace(NAMESPACE);
+    lenient()
+        .doReturn(podsLabeled)
+        .when(podsNamespaceOperation)
+        .withLabel(CHE_WORKSPACE_ID_LABEL);
+    lenient().doReturn(podWatch).when(podsLabeled).watch(anyString(), any());
+
+    // Model DSL: client.events().inNamespace(...).watch(...)
+    lenient().doReturn(eventsMixedOperation).when(client).events();
+    lenient()
+        .doReturn(eventsNamespaceOperation)
+        .when(eventsMixedOperation)
+        .inNamespace(NAMESPACE);
+    lenient().doReturn(eventWatch).when(eventsNamespaceOperation).watch(any());
+
+    informer = new NamespaceInformer(NAMESPACE, clientFactory, scheduler, 10);
+  }
+
+  @Test
+  public void shouldCacheListedPodsOnStart() throws Exception {
+    // given
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"), pod("pod2", "other", "1")))
+        .when(podsLabeled)
+        .list();
+
+    // when
+    informer.start();
+
+    // then
+    assertEquals(informer.getPod("pod1").getMetadata().getName(), "pod1");
+    List<Pod> pods = informer.getPods(WORKSPACE_ID);
+    assertEquals(pods.size(), 1);
+    assertEquals(pods.get(0).getMetadata().getName(), "pod1");
+  }
+
+  @Test
+  public void shouldDispatchPodEventsToWatchersOfWorkspaceAndPod() throws Exception {
+    // given
+    doReturn(podList("1")).when(podsLabeled).list();
+    informer.start();
+    verify(podsLabeled).watch(anyString(), podWatcherCaptor.capture());
+    Watcher<Pod> workspaceWatcher = mock(Watcher.class);
+    Watcher<Pod> podWatcher = mock(Watcher.class);
+    Watcher<Pod> otherWatcher = mock(Watcher.class);
+    informer.watchPods(WORKSPACE_ID, workspaceWatcher);
+    informer.watchPod("pod1", podWatcher);
+    informer.watchPods("other", otherWatcher);
+    Pod pod = pod("pod1", WORKSPACE_ID, "2");
+
+    // when
+    podWatcherCaptor.getValue().eventReceived(Action.ADDED, pod);
+
+    // then
+    verify(workspaceWatcher).eventReceived(Action.ADDED, pod);
+    verify(podWatcher).eventReceived(Action.ADDED, pod);
+    verify(otherWatcher, never()).eventReceived(any(), any());
+    assertEquals(informer.getPods(WORKSPACE_ID).size(), 1);
+  }
+
+  @Test
+  public void shouldNotDispatchEventsToClosedWatchers() throws Exception {
+    // given
+    doReturn(podList("1")).when(podsLabeled).list();
+    informer.start();
+    verify(podsLabeled).watch(anyString(), podWatcherCaptor.capture());
+    Watcher<Pod> watcher = mock(Watcher.class);
+    informer.watchPods(WORKSPACE_ID, watcher).close();
+
+    // when
+    podWatcherCaptor.getValue().eventReceived(Action.ADDED, pod("pod1", WORKSPACE_ID, "2"));
+
+    // then
+    verify(watcher, never()).eventReceived(any(), any());
+  }
+
+  @Test
+  public void shouldDispatchEventsRelatedToPodsOfWorkspace() throws Exception {
+    // given
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"))).when(podsLabeled).list();
+    informer.start();
+    verify(eventsNamespaceOperation).watch(eventWatcherCaptor.capture());
+    Watcher<Event> workspaceWatcher = mock(Watcher.class);
+    Watcher<Event> otherWatcher = mock(Watcher.class);
+    informer.watchEvents(WORKSPACE_ID, workspaceWatcher);
+    informer.watchEvents("other", otherWatcher);
+    Event event =
+        new EventBuilder()
+            .withNewInvolvedObject()
+            .withKind("Pod")
+            .withName("pod1")
+            .endInvolvedObject()
+            .build();
+
+    // when
+    eventWatcherCaptor.getValue().eventReceived(Action.ADDED, event);
+
+    // then
+    verify(workspaceWatcher).eventReceived(Action.ADDED, event);
+    verify(otherWatcher, never()).eventReceived(any(), any());
+  }
+
+  @Test
+  public void shouldDispatchPodsDeletedWhileWatchWasDownOnResync() throws Exception {
+    // given
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"))).when(podsLabeled).list();
+    informer.start();
+    Watcher<Pod> watcher = mock(Watcher.class);
+    informer.watchPod("pod1", watcher);
+    doReturn(podList("2")).when(podsLabeled).list();
+
+    // when
+    informer.resync();
+
+    // then
+    verify(watcher).eventReceived(any(Action.class), any(Pod.class));
+    verify(podWatch).close();
+    assertNull(informer.getPod("pod1"));
+    assertEquals(informer.getPods(WORKSPACE_ID).size(), 0);
+  }
+
+  @Test
+  public void shouldReturnNoCachedPodsWhenPodsWatchIsClosedWithError() throws Exception {
+    // given
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"))).when(podsLabeled).list();
+    informer.start();
+    verify(podsLabeled).watch(anyString(), podWatcherCaptor.capture());
+
+    // when
+    podWatcherCaptor.getValue().onClose(new KubernetesClientException("connection reset"));
+
+    // then
+    assertNull(informer.getPod("pod1"));
+    assertNull(informer.getPods(WORKSPACE_ID));
+  }
+
+  @Test
+  public void shouldReturnNoCachedPodsOfWorkspaceWhenCacheLimitIsExceeded() throws Exception {
+    // given
+    informer = new NamespaceInformer(NAMESPACE, clientFactory, scheduler, 1);
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"), pod("pod2", WORKSPACE_ID, "1")))
+        .when(podsLabeled)
+        .list();
+
+    // when
+    informer.start();
+
+    // then
+    assertNull(informer.getPods(WORKSPACE_ID));
+  }
+
+  @Test
+  public void shouldReturnCachedPodsOfWorkspaceWhenCacheIsBackUnderLimit() throws Exception {
+    // given
+    informer = new NamespaceInformer(NAMESPACE, clientFactory, scheduler, 1);
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"), pod("pod2", WORKSPACE_ID, "1")))
+        .when(podsLabeled)
+        .list();
+    informer.start();
+    verify(podsLabeled).watch(anyString(), podWatcherCaptor.capture());
+
+    // when
+    podWatcherCaptor.getValue().eventReceived(Action.DELETED, pod("pod2", WORKSPACE_ID, "2"));
+
+    // then
+    List<Pod> pods = informer.getPods(WORKSPACE_ID);
+    assertEquals(pods.size(), 1);
+    assertEquals(pods.get(0).getMetadata().getName(), "pod1");
+  }
+
+  @Test
+  public void shouldCachePodsWhichDidNotFitIntoCacheOnResync() throws Exception {
+    // given
+    informer = new NamespaceInformer(NAMESPACE, clientFactory, scheduler, 1);
+    doReturn(podList("1", pod("pod1", WORKSPACE_ID, "1"))).when(podsLabeled).list();
+    informer.start();
+    verify(podsLabeled).watch(anyString(), podWatcherCaptor.capture());
+    podWatcherCaptor.getValue().eventReceived(Action.ADDED, pod("pod2", WORKSPACE_ID, "2"));
+    assertNull(informer.getPods(WORKSPACE_ID));
+    doReturn(podList("3", pod("pod2", WORKSPACE_ID, "2"))).when(podsLabeled).list();
+
+    // when
+    informer.resync();
+
+    // then
+    List<Pod> pods = informer.getPods(WORKSPACE_ID);
+    assertEquals(pods.size(), 1);
+    assertEquals(pods.get(0).getMetadata().getName(), "pod2");
+  }
+
+  private static PodList podList(String resourceVersion, Pod... pods) {
+    return new PodListBuilder()
+        .withNewMetadata()
+        .withResourceVersion(resourceVersion)
+        .endMetadata()
+        .withItems(asList(pods))
+        .build();
+  }
+
+  private static Pod pod(String name, String workspaceId, String resourceVersion) {
+    return new PodBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .withResourceVersion(resourceVersion)
+        .addToLabels(CHE_WORKSPACE_ID_LABEL, workspaceId)
+        .endMetadata()
+        .build();
+  }
+}
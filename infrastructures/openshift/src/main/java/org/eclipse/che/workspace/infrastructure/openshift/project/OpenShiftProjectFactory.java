@@ -38,8 +38,17 @@ public class OpenShiftProjectFactory extends KubernetesNamespaceFactory {
   public OpenShiftProjectFactory(
       @Nullable @Named("che.infra.openshift.project") String projectName,
       @Nullable @Named("che.infra.kubernetes.service_account_name") String serviceAccountName,
+      @Named("che.infra.kubernetes.informer.enabled") boolean informerEnabled,
+      @Named("che.infra.kubernetes.informer.resync_period_min") long informerResyncPeriodMin,
+      @Named("che.infra.kubernetes.informer.max_cached_pods") int informerMaxCachedPods,
       OpenShiftClientFactory clientFactory) {
-    super(projectName, serviceAccountName, clientFactory);
+    super(
+        projectName,
+        serviceAccountName,
+        informerEnabled,
+        informerResyncPeriodMin,
+        informerMaxCachedPods,
+        clientFactory);
     this.projectName = projectName;
     this.serviceAccountName = serviceAccountName;
     this.clientFactory = clientFactory;
@@ -86,7 +95,7 @@ public class OpenShiftProjectFactory extends KubernetesNamespaceFactory {
 
   @VisibleForTesting
   OpenShiftProject doCreateProject(String workspaceId, String name) {
-    return new OpenShiftProject(clientFactory, name, workspaceId);
+    return new OpenShiftProject(clientFactory, name, workspaceId, getInformers(name));
   }
 
   @VisibleForTesting
@@ -17,6 +17,7 @@ import com.google.inject.Singleton;
 import java.util.Set;
 import org.eclipse.che.api.system.server.ServiceTermination;
 import org.eclipse.che.api.workspace.server.WorkspaceServiceTermination;
+import org.eclipse.che.multiuser.api.distributed.cache.JGroupsPermissionsInvalidationChannel;
 import org.eclipse.che.multiuser.api.distributed.cache.JGroupsWorkspaceStatusCache;
 import org.eclipse.che.multiuser.api.distributed.lock.JGroupsWorkspaceLockService;
 import org.eclipse.che.multiuser.api.distributed.subscription.DistributedRemoteSubscriptionStorage;
@@ -32,15 +33,18 @@ public class JGroupsServiceTermination implements ServiceTermination {
   private final JGroupsWorkspaceLockService workspaceLockService;
   private final JGroupsWorkspaceStatusCache workspaceStatusCache;
   private final DistributedRemoteSubscriptionStorage remoteSubscriptionStorage;
+  private final JGroupsPermissionsInvalidationChannel permissionsInvalidationChannel;
 
   @Inject
   public JGroupsServiceTermination(
       JGroupsWorkspaceLockService workspaceLockService,
       JGroupsWorkspaceStatusCache workspaceStatusCache,
-      DistributedRemoteSubscriptionStorage remoteSubscriptionStorage) {
+      DistributedRemoteSubscriptionStorage remoteSubscriptionStorage,
+      JGroupsPermissionsInvalidationChannel permissionsInvalidationChannel) {
     this.workspaceLockService = workspaceLockService;
     this.workspaceStatusCache = workspaceStatusCache;
     this.remoteSubscriptionStorage = remoteSubscriptionStorage;
+    this.permissionsInvalidationChannel = permissionsInvalidationChannel;
   }
 
   @Override
@@ -53,6 +57,7 @@ public class JGroupsServiceTermination implements ServiceTermination {
     workspaceLockService.shutdown();
     workspaceStatusCache.shutdown();
     remoteSubscriptionStorage.shutdown();
+    permissionsInvalidationChannel.shutdown();
   }
 
   @Override
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsInvalidationChannel;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JGroups based implementation of {@link PermissionsInvalidationChannel}. Invalidations are
+ * broadcast to all the members of the cluster, the ones sent by this member are ignored.
+ */
+@Singleton
+public class JGroupsPermissionsInvalidationChannel implements PermissionsInvalidationChannel {
+
+  private static final String CHANNEL_NAME = "PermissionsInvalidationChannel";
+  private static final Logger LOG =
+      LoggerFactory.getLogger(JGroupsPermissionsInvalidationChannel.class);
+
+  private final JChannel channel;
+  private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+  @Inject
+  public JGroupsPermissionsInvalidationChannel(@Named("jgroups.config.file") String confFile) {
+    try {
+      channel = new JChannel(confFile);
+      channel.setDiscardOwnMessages(true);
+      channel.setReceiver(
+          new ReceiverAdapter() {
+            @Override
+            public void receive(Message msg) {
+              String[] invalidation = msg.getObject();
+              for (InvalidationListener listener : listeners) {
+                listener.invalidated(invalidation[0], invalidation[1], invalidation[2]);
+              }
+            }
+          });
+      channel.connect(CHANNEL_NAME);
+    } catch (Exception ex) {
+      throw new RuntimeException(
+          "Jgroups permissions invalidation channel creation failed. Cause :" + ex.getMessage());
+    }
+  }
+
+  @Override
+  public void send(String domainId, String userId, String instanceId) {
+    try {
+      channel.send(new Message(null, new String[] {domainId, userId, instanceId}));
+    } catch (Exception ex) {
+      // other members see the change when cached permissions expire
+      LOG.error(
+          "Failed to send invalidation of permissions of user '{}' for instance '{}' of domain "
+              + "'{}'. Cause: {}",
+          userId,
+          instanceId,
+          domainId,
+          ex.getMessage());
+    }
+  }
+
+  @Override
+  public void subscribe(InvalidationListener listener) {
+    listeners.add(listener);
+  }
+
+  /** Stops permissions invalidation channel. */
+  public void shutdown() {
+    channel.close();
+  }
+}
@@ -11,14 +11,18 @@
  */
 package org.eclipse.che.multiuser.api.distributed.cache;
 
+import static java.util.Collections.emptyMap;
+
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.workspace.server.WorkspaceStatusCache;
+import org.eclipse.che.api.workspace.server.WorkspaceStatusSnapshot;
 import org.jgroups.JChannel;
 import org.jgroups.blocks.ReplicatedHashMap;
 import org.slf4j.Logger;
@@ -27,6 +31,9 @@ import org.slf4j.LoggerFactory;
 /**
  * JGroups based implementation of {@link WorkspaceStatusCache}.
  *
+ * <p>Snapshots are built from the local replica of the statuses, they are invalidated by
+ * notifications about changes made by any member of the cluster.
+ *
  * @author Anton Korneta
  */
 @Singleton
@@ -36,6 +43,10 @@ public class JGroupsWorkspaceStatusCache implements WorkspaceStatusCache {
   private static final Logger LOG = LoggerFactory.getLogger(JGroupsWorkspaceStatusCache.class);
 
   private final ReplicatedHashMap<String, WorkspaceStatus> delegate;
+  /** Incremented after each change of the statuses. */
+  private final AtomicLong version = new AtomicLong();
+
+  private volatile WorkspaceStatusSnapshot snapshot = new WorkspaceStatusSnapshot(0, emptyMap());
 
   @Inject
   public JGroupsWorkspaceStatusCache(@Named("jgroups.config.file") String confFile) {
@@ -44,6 +55,28 @@ public class JGroupsWorkspaceStatusCache implements WorkspaceStatusCache {
       channel.connect(CHANNEL_NAME);
       delegate = new ReplicatedHashMap<>(channel);
       delegate.setBlockingUpdates(true);
+      delegate.addNotifier(
+          new ReplicatedMapNotificationAdapter() {
+            @Override
+            public void entrySet(Object workspaceId, Object workspaceStatus) {
+              version.incrementAndGet();
+            }
+
+            @Override
+            public void entryRemoved(Object workspaceId) {
+              version.incrementAndGet();
+            }
+
+            @Override
+            public void contentsSet(Map entries) {
+              version.incrementAndGet();
+            }
+
+            @Override
+            public void contentsCleared() {
+              version.incrementAndGet();
+            }
+          });
       delegate.start(5000);
     } catch (Exception ex) {
       throw new RuntimeException("Jgroups cache creation failed. Cause :" + ex.getMessage());
@@ -81,6 +114,18 @@ public class JGroupsWorkspaceStatusCache implements WorkspaceStatusCache {
     return new HashMap<>(delegate);
   }
 
+  @Override
+  public WorkspaceStatusSnapshot snapshot() {
+    WorkspaceStatusSnapshot current = snapshot;
+    // version is read before copying, so the snapshot contains at least the changes it counts
+    long currentVersion = version.get();
+    if (current.getVersion() != currentVersion) {
+      current = new WorkspaceStatusSnapshot(currentVersion, delegate);
+      snapshot = current;
+    }
+    return current;
+  }
+
   /**
    * Subscribes status changes listener.
    *
@@ -11,13 +11,25 @@
  */
 package org.eclipse.che.multiuser.api.distributed.lock;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.concurrent.locks.Lock;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
 import javax.inject.Named;
 import org.eclipse.che.api.workspace.server.WorkspaceLockService;
+import org.eclipse.che.commons.lang.concurrent.StripedLocks;
 import org.eclipse.che.commons.lang.concurrent.Unlocker;
+import org.jgroups.Address;
 import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.jgroups.View;
 import org.jgroups.blocks.locking.LockService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +37,21 @@ import org.slf4j.LoggerFactory;
 /**
  * JGroups based implementation of {@link WorkspaceLockService}.
  *
+ * <p>Workspace IDs are split into a fixed number of partitions, each of them is guarded by a lock
+ * of the JGroups lock service. The member which holds the partition lock (the lease) serves the
+ * locks of the partition's workspaces with in-JVM striped locks, without any interaction with the
+ * cluster. The lease is held while there are local holders of the partition's locks, then it is
+ * released, unless this member owns the partition. Partitions are assigned to the members of the
+ * cluster view with rendezvous hashing, so each of them is owned by exactly one member and
+ * ownership changes only for the partitions of joined or left members. A member waiting for the
+ * lease broadcasts release requests, the holder then hands the lease off as soon as its current
+ * holders leave and takes it back on the next local acquisition, see {@link
+ * WorkspaceLockPartition}.
+ *
+ * <p>Mutual exclusion among the members is always provided by the JGroups locks, ownership only
+ * decides which member keeps the lease, thus a stale view may cost extra round-trips but never
+ * breaks the locks.
+ *
  * @author Anton Korneta
  */
 @Singleton
@@ -32,15 +59,61 @@ public class JGroupsWorkspaceLockService implements WorkspaceLockService {
   private static final Logger LOG = LoggerFactory.getLogger(JGroupsWorkspaceLockService.class);
 
   private static final String CHANNEL_NAME = "WorkspaceLocks";
+  private static final String PARTITION_LOCK_PREFIX = "workspace-partition-";
+  private static final int PARTITIONS = 32;
+  /** Period of repeating of the lease release requests while the lease is awaited. */
+  private static final long RELEASE_REQUEST_PERIOD_MS = 200;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
 
   private final LockService lockService;
   private final JChannel channel;
+  private final StripedLocks localLocks;
+  private final WorkspaceLockPartition[] partitions;
+  private final ThreadFactory leaseThreadFactory;
+  private final WorkspaceLockStats stats;
+
+  private volatile List<Address> members;
 
   @Inject
   public JGroupsWorkspaceLockService(@Named("jgroups.config.file") String confFile) {
+    this.localLocks = new StripedLocks(16);
+    this.stats = new WorkspaceLockStats();
+    this.members = Collections.emptyList();
+    this.leaseThreadFactory =
+        new ThreadFactoryBuilder().setNameFormat("WorkspaceLockLease-%d").setDaemon(true).build();
     try {
       this.channel = new JChannel(confFile);
       this.lockService = new LockService(channel);
+      this.partitions = new WorkspaceLockPartition[PARTITIONS];
+      for (int i = 0; i < PARTITIONS; i++) {
+        int index = i;
+        partitions[i] =
+            new WorkspaceLockPartition(
+                index,
+                lockService.getLock(PARTITION_LOCK_PREFIX + index),
+                leaseThreadFactory,
+                () -> isOwned(index),
+                () -> requestRelease(index),
+                RELEASE_REQUEST_PERIOD_MS);
+      }
+      channel.setReceiver(
+          new ReceiverAdapter() {
+            @Override
+            public void receive(Message msg) {
+              if (!channel.getAddress().equals(msg.getSrc())) {
+                partitions[(Integer) msg.getObject()].releaseRequested();
+              }
+            }
+
+            @Override
+            public void viewAccepted(View view) {
+              members = view.getMembers();
+              for (WorkspaceLockPartition partition : partitions) {
+                partition.ownershipChanged();
+              }
+            }
+          });
       channel.connect(CHANNEL_NAME);
     } catch (Exception ex) {
       throw new RuntimeException(ex);
@@ -49,29 +122,37 @@ public class JGroupsWorkspaceLockService implements WorkspaceLockService {
 
   @Override
   public Unlocker readLock(String key) {
-    // JGroups lock service does not contain an associated pair of read/write locks, that's why
-    // there no way provide a reliable version of a read lock.
-    return writeLock(key);
+    long start = System.nanoTime();
+    WorkspaceLockPartition partition = partitionOf(key);
+    boolean local = partition.enter();
+    try {
+      Unlocker unlocker = localLocks.readLock(key);
+      stats.acquired(local, System.nanoTime() - start);
+      return new UnlockerImpl(unlocker, partition);
+    } catch (RuntimeException ex) {
+      partition.leave();
+      throw ex;
+    }
   }
 
   @Override
   public Unlocker writeLock(String key) {
-    final Lock lock = lockService.getLock(key);
-    lock.lock();
-    return new UnlockerImpl(lock);
-  }
-
-  private class UnlockerImpl implements Unlocker {
-    private final Lock lock;
-
-    public UnlockerImpl(Lock lock) {
-      this.lock = lock;
+    long start = System.nanoTime();
+    WorkspaceLockPartition partition = partitionOf(key);
+    boolean local = partition.enter();
+    try {
+      Unlocker unlocker = localLocks.writeLock(key);
+      stats.acquired(local, System.nanoTime() - start);
+      return new UnlockerImpl(unlocker, partition);
+    } catch (RuntimeException ex) {
+      partition.leave();
+      throw ex;
     }
+  }
 
-    @Override
-    public void unlock() {
-      lock.unlock();
-    }
+  /** Returns statistics of the acquired locks. */
+  public WorkspaceLockStats getStats() {
+    return stats;
   }
 
   /** Stops the workspace lock service. */
@@ -81,5 +162,72 @@ public class JGroupsWorkspaceLockService implements WorkspaceLockService {
     } catch (RuntimeException ex) {
       LOG.error("Failed to stop workspace locks service. Cause: " + ex.getMessage());
     }
+    for (WorkspaceLockPartition partition : partitions) {
+      partition.shutdown();
+    }
+  }
+
+  private WorkspaceLockPartition partitionOf(String key) {
+    // String#hashCode is specified, so all the members agree on the partition of the key
+    return partitions[Math.floorMod(key.hashCode(), PARTITIONS)];
+  }
+
+  /** Returns the member which owns the partition or null if the view is not received yet. */
+  private Address ownerOf(int partition) {
+    Address owner = null;
+    int ownerScore = 0;
+    for (Address member : members) {
+      int score =
+          HASH_FUNCTION
+              .newHasher()
+              .putString(member.toString(), UTF_8)
+              .putInt(partition)
+              .hash()
+              .asInt();
+      if (owner == null || score > ownerScore) {
+        owner = member;
+        ownerScore = score;
+      }
+    }
+    return owner;
+  }
+
+  /**
+   * Asks the other members to release the lease of the partition. The request is sent to all the
+   * members, as the lease may be held by a member which doesn't own the partition.
+   */
+  private void requestRelease(int partition) {
+    try {
+      channel.send(new Message(null, partition));
+    } catch (Exception ex) {
+      LOG.warn(
+          "Failed to request release of workspace locks partition {}. Cause: {}",
+          partition,
+          ex.getMessage());
+    }
+  }
+
+  private boolean isOwned(int partition) {
+    Address owner = ownerOf(partition);
+    return owner != null && owner.equals(channel.getAddress());
+  }
+
+  private class UnlockerImpl implements Unlocker {
+    private final Unlocker localUnlocker;
+    private final WorkspaceLockPartition partition;
+
+    public UnlockerImpl(Unlocker localUnlocker, WorkspaceLockPartition partition) {
+      this.localUnlocker = localUnlocker;
+      this.partition = partition;
+    }
+
+    @Override
+    public void unlock() {
+      try {
+        localUnlocker.unlock();
+      } finally {
+        partition.leave();
+      }
+    }
   }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Provides the number and the time of acquisitions of the workspace locks. Acquisitions served by
+ * the partition lease held by this member are tagged with "mode=local", the ones which waited for
+ * the lease from the cluster are tagged with "mode=remote".
+ */
+@Singleton
+public class WorkspaceLockMeterBinder implements MeterBinder {
+
+  private final WorkspaceLockStats stats;
+
+  @Inject
+  public WorkspaceLockMeterBinder(JGroupsWorkspaceLockService lockService) {
+    this.stats = lockService.getStats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionTimer.builder(
+            "che.workspace.lock.acquire",
+            stats,
+            WorkspaceLockStats::getLocalAcquisitions,
+            WorkspaceLockStats::getLocalTimeNanos,
+            TimeUnit.NANOSECONDS)
+        .tags("area", "workspace", "mode", "local")
+        .description("The time of acquisition of the workspace locks")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.workspace.lock.acquire",
+            stats,
+            WorkspaceLockStats::getRemoteAcquisitions,
+            WorkspaceLockStats::getRemoteTimeNanos,
+            TimeUnit.NANOSECONDS)
+        .tags("area", "workspace", "mode", "remote")
+        .description("The time of acquisition of the workspace locks")
+        .register(registry);
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lease of a partition of workspace locks, used by {@link JGroupsWorkspaceLockService}.
+ *
+ * <p>The lease is the cluster lock of the partition. It is acquired by the first local holder of
+ * the partition's locks and kept while there are local holders, then it is released unless this
+ * member owns the partition. When another member requests the lease, new local holders wait until
+ * the current ones leave, the lease is handed off and acquired back, so a steady local load can't
+ * starve the other members. A thread which already holds some of the partition's locks never
+ * waits, as locks may be nested, e.g. a workspace lock taken again by its holder.
+ *
+ * <p>Cluster locks are owned by the threads which acquired them, so the lock is always acquired and
+ * released by the dedicated lease thread.
+ */
+class WorkspaceLockPartition {
+  private final int index;
+  private final Lock lock;
+  private final ThreadFactory leaseThreadFactory;
+  private final BooleanSupplier owned;
+  private final Runnable releaseRequester;
+  private final long releaseRequestPeriodMs;
+  /** Number of the partition's locks held by the current thread */
+  private final ThreadLocal<Integer> threadHolds = ThreadLocal.withInitial(() -> 0);
+
+  private ExecutorService leaseExecutor;
+  private int holders;
+  private boolean leased;
+  private boolean acquiring;
+  private boolean releaseRequested;
+
+  /**
+   * @param index index of the partition
+   * @param lock cluster lock of the partition
+   * @param leaseThreadFactory factory of the thread which acquires and releases the lock
+   * @param owned tells whether this member owns the partition and keeps the lease without holders
+   * @param releaseRequester asks the other members to release the lease
+   * @param releaseRequestPeriodMs period of the release requests while the lease is awaited
+   */
+  WorkspaceLockPartition(
+      int index,
+      Lock lock,
+      ThreadFactory leaseThreadFactory,
+      BooleanSupplier owned,
+      Runnable releaseRequester,
+      long releaseRequestPeriodMs) {
+    this.index = index;
+    this.lock = lock;
+    this.leaseThreadFactory = leaseThreadFactory;
+    this.owned = owned;
+    this.releaseRequester = releaseRequester;
+    this.releaseRequestPeriodMs = releaseRequestPeriodMs;
+  }
+
+  /**
+   * Registers a holder of the partition's locks, acquires the lease if it is not held yet.
+   *
+   * @return true if the lease was already held, false if it was acquired from the cluster
+   */
+  boolean enter() {
+    int held = threadHolds.get();
+    if (held > 0) {
+      // the lease can't be handed off while this thread holds it, so don't wait for that
+      synchronized (this) {
+        holders++;
+      }
+      threadHolds.set(held + 1);
+      return true;
+    }
+    boolean interrupted = false;
+    try {
+      synchronized (this) {
+        // wait for the acquisition in progress, or for the hand-off requested by another member
+        while (acquiring || (leased && releaseRequested)) {
+          try {
+            wait();
+          } catch (InterruptedException ex) {
+            // locks are acquired uninterruptibly, interruption is restored afterwards
+            interrupted = true;
+          }
+        }
+        holders++;
+        if (leased) {
+          threadHolds.set(1);
+          return true;
+        }
+        acquiring = true;
+        if (leaseExecutor == null) {
+          leaseExecutor = Executors.newSingleThreadExecutor(leaseThreadFactory);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    boolean acquired = false;
+    try {
+      Uninterruptibles.getUninterruptibly(
+          leaseExecutor.submit(
+              () -> {
+                acquireLease();
+                return null;
+              }));
+      acquired = true;
+    } catch (ExecutionException ex) {
+      throw new RuntimeException(
+          "Failed to acquire lease of workspace locks partition " + index, ex.getCause());
+    } finally {
+      synchronized (this) {
+        acquiring = false;
+        if (acquired) {
+          leased = true;
+        } else {
+          holders--;
+        }
+        notifyAll();
+      }
+    }
+    threadHolds.set(1);
+    return false;
+  }
+
+  /** Unregisters a holder of the partition's locks, releases the lease if it is not needed. */
+  synchronized void leave() {
+    int held = threadHolds.get();
+    if (held > 1) {
+      threadHolds.set(held - 1);
+    } else {
+      threadHolds.remove();
+    }
+    holders--;
+    if (holders > 0 || !leased || (owned.getAsBoolean() && !releaseRequested)) {
+      return;
+    }
+    releaseLease();
+  }
+
+  /** Called when another member waits for the lease of this partition. */
+  synchronized void releaseRequested() {
+    if (leased && holders == 0) {
+      releaseLease();
+    } else if (leased || acquiring) {
+      // new holders wait, the lease is released by the last current holder
+      releaseRequested = true;
+    }
+  }
+
+  /** Called on the view change, releases the lease if the partition is not owned anymore. */
+  synchronized void ownershipChanged() {
+    if (leased && holders == 0 && !owned.getAsBoolean()) {
+      releaseLease();
+    }
+  }
+
+  synchronized void shutdown() {
+    if (leaseExecutor != null) {
+      leaseExecutor.shutdownNow();
+    }
+  }
+
+  /** Returns true if the lease is held by this member. */
+  synchronized boolean isLeased() {
+    return leased;
+  }
+
+  private void acquireLease() throws InterruptedException {
+    while (!lock.tryLock(releaseRequestPeriodMs, TimeUnit.MILLISECONDS)) {
+      releaseRequester.run();
+    }
+  }
+
+  // must be called with the monitor of the partition held
+  private void releaseLease() {
+    leased = false;
+    releaseRequested = false;
+    notifyAll();
+    try {
+      // queued before any further acquisition of the lease, so they happen in the right order
+      leaseExecutor.execute(lock::unlock);
+    } catch (RejectedExecutionException ex) {
+      // the service is shut down, locks are released by the closed channel
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the locks acquired by {@link JGroupsWorkspaceLockService}. Local acquisitions are
+ * served without any interaction with other members of the cluster, remote ones wait for the
+ * partition lease from the cluster lock service.
+ */
+public class WorkspaceLockStats {
+
+  private final LongAdder localAcquisitions = new LongAdder();
+  private final LongAdder localTimeNanos = new LongAdder();
+  private final LongAdder remoteAcquisitions = new LongAdder();
+  private final LongAdder remoteTimeNanos = new LongAdder();
+
+  /** Returns the number of locks acquired without interaction with the cluster. */
+  public long getLocalAcquisitions() {
+    return localAcquisitions.sum();
+  }
+
+  /** Returns the total time spent on the acquisition of local locks in nanoseconds. */
+  public long getLocalTimeNanos() {
+    return localTimeNanos.sum();
+  }
+
+  /** Returns the number of locks which required the partition lease from the cluster. */
+  public long getRemoteAcquisitions() {
+    return remoteAcquisitions.sum();
+  }
+
+  /** Returns the total time spent on the acquisition of remote locks in nanoseconds. */
+  public long getRemoteTimeNanos() {
+    return remoteTimeNanos.sum();
+  }
+
+  void acquired(boolean local, long nanos) {
+    if (local) {
+      localAcquisitions.increment();
+      localTimeNanos.add(nanos);
+    } else {
+      remoteAcquisitions.increment();
+      remoteTimeNanos.add(nanos);
+    }
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link WorkspaceLockPartition}. */
+@Listeners(MockitoTestNGListener.class)
+public class WorkspaceLockPartitionTest {
+  private static final long RELEASE_REQUEST_PERIOD_MS = 10;
+  private static final int TIMEOUT_MS = 2000;
+
+  @Mock private Lock lock;
+  @Mock private Runnable releaseRequester;
+
+  private ExecutorService executor;
+  private boolean owned;
+  private WorkspaceLockPartition partition;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    executor = Executors.newCachedThreadPool();
+    owned = false;
+    partition =
+        new WorkspaceLockPartition(
+            0,
+            lock,
+            new ThreadFactoryBuilder().setNameFormat("WorkspaceLockLease-%d").build(),
+            () -> owned,
+            releaseRequester,
+            RELEASE_REQUEST_PERIOD_MS);
+    when(lock.tryLock(anyLong(), any())).thenReturn(true);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    partition.shutdown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void acquiresLeaseOnlyForFirstHolder() throws Exception {
+    assertFalse(partition.enter());
+    assertTrue(partition.enter());
+
+    assertTrue(partition.isLeased());
+    verify(lock).tryLock(RELEASE_REQUEST_PERIOD_MS, MILLISECONDS);
+  }
+
+  @Test
+  public void releasesLeaseOfNotOwnedPartitionWhenLastHolderLeaves() throws Exception {
+    partition.enter();
+    partition.enter();
+
+    partition.leave();
+    assertTrue(partition.isLeased());
+
+    partition.leave();
+    assertFalse(partition.isLeased());
+    verify(lock, timeout(TIMEOUT_MS)).unlock();
+  }
+
+  @Test
+  public void keepsLeaseOfOwnedPartitionWithoutHolders() throws Exception {
+    owned = true;
+    partition.enter();
+    partition.leave();
+
+    assertTrue(partition.isLeased());
+    assertTrue(partition.enter());
+    verify(lock).tryLock(anyLong(), any());
+    verify(lock, never()).unlock();
+  }
+
+  @Test
+  public void releasesLeaseWithoutHoldersImmediatelyOnRequest() throws Exception {
+    owned = true;
+    partition.enter();
+    partition.leave();
+
+    partition.releaseRequested();
+
+    assertFalse(partition.isLeased());
+    verify(lock, timeout(TIMEOUT_MS)).unlock();
+  }
+
+  @Test
+  public void releasesLeaseOfOwnedPartitionWhenLastHolderLeavesAfterRequest() throws Exception {
+    owned = true;
+    partition.enter();
+
+    partition.releaseRequested();
+    assertTrue(partition.isLeased());
+
+    partition.leave();
+    assertFalse(partition.isLeased());
+    verify(lock, timeout(TIMEOUT_MS)).unlock();
+  }
+
+  @Test
+  public void newHoldersWaitForHandOffOfRequestedLease() throws Exception {
+    owned = true;
+    partition.enter();
+    partition.releaseRequested();
+
+    Future<Boolean> entered = executor.submit(partition::enter);
+    try {
+      entered.get(200, MILLISECONDS);
+      fail("Holder must wait until the requested lease is handed off");
+    } catch (TimeoutException expected) {
+    }
+    verify(lock, never()).unlock();
+
+    partition.leave();
+
+    // the lease is acquired back from the cluster
+    assertFalse(entered.get(TIMEOUT_MS, MILLISECONDS));
+    assertTrue(partition.isLeased());
+    InOrder inOrder = inOrder(lock);
+    inOrder.verify(lock).tryLock(anyLong(), any());
+    inOrder.verify(lock).unlock();
+    inOrder.verify(lock).tryLock(anyLong(), any());
+  }
+
+  @Test
+  public void nestedHolderDoesNotWaitForHandOffOfRequestedLease() throws Exception {
+    owned = true;
+
+    // as a workspace lock which is taken again by its holder, e.g. nested writeLock(id)
+    Future<Boolean> nested =
+        executor.submit(
+            () -> {
+              partition.enter();
+              partition.releaseRequested();
+              boolean local = partition.enter();
+              partition.leave();
+              partition.leave();
+              return local;
+            });
+
+    assertTrue(nested.get(TIMEOUT_MS, MILLISECONDS));
+    assertFalse(partition.isLeased());
+    verify(lock, timeout(TIMEOUT_MS)).unlock();
+  }
+
+  @Test
+  public void otherThreadsWaitForHandOffWhileNestedHolderHoldsLease() throws Exception {
+    owned = true;
+    partition.enter();
+    partition.releaseRequested();
+    assertTrue(partition.enter());
+
+    Future<Boolean> entered = executor.submit(partition::enter);
+    partition.leave();
+    try {
+      entered.get(200, MILLISECONDS);
+      fail("Holder must wait until the requested lease is handed off");
+    } catch (TimeoutException expected) {
+    }
+
+    partition.leave();
+    assertFalse(entered.get(TIMEOUT_MS, MILLISECONDS));
+  }
+
+  @Test
+  public void holdersWaitForLeaseAcquisitionInProgress() throws Exception {
+    CompletableFuture<Boolean> acquisition = new CompletableFuture<>();
+    when(lock.tryLock(anyLong(), any())).thenAnswer(inv -> acquisition.get(TIMEOUT_MS, SECONDS));
+
+    Future<Boolean> first = executor.submit(partition::enter);
+    verify(lock, timeout(TIMEOUT_MS)).tryLock(anyLong(), any());
+    Future<Boolean> second = executor.submit(partition::enter);
+    acquisition.complete(true);
+
+    assertFalse(first.get(TIMEOUT_MS, MILLISECONDS));
+    assertTrue(second.get(TIMEOUT_MS, MILLISECONDS));
+    verify(lock).tryLock(anyLong(), any());
+  }
+
+  @Test
+  public void requestsReleaseWhileLeaseIsAwaited() throws Exception {
+    when(lock.tryLock(anyLong(), any())).thenReturn(false, false, true);
+
+    assertFalse(partition.enter());
+
+    verify(releaseRequester, times(2)).run();
+  }
+
+  @Test
+  public void unregistersHolderWhenLeaseAcquisitionFails() throws Exception {
+    when(lock.tryLock(anyLong(), any()))
+        .thenThrow(new IllegalStateException("disconnected"))
+        .thenReturn(true);
+
+    try {
+      partition.enter();
+      fail("Lease acquisition failure expected");
+    } catch (RuntimeException expected) {
+    }
+    assertFalse(partition.isLeased());
+
+    assertFalse(partition.enter());
+    partition.leave();
+    verify(lock, timeout(TIMEOUT_MS)).unlock();
+  }
+}
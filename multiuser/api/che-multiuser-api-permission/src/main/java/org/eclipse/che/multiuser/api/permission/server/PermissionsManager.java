@@ -16,6 +16,7 @@ import static org.eclipse.che.multiuser.api.permission.server.AbstractPermission
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,6 +37,7 @@ import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.concurrent.StripedLocks;
 import org.eclipse.che.commons.lang.concurrent.Unlocker;
 import org.eclipse.che.commons.subject.Subject;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsCache;
 import org.eclipse.che.multiuser.api.permission.server.event.PermissionsCreatedEvent;
 import org.eclipse.che.multiuser.api.permission.server.event.PermissionsRemovedEvent;
 import org.eclipse.che.multiuser.api.permission.server.model.impl.AbstractPermissions;
@@ -57,12 +59,16 @@ public class PermissionsManager {
   private final List<AbstractPermissionsDomain<? extends AbstractPermissions>> domains;
   private final Map<String, PermissionsDao<? extends AbstractPermissions>> domainToDao;
   private final StripedLocks updateLocks;
+  private final PermissionsCache permissionsCache;
 
   @Inject
   public PermissionsManager(
-      EventService eventService, Set<PermissionsDao<? extends AbstractPermissions>> daos)
+      EventService eventService,
+      Set<PermissionsDao<? extends AbstractPermissions>> daos,
+      PermissionsCache permissionsCache)
       throws ServerException {
     this.eventService = eventService;
+    this.permissionsCache = permissionsCache;
     final Map<String, PermissionsDao<? extends AbstractPermissions>> domainToDao = new HashMap<>();
     final List<AbstractPermissionsDomain<? extends AbstractPermissions>> domains =
         new ArrayList<>();
@@ -181,7 +187,8 @@ public class PermissionsManager {
   }
 
   /**
-   * Checks existence of user's permission for specified instance
+   * Checks existence of user's permission for specified instance. Actions of user's permissions
+   * are cached if {@link PermissionsCache} is enabled.
    *
    * @param userId user id
    * @param domainId domain id
@@ -193,8 +200,21 @@ public class PermissionsManager {
    */
   public boolean exists(String userId, String domainId, String instanceId, String action)
       throws ServerException, NotFoundException, ConflictException {
-    return getDomain(domainId).getAllowedActions().contains(action)
-        && getPermissionsDao(domainId).exists(userId, instanceId, action);
+    if (!getDomain(domainId).getAllowedActions().contains(action)) {
+      return false;
+    }
+    final PermissionsDao<? extends AbstractPermissions> permissionsDao =
+        getPermissionsDao(domainId);
+    if (!permissionsCache.isEnabled()) {
+      return permissionsDao.exists(userId, instanceId, action);
+    }
+    return permissionsCache
+        .getActions(
+            domainId,
+            userId,
+            instanceId,
+            () -> ImmutableSet.copyOf(permissionsDao.get(userId, instanceId).getActions()))
+        .contains(action);
   }
 
   /**
@@ -233,7 +253,10 @@ public class PermissionsManager {
         permissionsDomain.newInstance(userId, instanceId, permissions.getActions());
     checkActionsSupporting(permissionsDomain, permission.getActions());
     final Optional<T> existing = dao.store(permission);
-    if (!existing.isPresent()) {
+    if (existing.isPresent()) {
+      // there is no event on update
+      permissionsCache.invalidate(permissionsDomain.getId(), userId, instanceId);
+    } else {
       Subject subject = EnvironmentContext.getCurrent().getSubject();
       final String initiator = subject.isAnonymous() ? null : subject.getUserName();
       eventService.publish(new PermissionsCreatedEvent(initiator, permissions));
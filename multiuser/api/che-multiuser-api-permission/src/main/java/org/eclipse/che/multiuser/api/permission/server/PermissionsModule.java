@@ -16,6 +16,7 @@ import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
 import org.eclipse.che.multiuser.api.permission.server.account.AccountPermissionsChecker;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsCache;
 import org.eclipse.che.multiuser.api.permission.server.filter.GetPermissionsFilter;
 import org.eclipse.che.multiuser.api.permission.server.filter.RemovePermissionsFilter;
 import org.eclipse.che.multiuser.api.permission.server.filter.SetPermissionsFilter;
@@ -32,6 +33,7 @@ public class PermissionsModule extends AbstractModule {
     bind(RemovePermissionsFilter.class);
     bind(GetPermissionsFilter.class);
     bind(RemoteSubscriptionPermissionManager.class).asEagerSingleton();
+    bind(PermissionsCache.class);
 
     // Creates empty multibinder to avoid error during container starting
     Multibinder.newSetBinder(
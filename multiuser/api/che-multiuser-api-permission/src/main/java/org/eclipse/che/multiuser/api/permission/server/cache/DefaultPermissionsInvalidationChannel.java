@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server.cache;
+
+import javax.inject.Singleton;
+
+/**
+ * Implementation of {@link PermissionsInvalidationChannel} for a single Che Server instance, there
+ * is nobody to deliver invalidations to.
+ */
+@Singleton
+public class DefaultPermissionsInvalidationChannel implements PermissionsInvalidationChannel {
+
+  @Override
+  public void send(String domainId, String userId, String instanceId) {}
+
+  @Override
+  public void subscribe(InvalidationListener listener) {}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsCreatedEvent;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsRemovedEvent;
+import org.eclipse.che.multiuser.api.permission.shared.event.PermissionsEvent;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
+
+/**
+ * Caches actions of users' permissions for checking permissions without hitting the storage.
+ *
+ * <p>Entries are keyed by domain, user and instance. The cache is bounded by the number of entries
+ * and entries expire after the configured time, so permissions changed bypassing {@link
+ * org.eclipse.che.multiuser.api.permission.server.PermissionsManager} become visible eventually.
+ * Entries are invalidated on {@link PermissionsCreatedEvent}, {@link PermissionsRemovedEvent} and
+ * on permissions update, invalidations are propagated to other Che Server instances with {@link
+ * PermissionsInvalidationChannel}.
+ */
+@Singleton
+public class PermissionsCache {
+
+  /** Loads actions of the permissions from the storage. */
+  public interface ActionsLoader {
+    /**
+     * Returns actions of the permissions.
+     *
+     * @throws NotFoundException when permissions do not exist
+     * @throws ServerException when any other error occurs
+     */
+    Set<String> load() throws NotFoundException, ServerException;
+  }
+
+  private final EventService eventService;
+  private final PermissionsInvalidationChannel invalidationChannel;
+  private final Cache<Key, Set<String>> cache;
+  /** Incremented on each invalidation to detect values loaded before the invalidation. */
+  private final AtomicLong invalidations = new AtomicLong();
+
+  private final EventSubscriber<PermissionsCreatedEvent> createdSubscriber = this::onEvent;
+  private final EventSubscriber<PermissionsRemovedEvent> removedSubscriber = this::onEvent;
+
+  @Inject
+  public PermissionsCache(
+      EventService eventService,
+      PermissionsInvalidationChannel invalidationChannel,
+      @Named("che.permissions.cache.enabled") boolean enabled,
+      @Named("che.permissions.cache.max_entries") long maxEntries,
+      @Named("che.permissions.cache.ttl_s") long ttlSeconds) {
+    this.eventService = eventService;
+    this.invalidationChannel = invalidationChannel;
+    this.cache =
+        enabled
+            ? CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build()
+            : null;
+  }
+
+  @PostConstruct
+  public void subscribe() {
+    if (cache != null) {
+      eventService.subscribe(createdSubscriber, PermissionsCreatedEvent.class);
+      eventService.subscribe(removedSubscriber, PermissionsRemovedEvent.class);
+      invalidationChannel.subscribe(this::invalidateLocally);
+    }
+  }
+
+  @PreDestroy
+  public void unsubscribe() {
+    if (cache != null) {
+      eventService.unsubscribe(createdSubscriber, PermissionsCreatedEvent.class);
+      eventService.unsubscribe(removedSubscriber, PermissionsRemovedEvent.class);
+    }
+  }
+
+  /** Returns true if permissions are cached, otherwise the cache must not be used. */
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Returns actions of user's permissions for the instance, loads them if they are not cached.
+   *
+   * @param domainId domain id
+   * @param userId user id
+   * @param instanceId instance id
+   * @param loader loads the actions if they are not cached
+   * @return actions of the permissions or empty set if the permissions do not exist
+   * @throws ServerException when the actions can not be loaded
+   */
+  public Set<String> getActions(
+      String domainId, String userId, @Nullable String instanceId, ActionsLoader loader)
+      throws ServerException {
+    Key key = new Key(domainId, userId, instanceId);
+    Set<String> actions = cache.getIfPresent(key);
+    if (actions != null) {
+      return actions;
+    }
+
+    long invalidationsBefore = invalidations.get();
+    try {
+      actions = loader.load();
+    } catch (NotFoundException e) {
+      actions = Collections.emptySet();
+    }
+    cache.put(key, actions);
+    if (invalidations.get() != invalidationsBefore) {
+      // the permissions might be changed while loading
+      cache.invalidate(key);
+    }
+    return actions;
+  }
+
+  /**
+   * Invalidates cached permissions on this and other Che Server instances.
+   *
+   * @param domainId domain id
+   * @param userId user id, '*' or null to invalidate permissions of all the users
+   * @param instanceId instance id
+   */
+  public void invalidate(String domainId, @Nullable String userId, @Nullable String instanceId) {
+    if (cache != null) {
+      invalidateLocally(domainId, userId, instanceId);
+      invalidationChannel.send(domainId, userId, instanceId);
+    }
+  }
+
+  /** Returns the underlying cache or null if caching is disabled. */
+  @Nullable
+  Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  private void onEvent(PermissionsEvent event) {
+    Permissions permissions = event.getPermissions();
+    invalidate(permissions.getDomainId(), permissions.getUserId(), permissions.getInstanceId());
+  }
+
+  private void invalidateLocally(String domainId, String userId, String instanceId) {
+    invalidations.incrementAndGet();
+    if (userId == null || "*".equals(userId)) {
+      cache
+          .asMap()
+          .keySet()
+          .removeIf(key -> key.domainId.equals(domainId) && key.isOf(instanceId));
+    } else {
+      cache.invalidate(new Key(domainId, userId, instanceId));
+    }
+  }
+
+  private static final class Key {
+    private final String domainId;
+    private final String userId;
+    private final String instanceId;
+
+    private Key(String domainId, String userId, String instanceId) {
+      this.domainId = domainId;
+      this.userId = userId;
+      this.instanceId = instanceId;
+    }
+
+    private boolean isOf(String instanceId) {
+      return Objects.equals(this.instanceId, instanceId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) obj;
+      return domainId.equals(that.domainId)
+          && userId.equals(that.userId)
+          && Objects.equals(instanceId, that.instanceId);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = 7;
+      hash = 31 * hash + domainId.hashCode();
+      hash = 31 * hash + userId.hashCode();
+      hash = 31 * hash + Objects.hashCode(instanceId);
+      return hash;
+    }
+  }
+}
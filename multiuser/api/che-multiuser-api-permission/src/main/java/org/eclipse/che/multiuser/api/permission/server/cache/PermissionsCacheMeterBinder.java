@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/** Provides size, hit, miss and eviction metrics of the {@link PermissionsCache}. */
+@Singleton
+public class PermissionsCacheMeterBinder implements MeterBinder {
+
+  private final PermissionsCache permissionsCache;
+
+  @Inject
+  public PermissionsCacheMeterBinder(PermissionsCache permissionsCache) {
+    this.permissionsCache = permissionsCache;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (permissionsCache.isEnabled()) {
+      GuavaCacheMetrics.monitor(registry, permissionsCache.getCache(), "che.permissions");
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server.cache;
+
+import org.eclipse.che.commons.annotation.Nullable;
+
+/**
+ * Delivers invalidations of cached permissions between Che Server instances sharing the same
+ * permissions storage.
+ *
+ * @see PermissionsCache
+ */
+public interface PermissionsInvalidationChannel {
+
+  /**
+   * Sends invalidation of the permissions to other Che Server instances.
+   *
+   * @param domainId domain id of the changed permissions
+   * @param userId user id of the changed permissions, '*' or null if permissions of all the users
+   *     should be invalidated
+   * @param instanceId instance id of the changed permissions
+   */
+  void send(String domainId, @Nullable String userId, @Nullable String instanceId);
+
+  /**
+   * Subscribes listener that receives invalidations sent by other Che Server instances.
+   *
+   * @param listener listener instance
+   */
+  void subscribe(InvalidationListener listener);
+
+  /** Receives invalidations of permissions. */
+  interface InvalidationListener {
+    void invalidated(String domainId, @Nullable String userId, @Nullable String instanceId);
+  }
+}
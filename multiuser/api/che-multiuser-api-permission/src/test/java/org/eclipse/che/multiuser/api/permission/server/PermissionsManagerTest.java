@@ -22,6 +22,7 @@ import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -38,6 +39,8 @@ import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.multiuser.api.permission.server.cache.DefaultPermissionsInvalidationChannel;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsCache;
 import org.eclipse.che.multiuser.api.permission.server.model.impl.AbstractPermissions;
 import org.eclipse.che.multiuser.api.permission.server.spi.PermissionsDao;
 import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsDto;
@@ -66,7 +69,9 @@ public class PermissionsManagerTest {
   public void setUp() throws Exception {
     when(permissionsDao.getDomain()).thenReturn(new TestDomain());
 
-    permissionsManager = new PermissionsManager(eventService, ImmutableSet.of(permissionsDao));
+    permissionsManager =
+        new PermissionsManager(
+            eventService, ImmutableSet.of(permissionsDao), createPermissionsCache(false));
   }
 
   @Test(
@@ -80,7 +85,10 @@ public class PermissionsManagerTest {
     when(anotherStorage.getDomain()).thenReturn(new TestDomain());
 
     permissionsManager =
-        new PermissionsManager(eventService, ImmutableSet.of(permissionsDao, anotherStorage));
+        new PermissionsManager(
+            eventService,
+            ImmutableSet.of(permissionsDao, anotherStorage),
+            createPermissionsCache(false));
   }
 
   @Test
@@ -247,6 +255,43 @@ public class PermissionsManagerTest {
     assertFalse(permissionsManager.exists("user", "test", "test123", "update"));
   }
 
+  @Test
+  public void shouldCheckPermissionExistenceWithCachedActions() throws Exception {
+    permissionsManager =
+        new PermissionsManager(
+            eventService, ImmutableSet.of(permissionsDao), createPermissionsCache(true));
+    doReturn(new TestPermissionsImpl("user", "test", "test123", singletonList("use")))
+        .when(permissionsDao)
+        .get("user", "test123");
+
+    assertTrue(permissionsManager.exists("user", "test", "test123", "use"));
+    assertFalse(permissionsManager.exists("user", "test", "test123", "read"));
+
+    verify(permissionsDao).get("user", "test123");
+    verify(permissionsDao, never()).exists(anyString(), anyString(), anyString());
+  }
+
+  @Test
+  public void shouldReloadCachedActionsWhenPermissionsAreUpdated() throws Exception {
+    permissionsManager =
+        new PermissionsManager(
+            eventService, ImmutableSet.of(permissionsDao), createPermissionsCache(true));
+    doReturn(new TestPermissionsImpl("user", "test", "test123", singletonList("use")))
+        .doReturn(new TestPermissionsImpl("user", "test", "test123", asList("use", "read")))
+        .when(permissionsDao)
+        .get("user", "test123");
+    assertFalse(permissionsManager.exists("user", "test", "test123", "read"));
+    when(permissionsDao.store(any(TestPermissionsImpl.class)))
+        .thenReturn(
+            Optional.of(new TestPermissionsImpl("user", "test", "test123", singletonList("use"))));
+
+    permissionsManager.storePermission(
+        new TestPermissionsImpl("user", "test", "test123", asList("use", "read")));
+
+    assertTrue(permissionsManager.exists("user", "test", "test123", "read"));
+    verify(permissionsDao, times(2)).get("user", "test123");
+  }
+
   @Test
   public void shouldBeAbleToDomains() throws Exception {
     final List<AbstractPermissionsDomain> domains = permissionsManager.getDomains();
@@ -289,6 +334,11 @@ public class PermissionsManagerTest {
     permissionsManager.checkActionsSupporting("test", Arrays.asList("write", "use", "unsupported"));
   }
 
+  private PermissionsCache createPermissionsCache(boolean enabled) {
+    return new PermissionsCache(
+        eventService, new DefaultPermissionsInvalidationChannel(), enabled, 100, 60);
+  }
+
   public class TestDomain extends AbstractPermissionsDomain<TestPermissionsImpl> {
 
     public TestDomain() {
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server.cache;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Set;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsCache.ActionsLoader;
+import org.eclipse.che.multiuser.api.permission.server.cache.PermissionsInvalidationChannel.InvalidationListener;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsCreatedEvent;
+import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsDto;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link PermissionsCache} */
+@Listeners(MockitoTestNGListener.class)
+public class PermissionsCacheTest {
+
+  private static final Set<String> ACTIONS = singleton("use");
+
+  @Mock private PermissionsInvalidationChannel invalidationChannel;
+  @Mock private ActionsLoader loader;
+
+  private EventService eventService;
+  private PermissionsCache cache;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    eventService = new EventService();
+    cache = new PermissionsCache(eventService, invalidationChannel, true, 100, 60);
+    cache.subscribe();
+  }
+
+  @Test
+  public void shouldLoadActionsOnlyOnce() throws Exception {
+    when(loader.load()).thenReturn(ACTIONS);
+
+    assertEquals(cache.getActions("workspace", "user", "ws1", loader), ACTIONS);
+    assertEquals(cache.getActions("workspace", "user", "ws1", loader), ACTIONS);
+
+    verify(loader).load();
+  }
+
+  @Test
+  public void shouldCacheAbsentPermissions() throws Exception {
+    when(loader.load()).thenThrow(new NotFoundException("not found"));
+
+    assertTrue(cache.getActions("system", "user", null, loader).isEmpty());
+    assertTrue(cache.getActions("system", "user", null, loader).isEmpty());
+
+    verify(loader).load();
+  }
+
+  @Test
+  public void shouldInvalidateActionsOnPermissionsEvent() throws Exception {
+    when(loader.load()).thenReturn(ACTIONS);
+    cache.getActions("workspace", "user", "ws1", loader);
+
+    eventService.publish(
+        new PermissionsCreatedEvent(
+            "admin",
+            DtoFactory.newDto(PermissionsDto.class)
+                .withDomainId("workspace")
+                .withUserId("user")
+                .withInstanceId("ws1")
+                .withActions(singletonList("use"))));
+    cache.getActions("workspace", "user", "ws1", loader);
+
+    verify(loader, times(2)).load();
+    verify(invalidationChannel).send("workspace", "user", "ws1");
+  }
+
+  @Test
+  public void shouldInvalidateActionsOfAllUsersOnWildcardInvalidation() throws Exception {
+    when(loader.load()).thenReturn(ACTIONS);
+    cache.getActions("stack", "user1", "stack1", loader);
+    cache.getActions("stack", "user2", "stack1", loader);
+    cache.getActions("stack", "user1", "stack2", loader);
+
+    cache.invalidate("stack", "*", "stack1");
+    cache.getActions("stack", "user1", "stack1", loader);
+    cache.getActions("stack", "user2", "stack1", loader);
+    cache.getActions("stack", "user1", "stack2", loader);
+
+    verify(loader, times(5)).load();
+  }
+
+  @Test
+  public void shouldInvalidateActionsOnInvalidationFromOtherInstance() throws Exception {
+    ArgumentCaptor<InvalidationListener> listenerCaptor =
+        ArgumentCaptor.forClass(InvalidationListener.class);
+    verify(invalidationChannel).subscribe(listenerCaptor.capture());
+    when(loader.load()).thenReturn(ACTIONS);
+    cache.getActions("workspace", "user", "ws1", loader);
+
+    listenerCaptor.getValue().invalidated("workspace", "user", "ws1");
+    cache.getActions("workspace", "user", "ws1", loader);
+
+    verify(loader, times(2)).load();
+    verify(invalidationChannel, never()).send(any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotCacheActionsLoadedConcurrentlyWithInvalidation() throws Exception {
+    when(loader.load())
+        .then(
+            inv -> {
+              cache.invalidate("workspace", "user", "ws1");
+              return ACTIONS;
+            })
+        .thenReturn(ACTIONS);
+
+    cache.getActions("workspace", "user", "ws1", loader);
+    cache.getActions("workspace", "user", "ws1", loader);
+
+    verify(loader, times(2)).load();
+  }
+}
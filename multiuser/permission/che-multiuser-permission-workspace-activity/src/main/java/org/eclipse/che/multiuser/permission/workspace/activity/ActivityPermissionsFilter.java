@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.multiuser.permission.workspace.activity;
 
+import java.util.List;
 import javax.ws.rs.Path;
 import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -47,6 +48,16 @@ public class ActivityPermissionsFilter extends CheMethodInvokerFilter {
         instance = (String) arguments[0];
         action = WorkspaceDomain.USE;
         break;
+      case "activeAll":
+        @SuppressWarnings("unchecked")
+        List<String> workspaceIds = (List<String>) arguments[0];
+        if (workspaceIds != null) {
+          for (String workspaceId : workspaceIds) {
+            currentSubject.checkPermission(
+                WorkspaceDomain.DOMAIN_ID, workspaceId, WorkspaceDomain.USE);
+          }
+        }
+        return;
       case "getWorkspacesByActivity":
         domain = SystemDomain.DOMAIN_ID;
         instance = null;
@@ -12,6 +12,7 @@
 package org.eclipse.che.multiuser.permission.workspace.activity;
 
 import static com.jayway.restassured.RestAssured.given;
+import static java.util.Arrays.asList;
 import static org.everrest.assured.JettyHttpServer.ADMIN_USER_NAME;
 import static org.everrest.assured.JettyHttpServer.ADMIN_USER_PASSWORD;
 import static org.everrest.assured.JettyHttpServer.SECURE_PATH;
@@ -98,6 +99,23 @@ public class ActivityPermissionsFilterTest {
     assertEquals(response.getStatusCode(), 403);
   }
 
+  @Test
+  public void shouldCheckPermissionsOfEachWorkspaceOnBulkActivityUpdate() throws Exception {
+    final Response response =
+        given()
+            .auth()
+            .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+            .contentType("application/json")
+            .body(asList("workspace123", "workspace234"))
+            .when()
+            .put(SECURE_PATH + "/activity");
+
+    assertEquals(response.getStatusCode(), 204);
+    verify(service).activeAll(eq(asList("workspace123", "workspace234")));
+    verify(subject).checkPermission(WorkspaceDomain.DOMAIN_ID, "workspace123", WorkspaceDomain.USE);
+    verify(subject).checkPermission(WorkspaceDomain.DOMAIN_ID, "workspace234", WorkspaceDomain.USE);
+  }
+
   @Test
   public void shouldCheckPermissionsOnGettingActivity() throws Exception {
     // simulate output to not get a 204, which should never happen in reality
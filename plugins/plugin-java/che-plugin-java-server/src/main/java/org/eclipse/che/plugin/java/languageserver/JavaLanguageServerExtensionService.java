@@ -94,6 +94,7 @@ import org.eclipse.che.api.languageserver.FindServer;
 import org.eclipse.che.api.languageserver.LanguageServerException;
 import org.eclipse.che.api.languageserver.LanguageServerInitializer;
 import org.eclipse.che.api.languageserver.LanguageServiceUtils;
+import org.eclipse.che.api.languageserver.TextDocumentChangeDispatcher;
 import org.eclipse.che.api.project.server.ProjectManager;
 import org.eclipse.che.ide.ext.java.shared.Constants;
 import org.eclipse.che.jdt.ls.extension.api.Commands;
@@ -163,6 +164,7 @@ public class JavaLanguageServerExtensionService {
   private final ProjectManager projectManager;
   private final EventService eventService;
   private final LanguageServerInitializer initializer;
+  private final TextDocumentChangeDispatcher changeDispatcher;
 
   @Inject
   public JavaLanguageServerExtensionService(
@@ -170,12 +172,14 @@ public class JavaLanguageServerExtensionService {
       LanguageServerInitializer languageServerInitializer,
       RequestHandlerConfigurator requestHandler,
       ProjectManager projectManager,
-      EventService eventService) {
+      EventService eventService,
+      TextDocumentChangeDispatcher changeDispatcher) {
     this.registry = registry;
     this.initializer = languageServerInitializer;
     this.requestHandler = requestHandler;
     this.projectManager = projectManager;
     this.eventService = eventService;
+    this.changeDispatcher = changeDispatcher;
     this.gson =
         new GsonBuilder()
             .registerTypeAdapterFactory(new CollectionTypeAdapterFactory())
@@ -1036,6 +1040,8 @@ public class JavaLanguageServerExtensionService {
             (ServerCapabilities cap) -> {
               ExtendedLanguageServer ls = findInitializedLanguageServer();
               if (ls != null) {
+                // commands work on the documents, so they must see the latest changes
+                changeDispatcher.flush(JavaModule.LS_ID);
                 return ls.getWorkspaceService().executeCommand(params);
               } else {
                 CompletableFuture<Object> completedFuture = CompletableFuture.completedFuture(null);
@@ -13,8 +13,6 @@ package org.eclipse.che.api.git;
 
 import static java.nio.file.Files.getLastModifiedTime;
 import static java.util.Collections.singletonList;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.api.fs.server.WsPathUtils.SEPARATOR;
 import static org.eclipse.che.api.fs.server.WsPathUtils.absolutize;
 import static org.eclipse.che.api.fs.server.WsPathUtils.resolve;
@@ -22,20 +20,31 @@ import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.ADD
 import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
 import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
 import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
-import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.config.ProjectConfig;
@@ -47,21 +56,25 @@ import org.eclipse.che.api.git.shared.Status;
 import org.eclipse.che.api.git.shared.StatusChangedEventDto;
 import org.eclipse.che.api.project.server.ProjectManager;
 import org.eclipse.che.api.project.server.VcsStatusProvider;
-import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
 import org.eclipse.che.api.project.server.notification.ProjectCreatedEvent;
 import org.eclipse.che.api.project.server.notification.ProjectDeletedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Git implementation of {@link VcsStatusProvider} based on a {@link Map} which contains statuses of
- * all workspace projects. The map is updated by Git events and by checking the file's modification
- * time to update the map if the files were changed bypassing the file-watchers e.g. the file wasn't
- * opened neither in the project explorer tree, neither in the editor, but was changed in the
- * terminal.
+ * Git implementation of {@link VcsStatusProvider} based on an index of statuses of the project
+ * files. The index of a project is filled lazily with the statuses of the requested files, only
+ * the files which are not indexed yet are passed to git status.
+ *
+ * <p>The index is updated by Git events and by the file changes reported by the file watcher, the
+ * statuses of the changed files are refreshed in the background from a bounded queue. The file's
+ * modification time is checked on each request as well to update the index if the file was changed
+ * bypassing the file-watchers e.g. the file wasn't opened neither in the project explorer tree,
+ * neither in the editor, but was changed in the terminal.
  *
  * @author Igor Vinokur
  */
+@Singleton
 public class CachedGitStatusProvider implements VcsStatusProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(CachedGitStatusProvider.class);
@@ -69,90 +82,172 @@ public class CachedGitStatusProvider implements VcsStatusProvider {
   private final GitConnectionFactory gitConnectionFactory;
   private final PathTransformer pathTransformer;
   private final ProjectManager projectManager;
-  private final RootDirPathProvider rootDirPathProvider;
   private final EventService eventService;
-  private final Map<String, Status> statusCache;
-  private final Map<String, FileTime> projectFiles;
+  /** Project name -> indexed file path relative to the project -> status */
+  private final Map<String, Map<String, IndexedStatus>> statusIndex;
+
+  private final BlockingQueue<Path> refreshQueue;
+  private final ExecutorService refreshExecutor;
 
   @Inject
   public CachedGitStatusProvider(
       GitConnectionFactory gitConnectionFactory,
       PathTransformer pathTransformer,
       ProjectManager projectManager,
-      RootDirPathProvider rootDirPathProvider,
-      EventService eventService) {
+      EventService eventService,
+      @Named("che.git.status_cache.refresh_queue_size") int refreshQueueSize) {
     this.gitConnectionFactory = gitConnectionFactory;
     this.pathTransformer = pathTransformer;
     this.projectManager = projectManager;
-    this.rootDirPathProvider = rootDirPathProvider;
     this.eventService = eventService;
-    this.statusCache = new HashMap<>();
-    this.projectFiles = new HashMap<>();
+    this.statusIndex = new ConcurrentHashMap<>();
+    this.refreshQueue = new ArrayBlockingQueue<>(refreshQueueSize);
+    this.refreshExecutor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("GitStatusRefresher")
+                .setDaemon(true)
+                .build());
   }
 
   @PostConstruct
   private void postConstruct() {
     subscribeToEvents();
-    collectProjectFiles(rootDirPathProvider.get());
+    refreshExecutor.execute(this::refreshChangedFiles);
   }
 
-  private void collectProjectFiles(String root) {
-    try {
-      Set<Path> filePaths =
-          Files.walk(Paths.get(root)).filter(Files::isRegularFile).collect(toSet());
-      for (Path path : filePaths) {
-        String filePath = path.toString();
-        projectFiles.put(filePath, getLastModifiedTime(Paths.get(filePath)));
-      }
-    } catch (IOException exception) {
-      LOG.error(exception.getMessage());
-    }
+  @PreDestroy
+  private void preDestroy() {
+    refreshExecutor.shutdownNow();
   }
 
   private void subscribeToEvents() {
     eventService.subscribe(
-        event -> statusCache.put(event.getProjectName(), event.getStatus()),
+        event -> {
+          Map<String, IndexedStatus> projectIndex = statusIndex.get(event.getProjectName());
+          if (projectIndex == null) {
+            return;
+          }
+          Status status = event.getStatus();
+          Set<String> paths = new HashSet<>(projectIndex.keySet());
+          paths.addAll(status.getAdded());
+          paths.addAll(status.getChanged());
+          paths.addAll(status.getModified());
+          paths.addAll(status.getUntracked());
+          String projectFsPath =
+              pathTransformer.transform(absolutize(event.getProjectName())).toString();
+          for (String path : paths) {
+            projectIndex.put(
+                path,
+                new IndexedStatus(toVcsStatus(status, path), modificationTime(projectFsPath, path)));
+          }
+        },
         StatusChangedEventDto.class);
 
     eventService.subscribe(
         event -> {
-          String filePath = event.getPath();
-          FileChangedEventDto.Status status = event.getStatus();
-          Status statusDto = newDto(Status.class);
-          if (status == FileChangedEventDto.Status.ADDED) {
-            statusDto.setAdded(singletonList(filePath));
-          } else if (status == FileChangedEventDto.Status.MODIFIED) {
-            statusDto.setModified(singletonList(filePath));
-          } else if (status == FileChangedEventDto.Status.UNTRACKED) {
-            statusDto.setModified(singletonList(filePath));
+          String wsPath = event.getPath();
+          Optional<ProjectConfig> project = projectManager.getClosest(wsPath);
+          if (!project.isPresent() || wsPath.length() <= project.get().getPath().length()) {
+            return;
           }
-
-          updateCachedStatus(
-              Paths.get(filePath).getParent().getFileName().toString(),
-              singletonList(filePath),
-              statusDto);
-
-          try {
-            projectFiles.put(
-                filePath, getLastModifiedTime(Paths.get(rootDirPathProvider.get() + filePath)));
-          } catch (IOException exception) {
-            LOG.error(exception.getMessage());
+          Map<String, IndexedStatus> projectIndex = statusIndex.get(project.get().getName());
+          if (projectIndex == null) {
+            return;
           }
+          String projectWsPath = project.get().getPath();
+          String itemPath = wsPath.substring(projectWsPath.length() + 1);
+          String projectFsPath = pathTransformer.transform(projectWsPath).toString();
+          projectIndex.put(
+              itemPath,
+              new IndexedStatus(
+                  toVcsStatus(event.getStatus()), modificationTime(projectFsPath, itemPath)));
         },
         FileChangedEventDto.class);
 
     eventService.subscribe(
-        event -> collectProjectFiles(pathTransformer.transform(event.getProjectPath()).toString()),
-        ProjectCreatedEvent.class);
+        event -> statusIndex.remove(nameOf(event.getProjectPath())), ProjectCreatedEvent.class);
 
     eventService.subscribe(
-        event -> {
-          String projectFsPath = pathTransformer.transform(event.getProjectPath()).toString();
-          projectFiles.keySet().removeIf(file -> file.startsWith(projectFsPath));
-          statusCache.remove(
-              event.getProjectPath().substring(event.getProjectPath().lastIndexOf('/') + 1));
-        },
-        ProjectDeletedEvent.class);
+        event -> statusIndex.remove(nameOf(event.getProjectPath())), ProjectDeletedEvent.class);
+  }
+
+  /**
+   * Queues refresh of the status of the changed file if it is indexed. If the queue is full the
+   * status is removed from the index to be requested again.
+   */
+  void onFileChanged(Path fsPath) {
+    String wsPath = pathTransformer.transform(fsPath);
+    Optional<ProjectConfig> project = projectManager.getClosest(wsPath);
+    if (!project.isPresent() || wsPath.length() <= project.get().getPath().length()) {
+      return;
+    }
+    Map<String, IndexedStatus> projectIndex = statusIndex.get(project.get().getName());
+    String itemPath = wsPath.substring(project.get().getPath().length() + 1);
+    if (projectIndex == null || !projectIndex.containsKey(itemPath)) {
+      return;
+    }
+    if (!refreshQueue.offer(fsPath)) {
+      projectIndex.remove(itemPath);
+    }
+  }
+
+  private void refreshChangedFiles() {
+    List<Path> changed = new ArrayList<>();
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        changed.add(refreshQueue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      refreshQueue.drainTo(changed);
+      try {
+        refresh(changed);
+      } catch (RuntimeException e) {
+        LOG.error("Failed to refresh git status of changed files. Cause: {}", e.getMessage(), e);
+      }
+      changed.clear();
+    }
+  }
+
+  /** Runs git status once per project for the changed files which are still indexed. */
+  private void refresh(List<Path> changed) {
+    Map<ProjectConfig, List<String>> pathsByProject = new HashMap<>();
+    for (Path fsPath : changed) {
+      String wsPath = pathTransformer.transform(fsPath);
+      projectManager
+          .getClosest(wsPath)
+          .filter(project -> wsPath.length() > project.getPath().length())
+          .ifPresent(
+              project -> {
+                List<String> paths =
+                    pathsByProject.computeIfAbsent(project, p -> new ArrayList<>());
+                String itemPath = wsPath.substring(project.getPath().length() + 1);
+                if (!paths.contains(itemPath)) {
+                  paths.add(itemPath);
+                }
+              });
+    }
+
+    for (Map.Entry<ProjectConfig, List<String>> entry : pathsByProject.entrySet()) {
+      Map<String, IndexedStatus> projectIndex = statusIndex.get(entry.getKey().getName());
+      if (projectIndex == null) {
+        continue;
+      }
+      List<String> paths = entry.getValue();
+      paths.removeIf(path -> !projectIndex.containsKey(path));
+      if (paths.isEmpty()) {
+        continue;
+      }
+      String projectFsPath = pathTransformer.transform(entry.getKey().getPath()).toString();
+      try {
+        index(projectIndex, projectFsPath, paths);
+      } catch (GitException e) {
+        paths.forEach(projectIndex::remove);
+        LOG.debug("Failed to refresh git status of '{}'. Cause: {}", paths, e.getMessage());
+      }
+    }
   }
 
   @Override
@@ -170,22 +265,11 @@ public class CachedGitStatusProvider implements VcsStatusProvider {
       wsPath = wsPath.substring(wsPath.startsWith(SEPARATOR) ? 1 : 0);
       String itemPath = wsPath.substring(wsPath.indexOf(SEPARATOR) + 1);
 
-      Status status =
-          getStatus(
+      return getStatus(
               project.getName(),
               pathTransformer.transform(project.getPath()).toString(),
-              singletonList(itemPath));
-
-      if (status.getUntracked().contains(itemPath)) {
-        return UNTRACKED;
-      } else if (status.getAdded().contains(itemPath)) {
-        return ADDED;
-      } else if (status.getModified().contains(itemPath)
-          || status.getChanged().contains(itemPath)) {
-        return MODIFIED;
-      } else {
-        return NOT_MODIFIED;
-      }
+              singletonList(itemPath))
+          .get(itemPath);
     } catch (GitException | NotFoundException e) {
       throw new ServerException(e.getMessage());
     }
@@ -201,122 +285,106 @@ public class CachedGitStatusProvider implements VcsStatusProvider {
               .getClosest(absolutize(wsPath))
               .orElseThrow(() -> new NotFoundException("Can't find project"));
 
-      Status status =
+      Map<String, VcsStatus> statuses =
           getStatus(
               project.getName(), pathTransformer.transform(project.getPath()).toString(), paths);
 
-      paths.forEach(
-          path -> {
-            String itemWsPath = resolve(project.getPath(), path);
-            if (status.getUntracked().contains(path)) {
-              result.put(itemWsPath, UNTRACKED);
-            } else if (status.getAdded().contains(path)) {
-              result.put(itemWsPath, ADDED);
-            } else if (status.getModified().contains(path) || status.getChanged().contains(path)) {
-              result.put(itemWsPath, MODIFIED);
-            } else {
-              result.put(itemWsPath, NOT_MODIFIED);
-            }
-          });
-
+      statuses.forEach((path, status) -> result.put(resolve(project.getPath(), path), status));
     } catch (NotFoundException e) {
       throw new ServerException(e.getMessage());
     }
     return result;
   }
 
-  private Status getStatus(String projectName, String projectFsPath, List<String> paths)
-      throws GitException {
-    if (statusCache.get(projectName) == null || haveChanges(projectFsPath, paths)) {
-      updateCachedStatus(
-          projectName, paths, gitConnectionFactory.getConnection(projectFsPath).status(paths));
+  private Map<String, VcsStatus> getStatus(
+      String projectName, String projectFsPath, List<String> paths) throws GitException {
+    Map<String, IndexedStatus> projectIndex =
+        statusIndex.computeIfAbsent(projectName, name -> new ConcurrentHashMap<>());
+
+    Map<String, VcsStatus> result = new HashMap<>();
+    List<String> notIndexed = new ArrayList<>();
+    for (String path : paths) {
+      IndexedStatus indexed = projectIndex.get(path);
+      if (indexed != null
+          && Objects.equals(indexed.modificationTime, modificationTime(projectFsPath, path))) {
+        result.put(path, indexed.status);
+      } else {
+        notIndexed.add(path);
+      }
     }
 
-    return statusCache.get(projectName);
+    if (!notIndexed.isEmpty()) {
+      result.putAll(index(projectIndex, projectFsPath, notIndexed));
+    }
+    return result;
   }
 
-  private boolean haveChanges(String projectPath, List<String> paths) {
-    boolean statusChanged = false;
-
+  /** Runs git status for the given paths and puts the statuses to the index. */
+  private Map<String, VcsStatus> index(
+      Map<String, IndexedStatus> projectIndex, String projectFsPath, List<String> paths)
+      throws GitException {
+    Status status;
+    try (GitConnection connection = gitConnectionFactory.getConnection(projectFsPath)) {
+      status = connection.status(paths);
+    }
+    Map<String, VcsStatus> result = new HashMap<>();
     for (String path : paths) {
-      String filePath = resolve(projectPath, path);
-      FileTime fileTime = projectFiles.get(filePath);
-      try {
-        FileTime currentFileTime = getLastModifiedTime(Paths.get(filePath));
-        if (fileTime == null || !fileTime.equals(currentFileTime)) {
-          projectFiles.put(filePath, currentFileTime);
-          statusChanged = true;
-        }
-      } catch (IOException exception) {
-        if (exception instanceof NoSuchFileException) {
-          statusChanged = projectFiles.remove(filePath) != null;
-        } else {
-          LOG.error(exception.getMessage());
-        }
-      }
+      VcsStatus vcsStatus = toVcsStatus(status, path);
+      projectIndex.put(path, new IndexedStatus(vcsStatus, modificationTime(projectFsPath, path)));
+      result.put(path, vcsStatus);
     }
+    return result;
+  }
 
-    return statusChanged;
+  private static VcsStatus toVcsStatus(Status status, String path) {
+    if (status.getUntracked().contains(path)) {
+      return UNTRACKED;
+    } else if (status.getAdded().contains(path)) {
+      return ADDED;
+    } else if (status.getModified().contains(path) || status.getChanged().contains(path)) {
+      return MODIFIED;
+    } else {
+      return NOT_MODIFIED;
+    }
   }
 
-  private void updateCachedStatus(String project, List<String> paths, Status changes) {
-    Status cachedStatus = statusCache.get(project);
+  private static VcsStatus toVcsStatus(FileChangedEventDto.Status status) {
+    switch (status) {
+      case ADDED:
+        return ADDED;
+      case MODIFIED:
+        return MODIFIED;
+      case UNTRACKED:
+        return UNTRACKED;
+      default:
+        return NOT_MODIFIED;
+    }
+  }
 
-    if (cachedStatus == null) {
-      statusCache.put(project, changes);
-      return;
+  /** Returns modification time of the file or null if the file doesn't exist. */
+  private static FileTime modificationTime(String projectFsPath, String path) {
+    try {
+      return getLastModifiedTime(Paths.get(projectFsPath, path));
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      LOG.error(e.getMessage());
+      return null;
     }
+  }
 
-    List<String> added =
-        cachedStatus.getAdded().stream().filter(path -> !paths.contains(path)).collect(toList());
-    added.addAll(changes.getAdded());
-
-    List<String> changed =
-        cachedStatus.getChanged().stream().filter(path -> !paths.contains(path)).collect(toList());
-    changed.addAll(changes.getChanged());
-
-    List<String> modified =
-        cachedStatus.getModified().stream().filter(path -> !paths.contains(path)).collect(toList());
-    modified.addAll(changes.getModified());
-
-    List<String> untracked =
-        cachedStatus.getModified().stream().filter(path -> !paths.contains(path)).collect(toList());
-    untracked.addAll(changes.getUntracked());
-
-    List<String> missing =
-        cachedStatus.getMissing().stream().filter(path -> !paths.contains(path)).collect(toList());
-    missing.addAll(changes.getMissing());
-
-    List<String> removed =
-        cachedStatus.getRemoved().stream().filter(path -> !paths.contains(path)).collect(toList());
-    removed.addAll(changes.getRemoved());
-
-    List<String> conflicting =
-        cachedStatus
-            .getConflicting()
-            .stream()
-            .filter(path -> !paths.contains(path))
-            .collect(toList());
-    conflicting.addAll(changes.getConflicting());
-
-    List<String> untrackedFolders =
-        cachedStatus
-            .getUntrackedFolders()
-            .stream()
-            .filter(path -> !paths.contains(path))
-            .collect(toList());
-    untrackedFolders.addAll(changes.getUntrackedFolders());
-
-    Status status = newDto(Status.class);
-    status.setAdded(added);
-    status.setChanged(changed);
-    status.setModified(modified);
-    status.setUntracked(untracked);
-    status.setMissing(missing);
-    status.setRemoved(removed);
-    status.setConflicting(conflicting);
-    status.setUntrackedFolders(untrackedFolders);
-
-    statusCache.put(project, status);
+  private static String nameOf(String projectWsPath) {
+    return projectWsPath.substring(projectWsPath.lastIndexOf('/') + 1);
+  }
+
+  private static class IndexedStatus {
+
+    private final VcsStatus status;
+    private final FileTime modificationTime;
+
+    private IndexedStatus(VcsStatus status, FileTime modificationTime) {
+      this.status = status;
+      this.modificationTime = modificationTime;
+    }
   }
 }
@@ -25,6 +25,8 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertTrue;
@@ -42,7 +44,6 @@ import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.git.shared.Status;
 import org.eclipse.che.api.project.server.ProjectManager;
 import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
-import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
 import org.eclipse.che.api.project.shared.RegisteredProject;
 import org.mockito.Mock;
 import org.mockito.stubbing.OngoingStubbing;
@@ -65,7 +66,6 @@ public class CachedGitStatusProviderTest {
   private @Mock PathTransformer pathTransformer;
   private @Mock ProjectManager projectManager;
   private @Mock EventService eventService;
-  private @Mock RootDirPathProvider rootDirPathProvider;
   private @Mock Status statusDto;
 
   private Path projectPath;
@@ -101,17 +101,10 @@ public class CachedGitStatusProviderTest {
     when(pathTransformer.transform("/" + projectName)).thenReturn(path);
     when(gitConnectionFactory.getConnection(projectPath.toString())).thenReturn(gitConnection);
     lenient().when(gitConnection.status(singletonList(NORMALIZED_PATH))).thenReturn(statusDto);
-    lenient()
-        .when(rootDirPathProvider.get())
-        .thenReturn("/" + projectPath.subpath(0, 2).toString());
 
     gitStatusProvider =
         new CachedGitStatusProvider(
-            gitConnectionFactory,
-            pathTransformer,
-            projectManager,
-            rootDirPathProvider,
-            eventService);
+            gitConnectionFactory, pathTransformer, projectManager, eventService, 1);
   }
 
   @Test
@@ -248,4 +241,39 @@ public class CachedGitStatusProviderTest {
     // then
     assertTrue(statusMap.get(PATH + "1") == MODIFIED);
   }
+
+  @Test
+  public void shouldReturnStatusOfNotChangedFileFromIndex() throws Exception {
+    // given
+    when(gitConnection.status(singletonList(NORMALIZED_PATH + "5")))
+        .thenReturn(newDto(Status.class));
+    gitStatusProvider.getStatus(NORMALIZED_PATH, singletonList(NORMALIZED_PATH + "5"));
+
+    // when
+    Map<String, VcsStatus> statusMap =
+        gitStatusProvider.getStatus(NORMALIZED_PATH, singletonList(NORMALIZED_PATH + "5"));
+
+    // then
+    assertTrue(statusMap.get(PATH + "5") == NOT_MODIFIED);
+    verify(gitConnection, times(1)).status(singletonList(NORMALIZED_PATH + "5"));
+  }
+
+  @Test
+  public void shouldRemoveStatusFromIndexIfRefreshQueueIsFull() throws Exception {
+    // given
+    when(gitConnection.status(singletonList(NORMALIZED_PATH + "5")))
+        .thenReturn(newDto(Status.class));
+    Path file = projectPath.resolve(NORMALIZED_PATH + "5");
+    when(pathTransformer.transform(file)).thenReturn(PATH + "5");
+    gitStatusProvider.getStatus(NORMALIZED_PATH, singletonList(NORMALIZED_PATH + "5"));
+
+    // when
+    // Refresh worker is not started, so the first change fills the queue
+    gitStatusProvider.onFileChanged(file);
+    gitStatusProvider.onFileChanged(file);
+    gitStatusProvider.getStatus(NORMALIZED_PATH, singletonList(NORMALIZED_PATH + "5"));
+
+    // then
+    verify(gitConnection, times(2)).status(singletonList(NORMALIZED_PATH + "5"));
+  }
 }
@@ -11,9 +11,6 @@
  */
 package org.eclipse.che.api.languageserver;
 
-import com.google.common.collect.ImmutableSet;
-import java.util.HashSet;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -23,12 +20,19 @@ import org.eclipse.che.api.languageserver.RegistryContainer.Registry;
 /**
  * Utility class that simplifies finding language server id.
  *
+ * <p>Ids are found by the {@link PatternIndex} of the current language server patterns, the index
+ * is rebuilt when the pattern registry changes.
+ *
  * @author Dmytro Kulieshov
  */
 @Singleton
 class FindId {
+  private static final long MAX_CACHED_PATHS = 1_000;
+
   private final Registry<Set<Pattern>> patterns;
 
+  private volatile PatternIndex index;
+
   @Inject
   FindId(RegistryContainer registryContainer) {
     this.patterns = registryContainer.patternRegistry;
@@ -41,19 +45,23 @@ class FindId {
    * @return set of language server ids
    */
   Set<String> byPath(String wsPath) {
-    Set<String> ids = new HashSet<>();
-
-    for (Entry<String, Set<Pattern>> entry : patterns.getAll().entrySet()) {
-      String id = entry.getKey();
-      Set<Pattern> patterns = entry.getValue();
+    return index().idsOf(wsPath);
+  }
 
-      for (Pattern pattern : patterns) {
-        if (pattern.matcher(wsPath).matches()) {
-          ids.add(id);
+  private PatternIndex index() {
+    long version = patterns.getVersion();
+    PatternIndex current = index;
+    if (current == null || current.getVersion() != version) {
+      synchronized (this) {
+        current = index;
+        if (current == null || current.getVersion() != version) {
+          // registry version is read before its elements, so a concurrent change is either
+          // included into the index or triggers one more rebuild
+          current = new PatternIndex(version, patterns.getAll(), MAX_CACHED_PATHS);
+          index = current;
         }
       }
     }
-
-    return ImmutableSet.copyOf(ids);
+    return current;
   }
 }
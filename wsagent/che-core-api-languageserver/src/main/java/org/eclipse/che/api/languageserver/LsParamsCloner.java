@@ -96,22 +96,6 @@ class LsParamsCloner {
     return cloned;
   }
 
-  DidChangeTextDocumentParams clone(DidChangeTextDocumentParams didChangeTextDocumentParams) {
-    if (didChangeTextDocumentParams == null) {
-      return null;
-    }
-
-    List<TextDocumentContentChangeEvent> contentChanges =
-        didChangeTextDocumentParams.getContentChanges();
-    VersionedTextDocumentIdentifier textDocument = didChangeTextDocumentParams.getTextDocument();
-
-    DidChangeTextDocumentParams cloned = new DidChangeTextDocumentParams();
-    cloned.setContentChanges(cloneTDCCE(contentChanges));
-    cloned.setTextDocument(clone(textDocument));
-
-    return cloned;
-  }
-
   VersionedTextDocumentIdentifier clone(
       VersionedTextDocumentIdentifier versionedTextDocumentIdentifier) {
     if (versionedTextDocumentIdentifier == null) {
@@ -128,37 +112,6 @@ class LsParamsCloner {
     return cloned;
   }
 
-  List<TextDocumentContentChangeEvent> cloneTDCCE(
-      List<TextDocumentContentChangeEvent> textDocumentContentChangeEvents) {
-    if (textDocumentContentChangeEvents == null) {
-      return null;
-    }
-
-    List<TextDocumentContentChangeEvent> cloned =
-        new ArrayList<>(textDocumentContentChangeEvents.size());
-    textDocumentContentChangeEvents.stream().map(this::clone).forEach(cloned::add);
-
-    return cloned;
-  }
-
-  TextDocumentContentChangeEvent clone(
-      TextDocumentContentChangeEvent textDocumentContentChangeEvent) {
-    if (textDocumentContentChangeEvent == null) {
-      return null;
-    }
-
-    Range range = textDocumentContentChangeEvent.getRange();
-    Integer rangeLength = textDocumentContentChangeEvent.getRangeLength();
-    String text = textDocumentContentChangeEvent.getText();
-
-    TextDocumentContentChangeEvent cloned = new TextDocumentContentChangeEvent();
-    cloned.setRange(clone(range));
-    cloned.setRangeLength(rangeLength);
-    cloned.setText(text);
-
-    return cloned;
-  }
-
   DocumentOnTypeFormattingParams clone(
       DocumentOnTypeFormattingParams documentOnTypeFormattingParams) {
     if (documentOnTypeFormattingParams == null) {
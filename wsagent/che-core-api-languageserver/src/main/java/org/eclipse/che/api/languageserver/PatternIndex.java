@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of language server file patterns that resolves language server ids of a path without
+ * evaluating all the patterns. Patterns of the most common forms are indexed: the ones matching
+ * file extensions, like <code>.*\.(ts|tsx)$</code>, by the extensions and the ones matching a path
+ * prefix, like <code>^/projects/app/.*</code>, by the prefix. Other patterns are evaluated for each
+ * path. Resolved ids are memoized in a bounded cache.
+ *
+ * <p>The index is a snapshot of the pattern registry of a specific version, it is not updated when
+ * the registry changes but replaced by a new one.
+ *
+ * @see FindId
+ */
+class PatternIndex {
+  /** Matches patterns like <code>.*\.ext</code> or <code>^.*\.(ext1|ext2)$</code> */
+  private static final Pattern EXTENSION_PATTERN =
+      Pattern.compile("\\^?\\.\\*\\\\\\.(?:\\(([\\w\\-]+(?:\\|[\\w\\-]+)*)\\)|([\\w\\-]+))\\$?");
+  /** Matches patterns like <code>/projects/app/.*</code> or <code>^/projects/app\.js.*$</code> */
+  private static final Pattern PREFIX_PATTERN =
+      Pattern.compile("\\^?((?:[\\w/\\-]|\\\\\\.)+)\\.\\*\\$?");
+  /** Line terminators that are not matched by <code>.</code> of indexed patterns */
+  private static final Pattern LINE_TERMINATOR = Pattern.compile("[\\n\\r\\u0085\\u2028\\u2029]");
+
+  private final long version;
+  private final Map<String, Set<Pattern>> patterns;
+  private final Map<String, Set<String>> idsByExtension = new HashMap<>();
+  private final Map<String, Set<String>> idsByPrefix = new HashMap<>();
+  private final Map<String, Set<Pattern>> notIndexedPatterns = new HashMap<>();
+  private final Cache<String, Set<String>> idsByPath;
+
+  /**
+   * @param version version of the pattern registry the patterns are taken from
+   * @param patterns language server patterns by language server id
+   * @param maxCachedPaths maximum number of paths whose language server ids are memoized
+   */
+  PatternIndex(long version, Map<String, Set<Pattern>> patterns, long maxCachedPaths) {
+    this.version = version;
+    this.patterns = patterns;
+    this.idsByPath = CacheBuilder.newBuilder().maximumSize(maxCachedPaths).build();
+
+    for (Entry<String, Set<Pattern>> entry : patterns.entrySet()) {
+      for (Pattern pattern : entry.getValue()) {
+        index(entry.getKey(), pattern);
+      }
+    }
+  }
+
+  /** Returns version of the pattern registry the index is built from */
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * Finds language server ids that corresponds to a specified workspace path
+   *
+   * @param wsPath absolute workspace path
+   * @return set of language server ids
+   */
+  Set<String> idsOf(String wsPath) {
+    Set<String> ids = idsByPath.getIfPresent(wsPath);
+    if (ids == null) {
+      ids = LINE_TERMINATOR.matcher(wsPath).find() ? match(wsPath, patterns) : resolve(wsPath);
+      idsByPath.put(wsPath, ids);
+    }
+    return ids;
+  }
+
+  private void index(String id, Pattern pattern) {
+    if (pattern.flags() != 0) {
+      notIndexedPatterns.computeIfAbsent(id, k -> new HashSet<>()).add(pattern);
+      return;
+    }
+
+    Matcher extension = EXTENSION_PATTERN.matcher(pattern.pattern());
+    if (extension.matches()) {
+      String extensions = extension.group(1) != null ? extension.group(1) : extension.group(2);
+      for (String ext : extensions.split("\\|")) {
+        idsByExtension.computeIfAbsent(ext, k -> new HashSet<>()).add(id);
+      }
+      return;
+    }
+
+    Matcher prefix = PREFIX_PATTERN.matcher(pattern.pattern());
+    if (prefix.matches()) {
+      String literal = prefix.group(1).replace("\\.", ".");
+      idsByPrefix.computeIfAbsent(literal, k -> new HashSet<>()).add(id);
+      return;
+    }
+
+    notIndexedPatterns.computeIfAbsent(id, k -> new HashSet<>()).add(pattern);
+  }
+
+  private Set<String> resolve(String wsPath) {
+    Set<String> ids = new HashSet<>();
+
+    // indexed extensions contain no dots, so a path ends with '.ext' only if 'ext' follows the
+    // last dot of the path
+    int dot = wsPath.lastIndexOf('.');
+    if (dot >= 0) {
+      ids.addAll(idsByExtension.getOrDefault(wsPath.substring(dot + 1), ImmutableSet.of()));
+    }
+
+    for (Entry<String, Set<String>> entry : idsByPrefix.entrySet()) {
+      if (wsPath.startsWith(entry.getKey())) {
+        ids.addAll(entry.getValue());
+      }
+    }
+
+    ids.addAll(match(wsPath, notIndexedPatterns));
+
+    return ImmutableSet.copyOf(ids);
+  }
+
+  private static Set<String> match(String wsPath, Map<String, Set<Pattern>> patterns) {
+    Set<String> ids = new HashSet<>();
+
+    for (Entry<String, Set<Pattern>> entry : patterns.entrySet()) {
+      for (Pattern pattern : entry.getValue()) {
+        if (pattern.matcher(wsPath).matches()) {
+          ids.add(entry.getKey());
+          break;
+        }
+      }
+    }
+
+    return ImmutableSet.copyOf(ids);
+  }
+}
@@ -19,6 +19,7 @@ import java.io.OutputStream;
 import java.nio.file.PathMatcher;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import javax.inject.Singleton;
 import org.eclipse.che.api.languageserver.LanguageServerConfig.CommunicationProvider;
@@ -54,6 +55,7 @@ class RegistryContainer {
    */
   class Registry<T> {
     private final Map<String, T> innerRegistry = newConcurrentMap();
+    private final AtomicLong version = new AtomicLong();
 
     /**
      * Add an element to the registry
@@ -64,9 +66,20 @@ class RegistryContainer {
      */
     String add(String id, T t) {
       innerRegistry.put(id, t);
+      version.incrementAndGet();
       return id;
     }
 
+    /**
+     * Get registry version that is changed each time an element is added, so that data derived
+     * from the registry elements may be invalidated.
+     *
+     * @return registry version
+     */
+    long getVersion() {
+      return version.get();
+    }
+
     /**
      * Checks if the registry already contain the value for the specified language server.
      *
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.commons.lang.concurrent.StripedLocks;
+import org.eclipse.che.commons.lang.concurrent.Unlocker;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.TextDocumentSyncOptions;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches text document changes to language servers.
+ *
+ * <p>Content changes of a notification are shared by all the language servers instead of being
+ * copied for each of them, only the document identifier that contains the language server specific
+ * URI is created per server. Language servers do not modify the parameters of notifications, the
+ * shared list is unmodifiable to guard it anyway.
+ *
+ * <p>Changes of a document for language servers that support incremental synchronization are
+ * coalesced within the window that starts with the first not sent change, and sent as a single
+ * notification with all the content changes in the original order. Pending changes of a language
+ * server must be flushed with {@link #flush(String)} before any other request is sent to it, so
+ * that it sees the latest content of the documents.
+ */
+@Singleton
+public class TextDocumentChangeDispatcher {
+  private static final Logger LOG = LoggerFactory.getLogger(TextDocumentChangeDispatcher.class);
+
+  private final LanguageServerPathTransformer languageServerPathTransformer;
+  private final long coalesceWindowMs;
+  private final ScheduledExecutorService executor;
+
+  /** Not sent changes by language server id by workspace path */
+  private final Map<String, Map<String, PendingChange>> pending = new LinkedHashMap<>();
+  /** Workspace paths which changes are being sent, guarded by {@link #pending} */
+  private final Set<String> sending = new HashSet<>();
+  /** Keeps the order of the changes of a path which are sent by different threads */
+  private final StripedLocks sendLocks = new StripedLocks(16);
+
+  /**
+   * @param coalesceWindowMs time during which changes of a document are coalesced, 0 means
+   *     changes are sent as soon as they are received
+   */
+  @Inject
+  TextDocumentChangeDispatcher(
+      LanguageServerPathTransformer languageServerPathTransformer,
+      @Named("che.languageserver.did_change.coalesce_window_ms") long coalesceWindowMs) {
+    this.languageServerPathTransformer = languageServerPathTransformer;
+    this.coalesceWindowMs = coalesceWindowMs;
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("TextDocumentChangeDispatcher")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Dispatches text document changes to language servers
+   *
+   * @param params changes of a document identified by absolute workspace path
+   * @param servers language servers of the document
+   */
+  void dispatch(DidChangeTextDocumentParams params, Set<ExtendedLanguageServer> servers) {
+    String wsPath = params.getTextDocument().getUri();
+    Integer version = params.getTextDocument().getVersion();
+    List<TextDocumentContentChangeEvent> changes = unmodifiableList(params.getContentChanges());
+
+    for (ExtendedLanguageServer server : servers) {
+      String uri = languageServerPathTransformer.toFsURI(server.getId(), wsPath).toString();
+      if (coalesceWindowMs > 0 && isIncremental(server.getCapabilities())) {
+        coalesce(wsPath, new PendingChange(server, uri, version, changes));
+      } else {
+        send(server, uri, version, changes);
+      }
+    }
+  }
+
+  /**
+   * Sends pending changes of all the documents to the language server, waits for the changes being
+   * sent by other threads.
+   *
+   * @param serverId id of the language server
+   */
+  public void flush(String serverId) {
+    Set<String> wsPaths;
+    synchronized (pending) {
+      wsPaths = new LinkedHashSet<>(sending);
+      pending.forEach(
+          (wsPath, changesOfPath) -> {
+            if (changesOfPath.containsKey(serverId)) {
+              wsPaths.add(wsPath);
+            }
+          });
+    }
+    for (String wsPath : wsPaths) {
+      flush(wsPath, serverId);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+    Set<String> wsPaths;
+    synchronized (pending) {
+      wsPaths = new LinkedHashSet<>(pending.keySet());
+    }
+    for (String wsPath : wsPaths) {
+      flush(wsPath, null);
+    }
+  }
+
+  private void coalesce(String wsPath, PendingChange change) {
+    synchronized (pending) {
+      Map<String, PendingChange> changesOfPath = pending.get(wsPath);
+      if (changesOfPath == null) {
+        changesOfPath = new HashMap<>();
+        pending.put(wsPath, changesOfPath);
+        executor.schedule(() -> flush(wsPath, null), coalesceWindowMs, MILLISECONDS);
+      }
+
+      PendingChange previous = changesOfPath.putIfAbsent(change.server.getId(), change);
+      if (previous != null) {
+        previous.append(change);
+      }
+    }
+  }
+
+  /**
+   * Sends pending changes of the document.
+   *
+   * @param wsPath workspace path of the document
+   * @param serverId id of the language server to send the changes to, null for all the servers
+   */
+  private void flush(String wsPath, String serverId) {
+    // taken and sent under the lock of the path, so that the following changes of the path are not
+    // sent before these ones, while the changes of other paths are coalesced and sent meanwhile
+    try (Unlocker ignored = sendLocks.writeLock(wsPath)) {
+      Collection<PendingChange> changes;
+      synchronized (pending) {
+        Map<String, PendingChange> changesOfPath = pending.get(wsPath);
+        if (changesOfPath == null) {
+          return;
+        }
+        if (serverId == null) {
+          changes = changesOfPath.values();
+          pending.remove(wsPath);
+        } else {
+          PendingChange change = changesOfPath.remove(serverId);
+          if (change == null) {
+            return;
+          }
+          changes = singletonList(change);
+          if (changesOfPath.isEmpty()) {
+            pending.remove(wsPath);
+          }
+        }
+        sending.add(wsPath);
+      }
+      try {
+        for (PendingChange change : changes) {
+          try {
+            send(change.server, change.uri, change.version, change.changes);
+          } catch (RuntimeException e) {
+            LOG.error("Can't send changes of '{}' to '{}'", wsPath, change.server.getId(), e);
+          }
+        }
+      } finally {
+        synchronized (pending) {
+          sending.remove(wsPath);
+        }
+      }
+    }
+  }
+
+  private static void send(
+      ExtendedLanguageServer server,
+      String uri,
+      Integer version,
+      List<TextDocumentContentChangeEvent> changes) {
+    VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+    textDocument.setUri(uri);
+    textDocument.setVersion(version);
+
+    DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+    params.setTextDocument(textDocument);
+    params.setContentChanges(changes);
+
+    server.getTextDocumentService().didChange(params);
+  }
+
+  private static boolean isIncremental(ServerCapabilities capabilities) {
+    Either<TextDocumentSyncKind, TextDocumentSyncOptions> sync =
+        capabilities == null ? null : capabilities.getTextDocumentSync();
+    if (sync == null) {
+      return false;
+    }
+    if (sync.isLeft()) {
+      return sync.getLeft() == TextDocumentSyncKind.Incremental;
+    }
+    TextDocumentSyncOptions options = sync.getRight();
+    return options != null && options.getChange() == TextDocumentSyncKind.Incremental;
+  }
+
+  /** Changes of a document not sent to a language server yet */
+  private static class PendingChange {
+    private final ExtendedLanguageServer server;
+    private final String uri;
+
+    private Integer version;
+    private List<TextDocumentContentChangeEvent> changes;
+
+    private PendingChange(
+        ExtendedLanguageServer server,
+        String uri,
+        Integer version,
+        List<TextDocumentContentChangeEvent> changes) {
+      this.server = server;
+      this.uri = uri;
+      this.version = version;
+      this.changes = changes;
+    }
+
+    /** Appends the following changes, changes before a full content change are dropped. */
+    private void append(PendingChange next) {
+      List<TextDocumentContentChangeEvent> merged =
+          new ArrayList<>(changes.size() + next.changes.size());
+      merged.addAll(changes);
+      merged.addAll(next.changes);
+
+      int fullContent = -1;
+      for (int i = 0; i < merged.size(); i++) {
+        if (merged.get(i).getRange() == null) {
+          fullContent = i;
+        }
+      }
+
+      if (fullContent > 0) {
+        merged = merged.subList(fullContent, merged.size());
+      }
+
+      version = next.version;
+      changes = unmodifiableList(merged);
+    }
+  }
+}
@@ -131,6 +131,7 @@ public class TextDocumentService {
   private final FsManager fsManager;
   private final LanguageServerPathTransformer languageServerPathTransformer;
   private final LsParamsCloner lsParamsCloner;
+  private final TextDocumentChangeDispatcher changeDispatcher;
 
   @Inject
   public TextDocumentService(
@@ -138,12 +139,14 @@ public class TextDocumentService {
       RequestHandlerConfigurator requestHandler,
       FsManager fsManager,
       LanguageServerPathTransformer languageServerPathTransformer,
-      LsParamsCloner lsParamsCloner) {
+      LsParamsCloner lsParamsCloner,
+      TextDocumentChangeDispatcher changeDispatcher) {
     this.findServer = findServer;
     this.requestHandler = requestHandler;
     this.fsManager = fsManager;
     this.languageServerPathTransformer = languageServerPathTransformer;
     this.lsParamsCloner = lsParamsCloner;
+    this.changeDispatcher = changeDispatcher;
   }
 
   @PostConstruct
@@ -229,6 +232,7 @@ public class TextDocumentService {
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedParams.getTextDocument().setUri(uri.toString());
 
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().codeAction(clonedParams);
           }
 
@@ -273,6 +277,7 @@ public class TextDocumentService {
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedCompletionParams.getTextDocument().setUri(uri.toString());
 
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().completion(clonedCompletionParams);
           }
 
@@ -328,6 +333,7 @@ public class TextDocumentService {
                 lsParamsCloner.clone(documentSymbolParams);
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedDocumentSymbolParams.getTextDocument().setUri(uri.toString());
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().documentSymbol(clonedDocumentSymbolParams);
           }
 
@@ -387,6 +393,7 @@ public class TextDocumentService {
             ReferenceParams clonedReferenceParams = lsParamsCloner.clone(referenceParams);
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedReferenceParams.getTextDocument().setUri(uri.toString());
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().references(clonedReferenceParams);
           }
 
@@ -428,6 +435,7 @@ public class TextDocumentService {
             } else {
               clonedTextDocumentPositionParams.getTextDocument().setUri(wsPath);
             }
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().definition(clonedTextDocumentPositionParams);
           }
 
@@ -454,6 +462,7 @@ public class TextDocumentService {
         return new ExtendedCompletionItemDto(unresolved);
       } else {
         ExtendedCompletionItem res = new ExtendedCompletionItem();
+        changeDispatcher.flush(languageServer.getId());
         res.setItem(
             languageServer
                 .getTextDocumentService()
@@ -489,6 +498,7 @@ public class TextDocumentService {
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedPositionParams.getTextDocument().setUri(uri.toString());
 
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().hover(clonedPositionParams);
           }
 
@@ -557,6 +567,7 @@ public class TextDocumentService {
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedPositionParams.getTextDocument().setUri(uri.toString());
 
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().signatureHelp(clonedPositionParams);
           }
 
@@ -587,6 +598,7 @@ public class TextDocumentService {
         String lsId = serverOptional.get().getId();
         URI uri = languageServerPathTransformer.toFsURI(lsId, wsPath);
         documentFormattingParams.getTextDocument().setUri(uri.toString());
+        changeDispatcher.flush(lsId);
         return serverOptional
             .get()
             .getTextDocumentService()
@@ -618,6 +630,7 @@ public class TextDocumentService {
         URI uri = languageServerPathTransformer.toFsURI(lsId, wsPath);
         documentRangeFormattingParams.getTextDocument().setUri(uri.toString());
 
+        changeDispatcher.flush(lsId);
         return serverOptional
             .get()
             .getTextDocumentService()
@@ -650,6 +663,7 @@ public class TextDocumentService {
         URI uri = languageServerPathTransformer.toFsURI(lsId, wsPath);
         documentOnTypeFormattingParams.getTextDocument().setUri(uri.toString());
 
+        changeDispatcher.flush(lsId);
         return serverOptional
             .get()
             .getTextDocumentService()
@@ -668,16 +682,7 @@ public class TextDocumentService {
 
   private void didChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
     String wsPath = didChangeTextDocumentParams.getTextDocument().getUri();
-    findServer
-        .byPath(wsPath)
-        .forEach(
-            server -> {
-              URI uri = languageServerPathTransformer.toFsURI(server.getId(), wsPath);
-              DidChangeTextDocumentParams clonedDidChangeTextDocumentParams =
-                  lsParamsCloner.clone(didChangeTextDocumentParams);
-              clonedDidChangeTextDocumentParams.getTextDocument().setUri(uri.toString());
-              server.getTextDocumentService().didChange(clonedDidChangeTextDocumentParams);
-            });
+    changeDispatcher.dispatch(didChangeTextDocumentParams, findServer.byPath(wsPath));
   }
 
   private void didOpen(DidOpenTextDocumentParams openTextDocumentParams) {
@@ -704,6 +709,7 @@ public class TextDocumentService {
               DidCloseTextDocumentParams clonedDidCloseTextDocumentParams =
                   lsParamsCloner.clone(didCloseTextDocumentParams);
               clonedDidCloseTextDocumentParams.getTextDocument().setUri(uri.toString());
+              changeDispatcher.flush(server.getId());
               server.getTextDocumentService().didClose(clonedDidCloseTextDocumentParams);
             });
   }
@@ -718,6 +724,7 @@ public class TextDocumentService {
               DidSaveTextDocumentParams clonedDidSaveTextDocumentParams =
                   lsParamsCloner.clone(didSaveTextDocumentParams);
               clonedDidSaveTextDocumentParams.getTextDocument().setUri(uri.toString());
+              changeDispatcher.flush(server.getId());
               server.getTextDocumentService().didSave(clonedDidSaveTextDocumentParams);
             });
   }
@@ -758,6 +765,7 @@ public class TextDocumentService {
                           URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
                           clonedTextDocumentPositionParams.getTextDocument().setUri(uri.toString());
 
+                          changeDispatcher.flush(element.getId());
                           return element
                               .getTextDocumentService()
                               .documentHighlight(clonedTextDocumentPositionParams);
@@ -810,6 +818,7 @@ public class TextDocumentService {
             URI uri = languageServerPathTransformer.toFsURI(element.getId(), wsPath);
             clonedRenameParams.getTextDocument().setUri(uri.toString());
 
+            changeDispatcher.flush(element.getId());
             return element.getTextDocumentService().rename(clonedRenameParams);
           }
 
@@ -956,6 +965,7 @@ public class TextDocumentService {
           uri = wsPath;
         }
 
+        changeDispatcher.flush(serverOptional.get().getId());
         return ((FileContentAccess) serverOptional.get().getServer())
             .getFileContent(uri)
             .get(5000, TimeUnit.MILLISECONDS);
@@ -58,17 +58,20 @@ public class WorkspaceService {
   private final LanguageServerPathTransformer languageServerPathTransformer;
   private final FindServer findServer;
   private final RequestHandlerConfigurator requestHandler;
+  private final TextDocumentChangeDispatcher changeDispatcher;
 
   @Inject
   public WorkspaceService(
       RequestHandlerConfigurator requestHandler,
       FsManager fsManager,
       FindServer findServer,
-      LanguageServerPathTransformer languageServerPathTransformer) {
+      LanguageServerPathTransformer languageServerPathTransformer,
+      TextDocumentChangeDispatcher changeDispatcher) {
     this.findServer = findServer;
     this.requestHandler = requestHandler;
     this.fsManager = fsManager;
     this.languageServerPathTransformer = languageServerPathTransformer;
+    this.changeDispatcher = changeDispatcher;
   }
 
   @PostConstruct
@@ -144,6 +147,7 @@ public class WorkspaceService {
           @Override
           public CompletableFuture<List<? extends SymbolInformation>> start(
               ExtendedLanguageServer element) {
+            changeDispatcher.flush(element.getId());
             return element.getWorkspaceService().symbol(workspaceSymbolParams);
           }
 
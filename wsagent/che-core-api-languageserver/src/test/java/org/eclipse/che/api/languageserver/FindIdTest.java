@@ -72,4 +72,14 @@ public class FindIdTest {
 
     assertTrue(ids.isEmpty());
   }
+
+  @Test
+  public void shouldFindIdOfServerRegisteredAfterLookup() {
+    registryContainer.patternRegistry.add(ID_1, ImmutableSet.of(Pattern.compile(".*\\.ts")));
+    assertEquals(findId.byPath("/a/b/c/name.ts"), ImmutableSet.of(ID_1));
+
+    registryContainer.patternRegistry.add(ID_2, ImmutableSet.of(Pattern.compile(".*\\.(js|ts)")));
+
+    assertEquals(findId.byPath("/a/b/c/name.ts"), ImmutableSet.of(ID_1, ID_2));
+  }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.testng.annotations.Test;
+
+/** Tests for {@link PatternIndex} */
+public class PatternIndexTest {
+
+  private static final String ID_1 = "id-1";
+  private static final String ID_2 = "id-2";
+  private static final String ID_3 = "id-3";
+
+  @Test
+  public void shouldFindIdsByExtension() {
+    PatternIndex index =
+        index(
+            ImmutableMap.of(
+                ID_1, ImmutableSet.of(Pattern.compile(".*\\.(js|ts|tsx)")),
+                ID_2, ImmutableSet.of(Pattern.compile("^.*\\.ts$")),
+                ID_3, ImmutableSet.of(Pattern.compile(".*\\.go"))));
+
+    assertEquals(index.idsOf("/project/src/main.ts"), ImmutableSet.of(ID_1, ID_2));
+    assertEquals(index.idsOf("/project/src/main.tsx"), ImmutableSet.of(ID_1));
+    assertEquals(index.idsOf("/project/main.go"), ImmutableSet.of(ID_3));
+    assertTrue(index.idsOf("/project/main.go/file").isEmpty());
+    assertTrue(index.idsOf("/project/main").isEmpty());
+  }
+
+  @Test
+  public void shouldFindIdsByPrefix() {
+    PatternIndex index =
+        index(ImmutableMap.of(ID_1, ImmutableSet.of(Pattern.compile("^/project/web\\.app/.*"))));
+
+    assertEquals(index.idsOf("/project/web.app/index.html"), ImmutableSet.of(ID_1));
+    assertTrue(index.idsOf("/project/webXapp/index.html").isEmpty());
+  }
+
+  @Test
+  public void shouldFindIdsByNotIndexedPatterns() {
+    PatternIndex index =
+        index(
+            ImmutableMap.of(
+                ID_1, ImmutableSet.of(Pattern.compile(".*[/\\\\]+name\\.extension")),
+                ID_2, ImmutableSet.of(Pattern.compile(".*\\.JAVA", CASE_INSENSITIVE))));
+
+    assertEquals(index.idsOf("/a/b/c/name.extension"), ImmutableSet.of(ID_1));
+    assertEquals(index.idsOf("/a/Main.java"), ImmutableSet.of(ID_2));
+    assertTrue(index.idsOf("/a/b/c/notname.extension").isEmpty());
+  }
+
+  @Test
+  public void shouldNotMatchIndexedPatternsOfPathWithLineTerminator() {
+    PatternIndex index = index(ImmutableMap.of(ID_1, ImmutableSet.of(Pattern.compile(".*\\.go"))));
+
+    assertTrue(index.idsOf("/project\n/main.go").isEmpty());
+  }
+
+  @Test
+  public void shouldMemoizeIds() {
+    PatternIndex index = index(ImmutableMap.of(ID_1, ImmutableSet.of(Pattern.compile(".*\\.go"))));
+
+    assertSame(index.idsOf("/project/main.go"), index.idsOf("/project/main.go"));
+  }
+
+  @Test
+  public void shouldFindTheSameIdsAsPatterns() {
+    Map<String, Set<Pattern>> patterns =
+        ImmutableMap.<String, Set<Pattern>>builder()
+            .put("typescript", ImmutableSet.of(Pattern.compile(".*\\.(js|ts|tsx)")))
+            .put("clangd", ImmutableSet.of(Pattern.compile(".*\\.(c|h|cc|hh|cpp|hpp|cxx|hxx)$")))
+            .put("csharp", ImmutableSet.of(Pattern.compile(".*\\.(cs|csx)$")))
+            .put("yaml", ImmutableSet.of(Pattern.compile(".*\\.(yaml|yml)")))
+            .put("jdtls", ImmutableSet.of(Pattern.compile(".*\\.(xml|java)$")))
+            .put("json", ImmutableSet.of(Pattern.compile(".*\\.(json|bowerrc|jshintrc)")))
+            .put("php", ImmutableSet.of(Pattern.compile(".*\\.php")))
+            .put("web", ImmutableSet.of(Pattern.compile("/projects/web/.*")))
+            .put("docker", ImmutableSet.of(Pattern.compile(".*[/\\\\]Dockerfile")))
+            .build();
+    PatternIndex index = index(patterns);
+
+    String[] paths = {
+      "/p/a.js", "/p/a.d.ts", "/p/a.tsx", "/p/a.ts.bak", "/p/a.c", "/p/a.cpp", "/p/a.C",
+      "/p/a.cs", "/p/a.yml", "/p/pom.xml", "/p/A.java", "/p/.bowerrc", "/p/a.json/b", "/p/x.php",
+      "/projects/web/a.php", "/projects/webapp/a", "/p/Dockerfile", "/p/Dockerfile.go", "/p/a.",
+      "/p/noext", ".js", "/p.yaml/a.yaml", "/p/a\n.php", "/projects/web/\n"
+    };
+    for (String path : paths) {
+      assertEquals(index.idsOf(path), match(patterns, path), path);
+    }
+  }
+
+  private static PatternIndex index(Map<String, Set<Pattern>> patterns) {
+    return new PatternIndex(1, patterns, 100);
+  }
+
+  private static Set<String> match(Map<String, Set<Pattern>> patterns, String path) {
+    Set<String> ids = new HashSet<>();
+    for (Entry<String, Set<Pattern>> entry : patterns.entrySet()) {
+      for (Pattern pattern : entry.getValue()) {
+        if (pattern.matcher(path).matches()) {
+          ids.add(entry.getKey());
+        }
+      }
+    }
+    return ids;
+  }
+}
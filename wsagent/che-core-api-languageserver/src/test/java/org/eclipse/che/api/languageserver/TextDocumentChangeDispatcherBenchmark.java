@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.base.Strings;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.TextDocumentSyncOptions;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.eclipse.lsp4j.services.TextDocumentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Measures memory allocated by {@link TextDocumentChangeDispatcher} for large pastes sent to
+ * several language servers. It depends on the JVM and is not a part of the default test run, use
+ * {@code mvn test -Dtest=TextDocumentChangeDispatcherBenchmark} to run it.
+ */
+public class TextDocumentChangeDispatcherBenchmark {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(TextDocumentChangeDispatcherBenchmark.class);
+
+  private static final String WS_PATH = "/project/src/main.ts";
+
+  /** The content changes must not be copied for each of the language servers. */
+  @Test
+  public void benchmarkAllocationOfPasteInMultiServerWorkspace() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    LanguageServerPathTransformer pathTransformer = mock(LanguageServerPathTransformer.class);
+    when(pathTransformer.toFsURI(anyString(), anyString()))
+        .thenAnswer(
+            invocation ->
+                URI.create("file:///" + invocation.getArgument(0) + invocation.getArgument(1)));
+    TextDocumentChangeDispatcher dispatcher = new TextDocumentChangeDispatcher(pathTransformer, 0);
+    String paste = Strings.repeat("x", 1024 * 1024);
+    int notifications = 100;
+
+    for (int servers : new int[] {1, 4, 16}) {
+      Set<ExtendedLanguageServer> languageServers = new HashSet<>();
+      for (int i = 0; i < servers; i++) {
+        languageServers.add(server("server" + i));
+      }
+      List<DidChangeTextDocumentParams> params = new ArrayList<>();
+      for (int i = 0; i < notifications; i++) {
+        params.add(params(i, paste));
+      }
+
+      long before = threads.getThreadAllocatedBytes(threadId);
+      for (DidChangeTextDocumentParams p : params) {
+        dispatcher.dispatch(p, languageServers);
+      }
+      long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+      LOG.info(
+          "Paste of {} chars to {} servers: {} bytes allocated per notification",
+          paste.length(),
+          servers,
+          allocated / notifications);
+      assertTrue(allocated / notifications < paste.length(), "Paste is copied");
+    }
+  }
+
+  private static ExtendedLanguageServer server(String id) {
+    TextDocumentSyncOptions syncOptions = new TextDocumentSyncOptions();
+    syncOptions.setChange(TextDocumentSyncKind.Incremental);
+    ServerCapabilities capabilities = new ServerCapabilities();
+    capabilities.setTextDocumentSync(Either.forRight(syncOptions));
+    LanguageServer languageServer = mock(LanguageServer.class);
+    // notifications are not recorded by the service, so they don't affect the measurement
+    when(languageServer.getTextDocumentService()).thenReturn(new NoopTextDocumentService());
+    return new ExtendedLanguageServer(id, capabilities, languageServer);
+  }
+
+  private static DidChangeTextDocumentParams params(int version, String text) {
+    Range range = new Range();
+    range.setStart(new Position(0, 0));
+    range.setEnd(new Position(0, 0));
+    TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent();
+    change.setRange(range);
+    change.setRangeLength(0);
+    change.setText(text);
+
+    VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+    textDocument.setUri(WS_PATH);
+    textDocument.setVersion(version);
+    DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+    params.setTextDocument(textDocument);
+    params.setContentChanges(new ArrayList<>(singletonList(change)));
+    return params;
+  }
+
+  private static class NoopTextDocumentService implements TextDocumentService {
+    @Override
+    public void didOpen(DidOpenTextDocumentParams params) {}
+
+    @Override
+    public void didChange(DidChangeTextDocumentParams params) {}
+
+    @Override
+    public void didClose(DidCloseTextDocumentParams params) {}
+
+    @Override
+    public void didSave(DidSaveTextDocumentParams params) {}
+  }
+}
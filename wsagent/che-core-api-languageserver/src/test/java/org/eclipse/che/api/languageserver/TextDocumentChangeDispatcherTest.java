@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.TextDocumentSyncOptions;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.eclipse.lsp4j.services.TextDocumentService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link TextDocumentChangeDispatcher} */
+@Listeners(MockitoTestNGListener.class)
+public class TextDocumentChangeDispatcherTest {
+
+  private static final String WS_PATH = "/project/src/main.ts";
+
+  @Mock private LanguageServerPathTransformer languageServerPathTransformer;
+
+  @BeforeMethod
+  public void setUp() {
+    when(languageServerPathTransformer.toFsURI(anyString(), anyString()))
+        .thenAnswer(
+            invocation ->
+                URI.create("file:///" + invocation.getArgument(0) + invocation.getArgument(1)));
+  }
+
+  @Test
+  public void shouldShareContentChangesBetweenServers() {
+    TextDocumentChangeDispatcher dispatcher = dispatcher(0);
+    TextDocumentService first = mock(TextDocumentService.class);
+    TextDocumentService second = mock(TextDocumentService.class);
+
+    dispatcher.dispatch(
+        params(1, change("text")),
+        ImmutableSet.of(
+            server("first", TextDocumentSyncKind.Incremental, first),
+            server("second", TextDocumentSyncKind.Full, second)));
+
+    DidChangeTextDocumentParams firstParams = sent(first, 1).get(0);
+    DidChangeTextDocumentParams secondParams = sent(second, 1).get(0);
+    assertSame(firstParams.getContentChanges(), secondParams.getContentChanges());
+    assertEquals(firstParams.getTextDocument().getUri(), "file:///first" + WS_PATH);
+    assertEquals(secondParams.getTextDocument().getUri(), "file:///second" + WS_PATH);
+    assertEquals(firstParams.getTextDocument().getVersion(), Integer.valueOf(1));
+  }
+
+  @Test
+  public void shouldCoalesceChangesOnlyForIncrementalServers() {
+    TextDocumentChangeDispatcher dispatcher = dispatcher(60_000);
+    TextDocumentService incremental = mock(TextDocumentService.class);
+    TextDocumentService full = mock(TextDocumentService.class);
+    Set<ExtendedLanguageServer> servers =
+        ImmutableSet.of(
+            server("incremental", TextDocumentSyncKind.Incremental, incremental),
+            server("full", TextDocumentSyncKind.Full, full));
+    TextDocumentContentChangeEvent a = change("a");
+    TextDocumentContentChangeEvent b = change("b");
+
+    dispatcher.dispatch(params(1, a), servers);
+    dispatcher.dispatch(params(2, b), servers);
+
+    sent(full, 2);
+    verify(incremental, never()).didChange(any());
+
+    dispatcher.flush("incremental");
+
+    DidChangeTextDocumentParams coalesced = sent(incremental, 1).get(0);
+    assertEquals(coalesced.getContentChanges(), asList(a, b));
+    assertEquals(coalesced.getTextDocument().getVersion(), Integer.valueOf(2));
+  }
+
+  @Test
+  public void shouldDropChangesBeforeFullContentChange() {
+    TextDocumentChangeDispatcher dispatcher = dispatcher(60_000);
+    TextDocumentService service = mock(TextDocumentService.class);
+    Set<ExtendedLanguageServer> servers =
+        ImmutableSet.of(server("id", TextDocumentSyncKind.Incremental, service));
+    TextDocumentContentChangeEvent fullContent = new TextDocumentContentChangeEvent();
+    fullContent.setText("full content");
+    TextDocumentContentChangeEvent last = change("last");
+
+    dispatcher.dispatch(params(1, change("first")), servers);
+    dispatcher.dispatch(params(2, fullContent), servers);
+    dispatcher.dispatch(params(3, last), servers);
+    dispatcher.flush("id");
+
+    assertEquals(sent(service, 1).get(0).getContentChanges(), asList(fullContent, last));
+  }
+
+  @Test
+  public void shouldSendCoalescedChangesAfterWindow() {
+    TextDocumentChangeDispatcher dispatcher = dispatcher(10);
+    TextDocumentService service = mock(TextDocumentService.class);
+
+    dispatcher.dispatch(
+        params(1, change("text")),
+        ImmutableSet.of(server("id", TextDocumentSyncKind.Incremental, service)));
+
+    verify(service, timeout(5000)).didChange(any());
+  }
+
+  @Test
+  public void shouldFlushPendingChangesOnlyOfGivenServer() {
+    TextDocumentChangeDispatcher dispatcher = dispatcher(60_000);
+    TextDocumentService first = mock(TextDocumentService.class);
+    TextDocumentService second = mock(TextDocumentService.class);
+    dispatcher.dispatch(
+        params(1, change("text")),
+        ImmutableSet.of(
+            server("first", TextDocumentSyncKind.Incremental, first),
+            server("second", TextDocumentSyncKind.Incremental, second)));
+
+    dispatcher.flush("first");
+
+    sent(first, 1);
+    verify(second, never()).didChange(any());
+
+    dispatcher.flush("second");
+
+    sent(second, 1);
+  }
+
+  @Test
+  public void shouldKeepOrderOfChangesSentConcurrently() throws Exception {
+    TextDocumentChangeDispatcher dispatcher = dispatcher(60_000);
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    List<Integer> versions = new CopyOnWriteArrayList<>();
+    TextDocumentService service = mock(TextDocumentService.class);
+    doAnswer(
+            invocation -> {
+              DidChangeTextDocumentParams params = invocation.getArgument(0);
+              versions.add(params.getTextDocument().getVersion());
+              sending.countDown();
+              proceed.await(5, SECONDS);
+              return null;
+            })
+        .when(service)
+        .didChange(any());
+    Set<ExtendedLanguageServer> servers =
+        ImmutableSet.of(server("id", TextDocumentSyncKind.Incremental, service));
+    ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      dispatcher.dispatch(params(1, change("first")), servers);
+      Future<?> first = executor.submit(() -> dispatcher.flush("id"));
+      assertTrue(sending.await(5, SECONDS));
+
+      // the changes being sent are flushed as well, so the flush waits for them
+      dispatcher.dispatch(params(2, change("second")), servers);
+      Future<?> second = executor.submit(() -> dispatcher.flush("id"));
+      proceed.countDown();
+      first.get(5, SECONDS);
+      second.get(5, SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(versions, asList(1, 2));
+  }
+
+  private TextDocumentChangeDispatcher dispatcher(long coalesceWindowMs) {
+    return new TextDocumentChangeDispatcher(languageServerPathTransformer, coalesceWindowMs);
+  }
+
+  private static ExtendedLanguageServer server(
+      String id, TextDocumentSyncKind syncKind, TextDocumentService textDocumentService) {
+    TextDocumentSyncOptions syncOptions = new TextDocumentSyncOptions();
+    syncOptions.setChange(syncKind);
+    ServerCapabilities capabilities = new ServerCapabilities();
+    capabilities.setTextDocumentSync(Either.forRight(syncOptions));
+    LanguageServer languageServer = mock(LanguageServer.class);
+    when(languageServer.getTextDocumentService()).thenReturn(textDocumentService);
+    return new ExtendedLanguageServer(id, capabilities, languageServer);
+  }
+
+  private static DidChangeTextDocumentParams params(
+      int version, TextDocumentContentChangeEvent change) {
+    VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+    textDocument.setUri(WS_PATH);
+    textDocument.setVersion(version);
+    DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+    params.setTextDocument(textDocument);
+    params.setContentChanges(new ArrayList<>(singletonList(change)));
+    return params;
+  }
+
+  private static TextDocumentContentChangeEvent change(String text) {
+    Range range = new Range();
+    range.setStart(new Position(0, 0));
+    range.setEnd(new Position(0, 0));
+    TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent();
+    change.setRange(range);
+    change.setRangeLength(0);
+    change.setText(text);
+    return change;
+  }
+
+  private static List<DidChangeTextDocumentParams> sent(TextDocumentService service, int times) {
+    ArgumentCaptor<DidChangeTextDocumentParams> captor =
+        ArgumentCaptor.forClass(DidChangeTextDocumentParams.class);
+    verify(service, times(times)).didChange(captor.capture());
+    return captor.getAllValues();
+  }
+}
@@ -12,6 +12,7 @@
 package org.eclipse.che.api.editor.server.impl;
 
 import static java.lang.String.format;
+import static java.nio.charset.Charset.defaultCharset;
 import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.INSERT;
 import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.REMOVE;
 
@@ -20,18 +21,28 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import org.apache.commons.io.input.CharSequenceReader;
+import org.apache.commons.io.input.ReaderInputStream;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.project.shared.dto.EditorChangesDto;
 
 /**
  * In-memory implementation of working copy for opened editor on client.
  *
+ * <p>The content is kept as bytes until the first change is applied, then it is decoded once into a
+ * {@link PieceTable} which applies the changes in time proportional to their size. Bytes are
+ * encoded again only when the whole content is requested as bytes and are kept until the next
+ * change.
+ *
  * @author Roman Nikitenko
  */
 public class EditorWorkingCopy {
   private String path;
   private String projectPath;
+  /** Encoded content, null if it is not materialized since the last change. */
   private byte[] content;
+  /** Decoded content, null until the first change or request of the content as characters. */
+  private PieceTable document;
 
   /**
    * Creates a working copy for opened editor on client.
@@ -51,9 +62,9 @@ public class EditorWorkingCopy {
    *
    * @return content ot the working copy
    */
-  public byte[] getContentAsBytes() {
+  public synchronized byte[] getContentAsBytes() {
     if (content == null) {
-      content = new byte[0];
+      content = document == null ? new byte[0] : document.toString().getBytes(defaultCharset());
     }
     return Arrays.copyOf(content, content.length);
   }
@@ -63,17 +74,35 @@ public class EditorWorkingCopy {
    *
    * @return content ot the working copy
    */
-  public String getContentAsString() {
-    return new String(getContentAsBytes());
+  public synchronized String getContentAsString() {
+    if (content != null) {
+      return new String(content, defaultCharset());
+    }
+    return document == null ? "" : document.toString();
   }
 
   /**
-   * Gets content of the working copy.
+   * Gets content of the working copy as characters without copying it. The returned sequence is
+   * not affected by the following changes of the working copy.
+   *
+   * @return content of the working copy
+   */
+  public synchronized CharSequence getContentAsCharSequence() {
+    return getDocument().snapshot();
+  }
+
+  /**
+   * Gets content of the working copy. The content is encoded while the stream is read if it is not
+   * materialized as bytes yet.
    *
    * @return content ot the working copy
    */
-  public InputStream getContent() {
-    return new ByteArrayInputStream(getContentAsBytes());
+  public synchronized InputStream getContent() {
+    if (content != null) {
+      return new ByteArrayInputStream(content);
+    }
+    return new ReaderInputStream(
+        new CharSequenceReader(getDocument().snapshot()), defaultCharset());
   }
 
   /**
@@ -82,8 +111,9 @@ public class EditorWorkingCopy {
    * @param content content
    * @return current working copy after updating content
    */
-  EditorWorkingCopy updateContent(byte[] content) {
+  synchronized EditorWorkingCopy updateContent(byte[] content) {
     this.content = content;
+    this.document = null;
     return this;
   }
 
@@ -93,8 +123,9 @@ public class EditorWorkingCopy {
    * @param content content
    * @return current working copy after updating content
    */
-  EditorWorkingCopy updateContent(String content) {
-    updateContent(content.getBytes());
+  synchronized EditorWorkingCopy updateContent(String content) {
+    this.content = null;
+    this.document = new PieceTable(content);
     return this;
   }
 
@@ -127,22 +158,24 @@ public class EditorWorkingCopy {
       int offset = changes.getOffset();
       int removedCharCount = changes.getRemovedCharCount();
 
-      String newContent = null;
-      String oldContent = getContentAsString();
       EditorChangesDto.Type type = changes.getType();
       if (type == INSERT) {
-        newContent = new StringBuilder(oldContent).insert(offset, text).toString();
+        getDocument().insert(offset, text);
+        content = null;
       }
 
       if (type == REMOVE && removedCharCount > 0) {
-        newContent =
-            new StringBuilder(oldContent).delete(offset, offset + removedCharCount).toString();
+        getDocument().remove(offset, removedCharCount);
+        content = null;
       }
+    }
+  }
 
-      if (newContent != null) {
-        updateContent(newContent);
-      }
+  private PieceTable getDocument() {
+    if (document == null) {
+      document = new PieceTable(content == null ? "" : new String(content, defaultCharset()));
     }
+    return document;
   }
 
   /** Returns the path to the persistent working copy */
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text document represented as a sequence of pieces of immutable strings: the initial content and
+ * the inserted texts. Inserting and removing text splits, adds and removes pieces only, so the cost
+ * of an edit depends on the size of the edit and the number of pieces rather than on the size of
+ * the document. Short inserted pieces are merged while typing and the document is compacted into a
+ * single piece when the number of pieces exceeds the limit.
+ *
+ * <p>Pieces are located starting from the piece of the last edit or access, so sequential edits and
+ * reads are not affected by the number of pieces. Instances are not thread safe, but a {@link
+ * #snapshot()} is never changed and may be read by several threads.
+ */
+class PieceTable implements CharSequence {
+
+  /** Number of pieces which causes compaction of the document. */
+  static final int MAX_PIECES = 1024;
+  /** Inserted pieces shorter than this value are merged with the text inserted right after them. */
+  static final int MERGE_LENGTH = 256;
+
+  private final List<Piece> pieces;
+  private int length;
+  private volatile Cursor cursor;
+
+  PieceTable(String content) {
+    this.pieces = new ArrayList<>();
+    if (!content.isEmpty()) {
+      pieces.add(new Piece(content, 0, content.length()));
+    }
+    this.length = content.length();
+    this.cursor = new Cursor(0, 0);
+  }
+
+  private PieceTable(PieceTable origin) {
+    this.pieces = new ArrayList<>(origin.pieces);
+    this.length = origin.length;
+    this.cursor = new Cursor(0, 0);
+  }
+
+  /** Returns the copy of the current content, the copy shares the text with this document. */
+  PieceTable snapshot() {
+    return new PieceTable(this);
+  }
+
+  /** Returns the number of pieces the document consists of. */
+  int getPieceCount() {
+    return pieces.size();
+  }
+
+  /**
+   * Inserts the text at the given offset.
+   *
+   * @throws IndexOutOfBoundsException when offset is out of the document bounds
+   */
+  void insert(int offset, String text) {
+    if (offset < 0 || offset > length) {
+      throw new IndexOutOfBoundsException("Offset " + offset + ", length " + length);
+    }
+    if (text.isEmpty()) {
+      return;
+    }
+
+    Cursor found = locate(offset);
+    int index = found.index;
+    if (offset > found.start) {
+      split(index, offset - found.start);
+      index++;
+    }
+
+    Piece previous = index > 0 ? pieces.get(index - 1) : null;
+    if (previous != null && previous.inserted && previous.length < MERGE_LENGTH) {
+      String merged = previous.toString() + text;
+      pieces.set(index - 1, new Piece(merged, 0, merged.length(), true));
+      cursor = new Cursor(index - 1, offset - previous.length);
+    } else {
+      pieces.add(index, new Piece(text, 0, text.length(), true));
+      cursor = new Cursor(index, offset);
+    }
+    length += text.length();
+
+    if (pieces.size() > MAX_PIECES) {
+      compact();
+    }
+  }
+
+  /**
+   * Removes the given number of characters starting from the given offset. Characters beyond the
+   * end of the document are ignored.
+   *
+   * @throws IndexOutOfBoundsException when offset is out of the document bounds
+   */
+  void remove(int offset, int count) {
+    if (offset < 0 || offset > length || count < 0) {
+      throw new IndexOutOfBoundsException(
+          "Offset " + offset + ", count " + count + ", length " + length);
+    }
+    int toRemove = Math.min(count, length - offset);
+    if (toRemove == 0) {
+      return;
+    }
+
+    Cursor found = locate(offset);
+    int index = found.index;
+    if (offset > found.start) {
+      split(index, offset - found.start);
+      index++;
+    }
+
+    int end = index;
+    int removed = 0;
+    while (removed + pieces.get(end).length <= toRemove) {
+      removed += pieces.get(end).length;
+      end++;
+      if (end == pieces.size()) {
+        break;
+      }
+    }
+    if (removed < toRemove) {
+      Piece last = pieces.get(end);
+      int skipped = toRemove - removed;
+      pieces.set(
+          end,
+          new Piece(last.text, last.start + skipped, last.length - skipped, last.inserted));
+    }
+    pieces.subList(index, end).clear();
+    length -= toRemove;
+    cursor = new Cursor(index, offset);
+
+    if (pieces.size() > MAX_PIECES) {
+      compact();
+    }
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index " + index + ", length " + length);
+    }
+    Cursor found = locate(index);
+    Piece piece = pieces.get(found.index);
+    return piece.text.charAt(piece.start + index - found.start);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException("Start " + start + ", end " + end + ", length " + length);
+    }
+    char[] chars = new char[end - start];
+    copyChars(start, end, chars);
+    return new String(chars);
+  }
+
+  @Override
+  public String toString() {
+    char[] chars = new char[length];
+    copyChars(0, length, chars);
+    return new String(chars);
+  }
+
+  /** Copies characters from the given range to the destination array. */
+  private void copyChars(int start, int end, char[] destination) {
+    if (start == end) {
+      return;
+    }
+    Cursor found = locate(start);
+    int pieceStart = found.start;
+    int copied = 0;
+    for (int i = found.index; copied < end - start; i++) {
+      Piece piece = pieces.get(i);
+      int from = Math.max(start - pieceStart, 0);
+      int to = Math.min(end - pieceStart, piece.length);
+      piece.text.getChars(piece.start + from, piece.start + to, destination, copied);
+      copied += to - from;
+      pieceStart += piece.length;
+    }
+  }
+
+  /**
+   * Finds the piece which contains the character at the given offset. If offset is equal to the
+   * length of the document the returned index is equal to the number of pieces.
+   */
+  private Cursor locate(int offset) {
+    Cursor current = cursor;
+    int index = current.index;
+    int start = current.start;
+    while (index > 0 && offset < start) {
+      index--;
+      start -= pieces.get(index).length;
+    }
+    while (index < pieces.size() && offset >= start + pieces.get(index).length) {
+      start += pieces.get(index).length;
+      index++;
+    }
+    if (index != current.index) {
+      current = new Cursor(index, start);
+      cursor = current;
+    }
+    return current;
+  }
+
+  /** Splits the piece with the given index into two pieces at the given position of the piece. */
+  private void split(int index, int position) {
+    Piece piece = pieces.get(index);
+    pieces.set(index, new Piece(piece.text, piece.start, position, piece.inserted));
+    pieces.add(
+        index + 1,
+        new Piece(
+            piece.text, piece.start + position, piece.length - position, piece.inserted));
+  }
+
+  /** Replaces all the pieces with a single piece holding the whole content. */
+  private void compact() {
+    String content = toString();
+    pieces.clear();
+    pieces.add(new Piece(content, 0, content.length()));
+    cursor = new Cursor(0, 0);
+  }
+
+  /** Range of an immutable string. */
+  private static final class Piece {
+    private final String text;
+    private final int start;
+    private final int length;
+    /** Whether the piece holds inserted text, only such pieces are merged while typing. */
+    private final boolean inserted;
+
+    private Piece(String text, int start, int length) {
+      this(text, start, length, false);
+    }
+
+    private Piece(String text, int start, int length, boolean inserted) {
+      this.text = text;
+      this.start = start;
+      this.length = length;
+      this.inserted = inserted;
+    }
+
+    @Override
+    public String toString() {
+      return text.substring(start, start + length);
+    }
+  }
+
+  /** Index of a piece and the offset of its first character in the document. */
+  private static final class Cursor {
+    private final int index;
+    private final int start;
+
+    private Cursor(int index, int start) {
+      this.index = index;
+      this.start = start;
+    }
+  }
+}
@@ -67,15 +67,27 @@ public interface FsManager {
   InputStream read(String wsPath) throws NotFoundException, ConflictException, ServerException;
 
   /**
-   * Zips a file denoted by the path to an input stream
+   * Zips a file or a directory denoted by the path to an output stream, the output is not closed
    *
-   * @param wsPath absolute workspace file path
-   * @return
-   * @throws NotFoundException is thrown if the file does not exist
-   * @throws ConflictException is thrown if the item is not a file
+   * @param wsPath absolute workspace file or directory path
+   * @param output stream to write the archive to
+   * @throws NotFoundException is thrown if the item does not exist
    * @throws ServerException is thrown if an error occurred during operation execution
    */
-  InputStream zip(String wsPath) throws NotFoundException, ConflictException, ServerException;
+  void zip(String wsPath, OutputStream output)
+      throws NotFoundException, ConflictException, ServerException;
+
+  /**
+   * Packs a file or a directory denoted by the path to a tar.gz archive written to an output
+   * stream, the output is not closed
+   *
+   * @param wsPath absolute workspace file or directory path
+   * @param output stream to write the archive to
+   * @throws NotFoundException is thrown if the item does not exist
+   * @throws ServerException is thrown if an error occurred during operation execution
+   */
+  void tarGz(String wsPath, OutputStream output)
+      throws NotFoundException, ConflictException, ServerException;
 
   /**
    * Unzips an input stream to a specified workspace path
@@ -87,11 +87,19 @@ public class ExecutiveFsManager implements FsManager {
   }
 
   @Override
-  public InputStream zip(String wsPath)
+  public void zip(String wsPath, OutputStream output)
       throws NotFoundException, ConflictException, ServerException {
     Path fsPath = pathTransformer.transform(wsPath);
 
-    return zipArchiver.zip(fsPath);
+    zipArchiver.zip(fsPath, output);
+  }
+
+  @Override
+  public void tarGz(String wsPath, OutputStream output)
+      throws NotFoundException, ConflictException, ServerException {
+    Path fsPath = pathTransformer.transform(wsPath);
+
+    zipArchiver.tarGz(fsPath, output);
   }
 
   @Override
@@ -85,7 +85,7 @@ public class ValidatingFsManager implements FsManager {
     suspendingFsManager.createDir(wsPath, overwrite, withParents);
   }
 
-  public InputStream zip(String wsPath)
+  public void zip(String wsPath, OutputStream output)
       throws NotFoundException, ServerException, ConflictException {
     Path fsPath = pathTransformer.transform(wsPath);
 
@@ -94,7 +94,19 @@ public class ValidatingFsManager implements FsManager {
       throw new NotFoundException("Can't zip item, it does not exist: " + wsPath);
     }
 
-    return suspendingFsManager.zip(wsPath);
+    suspendingFsManager.zip(wsPath, output);
+  }
+
+  public void tarGz(String wsPath, OutputStream output)
+      throws NotFoundException, ServerException, ConflictException {
+    Path fsPath = pathTransformer.transform(wsPath);
+
+    boolean exists = fsOperations.exists(fsPath);
+    if (!exists) {
+      throw new NotFoundException("Can't tar item, it does not exist: " + wsPath);
+    }
+
+    suspendingFsManager.tarGz(wsPath, output);
   }
 
   public void unzip(
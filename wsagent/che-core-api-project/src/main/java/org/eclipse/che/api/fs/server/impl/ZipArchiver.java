@@ -11,67 +11,117 @@
  */
 package org.eclipse.che.api.fs.server.impl;
 
-import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newInputStream;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.fs.server.WsPathUtils;
+import org.eclipse.che.api.watcher.server.impl.FileWatcherExcludePatternsRegistry;
 
+/**
+ * Packs workspace items to zip and tar.gz archives written directly to the given output stream,
+ * items excluded from file watching are not packed. Unpacks zip archives.
+ */
 @Singleton
 class ZipArchiver {
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
   private final Path root;
+  private final FileWatcherExcludePatternsRegistry excludes;
+  private final int compressionLevel;
+  private final Set<String> storedExtensions;
 
   @Inject
-  ZipArchiver(PathTransformer pathTransformer) {
+  ZipArchiver(
+      PathTransformer pathTransformer,
+      FileWatcherExcludePatternsRegistry excludes,
+      @Named("che.fs.export.compression_level") int compressionLevel,
+      @Named("che.fs.export.stored_extensions") String[] storedExtensions) {
     this.root = pathTransformer.transform(WsPathUtils.ROOT);
-  }
-
-  private static void zip(Path zipRoot, File zipInFile, ZipOutputStream zos) throws IOException {
-    if (zipInFile.isDirectory()) {
-      File[] files = zipInFile.listFiles();
-      for (File file : files == null ? new File[0] : files) {
-        zip(zipRoot, file, zos);
-      }
-      return;
+    this.excludes = excludes;
+    this.compressionLevel = compressionLevel;
+    this.storedExtensions = new HashSet<>();
+    for (String extension : storedExtensions) {
+      this.storedExtensions.add(extension.trim().toLowerCase(Locale.ENGLISH));
     }
+  }
 
-    try (FileInputStream fis = new FileInputStream(zipInFile); ) {
-      String zipEntryName = zipRoot.relativize(zipInFile.toPath()).toString();
-      ZipEntry zipEntry = new ZipEntry(zipEntryName);
-      zos.putNextEntry(zipEntry);
-      IOUtils.copy(fis, zos);
+  /**
+   * Writes zip archive of the item to the output, files with extensions of already compressed
+   * formats are stored without compression. The output is not closed.
+   */
+  void zip(Path fsPath, OutputStream output) throws ServerException {
+    try {
+      ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+      zos.setLevel(compressionLevel);
+      walk(
+          fsPath,
+          (file, name) -> {
+            zos.putNextEntry(isStored(file) ? storedEntry(file, name) : new ZipEntry(name));
+            Files.copy(file, zos);
+            zos.closeEntry();
+          });
+      zos.finish();
+      zos.flush();
+    } catch (IOException e) {
+      throw new ServerException("Failed to zip item: " + fsPath, e);
     }
   }
 
-  InputStream zip(Path fsPath) throws ServerException {
+  /** Writes tar.gz archive of the item to the output. The output is not closed. */
+  void tarGz(Path fsPath, OutputStream output) throws ServerException {
     try {
-      File inFile = fsPath.toFile();
-      File outFile = createTempFile(fsPath.getFileName().toString(), ".zip").toFile();
-
-      try (FileOutputStream fos = new FileOutputStream(outFile);
-          ZipOutputStream zos = new ZipOutputStream(fos)) {
-        zip(fsPath, inFile, zos);
+      GzipParameters parameters = new GzipParameters();
+      parameters.setCompressionLevel(compressionLevel);
+      GzipCompressorOutputStream gzos =
+          new GzipCompressorOutputStream(
+              new BufferedOutputStream(new NonClosingOutputStream(output), BUFFER_SIZE),
+              parameters);
+      try (TarArchiveOutputStream tos = new TarArchiveOutputStream(gzos)) {
+        tos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        tos.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        walk(
+            fsPath,
+            (file, name) -> {
+              tos.putArchiveEntry(new TarArchiveEntry(file.toFile(), name));
+              Files.copy(file, tos);
+              tos.closeArchiveEntry();
+            });
       }
-
-      return newInputStream(outFile.toPath());
     } catch (IOException e) {
-      throw new ServerException("Failed to zip item: " + fsPath, e);
+      throw new ServerException("Failed to tar item: " + fsPath, e);
     }
   }
 
@@ -83,8 +133,11 @@ class ZipArchiver {
         Files.createDirectories(fsPath);
       }
 
-      try (ZipInputStream zis = new ZipInputStream(content)) {
+      try (ZipInputStream zis =
+          new ZipInputStream(new BufferedInputStream(content, BUFFER_SIZE))) {
+        ReadableByteChannel zipChannel = Channels.newChannel(zis);
         ZipEntry zipEntry = zis.getNextEntry();
+        Path root = fsPath.normalize();
 
         String prefixToSkip = null;
         if (zipEntry.isDirectory() && skipRoot) {
@@ -97,7 +150,11 @@ class ZipArchiver {
               prefixToSkip != null
                   ? zipEntry.getName().replaceFirst(prefixToSkip, "")
                   : zipEntry.getName();
-          Path path = fsPath.resolve(name);
+          Path path = root.resolve(name).normalize();
+          if (!path.startsWith(root)) {
+            throw new ServerException(
+                "Failed to unzip item: entry " + zipEntry.getName() + " is outside of " + fsPath);
+          }
 
           if (overwrite) {
             if (path.toFile().isDirectory()) {
@@ -114,8 +171,16 @@ class ZipArchiver {
           if (zipEntry.isDirectory()) {
             Files.createDirectory(path);
           } else {
-            try (FileOutputStream fos = new FileOutputStream(path.toFile())) {
-              IOUtils.copy(zis, fos);
+            Files.createDirectories(path.getParent());
+            try (FileChannel fileChannel =
+                FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE)) {
+              long position = 0;
+              long transferred;
+              while ((transferred =
+                      fileChannel.transferFrom(zipChannel, position, TRANSFER_CHUNK_SIZE))
+                  > 0) {
+                position += transferred;
+              }
             }
           }
 
@@ -126,4 +191,109 @@ class ZipArchiver {
       throw new ServerException("Failed to unzip item " + fsPath, e);
     }
   }
+
+  /**
+   * Visits the files of the item in the order of the file tree, the name of a file is its path
+   * relative to the item or the file name if the item is a file.
+   */
+  private void walk(Path fsPath, FileConsumer consumer) throws IOException {
+    if (!Files.isDirectory(fsPath)) {
+      consumer.accept(fsPath, fsPath.getFileName().toString());
+      return;
+    }
+    Files.walkFileTree(
+        fsPath,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            return !dir.equals(fsPath) && excludes.isExcluded(dir)
+                ? FileVisitResult.SKIP_SUBTREE
+                : FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            if (attrs.isRegularFile() && !excludes.isExcluded(file)) {
+              consumer.accept(file, toEntryName(fsPath.relativize(file)));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+
+  private boolean isStored(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return dot >= 0
+        && storedExtensions.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+  }
+
+  /**
+   * Creates entry which is written without compression, size and CRC of such entries must be set
+   * before the data, so the file is read one more time.
+   */
+  private static ZipEntry storedEntry(Path file, String name) throws IOException {
+    CRC32 crc = new CRC32();
+    long size = 0;
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (InputStream input = Files.newInputStream(file)) {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        crc.update(buffer, 0, read);
+        size += read;
+      }
+    }
+    ZipEntry entry = new ZipEntry(name);
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(size);
+    entry.setCompressedSize(size);
+    entry.setCrc(crc.getValue());
+    return entry;
+  }
+
+  private static String toEntryName(Path relative) {
+    StringBuilder name = new StringBuilder();
+    for (Path segment : relative) {
+      if (name.length() > 0) {
+        name.append('/');
+      }
+      name.append(segment.toString());
+    }
+    return name.toString();
+  }
+
+  private interface FileConsumer {
+    void accept(Path file, String name) throws IOException;
+  }
+
+  /** Lets the archive streams be finished without closing the response they are written to. */
+  private static class NonClosingOutputStream extends OutputStream {
+
+    private final OutputStream delegate;
+
+    private NonClosingOutputStream(OutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.flush();
+    }
+  }
 }
@@ -532,13 +532,32 @@ public class ProjectService {
     @ApiResponse(code = 404, message = "Not found"),
     @ApiResponse(code = 500, message = "Internal Server Error")
   })
-  public InputStream exportZip(
+  public Response exportZip(
       @ApiParam(value = "Path to resource to be exported") @PathParam("path") String wsPath)
       throws NotFoundException, ForbiddenException, ServerException, ConflictException {
 
     return getProjectServiceApi().exportZip(wsPath);
   }
 
+  @GET
+  @Path("/export/tgz/{path:.*}")
+  @Produces(ExtMediaType.APPLICATION_GZIP)
+  @ApiOperation(
+      value = "Download tar.gz",
+      notes = "Export resource as tar.gz. It can be an entire project or folder")
+  @ApiResponses({
+    @ApiResponse(code = 200, message = ""),
+    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+    @ApiResponse(code = 404, message = "Not found"),
+    @ApiResponse(code = 500, message = "Internal Server Error")
+  })
+  public Response exportTarGz(
+      @ApiParam(value = "Path to resource to be exported") @PathParam("path") String wsPath)
+      throws NotFoundException, ForbiddenException, ServerException, ConflictException {
+
+    return getProjectServiceApi().exportTarGz(wsPath);
+  }
+
   @GET
   @Path("/export/file/{path:.*}")
   @Produces(MediaType.APPLICATION_OCTET_STREAM)
@@ -47,6 +47,7 @@ import javax.inject.Inject;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.commons.fileupload.FileItem;
 import org.apache.tika.Tika;
@@ -92,6 +93,7 @@ import org.eclipse.che.api.search.server.Searcher;
 import org.eclipse.che.api.search.server.impl.SearchResultEntry;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
+import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -561,12 +563,42 @@ public class ProjectServiceApi {
     return response;
   }
 
-  /** Zip content under specified location */
-  public InputStream exportZip(String wsPath)
+  /** Zip content under specified location, the archive is written directly to the response */
+  public Response exportZip(String wsPath)
       throws NotFoundException, ForbiddenException, ServerException, ConflictException {
-    wsPath = absolutize(wsPath);
+    String absoluteWsPath = absolutize(wsPath);
+    if (!fsManager.exists(absoluteWsPath)) {
+      throw new NotFoundException("Can't export item, it does not exist: " + absoluteWsPath);
+    }
+
+    StreamingOutput archive =
+        output -> {
+          try {
+            fsManager.zip(absoluteWsPath, output);
+          } catch (NotFoundException | ConflictException | ServerException e) {
+            throw new IOException(e.getMessage(), e);
+          }
+        };
+    return Response.ok(archive, ExtMediaType.APPLICATION_ZIP).build();
+  }
+
+  /** Tar and gzip content under specified location, the archive is written to the response */
+  public Response exportTarGz(String wsPath)
+      throws NotFoundException, ForbiddenException, ServerException, ConflictException {
+    String absoluteWsPath = absolutize(wsPath);
+    if (!fsManager.exists(absoluteWsPath)) {
+      throw new NotFoundException("Can't export item, it does not exist: " + absoluteWsPath);
+    }
 
-    return fsManager.zip(wsPath);
+    StreamingOutput archive =
+        output -> {
+          try {
+            fsManager.tarGz(absoluteWsPath, output);
+          } catch (NotFoundException | ConflictException | ServerException e) {
+            throw new IOException(e.getMessage(), e);
+          }
+        };
+    return Response.ok(archive, ExtMediaType.APPLICATION_GZIP).build();
   }
 
   public Response exportFile(String wsPath)
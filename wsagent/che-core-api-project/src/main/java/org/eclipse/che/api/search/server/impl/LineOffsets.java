@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.search.server.impl;
+
+import java.util.Arrays;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * Start offsets of the lines of a text. Offsets are stored with the indexed document, so offsets of
+ * search hits are mapped to lines with a binary search instead of rescanning the text. Lines are
+ * separated with {@code \n}, {@code \r\n} or {@code \r}.
+ */
+final class LineOffsets {
+
+  private final int[] starts;
+
+  private LineOffsets(int[] starts) {
+    this.starts = starts;
+  }
+
+  /** Computes line offsets of the given text. */
+  static LineOffsets of(CharSequence text) {
+    int[] starts = new int[16];
+    int count = 1;
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+        continue;
+      }
+      if (c == '\n' || c == '\r') {
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count * 2);
+        }
+        starts[count++] = i + 1;
+      }
+    }
+    return new LineOffsets(Arrays.copyOf(starts, count));
+  }
+
+  /** Restores line offsets from their {@link #encode() encoded} form. */
+  static LineOffsets decode(BytesRef bytes) {
+    ByteArrayDataInput input = new ByteArrayDataInput(bytes.bytes, bytes.offset, bytes.length);
+    int[] starts = new int[input.readVInt()];
+    for (int i = 1; i < starts.length; i++) {
+      starts[i] = starts[i - 1] + input.readVInt();
+    }
+    return new LineOffsets(starts);
+  }
+
+  /** Encodes line offsets as variable length deltas between the starts of the lines. */
+  BytesRef encode() {
+    byte[] buffer = new byte[5 * (starts.length + 1)];
+    ByteArrayDataOutput output = new ByteArrayDataOutput(buffer);
+    output.writeVInt(starts.length);
+    for (int i = 1; i < starts.length; i++) {
+      output.writeVInt(starts[i] - starts[i - 1]);
+    }
+    return new BytesRef(buffer, 0, output.getPosition());
+  }
+
+  /** Returns the number of lines. */
+  int getLineCount() {
+    return starts.length;
+  }
+
+  /** Returns zero based index of the line which contains the given offset. */
+  int getLineIndex(int offset) {
+    int index = Arrays.binarySearch(starts, offset);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /** Returns the content of the line without line separator. */
+  String getLine(CharSequence text, int lineIndex) {
+    int start = starts[lineIndex];
+    int end = lineIndex + 1 < starts.length ? starts[lineIndex + 1] : text.length();
+    while (end > start && (text.charAt(end - 1) == '\n' || text.charAt(end - 1) == '\r')) {
+      end--;
+    }
+    return text.subSequence(start, end).toString();
+  }
+}
@@ -12,17 +12,15 @@
 package org.eclipse.che.api.search.server.impl;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.fs.server.WsPathUtils.nameOf;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.io.CharStreams;
-import java.io.BufferedReader;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.MalformedInputException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,10 +31,15 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -50,6 +53,7 @@ import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexReader;
@@ -84,6 +88,7 @@ import org.eclipse.che.api.search.server.QueryExecutionException;
 import org.eclipse.che.api.search.server.QueryExpression;
 import org.eclipse.che.api.search.server.SearchResult;
 import org.eclipse.che.api.search.server.Searcher;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +96,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Lucene based searcher.
  *
+ * <p>Files are read and indexed by a pool of indexing threads. Repeated updates of the same file
+ * that are not processed yet are coalesced into a single one. Content of files that are too large
+ * or binary is not indexed, only their names are. Every indexed document keeps the hash of the file
+ * content, so files that are not changed since the last indexing are skipped when the index is
+ * reused. Index changes are committed periodically and after a configured number of updated
+ * documents.
+ *
  * @author andrew00x
  * @author Sergii Kabashniuk
  */
@@ -103,6 +115,12 @@ public class LuceneSearcher implements Searcher {
   private static final String PATH_FIELD = "path";
   private static final String NAME_FIELD = "name";
   private static final String TEXT_FIELD = "text";
+  private static final String HASH_FIELD = "hash";
+  private static final String LINES_FIELD = "lines";
+
+  private static final int INDEXING_QUEUE_CAPACITY = 1000;
+  /** Number of leading bytes of a file that are checked for zero bytes to detect binary content. */
+  private static final int BINARY_CHECK_LENGTH = 8000;
 
   private final Set<PathMatcher> excludePatterns;
   private final PathTransformer pathTransformer;
@@ -113,13 +131,21 @@ public class LuceneSearcher implements Searcher {
   private final Analyzer analyzer;
   private final CountDownLatch initialIndexingLatch = new CountDownLatch(1);
   private final Sort sort;
+  private final long maxFileSize;
+  private final int commitThreshold;
+  private final ThreadPoolExecutor indexingExecutor;
+  private final Set<Path> pendingUpdates = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger uncommittedDocuments = new AtomicInteger();
 
   @Inject
   public LuceneSearcher(
       @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
       @Named("vfs.local.fs_index_root_dir") File indexDirectory,
       RootDirPathProvider pathProvider,
-      PathTransformer pathTransformer)
+      PathTransformer pathTransformer,
+      @Named("che.search.index.threads") int indexingThreads,
+      @Named("che.search.index.max_file_size_bytes") long maxFileSize,
+      @Named("che.search.index.commit_threshold") int commitThreshold)
       throws IOException {
 
     if (indexDirectory.exists()) {
@@ -145,6 +171,24 @@ public class LuceneSearcher implements Searcher {
     this.searcherManager =
         new SearcherManager(luceneIndexWriter, true, true, new SearcherFactory());
     this.sort = new Sort(SortField.FIELD_SCORE, new SortField(PATH_FIELD, SortField.Type.STRING));
+    this.maxFileSize = maxFileSize;
+    this.commitThreshold = commitThreshold;
+    // when the queue is full the submitting thread indexes the file itself,
+    // that slows down the producer instead of dropping the file
+    this.indexingExecutor =
+        new ThreadPoolExecutor(
+            indexingThreads,
+            indexingThreads,
+            60L,
+            SECONDS,
+            new LinkedBlockingQueue<>(INDEXING_QUEUE_CAPACITY),
+            new ThreadFactoryBuilder()
+                .setNameFormat("LuceneSearcherIndexer-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build(),
+            (task, executor) -> task.run());
+    this.indexingExecutor.allowCoreThreadTimeOut(true);
   }
 
   @PostConstruct
@@ -172,11 +216,36 @@ public class LuceneSearcher implements Searcher {
     return initialIndexingLatch;
   }
 
+  @PreDestroy
+  private void stopIndexing() {
+    indexingExecutor.shutdown();
+    try {
+      if (!indexingExecutor.awaitTermination(10, SECONDS)) {
+        LOG.warn("Unable to terminate indexing in 10 seconds");
+      }
+      commitIndex();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      LOG.warn("Can't commit index changes: {}", e.getMessage());
+    }
+  }
+
   @ScheduleRate(period = 30, initialDelay = 30)
   private void commitIndex() throws IOException {
+    uncommittedDocuments.set(0);
     luceneIndexWriter.commit();
   }
 
+  /** Commits the index when the number of updated documents reaches the threshold. */
+  private void onDocumentUpdated() throws IOException {
+    int uncommitted = uncommittedDocuments.incrementAndGet();
+    if (uncommitted >= commitThreshold && uncommittedDocuments.compareAndSet(uncommitted, 0)) {
+      luceneIndexWriter.commit();
+      searcherManager.maybeRefresh();
+    }
+  }
+
   @Override
   public SearchResult search(QueryExpression query)
       throws InvalidQueryException, QueryExecutionException {
@@ -209,6 +278,7 @@ public class LuceneSearcher implements Searcher {
           offsetData = new ArrayList<>();
           String txt = doc.get(TEXT_FIELD);
           if (txt != null) {
+            LineOffsets lineOffsets = getLineOffsets(doc, txt);
             IndexReader reader = luceneSearcher.getIndexReader();
 
             TokenStream tokenStream =
@@ -252,21 +322,11 @@ public class LuceneSearcher implements Searcher {
               float res = queryScorer.getTokenScore();
               if (res > 0.0F && startOffset <= endOffset) {
                 String tokenText = txt.substring(startOffset, endOffset);
-                Scanner sc = new Scanner(txt);
-                int lineNum = 1;
-                long len = 0;
-                String foundLine = "";
-                while (sc.hasNextLine()) {
-                  foundLine = sc.nextLine();
-
-                  len += foundLine.length();
-                  if (len > startOffset) {
-                    break;
-                  }
-                  lineNum++;
-                }
+                int lineIndex = lineOffsets.getLineIndex(startOffset);
+                String foundLine = lineOffsets.getLine(txt, lineIndex);
                 offsetData.add(
-                    new OffsetData(tokenText, startOffset, endOffset, res, lineNum, foundLine));
+                    new OffsetData(
+                        tokenText, startOffset, endOffset, res, lineIndex + 1, foundLine));
               }
             }
           }
@@ -305,6 +365,12 @@ public class LuceneSearcher implements Searcher {
     }
   }
 
+  /** Returns line offsets stored with the document, computes them for documents indexed before. */
+  private LineOffsets getLineOffsets(Document doc, String txt) {
+    BytesRef lines = doc.getBinaryValue(LINES_FIELD);
+    return lines != null ? LineOffsets.decode(lines) : LineOffsets.of(txt);
+  }
+
   private Query createLuceneQuery(QueryExpression query) throws ParseException, IOException {
     BooleanQuery.Builder luceneQueryBuilder = new BooleanQuery.Builder();
     final String name = query.getName();
@@ -359,24 +425,14 @@ public class LuceneSearcher implements Searcher {
 
   @Override
   public final void add(Path fsPath) {
-
+    IndexSearcher luceneSearcher = null;
     try {
+      searcherManager.maybeRefresh();
+      luceneSearcher = searcherManager.acquire();
       if (fsPath.toFile().isDirectory()) {
-        try {
-          Files.walkFileTree(
-              fsPath,
-              new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                  addFile(file);
-                  return FileVisitResult.CONTINUE;
-                }
-              });
-        } catch (IOException ignore) {
-          LOG.warn("Not able to index {} because {} ", fsPath.toString(), ignore.getMessage());
-        }
+        addDirectory(fsPath, luceneSearcher);
       } else {
-        addFile(fsPath);
+        addFile(fsPath, luceneSearcher);
       }
       printStatistic();
     } catch (IOException e) {
@@ -384,10 +440,51 @@ public class LuceneSearcher implements Searcher {
           "Can't commit changes to index for: {} because {} ",
           fsPath.toAbsolutePath().toString(),
           e.getMessage());
+    } finally {
+      try {
+        searcherManager.release(luceneSearcher);
+      } catch (IOException e) {
+        LOG.error(e.getMessage());
+      }
+    }
+  }
+
+  /** Walks the directory and indexes its files in parallel, returns when all of them are done. */
+  private void addDirectory(Path fsPath, IndexSearcher luceneSearcher) {
+    Phaser phaser = new Phaser(1);
+    try {
+      Files.walkFileTree(
+          fsPath,
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+              phaser.register();
+              indexingExecutor.execute(
+                  () -> {
+                    try {
+                      addFile(file, luceneSearcher);
+                    } finally {
+                      phaser.arriveAndDeregister();
+                    }
+                  });
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException ignore) {
+      LOG.warn("Not able to index {} because {} ", fsPath.toString(), ignore.getMessage());
+    } finally {
+      phaser.arriveAndAwaitAdvance();
     }
   }
 
-  private void addFile(Path fsPath) {
+  /**
+   * Indexes the file.
+   *
+   * @param fsPath file to index
+   * @param luceneSearcher searcher to look up the hash of already indexed content, if it is {@code
+   *     null} the file is indexed unconditionally
+   */
+  private void addFile(Path fsPath, IndexSearcher luceneSearcher) {
     if (!fsPath.toFile().exists()) {
       return;
     }
@@ -398,29 +495,63 @@ public class LuceneSearcher implements Searcher {
     String wsPath = pathTransformer.transform(fsPath);
     LOG.debug("Adding file {} ", wsPath);
 
-    try (Reader reader =
-        new BufferedReader(new InputStreamReader(new FileInputStream(fsPath.toFile()), "utf-8"))) {
+    try {
+      long size = Files.size(fsPath);
+      byte[] content = size <= maxFileSize ? Files.readAllBytes(fsPath) : null;
+      String hash =
+          content != null
+              ? Hashing.murmur3_128().hashBytes(content).toString()
+              : size + ":" + Files.getLastModifiedTime(fsPath).toMillis();
+      if (luceneSearcher != null && hash.equals(getIndexedHash(luceneSearcher, wsPath))) {
+        LOG.debug("File {} is not changed since last indexing", wsPath);
+        return;
+      }
+
       String name = nameOf(wsPath);
       Document doc = new Document();
       doc.add(new StringField(PATH_FIELD, wsPath, Field.Store.YES));
       doc.add(new SortedDocValuesField(PATH_FIELD, new BytesRef(wsPath)));
       doc.add(new TextField(NAME_FIELD, name, Field.Store.YES));
-      try {
-        doc.add(new TextField(TEXT_FIELD, CharStreams.toString(reader), Field.Store.YES));
-      } catch (MalformedInputException e) {
-        LOG.warn("Can't index file: {}", wsPath);
+      doc.add(new StringField(HASH_FIELD, hash, Field.Store.YES));
+      if (content == null) {
+        LOG.debug("Content of file {} is not indexed, size {} exceeds limit", wsPath, size);
+      } else if (isBinary(content)) {
+        LOG.debug("Content of file {} is not indexed, it is binary", wsPath);
+      } else {
+        String text = new String(content, UTF_8);
+        doc.add(new TextField(TEXT_FIELD, text, Field.Store.YES));
+        doc.add(new StoredField(LINES_FIELD, LineOffsets.of(text).encode()));
       }
       luceneIndexWriter.updateDocument(new Term(PATH_FIELD, wsPath), doc);
-
-    } catch (IOException oome) {
+      onDocumentUpdated();
+    } catch (IOException e) {
       LOG.warn("Can't index file: {}", wsPath);
     }
   }
 
+  private String getIndexedHash(IndexSearcher luceneSearcher, String wsPath) throws IOException {
+    TopDocs topDocs = luceneSearcher.search(new TermQuery(new Term(PATH_FIELD, wsPath)), 1);
+    if (topDocs.scoreDocs.length == 0) {
+      return null;
+    }
+    return luceneSearcher.doc(topDocs.scoreDocs[0].doc).get(HASH_FIELD);
+  }
+
+  private boolean isBinary(byte[] content) {
+    int length = Math.min(content.length, BINARY_CHECK_LENGTH);
+    for (int i = 0; i < length; i++) {
+      if (content[i] == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public final void delete(Path fsPath) {
 
     String wsPath = pathTransformer.transform(fsPath);
+    pendingUpdates.remove(fsPath);
     try {
 
       // Since in most cases this is post action there is no way to find out is this a file
@@ -462,7 +593,19 @@ public class LuceneSearcher implements Searcher {
 
   @Override
   public final void update(Path fsPath) {
-    addFile(fsPath);
+    // an update that is already waiting for indexing will pick up the latest content
+    if (!pendingUpdates.add(fsPath)) {
+      return;
+    }
+    indexingExecutor.execute(
+        () -> {
+          pendingUpdates.remove(fsPath);
+          addFile(fsPath, null);
+          if (!fsPath.toFile().exists()) {
+            // the file is deleted while it was indexed
+            delete(fsPath);
+          }
+        });
   }
 
   private boolean isNotExcluded(Path fsPath) {
@@ -14,11 +14,16 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
 import static java.nio.file.Files.exists;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.readAttributes;
 import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
 
 import com.google.inject.Inject;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
@@ -26,9 +31,19 @@ import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import javax.annotation.PostConstruct;
 import javax.inject.Named;
@@ -41,6 +56,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Walks a file system tree, register addition, update and removal of file system items. On events
  * runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>When the change journal is enabled, directories watched by {@link FileWatcherService} are
+ * rescanned only when the watch service reports changes of their entries, and whole subtrees are
+ * rescanned only when the events of a directory are lost because of the watch service overflow.
+ * Directories that are not watched are rescanned in time limited slices in a round-robin manner,
+ * directories that had changes on the previous rescan go first. When the change journal is disabled
+ * the whole tree is rescanned on each walk.
  */
 @Singleton
 public class FileTreeWalker {
@@ -58,8 +80,21 @@ public class FileTreeWalker {
   private final Set<Consumer<Path>> fileDeleteConsumers;
   private final Set<PathMatcher> fileExcludes;
 
-  private final Map<Path, Long> files = new HashMap<>();
-  private final Map<Path, Long> directories = new HashMap<>();
+  private final FileWatcherService fileWatcherService;
+  private final boolean journalEnabled;
+  private final long rescanSliceNanos;
+
+  private final KnownItems files = new KnownItems();
+  private final KnownItems directories = new KnownItems();
+
+  private final Set<Path> changedDirectories = ConcurrentHashMap.newKeySet();
+  private final Set<Path> overflowedDirectories = ConcurrentHashMap.newKeySet();
+
+  /** Directories that had changes on the previous rescan, they are rescanned first. */
+  private final Set<Path> hotDirectories = new LinkedHashSet<>();
+
+  /** The last directory rescanned in a round-robin manner. */
+  private Path rescanCursor;
 
   private boolean initialized;
 
@@ -73,7 +108,10 @@ public class FileTreeWalker {
       @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
       @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
       @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
+      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+      FileWatcherService fileWatcherService,
+      @Named("che.fs.walker.journal_enabled") boolean journalEnabled,
+      @Named("che.fs.walker.rescan_slice_ms") long rescanSliceMs) {
     this.root = Paths.get(pathProvider.get());
 
     this.directoryUpdateConsumers = directoryUpdateConsumers;
@@ -86,20 +124,27 @@ public class FileTreeWalker {
 
     this.directoryExcludes = directoryExcludes;
     this.fileExcludes = fileExcludes;
+
+    this.fileWatcherService = fileWatcherService;
+    this.journalEnabled = journalEnabled;
+    this.rescanSliceNanos = MILLISECONDS.toNanos(rescanSliceMs);
   }
 
   @PostConstruct
-  void initialize() {
+  synchronized void initialize() {
+    if (journalEnabled) {
+      fileWatcherService.addChangeListener(changedDirectories::add);
+      fileWatcherService.addOverflowListener(overflowedDirectories::add);
+    }
+
     try {
       walkFileTree(
           root,
           new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
+              if (isExcluded(directoryExcludes, dir)) {
+                return SKIP_SUBTREE;
               }
 
               directories.put(dir, attrs.lastModifiedTime().toMillis());
@@ -109,14 +154,10 @@ public class FileTreeWalker {
 
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
+              if (!isExcluded(fileExcludes, file)) {
+                files.put(file, attrs.lastModifiedTime().toMillis());
               }
 
-              files.put(file, attrs.lastModifiedTime().toMillis());
-
               return CONTINUE;
             }
           });
@@ -128,67 +169,227 @@ public class FileTreeWalker {
   }
 
   @ScheduleRate(period = 10)
-  void walk() {
+  synchronized void walk() {
     if (!initialized) {
       return;
     }
 
     try {
       LOG.debug("Tree walk started");
+      if (journalEnabled) {
+        rescanUnwatchedDirectories();
+      } else {
+        rescanSubtree(root);
+      }
+      LOG.debug("Tree walk finished");
+    } catch (NoSuchFileException e) {
+      LOG.debug(
+          "Trying to process a file, however seems like it is already not present: {}",
+          e.getMessage());
+    } catch (Exception e) {
+      LOG.error("Error while walking file tree", e);
+    }
+  }
 
-      Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      fileDeleteConsumers.forEach(deletedFiles::forEach);
-      files.keySet().removeAll(deletedFiles);
+  /** Applies changes of the watched directories reported by {@link FileWatcherService}. */
+  @ScheduleRate(periodParameterName = "che.fs.walker.journal_period_ms", unit = MILLISECONDS)
+  synchronized void processJournal() {
+    if (!initialized || !journalEnabled) {
+      return;
+    }
 
-      Set<Path> deletedDirectories =
-          directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-      directories.keySet().removeAll(deletedDirectories);
+    for (Path dir : drain(overflowedDirectories)) {
+      LOG.debug("Events of directory '{}' are lost, rescanning its subtree", dir);
+      changedDirectories.remove(dir);
+      try {
+        rescanSubtree(dir);
+      } catch (IOException e) {
+        LOG.debug("Can't rescan subtree of directory '{}': {}", dir, e.getMessage());
+      }
+    }
 
-      walkFileTree(
-          root,
-          new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                throws IOException {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
-              }
+    for (Path dir : drain(changedDirectories)) {
+      try {
+        scanDirectory(dir);
+      } catch (IOException e) {
+        LOG.debug("Can't scan directory '{}': {}", dir, e.getMessage());
+      }
+    }
+  }
 
+  private void rescanUnwatchedDirectories() throws IOException {
+    long deadline = System.nanoTime() + rescanSliceNanos;
+
+    for (Path dir : new ArrayList<>(hotDirectories)) {
+      if (System.nanoTime() - deadline > 0) {
+        return;
+      }
+      if (!directories.containsKey(dir) || fileWatcherService.isWatched(dir)) {
+        hotDirectories.remove(dir);
+      } else if (!scanDirectory(dir)) {
+        hotDirectories.remove(dir);
+      }
+    }
+
+    // a single pass through the known directories at most, so the slice is not
+    // spent on rescanning the same directories again when the tree is small
+    int left = directories.size();
+    while (left-- > 0 && System.nanoTime() - deadline <= 0) {
+      Path dir = rescanCursor == null ? null : directories.higherKey(rescanCursor);
+      if (dir == null) {
+        if (directories.isEmpty()) {
+          return;
+        }
+        dir = directories.firstKey();
+      }
+      rescanCursor = dir;
+
+      if (!fileWatcherService.isWatched(dir) && !hotDirectories.contains(dir)) {
+        if (scanDirectory(dir)) {
+          hotDirectories.add(dir);
+        }
+      }
+    }
+  }
+
+  /**
+   * Scans direct entries of a known directory, new subdirectories are walked completely.
+   *
+   * @return true if any changes were found, otherwise false
+   */
+  private boolean scanDirectory(Path dir) throws IOException {
+    if (!directories.containsKey(dir)) {
+      // excluded or not a part of the tree
+      return false;
+    }
+
+    BasicFileAttributes dirAttrs;
+    try {
+      dirAttrs = readAttributes(dir, BasicFileAttributes.class, NOFOLLOW_LINKS);
+    } catch (NoSuchFileException e) {
+      removeSubtree(dir);
+      return true;
+    }
+    if (!dirAttrs.isDirectory()) {
+      removeSubtree(dir);
+      return true;
+    }
+
+    boolean changed =
+        updateFsTreeAndAcceptConsumables(
+            directories, directoryUpdateConsumers, directoryCreateConsumers, dir, dirAttrs);
+
+    Set<Path> entries = new HashSet<>();
+    try (DirectoryStream<Path> stream = newDirectoryStream(dir)) {
+      for (Path entry : stream) {
+        BasicFileAttributes attrs;
+        try {
+          attrs = readAttributes(entry, BasicFileAttributes.class, NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+          continue;
+        }
+        entries.add(entry);
+
+        if (attrs.isDirectory()) {
+          if (isExcluded(directoryExcludes, entry)) {
+            continue;
+          }
+          if (directories.containsKey(entry)) {
+            changed |=
+                updateFsTreeAndAcceptConsumables(
+                    directories, directoryUpdateConsumers, directoryCreateConsumers, entry, attrs);
+          } else {
+            walkTree(entry);
+            changed = true;
+          }
+        } else if (!isExcluded(fileExcludes, entry)) {
+          changed |=
               updateFsTreeAndAcceptConsumables(
-                  directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
+                  files, fileUpdateConsumers, fileCreateConsumers, entry, attrs);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      removeSubtree(dir);
+      return true;
+    }
 
-              return CONTINUE;
+    for (Path file : files.childrenOf(dir)) {
+      if (!entries.contains(file)) {
+        files.remove(file);
+        fileDeleteConsumers.forEach(it -> it.accept(file));
+        changed = true;
+      }
+    }
+    for (Path subdirectory : directories.childrenOf(dir)) {
+      if (!entries.contains(subdirectory)) {
+        removeSubtree(subdirectory);
+        changed = true;
+      }
+    }
+
+    return changed;
+  }
+
+  /** Removes known items of the subtree that are not present anymore and walks the subtree. */
+  private void rescanSubtree(Path dir) throws IOException {
+    List<Path> deletedFiles =
+        files.subtreeOf(dir).stream().filter(it -> !exists(it)).collect(toList());
+    fileDeleteConsumers.forEach(deletedFiles::forEach);
+    deletedFiles.forEach(files::remove);
+
+    List<Path> deletedDirectories =
+        directories.subtreeOf(dir).stream().filter(it -> !exists(it)).collect(toList());
+    directoryDeleteConsumers.forEach(deletedDirectories::forEach);
+    deletedDirectories.forEach(directories::remove);
+    hotDirectories.removeAll(deletedDirectories);
+
+    if (exists(dir)) {
+      walkTree(dir);
+    }
+  }
+
+  /** Removes all known items of the subtree including the directory itself. */
+  private void removeSubtree(Path dir) {
+    List<Path> deletedFiles = files.subtreeOf(dir);
+    fileDeleteConsumers.forEach(deletedFiles::forEach);
+    deletedFiles.forEach(files::remove);
+
+    List<Path> deletedDirectories = directories.subtreeOf(dir);
+    directoryDeleteConsumers.forEach(deletedDirectories::forEach);
+    deletedDirectories.forEach(directories::remove);
+    hotDirectories.removeAll(deletedDirectories);
+  }
+
+  private void walkTree(Path start) throws IOException {
+    walkFileTree(
+        start,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (isExcluded(directoryExcludes, dir)) {
+              return SKIP_SUBTREE;
             }
 
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
-              }
+            updateFsTreeAndAcceptConsumables(
+                directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
+
+            return CONTINUE;
+          }
 
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (!isExcluded(fileExcludes, file)) {
               updateFsTreeAndAcceptConsumables(
                   files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
-
-              return CONTINUE;
             }
-          });
-      LOG.debug("Tree walk finished");
-    } catch (NoSuchFileException e) {
-      LOG.debug(
-          "Trying to process a file, however seems like it is already not present: {}",
-          e.getMessage());
-    } catch (Exception e) {
-      LOG.error("Error while walking file tree", e);
-    }
+
+            return CONTINUE;
+          }
+        });
   }
 
-  private void updateFsTreeAndAcceptConsumables(
-      Map<Path, Long> items,
+  private boolean updateFsTreeAndAcceptConsumables(
+      KnownItems items,
       Set<Consumer<Path>> updateConsumer,
       Set<Consumer<Path>> createConsumer,
       Path path,
@@ -200,10 +401,110 @@ public class FileTreeWalker {
       if (!lastModifiedActual.equals(lastModifiedStored)) {
         items.put(path, lastModifiedActual);
         updateConsumer.forEach(it -> it.accept(path));
+        return true;
       }
+      return false;
     } else {
       items.put(path, lastModifiedActual);
       createConsumer.forEach(it -> it.accept(path));
+      return true;
+    }
+  }
+
+  private static boolean isExcluded(Set<PathMatcher> excludes, Path path) {
+    for (PathMatcher matcher : excludes) {
+      if (matcher.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<Path> drain(Set<Path> paths) {
+    List<Path> drained = new ArrayList<>();
+    for (Iterator<Path> it = paths.iterator(); it.hasNext(); ) {
+      drained.add(it.next());
+      it.remove();
+    }
+    return drained;
+  }
+
+  private static int compareByNames(Path first, Path second) {
+    int count = Math.min(first.getNameCount(), second.getNameCount());
+    for (int i = 0; i < count; i++) {
+      int result = first.getName(i).compareTo(second.getName(i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(first.getNameCount(), second.getNameCount());
+  }
+
+  /** Last modification times of the known items, indexed by their parent directories. */
+  private static class KnownItems {
+    /** Items are sorted by name elements, so a subtree of a directory is a continuous range. */
+    private final NavigableMap<Path, Long> items = new TreeMap<>(FileTreeWalker::compareByNames);
+
+    private final Map<Path, NavigableSet<Path>> children = new HashMap<>();
+
+    private Long get(Path path) {
+      return items.get(path);
+    }
+
+    private boolean containsKey(Path path) {
+      return items.containsKey(path);
+    }
+
+    private void put(Path path, Long lastModified) {
+      if (items.put(path, lastModified) == null) {
+        children
+            .computeIfAbsent(path.getParent(), dir -> new TreeSet<>(FileTreeWalker::compareByNames))
+            .add(path);
+      }
+    }
+
+    private void remove(Path path) {
+      if (items.remove(path) != null) {
+        Set<Path> siblings = children.get(path.getParent());
+        siblings.remove(path);
+        if (siblings.isEmpty()) {
+          children.remove(path.getParent());
+        }
+      }
+    }
+
+    private int size() {
+      return items.size();
+    }
+
+    private boolean isEmpty() {
+      return items.isEmpty();
+    }
+
+    private Path firstKey() {
+      return items.firstKey();
+    }
+
+    private Path higherKey(Path path) {
+      return items.higherKey(path);
+    }
+
+    /** Returns the directory itself and all known items below it. */
+    private List<Path> subtreeOf(Path dir) {
+      List<Path> subtree = new ArrayList<>();
+      for (Path path : items.tailMap(dir, true).keySet()) {
+        if (!path.startsWith(dir)) {
+          break;
+        }
+        subtree.add(path);
+      }
+      return subtree;
+    }
+
+    /** Returns the known items directly in the directory. */
+    private List<Path> childrenOf(Path dir) {
+      Set<Path> direct = children.get(dir);
+      return direct == null ? new ArrayList<>() : new ArrayList<>(direct);
     }
   }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.lang.Math.floorMod;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toInternalPath;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent.Kind;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers file watcher events to the operations registered in {@link FileWatcherEventHandler}.
+ *
+ * <p>Events of the same path that occur within the configured window are coalesced into a single
+ * event, e.g. creation followed by modifications is delivered as creation, and creation followed by
+ * deletion is not delivered at all. Operations are split into groups, each group is served by its
+ * own thread with a bounded queue, so a slow operation delays only the operations of its group.
+ * Operations of the same registration always belong to the same group and receive events in order.
+ * Events that do not fit into the queue of a group are dropped.
+ */
+@Singleton
+public class FileWatcherEventDispatcher {
+  private static final Logger LOG = LoggerFactory.getLogger(FileWatcherEventDispatcher.class);
+
+  private final FileWatcherEventHandler handler;
+  private final Path root;
+  private final long windowNanos;
+  private final int groupCount;
+  private final int groupQueueCapacity;
+
+  /** Pending events in order of their first occurrence, guarded by itself. */
+  private final Map<Path, PendingEvent> pending = new LinkedHashMap<>();
+
+  private final LongAdder dispatchedCount = new LongAdder();
+  private final LongAdder droppedCount = new LongAdder();
+  private final LongAdder totalLagNanos = new LongAdder();
+
+  private ScheduledExecutorService flusher;
+  private ExecutorService[] groups;
+
+  @Inject
+  public FileWatcherEventDispatcher(
+      FileWatcherEventHandler handler,
+      RootDirPathProvider pathProvider,
+      @Named("che.fs.watcher.dispatcher.window_ms") long windowMs,
+      @Named("che.fs.watcher.dispatcher.groups") int groupCount,
+      @Named("che.fs.watcher.dispatcher.group_queue_capacity") int groupQueueCapacity) {
+    this.handler = handler;
+    this.root = Paths.get(pathProvider.get());
+    this.windowNanos = MILLISECONDS.toNanos(windowMs);
+    this.groupCount = groupCount;
+    this.groupQueueCapacity = groupQueueCapacity;
+  }
+
+  @PostConstruct
+  void start() {
+    groups = new ExecutorService[groupCount];
+    for (int i = 0; i < groupCount; i++) {
+      ThreadFactory factory =
+          new ThreadFactoryBuilder()
+              .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+              .setNameFormat(FileWatcherEventDispatcher.class.getSimpleName() + "-" + i + "-%d")
+              .setDaemon(true)
+              .build();
+      groups[i] =
+          new ThreadPoolExecutor(
+              1, 1, 0L, MILLISECONDS, new ArrayBlockingQueue<>(groupQueueCapacity), factory);
+    }
+
+    if (windowNanos > 0) {
+      ThreadFactory factory =
+          new ThreadFactoryBuilder()
+              .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+              .setNameFormat(FileWatcherEventDispatcher.class.getSimpleName() + "-flusher-%d")
+              .setDaemon(true)
+              .build();
+      flusher = new ScheduledThreadPoolExecutor(1, factory);
+      long flushPeriod = Math.max(1, windowNanos / 2);
+      flusher.scheduleWithFixedDelay(
+          this::flushExpired, flushPeriod, flushPeriod, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    if (flusher != null) {
+      flusher.shutdownNow();
+    }
+    for (ExecutorService group : groups) {
+      group.shutdown();
+    }
+    try {
+      for (ExecutorService group : groups) {
+        if (!group.awaitTermination(5, SECONDS)) {
+          group.shutdownNow();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      for (ExecutorService group : groups) {
+        group.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Accepts an event reported by the file watcher. Events are delivered asynchronously after the
+   * coalescing window is over, the method never blocks.
+   *
+   * @param path path that the event is originated from
+   * @param kind kind of event (e.g. created, modified, removed)
+   */
+  void dispatch(Path path, Kind<?> kind) {
+    long now = System.nanoTime();
+    if (windowNanos <= 0) {
+      deliver(path, kind, now);
+      return;
+    }
+
+    synchronized (pending) {
+      PendingEvent event = pending.get(path);
+      if (event == null) {
+        pending.put(path, new PendingEvent(kind, now));
+        return;
+      }
+      Kind<?> coalesced = coalesce(event.kind, kind);
+      if (coalesced == null) {
+        pending.remove(path);
+      } else {
+        event.kind = coalesced;
+      }
+    }
+  }
+
+  /** Returns the number of events waiting for the end of the coalescing window. */
+  public int getPendingCount() {
+    synchronized (pending) {
+      return pending.size();
+    }
+  }
+
+  /** Returns the number of events passed to the operations. */
+  public long getDispatchedCount() {
+    return dispatchedCount.sum();
+  }
+
+  /** Returns the number of events dropped because of the overflow of the group queue. */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /** Returns the total time between occurrence of the events and passing them to operations. */
+  public double getTotalLag(TimeUnit unit) {
+    return (double) totalLagNanos.sum() / unit.toNanos(1);
+  }
+
+  private void flushExpired() {
+    List<Entry<Path, PendingEvent>> expired = new ArrayList<>();
+    long now = System.nanoTime();
+    synchronized (pending) {
+      Iterator<Entry<Path, PendingEvent>> it = pending.entrySet().iterator();
+      while (it.hasNext()) {
+        Entry<Path, PendingEvent> entry = it.next();
+        // events are ordered by their first occurrence, so the rest are not expired either
+        if (now - entry.getValue().occurredAt < windowNanos) {
+          break;
+        }
+        expired.add(entry);
+        it.remove();
+      }
+    }
+
+    for (Entry<Path, PendingEvent> entry : expired) {
+      deliver(entry.getKey(), entry.getValue().kind, entry.getValue().occurredAt);
+    }
+  }
+
+  private void deliver(Path path, Kind<?> kind, long occurredAt) {
+    String internalPath = toInternalPath(root, path);
+    for (FileWatcherOperation operation : handler.getOperations(path)) {
+      Optional<Consumer<String>> consumer = operation.get(kind);
+      if (!consumer.isPresent()) {
+        continue;
+      }
+
+      ExecutorService group = groups[floorMod(operation.getId(), groupCount)];
+      try {
+        group.execute(
+            () -> {
+              dispatchedCount.increment();
+              totalLagNanos.add(System.nanoTime() - occurredAt);
+              consumer.get().accept(internalPath);
+            });
+      } catch (RejectedExecutionException e) {
+        droppedCount.increment();
+        LOG.warn("File watcher event '{}' for '{}' is dropped, consumers are too slow", kind, path);
+      }
+    }
+  }
+
+  /**
+   * Returns kind of a single event that is equivalent to the given sequence of events or null if
+   * the events annihilate each other.
+   */
+  static Kind<?> coalesce(Kind<?> previous, Kind<?> next) {
+    if (previous == ENTRY_CREATE) {
+      return next == ENTRY_DELETE ? null : ENTRY_CREATE;
+    }
+    // modification or recreation of an existing item is a modification
+    return next == ENTRY_DELETE ? ENTRY_DELETE : ENTRY_MODIFY;
+  }
+
+  private static class PendingEvent {
+    private final long occurredAt;
+    private Kind<?> kind;
+
+    private PendingEvent(Kind<?> kind, long occurredAt) {
+      this.kind = kind;
+      this.occurredAt = occurredAt;
+    }
+  }
+}
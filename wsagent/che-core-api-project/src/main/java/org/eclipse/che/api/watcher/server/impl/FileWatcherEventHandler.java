@@ -13,23 +13,19 @@ package org.eclipse.che.api.watcher.server.impl;
 
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static java.nio.file.Files.isDirectory;
-import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toInternalPath;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
 import org.eclipse.che.api.watcher.server.FileWatcherManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,13 +38,6 @@ public class FileWatcherEventHandler {
 
   private final Map<Path, Set<FileWatcherOperation>> operations = new ConcurrentHashMap<>();
 
-  private final Path root;
-
-  @Inject
-  public FileWatcherEventHandler(RootDirPathProvider pathProvider) {
-    this.root = Paths.get(pathProvider.get());
-  }
-
   /**
    * Registers create, modify and delete operations when item defined by path parameter is
    * correspondingly being created, modified or deleted. If path parameter denotes directory than
@@ -102,35 +91,25 @@ public class FileWatcherEventHandler {
   }
 
   /**
-   * Handles event passed form file watcher system. Path parameter is expected to be passed in a
-   * normal operation system file system form and is transformed into internal virtual file system
-   * format before further processing.
+   * Returns operation sets that are interested in events of the item defined by path parameter,
+   * these are operations registered for the item itself and for its parent directory.
    *
    * @param path path that the event is originated from
-   * @param kind kind of event (e.g. created, modified, removed)
+   * @return operation sets registered for the path and for its parent directory
    */
-  void handle(Path path, WatchEvent.Kind<?> kind) {
-    Path dir = path.getParent();
-    String internalPath = toInternalPath(root, path);
-    Set<FileWatcherOperation> dirOperations = operations.get(dir);
-    Set<FileWatcherOperation> itemOperations = operations.get(path);
+  List<FileWatcherOperation> getOperations(Path path) {
+    List<FileWatcherOperation> result = new ArrayList<>();
 
+    Set<FileWatcherOperation> dirOperations = operations.get(path.getParent());
     if (dirOperations != null) {
-      dirOperations
-          .stream()
-          .map(it -> it.get(kind))
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .forEach(it -> it.accept(internalPath));
+      result.addAll(dirOperations);
     }
 
+    Set<FileWatcherOperation> itemOperations = operations.get(path);
     if (itemOperations != null) {
-      itemOperations
-          .stream()
-          .map(it -> it.get(kind))
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .forEach(it -> it.accept(internalPath));
+      result.addAll(itemOperations);
     }
+
+    return result;
   }
 }
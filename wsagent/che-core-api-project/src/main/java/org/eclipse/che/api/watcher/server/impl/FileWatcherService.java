@@ -34,10 +34,13 @@ import java.nio.file.WatchService;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -65,8 +68,11 @@ public class FileWatcherService {
   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
   private final Map<Path, Integer> registrations = new ConcurrentHashMap<>();
 
+  private final Set<Consumer<Path>> changeListeners = new CopyOnWriteArraySet<>();
+  private final Set<Consumer<Path>> overflowListeners = new CopyOnWriteArraySet<>();
+
   private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
-  private final FileWatcherEventHandler handler;
+  private final FileWatcherEventDispatcher dispatcher;
   private final WatchService service;
   private final Modifier[] eventModifiers;
   private final Kind<?>[] eventKinds;
@@ -76,10 +82,10 @@ public class FileWatcherService {
   @Inject
   public FileWatcherService(
       FileWatcherExcludePatternsRegistry excludePatternsRegistry,
-      FileWatcherEventHandler handler,
+      FileWatcherEventDispatcher dispatcher,
       WatchService service) {
     this.excludePatternsRegistry = excludePatternsRegistry;
-    this.handler = handler;
+    this.dispatcher = dispatcher;
     this.service = service;
 
     this.eventModifiers = getWatchEventModifiers();
@@ -168,6 +174,38 @@ public class FileWatcherService {
     return executor.isShutdown();
   }
 
+  /**
+   * Adds a listener that is notified with a directory when entries of the watched directory are
+   * changed and when the directory is registered for watching. Exclude patterns are not applied.
+   * Listeners are called on the watching thread, so they must not block.
+   *
+   * @param listener consumer of changed directories
+   */
+  public void addChangeListener(Consumer<Path> listener) {
+    changeListeners.add(listener);
+  }
+
+  /**
+   * Adds a listener that is notified with a watched directory when events of the directory are
+   * lost because of the overflow of the underlying watch service. Listeners are called on the
+   * watching thread, so they must not block.
+   *
+   * @param listener consumer of directories with lost events
+   */
+  public void addOverflowListener(Consumer<Path> listener) {
+    overflowListeners.add(listener);
+  }
+
+  /**
+   * Checks if a directory is registered for watching.
+   *
+   * @param dir directory
+   * @return true if changes of the directory entries are tracked, otherwise false
+   */
+  public boolean isWatched(Path dir) {
+    return registrations.containsKey(dir);
+  }
+
   /**
    * Registers a directory for tracking of corresponding entry creation, modification or deletion
    * events. Each call of this method increase by one registration counter that corresponds to each
@@ -197,6 +235,7 @@ public class FileWatcherService {
           keys.put(watchKey, dir);
           registrations.put(dir, 1);
         }
+        changeListeners.forEach(it -> it.accept(dir));
       } catch (IOException e) {
         LOG.error("Can't register dir {} in file watch service", dir, e);
       }
@@ -270,6 +309,7 @@ public class FileWatcherService {
         }
 
         List<WatchEvent<?>> watchEvents = watchKey.pollEvents();
+        notifyListeners(dir, watchEvents);
 
         if (suspended.get()) {
           resetAndRemove(watchKey, dir);
@@ -295,7 +335,7 @@ public class FileWatcherService {
             continue;
           }
 
-          handler.handle(path, kind);
+          dispatcher.dispatch(path, kind);
         }
 
         resetAndRemove(watchKey, dir);
@@ -310,6 +350,17 @@ public class FileWatcherService {
     }
   }
 
+  private void notifyListeners(Path dir, List<WatchEvent<?>> watchEvents) {
+    if (watchEvents.isEmpty()) {
+      return;
+    }
+    if (watchEvents.stream().anyMatch(it -> it.kind() == OVERFLOW)) {
+      overflowListeners.forEach(it -> it.accept(dir));
+    } else {
+      changeListeners.forEach(it -> it.accept(dir));
+    }
+  }
+
   private void resetAndRemove(WatchKey watchKey, Path dir) {
     if (!watchKey.reset()) {
       if (dir != null) {
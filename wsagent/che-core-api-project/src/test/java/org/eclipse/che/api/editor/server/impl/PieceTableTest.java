@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Random;
+import org.testng.annotations.Test;
+
+/** Tests {@link PieceTable}. */
+public class PieceTableTest {
+
+  @Test
+  public void insertsText() {
+    PieceTable document = new PieceTable("hello world");
+
+    document.insert(5, ",");
+    document.insert(0, ">> ");
+    document.insert(document.length(), "!");
+
+    assertEquals(document.toString(), ">> hello, world!");
+    assertEquals(document.length(), 16);
+  }
+
+  @Test
+  public void removesText() {
+    PieceTable document = new PieceTable("hello, big world");
+    document.insert(7, "very ");
+
+    document.remove(5, 1);
+    document.remove(6, 9);
+
+    assertEquals(document.toString(), "hello world");
+  }
+
+  @Test
+  public void ignoresRemovedCharactersBeyondTheEnd() {
+    PieceTable document = new PieceTable("hello world");
+
+    document.remove(5, 100);
+
+    assertEquals(document.toString(), "hello");
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void throwsExceptionWhenInsertingOutOfBounds() {
+    new PieceTable("hello").insert(6, "!");
+  }
+
+  @Test
+  public void mergesTypedCharacters() {
+    PieceTable document = new PieceTable("class A {}");
+
+    for (char c : "int a;".toCharArray()) {
+      document.insert(document.length() - 1, String.valueOf(c));
+    }
+
+    assertEquals(document.toString(), "class A {int a;}");
+    assertEquals(document.getPieceCount(), 3);
+  }
+
+  @Test
+  public void snapshotIsNotAffectedByChanges() {
+    PieceTable document = new PieceTable("hello world");
+    CharSequence snapshot = document.snapshot();
+
+    document.remove(0, 6);
+    document.insert(0, "brave new ");
+
+    assertEquals(snapshot.toString(), "hello world");
+    assertEquals(document.toString(), "brave new world");
+  }
+
+  @Test
+  public void readsCharactersAndSubSequences() {
+    PieceTable document = new PieceTable("world");
+    document.insert(0, "hello ");
+    document.insert(document.length(), "!");
+
+    StringBuilder chars = new StringBuilder();
+    for (int i = document.length() - 1; i >= 0; i--) {
+      chars.insert(0, document.charAt(i));
+    }
+
+    assertEquals(chars.toString(), "hello world!");
+    assertEquals(document.subSequence(4, 8).toString(), "o wo");
+  }
+
+  @Test
+  public void matchesStringBuilderOnRandomEdits() {
+    Random random = new Random(42);
+    StringBuilder expected = new StringBuilder("public class Generated {\n}\n");
+    PieceTable document = new PieceTable(expected.toString());
+    int caret = 24;
+
+    for (int i = 0; i < 20_000; i++) {
+      if (random.nextInt(20) == 0) {
+        // jump to another place of the document
+        caret = random.nextInt(expected.length() + 1);
+      }
+      if (random.nextInt(5) == 0 && caret > 0) {
+        int count = Math.min(caret, 1 + random.nextInt(3));
+        caret -= count;
+        expected.delete(caret, caret + count);
+        document.remove(caret, count);
+      } else {
+        String text = random.nextInt(10) == 0 ? "\n    " : String.valueOf((char) ('a' + i % 26));
+        expected.insert(caret, text);
+        document.insert(caret, text);
+        caret += text.length();
+      }
+    }
+
+    assertEquals(document.toString(), expected.toString());
+    assertEquals(document.length(), expected.length());
+    assertEquals(document.charAt(expected.length() / 2), expected.charAt(expected.length() / 2));
+    assertTrue(document.getPieceCount() <= PieceTable.MAX_PIECES);
+  }
+}
@@ -53,6 +53,12 @@ public class ExecutiveFsManagerTest {
         }
       };
 
+  private static final OutputStream OUTPUT_STREAM =
+      new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {}
+      };
+
   @Mock private FsOperations fsOperations;
   @Mock private ZipArchiver zipArchiver;
   @Mock private PathTransformer pathTransformer;
@@ -189,9 +195,16 @@ public class ExecutiveFsManagerTest {
 
   @Test
   public void shouldZipArchiverZipOnZip() throws Exception {
-    executiveFsManager.zip(WS_PATH);
+    executiveFsManager.zip(WS_PATH, OUTPUT_STREAM);
+
+    verify(zipArchiver).zip(FS_PATH, OUTPUT_STREAM);
+  }
+
+  @Test
+  public void shouldZipArchiverTarGzOnTarGz() throws Exception {
+    executiveFsManager.tarGz(WS_PATH, OUTPUT_STREAM);
 
-    verify(zipArchiver).zip(FS_PATH);
+    verify(zipArchiver).tarGz(FS_PATH, OUTPUT_STREAM);
   }
 
   @Test
@@ -62,6 +62,12 @@ public class ValidatingFsManagerTest {
         }
       };
 
+  private static final OutputStream OUTPUT_STREAM =
+      new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {}
+      };
+
   @Mock private FsOperations fsOperations;
   @Mock private PathTransformer pathTransformer;
   @Mock private ExecutiveFsManager executiveFsManager;
@@ -203,16 +209,32 @@ public class ValidatingFsManagerTest {
   public void shouldCallSuspendingFsManagerOnZip() throws Exception {
     when(fsOperations.exists(FS_PATH)).thenReturn(true);
 
-    validatingFsManager.zip(WS_PATH);
+    validatingFsManager.zip(WS_PATH, OUTPUT_STREAM);
 
-    verify(executiveFsManager).zip(WS_PATH);
+    verify(executiveFsManager).zip(WS_PATH, OUTPUT_STREAM);
   }
 
   @Test(expectedExceptions = NotFoundException.class)
   public void shouldThrowNotFoundExceptionOnZip() throws Exception {
     when(fsOperations.exists(FS_PATH)).thenReturn(false);
 
-    validatingFsManager.zip(WS_PATH);
+    validatingFsManager.zip(WS_PATH, OUTPUT_STREAM);
+  }
+
+  @Test
+  public void shouldCallSuspendingFsManagerOnTarGz() throws Exception {
+    when(fsOperations.exists(FS_PATH)).thenReturn(true);
+
+    validatingFsManager.tarGz(WS_PATH, OUTPUT_STREAM);
+
+    verify(executiveFsManager).tarGz(WS_PATH, OUTPUT_STREAM);
+  }
+
+  @Test(expectedExceptions = NotFoundException.class)
+  public void shouldThrowNotFoundExceptionOnTarGz() throws Exception {
+    when(fsOperations.exists(FS_PATH)).thenReturn(false);
+
+    validatingFsManager.tarGz(WS_PATH, OUTPUT_STREAM);
   }
 
   @Test
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.fs.server.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singleton;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.fs.server.PathTransformer;
+import org.eclipse.che.api.watcher.server.impl.FileWatcherExcludePatternsRegistry;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class ZipArchiverTest {
+
+  @Mock private PathTransformer pathTransformer;
+
+  private Path root;
+  private Path project;
+  private ZipArchiver zipArchiver;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    root = Files.createTempDirectory("zip-archiver");
+    when(pathTransformer.transform(anyString())).thenReturn(root);
+
+    project = Files.createDirectories(root.resolve("project"));
+    Files.write(project.resolve("README.md"), "readme".getBytes(UTF_8));
+    Files.createDirectories(project.resolve("src/main"));
+    Files.write(project.resolve("src/main/Main.java"), "class Main {}".getBytes(UTF_8));
+    Files.write(project.resolve("src/lib.jar"), "jar".getBytes(UTF_8));
+    Files.createDirectories(project.resolve("excluded"));
+    Files.write(project.resolve("excluded/file"), "excluded".getBytes(UTF_8));
+
+    FileWatcherExcludePatternsRegistry excludes =
+        new FileWatcherExcludePatternsRegistry(
+            singleton(path -> path.getFileName().toString().equals("excluded")));
+    zipArchiver = new ZipArchiver(pathTransformer, excludes, 6, new String[] {"jar", " zip"});
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(root.toFile());
+  }
+
+  @Test
+  public void shouldWriteNotExcludedFilesToZip() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    zipArchiver.zip(project, output);
+
+    Map<String, String> entries = new HashMap<>();
+    try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+        entries.put(entry.getName(), IOUtils.toString(zis, UTF_8));
+      }
+    }
+    Map<String, String> expected = new HashMap<>();
+    expected.put("README.md", "readme");
+    expected.put("src/main/Main.java", "class Main {}");
+    expected.put("src/lib.jar", "jar");
+    assertEquals(entries, expected);
+  }
+
+  @Test
+  public void shouldStoreFilesOfCompressedFormatsWithoutCompression() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    zipArchiver.zip(project, output);
+
+    Map<String, Integer> methods = new HashMap<>();
+    try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+        methods.put(entry.getName(), entry.getMethod());
+      }
+    }
+    Map<String, Integer> expected = new HashMap<>();
+    expected.put("README.md", ZipEntry.DEFLATED);
+    expected.put("src/main/Main.java", ZipEntry.DEFLATED);
+    expected.put("src/lib.jar", ZipEntry.STORED);
+    assertEquals(methods, expected);
+  }
+
+  @Test
+  public void shouldWriteNotExcludedFilesToTarGz() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    zipArchiver.tarGz(project, output);
+
+    Map<String, String> entries = new HashMap<>();
+    try (TarArchiveInputStream tis =
+        new TarArchiveInputStream(
+            new GzipCompressorInputStream(new ByteArrayInputStream(output.toByteArray())))) {
+      for (TarArchiveEntry entry = tis.getNextTarEntry();
+          entry != null;
+          entry = tis.getNextTarEntry()) {
+        entries.put(entry.getName(), IOUtils.toString(tis, UTF_8));
+      }
+    }
+    Map<String, String> expected = new HashMap<>();
+    expected.put("README.md", "readme");
+    expected.put("src/main/Main.java", "class Main {}");
+    expected.put("src/lib.jar", "jar");
+    assertEquals(entries, expected);
+  }
+
+  @Test
+  public void shouldUnzipPreviouslyZippedItem() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    zipArchiver.zip(project, output);
+    Path destination = root.resolve("copy");
+
+    zipArchiver.unzip(
+        destination, new ByteArrayInputStream(output.toByteArray()), false, true, false);
+
+    assertEquals(new String(Files.readAllBytes(destination.resolve("README.md")), UTF_8), "readme");
+    assertEquals(
+        new String(Files.readAllBytes(destination.resolve("src/main/Main.java")), UTF_8),
+        "class Main {}");
+  }
+
+  @Test
+  public void shouldNotUnzipEntriesOutsideOfDestination() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (ZipOutputStream zos = new ZipOutputStream(output)) {
+      zos.putNextEntry(new ZipEntry("../evil.txt"));
+      zos.write("evil".getBytes(UTF_8));
+      zos.closeEntry();
+    }
+    Path destination = root.resolve("copy");
+
+    try {
+      zipArchiver.unzip(
+          destination, new ByteArrayInputStream(output.toByteArray()), false, true, false);
+      fail("ServerException expected");
+    } catch (ServerException expected) {
+    }
+
+    assertFalse(Files.exists(root.resolve("evil.txt")));
+  }
+}
@@ -68,7 +68,9 @@ public class SearcherTest {
     excludePatterns = Collections.emptySet();
     DummyProvider rootProvider = new DummyProvider(workspaceStorage);
     pathTransformer = new RootAwarePathTransformer(rootProvider);
-    searcher = new LuceneSearcher(excludePatterns, indexDirectory, rootProvider, pathTransformer);
+    searcher =
+        new LuceneSearcher(
+            excludePatterns, indexDirectory, rootProvider, pathTransformer, 2, 1_000_000, 100);
     contentBuilder = new ContentBuilder(workspaceStorage.toPath());
   }
 
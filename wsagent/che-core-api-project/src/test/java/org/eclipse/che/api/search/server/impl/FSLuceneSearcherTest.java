@@ -48,7 +48,8 @@ public class FSLuceneSearcherTest {
     DummyProvider dummyRootProvider = new DummyProvider(workspaceStorage);
     pathTransformer = new RootAwarePathTransformer(dummyRootProvider);
     searcher =
-        new LuceneSearcher(excludePatterns, indexDirectory, dummyRootProvider, pathTransformer);
+        new LuceneSearcher(
+            excludePatterns, indexDirectory, dummyRootProvider, pathTransformer, 2, 1_000_000, 100);
     contentBuilder = new ContentBuilder(workspaceStorage.toPath());
   }
 
@@ -93,6 +94,40 @@ public class FSLuceneSearcherTest {
     assertEquals(newArrayList("/folder/xxx.txt", "/folder/zzz.txt"), paths);
   }
 
+  @Test
+  public void shouldIndexOnlyNameOfFileLargerThanLimit() throws Exception {
+    // given
+    StringBuilder content = new StringBuilder();
+    while (content.length() <= 1_000_000) {
+      content.append(TEST_CONTENT[1]).append('\n');
+    }
+    contentBuilder.createFolder("folder").createFile("large.txt", content.toString());
+
+    // when
+    searcher.add(contentBuilder.getCurrentFolder());
+
+    // then
+    assertEquals(searcher.search(new QueryExpression().setText("think")).getFilePaths().size(), 0);
+    assertEquals(
+        newArrayList("/folder/large.txt"),
+        searcher.search(new QueryExpression().setName("large.txt")).getFilePaths());
+  }
+
+  @Test
+  public void shouldIndexOnlyNameOfBinaryFile() throws Exception {
+    // given
+    contentBuilder.createFolder("folder").createFile("binary.txt", TEST_CONTENT[1] + '\0');
+
+    // when
+    searcher.add(contentBuilder.getCurrentFolder());
+
+    // then
+    assertEquals(searcher.search(new QueryExpression().setText("think")).getFilePaths().size(), 0);
+    assertEquals(
+        newArrayList("/folder/binary.txt"),
+        searcher.search(new QueryExpression().setName("binary.txt")).getFilePaths());
+  }
+
   private static class DummyProvider extends RootDirPathProvider {
 
     public DummyProvider(File file) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.search.server.impl;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class LineOffsetsTest {
+
+  private static final String TEXT = "first\nsecond\r\nthird\rfourth\n\nsixth";
+
+  @Test(dataProvider = "offsets")
+  public void shouldMapOffsetToLine(int offset, int lineIndex, String line) {
+    LineOffsets lineOffsets = LineOffsets.of(TEXT);
+
+    assertEquals(lineOffsets.getLineIndex(offset), lineIndex);
+    assertEquals(lineOffsets.getLine(TEXT, lineIndex), line);
+  }
+
+  @DataProvider
+  public Object[][] offsets() {
+    return new Object[][] {
+      {0, 0, "first"},
+      {4, 0, "first"},
+      {5, 0, "first"},
+      {6, 1, "second"},
+      {12, 1, "second"},
+      {14, 2, "third"},
+      {20, 3, "fourth"},
+      {27, 4, ""},
+      {28, 5, "sixth"},
+      {33, 5, "sixth"}
+    };
+  }
+
+  @Test
+  public void shouldRestoreEncodedOffsets() {
+    LineOffsets lineOffsets = LineOffsets.decode(LineOffsets.of(TEXT).encode());
+
+    assertEquals(lineOffsets.getLineCount(), 6);
+    assertEquals(lineOffsets.getLineIndex(21), 3);
+    assertEquals(lineOffsets.getLine(TEXT, 5), "sixth");
+  }
+
+  @Test
+  public void shouldHandleTextWithoutLineSeparators() {
+    LineOffsets lineOffsets = LineOffsets.of("single line");
+
+    assertEquals(lineOffsets.getLineCount(), 1);
+    assertEquals(lineOffsets.getLineIndex(7), 0);
+    assertEquals(lineOffsets.getLine("single line", 0), "single line");
+  }
+}
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
 import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -40,6 +41,7 @@ public class ConcurrentHandleTest {
   @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
 
   FileWatcherEventHandler handler;
+  FileWatcherEventDispatcher dispatcher;
 
   @Mock Consumer<String> create;
   @Mock Consumer<String> modify;
@@ -50,7 +52,16 @@ public class ConcurrentHandleTest {
   @Before
   public void setUp() throws Exception {
     root = rootFolder.getRoot().toPath();
-    handler = new FileWatcherEventHandler(new DummyRootProvider(rootFolder.getRoot()));
+    handler = new FileWatcherEventHandler();
+    dispatcher =
+        new FileWatcherEventDispatcher(
+            handler, new DummyRootProvider(rootFolder.getRoot()), 10, 2, 100);
+    dispatcher.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    dispatcher.stop();
   }
 
   @Test
@@ -67,7 +78,7 @@ public class ConcurrentHandleTest {
       public Void call() {
         final Path path = root.resolve(PROJECT_FILE);
         handler.register(path, create, modify, delete);
-        handler.handle(path, eventType);
+        dispatcher.dispatch(path, eventType);
         return null;
       }
     }
@@ -14,8 +14,10 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.io.File.createTempFile;
 import static java.lang.Thread.sleep;
 import static org.apache.commons.io.FileUtils.write;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -30,6 +32,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -64,6 +68,10 @@ public class FileTreeWalkerTest {
 
   @Mock Consumer<Path> directoryDeleteConsumerMock;
 
+  @Mock FileWatcherService fileWatcherService;
+  @Captor ArgumentCaptor<Consumer<Path>> changeListenerCaptor;
+  @Captor ArgumentCaptor<Consumer<Path>> overflowListenerCaptor;
+
   @Before
   public void setUp() throws Exception {
     fileTreeWalker =
@@ -76,7 +84,10 @@ public class FileTreeWalkerTest {
             fileUpdateConsumers,
             fileCreateConsumers,
             fileDeleteConsumers,
-            fileExcludes);
+            fileExcludes,
+            fileWatcherService,
+            false,
+            1_000);
   }
 
   @After
@@ -223,6 +234,83 @@ public class FileTreeWalkerTest {
     verify(fileCreatedConsumerMock, never()).accept(file.toPath());
   }
 
+  @Test
+  public void shouldScanDirectoryOnChangeEvent() throws Exception {
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    fileDeleteConsumers.add(fileDeleteConsumerMock);
+    File existing = rootFolder.newFile(TEST_FILE_NAME);
+    FileTreeWalker journalWalker = createJournalWalker();
+    journalWalker.initialize();
+    verify(fileWatcherService).addChangeListener(changeListenerCaptor.capture());
+
+    File created = rootFolder.newFile("created-file-name");
+    existing.delete();
+    changeListenerCaptor.getValue().accept(rootFolder.getRoot().toPath());
+    journalWalker.processJournal();
+
+    verify(fileCreatedConsumerMock).accept(created.toPath());
+    verify(fileDeleteConsumerMock).accept(existing.toPath());
+  }
+
+  @Test
+  public void shouldRescanSubtreeOnOverflow() throws Exception {
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    directoryCreateConsumers.add(directoryCreatedConsumerMock);
+    FileTreeWalker journalWalker = createJournalWalker();
+    journalWalker.initialize();
+    verify(fileWatcherService).addOverflowListener(overflowListenerCaptor.capture());
+
+    File folder = rootFolder.newFolder(TEST_FOLDER_NAME, TEST_FOLDER_NAME);
+    File file = new File(folder, TEST_FILE_NAME);
+    write(file, TEST_FILE_CONTENT);
+    overflowListenerCaptor.getValue().accept(rootFolder.getRoot().toPath());
+    journalWalker.processJournal();
+
+    verify(directoryCreatedConsumerMock).accept(folder.toPath());
+    verify(fileCreatedConsumerMock).accept(file.toPath());
+  }
+
+  @Test
+  public void shouldRescanNotWatchedDirectoryOnWalk() throws Exception {
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    FileTreeWalker journalWalker = createJournalWalker();
+    journalWalker.initialize();
+
+    File file = rootFolder.newFile(TEST_FILE_NAME);
+    journalWalker.walk();
+
+    verify(fileCreatedConsumerMock).accept(file.toPath());
+  }
+
+  @Test
+  public void shouldNotRescanWatchedDirectoryOnWalk() throws Exception {
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    when(fileWatcherService.isWatched(any())).thenReturn(true);
+    FileTreeWalker journalWalker = createJournalWalker();
+    journalWalker.initialize();
+
+    File file = rootFolder.newFile(TEST_FILE_NAME);
+    journalWalker.walk();
+
+    verify(fileCreatedConsumerMock, never()).accept(file.toPath());
+  }
+
+  private FileTreeWalker createJournalWalker() {
+    return new FileTreeWalker(
+        new DummyRootProvider(rootFolder.getRoot()),
+        directoryUpdateConsumers,
+        directoryCreateConsumers,
+        directoryDeleteConsumers,
+        directoryExcludes,
+        fileUpdateConsumers,
+        fileCreateConsumers,
+        fileDeleteConsumers,
+        fileExcludes,
+        fileWatcherService,
+        true,
+        1_000);
+  }
+
   private static class DummyRootProvider extends RootDirPathProvider {
 
     public DummyRootProvider(File folder) {
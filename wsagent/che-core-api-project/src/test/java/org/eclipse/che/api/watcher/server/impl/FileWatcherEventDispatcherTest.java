@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toInternalPath;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Tests for {@link FileWatcherEventDispatcher} */
+@RunWith(MockitoJUnitRunner.class)
+public class FileWatcherEventDispatcherTest {
+  private static final int TIMEOUT_VALUE = 3_000;
+  private static final String PROJECT_FILE = "/project/file";
+
+  @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
+
+  @Mock Consumer<String> create;
+  @Mock Consumer<String> modify;
+  @Mock Consumer<String> delete;
+
+  FileWatcherEventHandler handler;
+  FileWatcherEventDispatcher dispatcher;
+  Path root;
+  Path path;
+
+  @Before
+  public void setUp() throws Exception {
+    root = rootFolder.getRoot().toPath();
+    path = root.resolve(PROJECT_FILE);
+    handler = new FileWatcherEventHandler();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (dispatcher != null) {
+      dispatcher.stop();
+    }
+  }
+
+  @Test
+  public void shouldDeliverCreationFollowedByModificationsAsCreation() throws Exception {
+    startDispatcher(200, 1);
+    handler.register(path, create, modify, delete);
+
+    dispatcher.dispatch(path, ENTRY_CREATE);
+    dispatcher.dispatch(path, ENTRY_MODIFY);
+    dispatcher.dispatch(path, ENTRY_MODIFY);
+
+    verify(create, timeout(TIMEOUT_VALUE)).accept(toInternalPath(root, path));
+    verify(modify, after(500).never()).accept(anyString());
+    assertEquals(dispatcher.getDispatchedCount(), 1);
+  }
+
+  @Test
+  public void shouldNotDeliverCreationFollowedByDeletion() throws Exception {
+    startDispatcher(200, 1);
+    handler.register(path, create, modify, delete);
+
+    dispatcher.dispatch(path, ENTRY_CREATE);
+    dispatcher.dispatch(path, ENTRY_DELETE);
+
+    verify(create, after(1_000).never()).accept(anyString());
+    verify(delete, never()).accept(anyString());
+    assertEquals(dispatcher.getPendingCount(), 0);
+  }
+
+  @Test
+  public void shouldCoalesceEventKinds() throws Exception {
+    assertNull(FileWatcherEventDispatcher.coalesce(ENTRY_CREATE, ENTRY_DELETE));
+    assertEquals(FileWatcherEventDispatcher.coalesce(ENTRY_CREATE, ENTRY_MODIFY), ENTRY_CREATE);
+    assertEquals(FileWatcherEventDispatcher.coalesce(ENTRY_DELETE, ENTRY_CREATE), ENTRY_MODIFY);
+    assertEquals(FileWatcherEventDispatcher.coalesce(ENTRY_MODIFY, ENTRY_DELETE), ENTRY_DELETE);
+  }
+
+  @Test
+  public void shouldNotBlockOtherGroupsBySlowConsumer() throws Exception {
+    startDispatcher(0, 2);
+    CountDownLatch release = new CountDownLatch(1);
+    // registration ids are sequential, so these operations belong to different groups
+    handler.register(path, it -> await(release), modify, delete);
+    handler.register(path, create, modify, delete);
+
+    dispatcher.dispatch(path, ENTRY_CREATE);
+
+    verify(create, timeout(TIMEOUT_VALUE)).accept(toInternalPath(root, path));
+    release.countDown();
+  }
+
+  @Test
+  public void shouldDropEventsWhenGroupQueueIsFull() throws Exception {
+    startDispatcher(0, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    handler.register(
+        path,
+        it -> {
+          started.countDown();
+          await(release);
+        },
+        modify,
+        delete);
+
+    dispatcher.dispatch(path, ENTRY_CREATE);
+    assertTrue(started.await(TIMEOUT_VALUE, MILLISECONDS));
+    dispatcher.dispatch(path, ENTRY_CREATE);
+    dispatcher.dispatch(path, ENTRY_CREATE);
+
+    assertEquals(dispatcher.getDroppedCount(), 1);
+    release.countDown();
+  }
+
+  private void startDispatcher(long windowMs, int groups) {
+    dispatcher =
+        new FileWatcherEventDispatcher(
+            handler, new DummyRootProvider(rootFolder.getRoot()), windowMs, groups, 1);
+    dispatcher.start();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class DummyRootProvider extends RootDirPathProvider {
+
+    public DummyRootProvider(File folder) {
+      this.rootFile = folder;
+    }
+  }
+}
@@ -15,14 +15,16 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toInternalPath;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.util.function.Consumer;
 import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -34,11 +36,13 @@ import org.mockito.junit.MockitoJUnitRunner;
 /** Tests for {@link FileWatcherEventHandler} */
 @RunWith(MockitoJUnitRunner.class)
 public class FileWatcherEventHandlerTest {
+  private static final int TIMEOUT_VALUE = 3_000;
   private static final String PROJECT_FILE = "/project/file";
 
   @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
 
   FileWatcherEventHandler handler;
+  FileWatcherEventDispatcher dispatcher;
 
   @Mock Consumer<String> create;
   @Mock Consumer<String> modify;
@@ -50,7 +54,17 @@ public class FileWatcherEventHandlerTest {
   public void setUp() throws Exception {
     root = rootFolder.getRoot().toPath();
 
-    handler = new FileWatcherEventHandler(new DummyRootProvider(rootFolder.getRoot()));
+    handler = new FileWatcherEventHandler();
+    // events are delivered by the dispatcher, without coalescing to not wait for the window
+    dispatcher =
+        new FileWatcherEventDispatcher(
+            handler, new DummyRootProvider(rootFolder.getRoot()), 0, 1, 100);
+    dispatcher.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    dispatcher.stop();
   }
 
   @Test
@@ -58,9 +72,9 @@ public class FileWatcherEventHandlerTest {
     Path path = root.resolve(PROJECT_FILE);
     handler.register(path, create, modify, delete);
 
-    handler.handle(path, ENTRY_CREATE);
+    dispatcher.dispatch(path, ENTRY_CREATE);
 
-    verify(create).accept(toInternalPath(root, path));
+    verify(create, timeout(TIMEOUT_VALUE)).accept(toInternalPath(root, path));
   }
 
   @Test
@@ -68,9 +82,9 @@ public class FileWatcherEventHandlerTest {
     Path path = root.resolve(PROJECT_FILE);
     handler.register(path, create, modify, delete);
 
-    handler.handle(path, ENTRY_MODIFY);
+    dispatcher.dispatch(path, ENTRY_MODIFY);
 
-    verify(modify).accept(toInternalPath(root, path));
+    verify(modify, timeout(TIMEOUT_VALUE)).accept(toInternalPath(root, path));
   }
 
   @Test
@@ -78,9 +92,9 @@ public class FileWatcherEventHandlerTest {
     Path path = root.resolve(PROJECT_FILE);
     handler.register(path, create, modify, delete);
 
-    handler.handle(path, ENTRY_DELETE);
+    dispatcher.dispatch(path, ENTRY_DELETE);
 
-    verify(delete).accept(toInternalPath(root, path));
+    verify(delete, timeout(TIMEOUT_VALUE)).accept(toInternalPath(root, path));
   }
 
   @Test
@@ -89,9 +103,9 @@ public class FileWatcherEventHandlerTest {
     handler.register(path, create, modify, delete);
     handler.register(path.getParent(), create, modify, delete);
 
-    handler.handle(path, ENTRY_CREATE);
+    dispatcher.dispatch(path, ENTRY_CREATE);
 
-    verify(create, times(2)).accept(toInternalPath(root, path));
+    verify(create, timeout(TIMEOUT_VALUE).times(2)).accept(toInternalPath(root, path));
   }
 
   @Test
@@ -100,9 +114,7 @@ public class FileWatcherEventHandlerTest {
     handler.register(path.resolve("one"), create, modify, delete);
     handler.register(path.resolve("two"), create, modify, delete);
 
-    handler.handle(path, ENTRY_CREATE);
-
-    verify(create, never()).accept(toInternalPath(root, path));
+    assertTrue(handler.getOperations(path).isEmpty());
   }
 
   @Test
@@ -112,9 +124,7 @@ public class FileWatcherEventHandlerTest {
 
     handler.unRegister(id);
 
-    handler.handle(path, ENTRY_CREATE);
-
-    verify(create, never()).accept(toInternalPath(root, path));
+    assertTrue(handler.getOperations(path).isEmpty());
   }
 
   @Test
@@ -124,9 +134,10 @@ public class FileWatcherEventHandlerTest {
     int id = handler.register(path, create, modify, delete);
     handler.unRegister(id);
 
-    handler.handle(path, ENTRY_CREATE);
+    dispatcher.dispatch(path, ENTRY_CREATE);
 
-    verify(create).accept(toInternalPath(root, path));
+    assertEquals(1, handler.getOperations(path).size());
+    verify(create, timeout(TIMEOUT_VALUE)).accept(toInternalPath(root, path));
   }
 
   private static class DummyRootProvider extends RootDirPathProvider {
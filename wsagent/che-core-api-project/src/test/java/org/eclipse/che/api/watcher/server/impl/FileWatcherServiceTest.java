@@ -46,7 +46,7 @@ public class FileWatcherServiceTest {
 
   @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
 
-  @Mock FileWatcherEventHandler handler;
+  @Mock FileWatcherEventDispatcher dispatcher;
   @Mock FileWatcherExcludePatternsRegistry fileWatcherExcludePatternsRegistry;
   WatchService watchService = FileSystems.getDefault().newWatchService();
 
@@ -56,7 +56,7 @@ public class FileWatcherServiceTest {
 
   @BeforeClass
   public void setUp() throws Exception {
-    service = new FileWatcherService(fileWatcherExcludePatternsRegistry, handler, watchService);
+    service = new FileWatcherService(fileWatcherExcludePatternsRegistry, dispatcher, watchService);
 
     service.start();
   }
@@ -71,14 +71,14 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
   }
 
   @AfterClass
   public void tearDown() throws Exception {
     service.stop();
 
-    reset(handler);
+    reset(dispatcher);
 
     for (int i = 0; i < 10; i++) {
       if (service.isStopped()) {
@@ -95,11 +95,11 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_DELETE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
@@ -108,7 +108,7 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFolder(FOLDER_NAME).toPath();
 
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -117,10 +117,10 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     write(file, "");
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_MODIFY);
   }
 
   @Test
@@ -129,18 +129,18 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_DELETE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
   public void shouldNotWatchUnRegisteredFolderForFileCreation() throws Exception {
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -153,10 +153,10 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     createDirectory(path.resolve(FOLDER_NAME));
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_MODIFY);
   }
 
   @Test
@@ -165,20 +165,20 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_DELETE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
   public void shouldNotWatchUnRegisteredFolderForDirectoryCreation() throws Exception {
     Path path = rootFolder.newFolder(FOLDER_NAME).toPath();
 
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -187,12 +187,12 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     write(file, "");
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_MODIFY);
   }
 
   @Test
@@ -201,13 +201,13 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_DELETE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
@@ -221,7 +221,7 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -236,7 +236,7 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -245,11 +245,11 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     createDirectory(path.resolve(FILE_NAME));
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_MODIFY);
   }
 }
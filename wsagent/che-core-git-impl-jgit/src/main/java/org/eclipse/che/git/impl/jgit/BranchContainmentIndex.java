@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.util.Collections.emptyList;
+import static org.eclipse.jgit.lib.Constants.HEAD;
+import static org.eclipse.jgit.lib.Constants.R_HEADS;
+import static org.eclipse.jgit.lib.Constants.R_REMOTES;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectIdOwnerMap;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Commit graph of a repository that knows which local and remote branches contain each commit.
+ *
+ * <p>The graph keeps the parents and the generation number of every commit reachable from the
+ * branches, and the set of branches that contain the commit. Commits share equal sets, so the index
+ * takes one reference per commit for the most of the history. The index is brought up to date with
+ * {@link #update(Repository)}, which reads the branch tips and only walks the commits that are not
+ * in the graph yet. A fast-forwarded branch is marked on the new commits only, branches that were
+ * removed or moved to not descendant commits are cleared from the graph and marked again.
+ *
+ * <p>The detached HEAD is indexed as a branch named {@code HEAD}, the same way {@link
+ * org.eclipse.jgit.api.ListBranchCommand} lists it.
+ *
+ * @author Igor Vinokur
+ */
+class BranchContainmentIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BranchContainmentIndex.class);
+
+  /** Number of the branches to mark above which all the sets are computed in one pass. */
+  private static final int REBUILD_THRESHOLD = 32;
+
+  private static final Node[] NO_PARENTS = new Node[0];
+
+  private ObjectIdOwnerMap<Node> nodes = new ObjectIdOwnerMap<>();
+  /** Branch name -> commit the branch points to */
+  private final Map<String, ObjectId> tips = new HashMap<>();
+  /** Branch name -> number of its bit in the sets of the commits */
+  private final Map<String, Integer> bits = new HashMap<>();
+  /** Bit -> branch name, or null if the bit is free */
+  private final List<String> names = new ArrayList<>();
+  /** Sets shared by the commits */
+  private final Map<BitSet, BitSet> sets = new HashMap<>();
+
+  /** Returns names of the branches that contain the commit, sorted by name. */
+  synchronized List<String> branchesOf(AnyObjectId commit) {
+    Node node = nodes.get(commit);
+    if (node == null || node.branches == null || node.branches.isEmpty()) {
+      return emptyList();
+    }
+    BitSet branches = node.branches;
+    List<String> result = new ArrayList<>(branches.cardinality());
+    for (int bit = branches.nextSetBit(0); bit >= 0; bit = branches.nextSetBit(bit + 1)) {
+      result.add(names.get(bit));
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /** Returns generation number of the commit, or 0 if the commit is not reachable by branches. */
+  synchronized int generationOf(AnyObjectId commit) {
+    Node node = nodes.get(commit);
+    return node == null ? 0 : node.generation;
+  }
+
+  /** Brings the index up to date with the branches of the repository. */
+  synchronized void update(Repository repository) throws IOException {
+    Map<String, ObjectId> current = readTips(repository);
+    if (current.equals(tips)) {
+      return;
+    }
+
+    List<Node> created = new ArrayList<>();
+    try (RevWalk walk = new RevWalk(repository)) {
+      for (Map.Entry<String, ObjectId> tip : new ArrayList<>(current.entrySet())) {
+        try {
+          load(walk, tip.getValue(), created);
+        } catch (MissingObjectException | IncorrectObjectTypeException e) {
+          LOG.debug("Branch '{}' is not indexed. Cause: {}", tip.getKey(), e.getMessage());
+          current.remove(tip.getKey());
+        }
+      }
+    } catch (IOException e) {
+      // the commits that are not parsed yet would break the walks of the next updates
+      remove(created);
+      throw e;
+    }
+    for (Node node : created) {
+      computeGeneration(node);
+    }
+
+    Set<String> cleared = new HashSet<>();
+    Set<String> marked = new HashSet<>();
+    for (Map.Entry<String, ObjectId> tip : tips.entrySet()) {
+      ObjectId newTip = current.get(tip.getKey());
+      if (newTip == null) {
+        cleared.add(tip.getKey());
+      } else if (!newTip.equals(tip.getValue())) {
+        if (!isAncestor(nodes.get(tip.getValue()), nodes.get(newTip))) {
+          cleared.add(tip.getKey());
+        }
+        marked.add(tip.getKey());
+      }
+    }
+    for (String name : current.keySet()) {
+      if (!tips.containsKey(name)) {
+        marked.add(name);
+      }
+    }
+
+    tips.clear();
+    tips.putAll(current);
+    if (tips.isEmpty()
+        || marked.size() > REBUILD_THRESHOLD
+        || cleared.size() > REBUILD_THRESHOLD) {
+      rebuild();
+      return;
+    }
+    if (!cleared.isEmpty()) {
+      clear(cleared);
+    }
+    for (String name : marked) {
+      mark(allocateBit(name), nodes.get(tips.get(name)));
+    }
+  }
+
+  /** Adds the commit and its ancestors which are not in the graph yet. */
+  private void load(RevWalk walk, ObjectId tip, List<Node> created) throws IOException {
+    // fails before the tip is added to the graph if the branch doesn't point to a commit
+    walk.parseCommit(tip);
+    Deque<Node> toLoad = new ArrayDeque<>();
+    toLoad.push(nodeOf(tip, created));
+    while (!toLoad.isEmpty()) {
+      Node node = toLoad.pop();
+      if (node.parents != null) {
+        continue;
+      }
+      RevCommit commit;
+      try {
+        commit = walk.parseCommit(node);
+      } catch (MissingObjectException e) {
+        // history is incomplete, the commit is indexed as a root one
+        node.parents = NO_PARENTS;
+        continue;
+      }
+      Node[] parents = new Node[commit.getParentCount()];
+      for (int i = 0; i < parents.length; i++) {
+        parents[i] = nodeOf(commit.getParent(i), created);
+        if (parents[i].parents == null) {
+          toLoad.push(parents[i]);
+        }
+      }
+      node.parents = parents;
+    }
+  }
+
+  private Node nodeOf(AnyObjectId id, List<Node> created) {
+    Node node = nodes.get(id);
+    if (node == null) {
+      node = new Node(id);
+      nodes.add(node);
+      created.add(node);
+    }
+    return node;
+  }
+
+  /** Removes the commits added by a failed update from the graph. */
+  private void remove(List<Node> created) {
+    if (created.isEmpty()) {
+      return;
+    }
+    Set<Node> removed = new HashSet<>(created);
+    ObjectIdOwnerMap<Node> kept = new ObjectIdOwnerMap<>();
+    for (Node node : nodes) {
+      if (!removed.contains(node)) {
+        kept.add(node);
+      }
+    }
+    nodes = kept;
+  }
+
+  /** Generation of a commit is 1 for root commits and 1 + max generation of parents otherwise. */
+  private static void computeGeneration(Node node) {
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(node);
+    while (!stack.isEmpty()) {
+      Node top = stack.peek();
+      if (top.generation > 0) {
+        stack.pop();
+        continue;
+      }
+      int generation = 0;
+      boolean computed = true;
+      for (Node parent : top.parents) {
+        if (parent.generation == 0) {
+          stack.push(parent);
+          computed = false;
+        } else {
+          generation = Math.max(generation, parent.generation);
+        }
+      }
+      if (computed) {
+        top.generation = generation + 1;
+        stack.pop();
+      }
+    }
+  }
+
+  /**
+   * Checks whether the ancestor is reachable from the commit. Commits with generation not greater
+   * than the generation of the ancestor can't lead to it, so they are not walked.
+   */
+  private static boolean isAncestor(Node ancestor, Node commit) {
+    if (ancestor == null || commit == null || ancestor.generation >= commit.generation) {
+      return ancestor != null && ancestor == commit;
+    }
+    Set<Node> visited = new HashSet<>();
+    Deque<Node> toVisit = new ArrayDeque<>();
+    toVisit.push(commit);
+    while (!toVisit.isEmpty()) {
+      Node node = toVisit.pop();
+      if (node == ancestor) {
+        return true;
+      }
+      for (Node parent : node.parents) {
+        if (parent.generation >= ancestor.generation && visited.add(parent)) {
+          toVisit.push(parent);
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Sets the bit on the commit and its ancestors, stops on the commits that already have it. */
+  private void mark(int bit, Node tip) {
+    Deque<Node> toMark = new ArrayDeque<>();
+    toMark.push(tip);
+    while (!toMark.isEmpty()) {
+      Node node = toMark.pop();
+      if (node.branches != null && node.branches.get(bit)) {
+        continue;
+      }
+      BitSet branches = node.branches == null ? new BitSet() : (BitSet) node.branches.clone();
+      branches.set(bit);
+      node.branches = intern(branches);
+      for (Node parent : node.parents) {
+        toMark.push(parent);
+      }
+    }
+  }
+
+  /** Removes the branches from the sets of all the commits and frees their bits. */
+  private void clear(Set<String> branches) {
+    BitSet mask = new BitSet();
+    for (String name : branches) {
+      int bit = bits.remove(name);
+      names.set(bit, null);
+      mask.set(bit);
+    }
+    sets.clear();
+    for (Node node : nodes) {
+      if (node.branches != null && node.branches.intersects(mask)) {
+        BitSet cleared = (BitSet) node.branches.clone();
+        cleared.andNot(mask);
+        node.branches = intern(cleared);
+      } else if (node.branches != null) {
+        node.branches = intern(node.branches);
+      }
+    }
+  }
+
+  /**
+   * Computes the sets of all the commits in one pass from the tips to the roots, in the order of
+   * decreasing generation numbers, and drops the commits not reachable by branches.
+   */
+  private void rebuild() {
+    bits.clear();
+    names.clear();
+    sets.clear();
+    List<Node> ordered = new ArrayList<>();
+    for (Node node : nodes) {
+      node.branches = null;
+      ordered.add(node);
+    }
+    for (Map.Entry<String, ObjectId> tip : tips.entrySet()) {
+      Node node = nodes.get(tip.getValue());
+      if (node.branches == null) {
+        node.branches = new BitSet();
+      }
+      node.branches.set(allocateBit(tip.getKey()));
+    }
+    ordered.sort((n1, n2) -> Integer.compare(n2.generation, n1.generation));
+
+    ObjectIdOwnerMap<Node> reachable = new ObjectIdOwnerMap<>();
+    for (Node node : ordered) {
+      if (node.branches == null) {
+        continue;
+      }
+      node.branches = intern(node.branches);
+      for (Node parent : node.parents) {
+        if (parent.branches == null) {
+          parent.branches = new BitSet();
+        }
+        parent.branches.or(node.branches);
+      }
+      reachable.add(node);
+    }
+    nodes = reachable;
+  }
+
+  private int allocateBit(String name) {
+    Integer allocated = bits.get(name);
+    if (allocated != null) {
+      return allocated;
+    }
+    int bit = names.indexOf(null);
+    if (bit < 0) {
+      bit = names.size();
+      names.add(name);
+    } else {
+      names.set(bit, name);
+    }
+    bits.put(name, bit);
+    return bit;
+  }
+
+  private BitSet intern(BitSet branches) {
+    BitSet shared = sets.putIfAbsent(branches, branches);
+    return shared != null ? shared : branches;
+  }
+
+  private static Map<String, ObjectId> readTips(Repository repository) throws IOException {
+    Map<String, ObjectId> tips = new HashMap<>();
+    Ref head = repository.exactRef(HEAD);
+    if (head != null && !head.isSymbolic() && head.getObjectId() != null) {
+      tips.put(HEAD, head.getObjectId());
+    }
+    for (String prefix : new String[] {R_HEADS, R_REMOTES}) {
+      for (Ref ref : repository.getRefDatabase().getRefs(prefix).values()) {
+        if (ref.getObjectId() != null) {
+          tips.put(ref.getName(), ref.getObjectId());
+        }
+      }
+    }
+    return tips;
+  }
+
+  private static class Node extends ObjectIdOwnerMap.Entry {
+
+    /** Null until the commit is parsed */
+    private Node[] parents;
+
+    private int generation;
+    private BitSet branches;
+
+    private Node(AnyObjectId id) {
+      super(id);
+    }
+  }
+}
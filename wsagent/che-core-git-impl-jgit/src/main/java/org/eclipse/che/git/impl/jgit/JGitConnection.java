@@ -323,6 +323,7 @@ class JGitConnection implements GitConnection {
   private final EventService eventService;
   private final GitUserResolver userResolver;
   private final Repository repository;
+  private final BranchContainmentIndex branchIndex;
 
   @Inject
   JGitConnection(
@@ -330,12 +331,14 @@ class JGitConnection implements GitConnection {
       CredentialsLoader credentialsLoader,
       SshKeyProvider sshKeyProvider,
       EventService eventService,
-      GitUserResolver userResolver) {
+      GitUserResolver userResolver,
+      BranchContainmentIndex branchIndex) {
     this.repository = repository;
     this.credentialsLoader = credentialsLoader;
     this.sshKeyProvider = sshKeyProvider;
     this.eventService = eventService;
     this.userResolver = userResolver;
+    this.branchIndex = branchIndex;
   }
 
   @Override
@@ -1015,6 +1018,7 @@ class JGitConnection implements GitConnection {
         logCommand.addPath(filePath);
       }
       Iterator<RevCommit> revIterator = logCommand.call().iterator();
+      branchIndex.update(repository);
       List<Revision> commits = new ArrayList<>();
       while (revIterator.hasNext()) {
         RevCommit commit = revIterator.next();
@@ -1033,8 +1037,7 @@ class JGitConnection implements GitConnection {
     }
   }
 
-  private Revision getRevision(RevCommit commit, String filePath)
-      throws GitAPIException, IOException {
+  private Revision getRevision(RevCommit commit, String filePath) throws IOException {
     List<String> commitParentsList =
         Stream.of(commit.getParents()).map(RevCommit::getName).collect(Collectors.toList());
 
@@ -1044,7 +1047,7 @@ class JGitConnection implements GitConnection {
         .withCommitTime((long) commit.getCommitTime() * 1000)
         .withCommitter(getCommitCommitter(commit))
         .withAuthor(getCommitAuthor(commit))
-        .withBranches(getBranchesOfCommit(commit, ListMode.ALL))
+        .withBranches(getBranchesOfCommit(commit))
         .withCommitParent(commitParentsList)
         .withDiffCommitFile(getCommitDiffFiles(commit, filePath));
   }
@@ -1063,12 +1066,11 @@ class JGitConnection implements GitConnection {
         .withEmail(authorIdentity.getEmailAddress());
   }
 
-  private List<Branch> getBranchesOfCommit(RevCommit commit, ListMode mode) throws GitAPIException {
-    List<Ref> branches =
-        getGit().branchList().setListMode(mode).setContains(commit.getName()).call();
-    return branches
+  private List<Branch> getBranchesOfCommit(RevCommit commit) {
+    return branchIndex
+        .branchesOf(commit)
         .stream()
-        .map(branch -> newDto(Branch.class).withName(branch.getName()))
+        .map(branch -> newDto(Branch.class).withName(branch))
         .collect(toList());
   }
 
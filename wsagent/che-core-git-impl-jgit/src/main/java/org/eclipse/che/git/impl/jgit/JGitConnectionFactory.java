@@ -16,7 +16,10 @@ import java.io.File;
 import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -28,7 +31,6 @@ import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.GitUserResolver;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
-import org.eclipse.jgit.internal.storage.file.FileRepository;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.UserAgent;
@@ -38,6 +40,7 @@ import org.eclipse.jgit.transport.UserAgent;
  *
  * @author Tareq Sharafy (tareq.sha@gmail.com)
  */
+@Singleton
 public class JGitConnectionFactory extends GitConnectionFactory {
 
   private static final String USER_AGENT = "git/2.1.0";
@@ -46,18 +49,24 @@ public class JGitConnectionFactory extends GitConnectionFactory {
   private final SshKeyProvider sshKeyProvider;
   private final EventService eventService;
   private final GitUserResolver userResolver;
+  private final RepositoryPool repositoryPool;
+  /** Repository directory -> index of the branches of its commits, shared by the connections */
+  private final Map<File, BranchContainmentIndex> branchIndexes;
 
   @Inject
   public JGitConnectionFactory(
       CredentialsLoader credentialsLoader,
       SshKeyProvider sshKeyProvider,
       EventService eventService,
-      GitUserResolver userResolver)
+      GitUserResolver userResolver,
+      RepositoryPool repositoryPool)
       throws GitException {
     this.credentialsLoader = credentialsLoader;
     this.sshKeyProvider = sshKeyProvider;
     this.eventService = eventService;
     this.userResolver = userResolver;
+    this.repositoryPool = repositoryPool;
+    this.branchIndexes = new ConcurrentHashMap<>();
 
     UserAgent.set(USER_AGENT);
     // Install the all-trusting trust manager
@@ -89,15 +98,19 @@ public class JGitConnectionFactory extends GitConnectionFactory {
   public JGitConnection getConnection(File workDir, LineConsumerFactory outputPublisherFactory)
       throws GitException {
     Repository gitRepo = createRepository(workDir);
+    BranchContainmentIndex branchIndex =
+        branchIndexes.computeIfAbsent(
+            gitRepo.getDirectory().getAbsoluteFile(), dir -> new BranchContainmentIndex());
     JGitConnection conn =
-        new JGitConnection(gitRepo, credentialsLoader, sshKeyProvider, eventService, userResolver);
+        new JGitConnection(
+            gitRepo, credentialsLoader, sshKeyProvider, eventService, userResolver, branchIndex);
     conn.setOutputLineConsumerFactory(outputPublisherFactory);
     return conn;
   }
 
-  private static Repository createRepository(File workDir) throws GitException {
+  private Repository createRepository(File workDir) throws GitException {
     try {
-      return new FileRepository(new File(workDir, Constants.DOT_GIT));
+      return repositoryPool.acquire(new File(workDir, Constants.DOT_GIT));
     } catch (IOException e) {
       throw new GitException(e.getMessage(), e);
     }
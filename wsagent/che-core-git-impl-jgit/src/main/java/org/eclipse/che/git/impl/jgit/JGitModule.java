@@ -24,5 +24,6 @@ public class JGitModule extends AbstractModule {
   @Override
   protected void configure() {
     bind(GitConnectionFactory.class).to(JGitConnectionFactory.class);
+    bind(RepositoryChangesDetector.class).asEagerSingleton();
   }
 }
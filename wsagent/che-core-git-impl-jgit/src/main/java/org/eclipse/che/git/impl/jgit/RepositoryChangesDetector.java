@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.nio.file.Files.isDirectory;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.fs.server.PathTransformer;
+import org.eclipse.che.api.watcher.server.FileWatcherManager;
+import org.eclipse.jgit.lib.Constants;
+
+/**
+ * Detects changes of refs and config of repositories made outside of the pooled repository
+ * instances, e.g. by the command line git in the terminal, and removes the repositories from the
+ * {@link RepositoryPool}.
+ */
+@Singleton
+public class RepositoryChangesDetector {
+
+  private static final String REFS_DIR = "refs";
+  private static final String PACKED_REFS_FILE = "packed-refs";
+  private static final String CONFIG_FILE = "config";
+
+  private final FileWatcherManager manager;
+  private final PathTransformer pathTransformer;
+  private final RepositoryPool repositoryPool;
+
+  private int id;
+
+  @Inject
+  public RepositoryChangesDetector(
+      FileWatcherManager manager, PathTransformer pathTransformer, RepositoryPool repositoryPool) {
+    this.manager = manager;
+    this.pathTransformer = pathTransformer;
+    this.repositoryPool = repositoryPool;
+  }
+
+  @PostConstruct
+  public void startWatcher() {
+    id = manager.registerByMatcher(matcher(), consumer(), consumer(), consumer());
+  }
+
+  @PreDestroy
+  public void stopWatcher() {
+    manager.unRegisterByMatcher(id);
+  }
+
+  private PathMatcher matcher() {
+    return path -> !isDirectory(path) && gitDirOf(path) != null;
+  }
+
+  private Consumer<String> consumer() {
+    return wsPath -> {
+      Path gitDir = gitDirOf(pathTransformer.transform(wsPath));
+      if (gitDir != null) {
+        repositoryPool.invalidate(gitDir.toFile());
+      }
+    };
+  }
+
+  /**
+   * Returns the git directory if the file is its HEAD, config, packed refs or a loose ref, or null
+   * otherwise.
+   */
+  private static Path gitDirOf(Path file) {
+    for (Path gitDir = file.getParent(); gitDir != null; gitDir = gitDir.getParent()) {
+      Path fileName = gitDir.getFileName();
+      if (fileName == null || !Constants.DOT_GIT.equals(fileName.toString())) {
+        continue;
+      }
+      Path relative = gitDir.relativize(file);
+      String first = relative.getName(0).toString();
+      if (relative.getNameCount() == 1) {
+        return Constants.HEAD.equals(first)
+                || CONFIG_FILE.equals(first)
+                || PACKED_REFS_FILE.equals(first)
+            ? gitDir
+            : null;
+      }
+      return REFS_DIR.equals(first) ? gitDir : null;
+    }
+    return null;
+  }
+}
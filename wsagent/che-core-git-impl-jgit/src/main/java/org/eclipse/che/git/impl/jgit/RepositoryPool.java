@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.schedule.ScheduleRate;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of repositories shared by git connections, so that the pack indexes, refs and config read
+ * by one connection are reused by the following ones.
+ *
+ * <p>Repositories are acquired by {@link #acquire(File)} and released by {@link
+ * Repository#close()}. Only existing repositories are pooled. A repository that is not used for the
+ * idle timeout is closed and removed from the pool. A repository whose refs or config were changed
+ * outside of JGit is removed from the pool by {@link #invalidate(File)} and closed once the last
+ * connection using it releases it.
+ */
+@Singleton
+public class RepositoryPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RepositoryPool.class);
+
+  private final long idleTimeoutMs;
+  private final Map<Path, PooledRepository> repositories;
+
+  /**
+   * @param idleTimeoutSec time after which a not used repository is closed, 0 means repositories
+   *     are closed as soon as they are released
+   */
+  @Inject
+  public RepositoryPool(@Named("che.git.repository_pool.idle_timeout_sec") long idleTimeoutSec) {
+    this.idleTimeoutMs = TimeUnit.SECONDS.toMillis(idleTimeoutSec);
+    this.repositories = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the pooled repository of the git directory, or opens a new one. The repository must be
+   * released with {@link Repository#close()} when it is not needed anymore.
+   */
+  public Repository acquire(File gitDir) throws IOException {
+    if (!gitDir.isDirectory()) {
+      // repository is about to be initialized or cloned, its state is not worth sharing
+      return new FileRepository(gitDir);
+    }
+    Path key = keyOf(gitDir);
+    while (true) {
+      PooledRepository repository;
+      try {
+        repository = repositories.computeIfAbsent(key, this::open);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      if (repository.retain()) {
+        return repository;
+      }
+      // closed by eviction or invalidation concurrently, the next attempt opens a new one
+      repositories.remove(key, repository);
+    }
+  }
+
+  /**
+   * Removes the repository of the git directory from the pool, it will be closed once released by
+   * all the connections using it.
+   */
+  public void invalidate(File gitDir) {
+    PooledRepository repository = repositories.remove(keyOf(gitDir));
+    if (repository != null) {
+      if (repository.retire()) {
+        repository.closeNow();
+      }
+    }
+  }
+
+  /** Closes the repositories that have not been used for the idle timeout. */
+  @ScheduleRate(initialDelay = 1, period = 1, unit = MINUTES)
+  public void evictIdle() {
+    long releasedBefore = System.currentTimeMillis() - idleTimeoutMs;
+    for (Map.Entry<Path, PooledRepository> entry : repositories.entrySet()) {
+      PooledRepository repository = entry.getValue();
+      if (repository.retireIfIdle(releasedBefore)) {
+        repositories.remove(entry.getKey(), repository);
+        repository.closeNow();
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (Path key : repositories.keySet()) {
+      PooledRepository repository = repositories.remove(key);
+      if (repository != null && repository.retire()) {
+        repository.closeNow();
+      }
+    }
+  }
+
+  private PooledRepository open(Path gitDir) {
+    try {
+      return new PooledRepository(gitDir.toFile());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void released(PooledRepository repository) {
+    if (idleTimeoutMs == 0 && repository.retireIfIdle(Long.MAX_VALUE)) {
+      repositories.remove(keyOf(repository.getDirectory()), repository);
+      repository.closeNow();
+    }
+  }
+
+  /** Returns the number of pooled repositories. */
+  @VisibleForTesting
+  int getSize() {
+    return repositories.size();
+  }
+
+  /** Returns true if the repository was acquired from the pool and closed by it. */
+  @VisibleForTesting
+  static boolean isClosed(Repository repository) {
+    return repository instanceof PooledRepository && ((PooledRepository) repository).closed;
+  }
+
+  private static Path keyOf(File gitDir) {
+    return gitDir.toPath().toAbsolutePath().normalize();
+  }
+
+  /** Repository that is returned to the pool instead of being closed. */
+  private class PooledRepository extends FileRepository {
+
+    private int references;
+    private long releasedAt;
+    private boolean retired;
+    private volatile boolean closed;
+
+    private PooledRepository(File gitDir) throws IOException {
+      super(gitDir);
+    }
+
+    /** Adds a reference to the repository, returns false if the repository is closed. */
+    private synchronized boolean retain() {
+      if (retired) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+
+    /**
+     * Marks the repository closed if it is not referenced and was released before the given time,
+     * returns true if the repository was marked and must be closed by the caller.
+     */
+    private synchronized boolean retireIfIdle(long releasedBefore) {
+      if (retired || references > 0 || releasedAt > releasedBefore) {
+        return false;
+      }
+      retired = true;
+      return true;
+    }
+
+    /**
+     * Marks the repository closed, returns true if it is not referenced and must be closed by the
+     * caller, otherwise it is closed by the last release.
+     */
+    private synchronized boolean retire() {
+      if (retired) {
+        return false;
+      }
+      retired = true;
+      return references == 0;
+    }
+
+    @Override
+    public void close() {
+      boolean closeNow;
+      synchronized (this) {
+        if (references == 0) {
+          LOG.warn("Repository '{}' is released more times than acquired", getDirectory());
+          return;
+        }
+        references--;
+        releasedAt = System.currentTimeMillis();
+        closeNow = retired && references == 0;
+      }
+      if (closeNow) {
+        closeNow();
+      } else {
+        released(this);
+      }
+    }
+
+    private void closeNow() {
+      closed = true;
+      super.close();
+    }
+  }
+}
@@ -21,6 +21,7 @@ import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.git.CredentialsLoader;
 import org.eclipse.che.api.git.GitUserResolver;
 import org.eclipse.che.git.impl.jgit.JGitConnectionFactory;
+import org.eclipse.che.git.impl.jgit.RepositoryPool;
 import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
 import org.testng.annotations.DataProvider;
 
@@ -37,7 +38,8 @@ public class GitConnectionFactoryProvider {
             mock(CredentialsLoader.class),
             mock(SshKeyProvider.class),
             mock(EventService.class),
-            resolver)
+            resolver,
+            new RepositoryPool(0))
       }
     };
   }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ListBranchCommand.ListMode;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the time of resolving branches of log commits with {@link BranchContainmentIndex}. It
+ * depends on the machine and is not a part of the default test run, use {@code mvn test
+ * -Dtest=BranchContainmentIndexBenchmark} to run it.
+ */
+public class BranchContainmentIndexBenchmark {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BranchContainmentIndexBenchmark.class);
+
+  private static final PersonIdent IDENT = new PersonIdent("user", "user@example.com");
+
+  private File directory;
+  private Repository repository;
+  private ObjectInserter inserter;
+  private ObjectId emptyTree;
+  private BranchContainmentIndex index;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("branch-index").toFile();
+    repository = new FileRepository(new File(directory, Constants.DOT_GIT));
+    repository.create();
+    inserter = repository.newObjectInserter();
+    emptyTree = inserter.insert(Constants.OBJ_TREE, new byte[0]);
+    index = new BranchContainmentIndex();
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    inserter.close();
+    repository.close();
+    FileUtils.deleteDirectory(directory);
+  }
+
+  /**
+   * Compares the time of getting the branches of a page of the log with {@link
+   * org.eclipse.jgit.api.ListBranchCommand}, as it was done by {@link JGitConnection#log}, and with
+   * the index.
+   */
+  @Test
+  public void benchmarkBranchesOfLogPage() throws Exception {
+    Random random = new Random(7);
+    List<ObjectId> commits = generateHistory(random, 2000, 300);
+    List<ObjectId> page = commits.subList(commits.size() - 30, commits.size());
+
+    Git git = new Git(repository);
+    long start = System.nanoTime();
+    List<List<String>> expected = new ArrayList<>();
+    for (ObjectId commit : page) {
+      expected.add(branchListContaining(git, commit));
+    }
+    long branchListNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    index.update(repository);
+    long buildNanos = System.nanoTime() - start;
+
+    // the same as JGitConnection#log does for each page, refs are not changed since the build
+    start = System.nanoTime();
+    index.update(repository);
+    List<List<String>> actual = new ArrayList<>();
+    for (ObjectId commit : page) {
+      actual.add(index.branchesOf(commit));
+    }
+    long indexNanos = System.nanoTime() - start;
+
+    assertEquals(actual, expected);
+    LOG.info(
+        "Branches of {} commits, {} branches: branch list {} ms, index build {} ms, index {} ms",
+        page.size(),
+        300,
+        branchListNanos / 1_000_000,
+        buildNanos / 1_000_000,
+        indexNanos / 1_000_000);
+  }
+
+  private static List<String> branchListContaining(Git git, ObjectId commit) throws Exception {
+    return git.branchList()
+        .setListMode(ListMode.ALL)
+        .setContains(commit.name())
+        .call()
+        .stream()
+        .map(ref -> ref.getName())
+        .sorted()
+        .collect(toList());
+  }
+
+  /** Generates history with merges and branches pointing to random commits. */
+  private List<ObjectId> generateHistory(Random random, int size, int branches) throws Exception {
+    List<ObjectId> commits = new ArrayList<>();
+    commits.add(commit());
+    for (int i = 1; i < size; i++) {
+      ObjectId parent = commits.get(Math.max(0, commits.size() - 1 - random.nextInt(10)));
+      if (random.nextInt(10) == 0) {
+        commits.add(commit(parent, commits.get(random.nextInt(commits.size()))));
+      } else {
+        commits.add(commit(parent));
+      }
+    }
+    for (int i = 0; i < branches; i++) {
+      branch("refs/heads/branch" + i, commits.get(random.nextInt(commits.size())));
+    }
+    branch("refs/heads/master", commits.get(commits.size() - 1));
+    return commits;
+  }
+
+  private ObjectId commit(ObjectId... parents) throws Exception {
+    CommitBuilder builder = new CommitBuilder();
+    builder.setTreeId(emptyTree);
+    builder.setParentIds(parents);
+    builder.setAuthor(IDENT);
+    builder.setCommitter(IDENT);
+    builder.setMessage("commit " + System.nanoTime());
+    ObjectId commit = inserter.insert(builder);
+    inserter.flush();
+    return commit;
+  }
+
+  private void branch(String name, ObjectId commit) throws Exception {
+    try (RevWalk walk = new RevWalk(repository)) {
+      RevCommit revCommit = walk.parseCommit(commit);
+      RefUpdate update = repository.updateRef(name);
+      update.setNewObjectId(revCommit);
+      update.setForceUpdate(true);
+      update.update();
+    }
+  }
+}
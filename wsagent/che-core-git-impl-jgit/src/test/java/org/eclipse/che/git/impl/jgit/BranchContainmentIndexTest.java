@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ListBranchCommand.ListMode;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link BranchContainmentIndex} */
+public class BranchContainmentIndexTest {
+
+  private static final PersonIdent IDENT = new PersonIdent("user", "user@example.com");
+
+  private File directory;
+  private Repository repository;
+  private ObjectInserter inserter;
+  private ObjectId emptyTree;
+  private BranchContainmentIndex index;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("branch-index").toFile();
+    repository = new FileRepository(new File(directory, Constants.DOT_GIT));
+    repository.create();
+    inserter = repository.newObjectInserter();
+    emptyTree = inserter.insert(Constants.OBJ_TREE, new byte[0]);
+    index = new BranchContainmentIndex();
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    inserter.close();
+    repository.close();
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void shouldFindBranchesContainingCommits() throws Exception {
+    ObjectId root = commit();
+    ObjectId c1 = commit(root);
+    ObjectId c2 = commit(c1);
+    ObjectId side = commit(c1);
+    ObjectId merge = commit(c2, side);
+    branch("refs/heads/master", merge);
+    branch("refs/heads/feature", side);
+    branch("refs/remotes/origin/master", c2);
+
+    index.update(repository);
+
+    assertEquals(
+        index.branchesOf(root),
+        Arrays.asList("refs/heads/feature", "refs/heads/master", "refs/remotes/origin/master"));
+    assertEquals(index.branchesOf(side), Arrays.asList("refs/heads/feature", "refs/heads/master"));
+    assertEquals(
+        index.branchesOf(c2), Arrays.asList("refs/heads/master", "refs/remotes/origin/master"));
+    assertEquals(index.branchesOf(merge), Arrays.asList("refs/heads/master"));
+    assertEquals(index.generationOf(root), 1);
+    assertEquals(index.generationOf(merge), 4);
+  }
+
+  @Test
+  public void shouldMarkOnlyNewCommitsOfFastForwardedBranch() throws Exception {
+    ObjectId root = commit();
+    branch("refs/heads/master", root);
+    branch("refs/heads/feature", root);
+    index.update(repository);
+
+    ObjectId next = commit(root);
+    branch("refs/heads/feature", next);
+    index.update(repository);
+
+    assertEquals(index.branchesOf(root), Arrays.asList("refs/heads/feature", "refs/heads/master"));
+    assertEquals(index.branchesOf(next), Arrays.asList("refs/heads/feature"));
+    assertEquals(index.generationOf(next), 2);
+  }
+
+  @Test
+  public void shouldClearBranchMovedToNotDescendantCommit() throws Exception {
+    ObjectId root = commit();
+    ObjectId first = commit(root);
+    ObjectId second = commit(root);
+    branch("refs/heads/master", root);
+    branch("refs/heads/feature", first);
+    index.update(repository);
+
+    branch("refs/heads/feature", second);
+    index.update(repository);
+
+    assertEquals(index.branchesOf(first), emptyList());
+    assertEquals(index.branchesOf(second), Arrays.asList("refs/heads/feature"));
+    assertEquals(index.branchesOf(root), Arrays.asList("refs/heads/feature", "refs/heads/master"));
+  }
+
+  @Test
+  public void shouldClearRemovedBranch() throws Exception {
+    ObjectId root = commit();
+    ObjectId next = commit(root);
+    branch("refs/heads/master", root);
+    branch("refs/heads/feature", next);
+    index.update(repository);
+
+    RefUpdate delete = repository.updateRef("refs/heads/feature");
+    delete.setForceUpdate(true);
+    delete.delete();
+    index.update(repository);
+
+    assertEquals(index.branchesOf(root), Arrays.asList("refs/heads/master"));
+    assertEquals(index.branchesOf(next), emptyList());
+  }
+
+  @Test
+  public void shouldMatchBranchListCommandAfterRandomRefMoves() throws Exception {
+    Random random = new Random(42);
+    List<ObjectId> commits = generateHistory(random, 300, 60);
+    index.update(repository);
+    assertMatchesBranchListCommand(commits);
+
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 10; i++) {
+        ObjectId tip = commits.get(random.nextInt(commits.size()));
+        if (random.nextBoolean()) {
+          tip = commit(tip);
+          commits.add(tip);
+        }
+        branch("refs/heads/branch" + random.nextInt(80), tip);
+      }
+      index.update(repository);
+      assertMatchesBranchListCommand(commits);
+    }
+  }
+
+  @Test
+  public void shouldNotKeepCommitsOfFailedUpdate() throws Exception {
+    ObjectId root = commit();
+    ObjectId next = commit(root);
+    branch("refs/heads/master", next);
+    File rootFile = objectFile(root);
+    byte[] rootContent = Files.readAllBytes(rootFile.toPath());
+    Files.delete(rootFile.toPath());
+    Files.write(rootFile.toPath(), "corrupted".getBytes());
+    try {
+      index.update(repository);
+      fail("Update of repository with corrupted commit must fail");
+    } catch (IOException expected) {
+    }
+
+    Files.write(rootFile.toPath(), rootContent);
+    index.update(repository);
+
+    assertEquals(index.branchesOf(root), Arrays.asList("refs/heads/master"));
+    assertEquals(index.generationOf(next), 2);
+  }
+
+  private void assertMatchesBranchListCommand(List<ObjectId> commits) throws Exception {
+    Git git = new Git(repository);
+    for (ObjectId commit : commits) {
+      assertEquals(index.branchesOf(commit), branchListContaining(git, commit), commit.name());
+    }
+  }
+
+  private static List<String> branchListContaining(Git git, ObjectId commit) throws Exception {
+    return git.branchList()
+        .setListMode(ListMode.ALL)
+        .setContains(commit.name())
+        .call()
+        .stream()
+        .map(ref -> ref.getName())
+        .sorted()
+        .collect(toList());
+  }
+
+  /** Generates history with merges and branches pointing to random commits. */
+  private List<ObjectId> generateHistory(Random random, int size, int branches) throws Exception {
+    List<ObjectId> commits = new ArrayList<>();
+    commits.add(commit());
+    for (int i = 1; i < size; i++) {
+      ObjectId parent = commits.get(Math.max(0, commits.size() - 1 - random.nextInt(10)));
+      if (random.nextInt(10) == 0) {
+        commits.add(commit(parent, commits.get(random.nextInt(commits.size()))));
+      } else {
+        commits.add(commit(parent));
+      }
+    }
+    for (int i = 0; i < branches; i++) {
+      branch("refs/heads/branch" + i, commits.get(random.nextInt(commits.size())));
+    }
+    branch("refs/heads/master", commits.get(commits.size() - 1));
+    return commits;
+  }
+
+  private ObjectId commit(ObjectId... parents) throws Exception {
+    CommitBuilder builder = new CommitBuilder();
+    builder.setTreeId(emptyTree);
+    builder.setParentIds(parents);
+    builder.setAuthor(IDENT);
+    builder.setCommitter(IDENT);
+    builder.setMessage("commit " + System.nanoTime());
+    ObjectId commit = inserter.insert(builder);
+    inserter.flush();
+    return commit;
+  }
+
+  private File objectFile(ObjectId id) {
+    String name = id.name();
+    return new File(
+        repository.getDirectory(), "objects/" + name.substring(0, 2) + "/" + name.substring(2));
+  }
+
+  private void branch(String name, ObjectId commit) throws Exception {
+    try (RevWalk walk = new RevWalk(repository)) {
+      RevCommit revCommit = walk.parseCommit(commit);
+      RefUpdate update = repository.updateRef(name);
+      update.setNewObjectId(revCommit);
+      update.setForceUpdate(true);
+      update.update();
+    }
+  }
+}
@@ -75,6 +75,7 @@ public class JGitConnectionTest {
   @Mock private GitUserResolver userResolver;
   @Mock private EventService eventService;
   @Mock private File directory;
+  @Mock private BranchContainmentIndex branchIndex;
 
   private JGitConnection jGitConnection;
 
@@ -83,7 +84,12 @@ public class JGitConnectionTest {
     jGitConnection =
         spy(
             new JGitConnection(
-                repository, credentialsLoader, sshKeyProvider, eventService, userResolver));
+                repository,
+                credentialsLoader,
+                sshKeyProvider,
+                eventService,
+                userResolver,
+                branchIndex));
 
     RepositoryState repositoryState = mock(RepositoryState.class);
     GitUser gitUser = mock(GitUser.class);
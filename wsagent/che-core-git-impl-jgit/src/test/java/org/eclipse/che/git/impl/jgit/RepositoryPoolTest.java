@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link RepositoryPool} */
+public class RepositoryPoolTest {
+
+  private File directory;
+  private File gitDir;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("repository-pool").toFile();
+    gitDir = new File(directory, Constants.DOT_GIT);
+    try (Repository repository = new FileRepository(gitDir)) {
+      repository.create();
+    }
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void shouldShareRepositoryOfTheSameGitDir() throws Exception {
+    RepositoryPool pool = new RepositoryPool(300);
+
+    Repository first = pool.acquire(gitDir);
+    first.close();
+    Repository second = pool.acquire(new File(directory, "./" + Constants.DOT_GIT));
+
+    assertSame(second, first);
+    assertFalse(RepositoryPool.isClosed(second));
+    assertEquals(pool.getSize(), 1);
+  }
+
+  @Test
+  public void shouldNotPoolNotExistingRepository() throws Exception {
+    RepositoryPool pool = new RepositoryPool(300);
+
+    Repository repository = pool.acquire(new File(directory, "new/" + Constants.DOT_GIT));
+
+    assertEquals(pool.getSize(), 0);
+    repository.close();
+  }
+
+  @Test
+  public void shouldCloseRepositoryOnLastReleaseIfIdleTimeoutIsZero() throws Exception {
+    RepositoryPool pool = new RepositoryPool(0);
+    Repository first = pool.acquire(gitDir);
+    Repository second = pool.acquire(gitDir);
+
+    first.close();
+    assertFalse(RepositoryPool.isClosed(second));
+    assertEquals(pool.getSize(), 1);
+    second.close();
+
+    assertTrue(RepositoryPool.isClosed(second));
+    assertEquals(pool.getSize(), 0);
+  }
+
+  @Test
+  public void shouldEvictOnlyIdleRepositories() throws Exception {
+    RepositoryPool pool = new RepositoryPool(1);
+    Repository repository = pool.acquire(gitDir);
+
+    Thread.sleep(1100);
+    pool.evictIdle();
+    assertFalse(RepositoryPool.isClosed(repository));
+
+    repository.close();
+    pool.evictIdle();
+    assertFalse(RepositoryPool.isClosed(repository));
+
+    Thread.sleep(1100);
+    pool.evictIdle();
+    assertTrue(RepositoryPool.isClosed(repository));
+    assertEquals(pool.getSize(), 0);
+  }
+
+  @Test
+  public void shouldCloseInvalidatedRepositoryWhenReleased() throws Exception {
+    RepositoryPool pool = new RepositoryPool(300);
+    Repository invalidated = pool.acquire(gitDir);
+
+    pool.invalidate(gitDir);
+    Repository fresh = pool.acquire(gitDir);
+
+    assertNotSame(fresh, invalidated);
+    assertFalse(RepositoryPool.isClosed(invalidated));
+    invalidated.close();
+    assertTrue(RepositoryPool.isClosed(invalidated));
+    assertFalse(RepositoryPool.isClosed(fresh));
+  }
+
+  @Test
+  public void shouldNotCloseAcquiredRepositoriesOnConcurrentEvictionAndInvalidation()
+      throws Exception {
+    RepositoryPool pool = new RepositoryPool(0);
+    int threads = 8;
+    int iterations = 2000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean running = new AtomicBoolean(true);
+    try {
+      List<Future<Integer>> workers = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        Callable<Integer> worker =
+            () -> {
+              start.await();
+              int closedWhileAcquired = 0;
+              for (int j = 0; j < iterations; j++) {
+                Repository repository = pool.acquire(gitDir);
+                if (RepositoryPool.isClosed(repository)) {
+                  closedWhileAcquired++;
+                }
+                repository.getRefDatabase();
+                if (RepositoryPool.isClosed(repository)) {
+                  closedWhileAcquired++;
+                }
+                repository.close();
+              }
+              return closedWhileAcquired;
+            };
+        workers.add(executor.submit(worker));
+      }
+      Future<?> invalidator =
+          executor.submit(
+              () -> {
+                start.await();
+                while (running.get()) {
+                  pool.invalidate(gitDir);
+                  pool.evictIdle();
+                }
+                return null;
+              });
+
+      start.countDown();
+      for (Future<Integer> worker : workers) {
+        assertEquals(worker.get(1, TimeUnit.MINUTES).intValue(), 0);
+      }
+      running.set(false);
+      invalidator.get(1, TimeUnit.MINUTES);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    pool.evictIdle();
+    assertEquals(pool.getSize(), 0);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.notification.EventDispatchListener;
+import org.eclipse.che.api.core.notification.EventService;
+
+/**
+ * Provides per event type metrics of the {@link EventService}: the time publishers spend publishing
+ * events and the time subscribers spend processing them.
+ */
+@Singleton
+public class EventServiceMeterBinder implements MeterBinder {
+
+  private final EventService eventService;
+
+  @Inject
+  public EventServiceMeterBinder(EventService eventService) {
+    this.eventService = eventService;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    eventService.setDispatchListener(new TimingDispatchListener(registry));
+  }
+
+  private static class TimingDispatchListener implements EventDispatchListener {
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, Timer> publishTimers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Timer> deliveryTimers = new ConcurrentHashMap<>();
+
+    private TimingDispatchListener(MeterRegistry registry) {
+      this.registry = registry;
+    }
+
+    @Override
+    public void onPublished(Class<?> eventType, long nanos) {
+      publishTimers
+          .computeIfAbsent(
+              eventType,
+              type ->
+                  Timer.builder("che.event.publish")
+                      .tag("area", "event")
+                      .tag("type", type.getName())
+                      .description("The time spent publishing events")
+                      .register(registry))
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onDelivered(Class<?> eventType, long nanos) {
+      deliveryTimers
+          .computeIfAbsent(
+              eventType,
+              type ->
+                  Timer.builder("che.event.subscriber")
+                      .tag("area", "event")
+                      .tag("type", type.getName())
+                      .description("The time event subscribers spent processing events")
+                      .register(registry))
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.impl.ServerSideRequestProcessor;
+
+/** Provides metrics of the JSON RPC request processing queues. */
+@Singleton
+public class JsonRpcRequestProcessorMeterBinder implements MeterBinder {
+
+  private final ServerSideRequestProcessor requestProcessor;
+
+  @Inject
+  public JsonRpcRequestProcessorMeterBinder(ServerSideRequestProcessor requestProcessor) {
+    this.requestProcessor = requestProcessor;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(
+            "che.jsonrpc.requests.queued",
+            requestProcessor,
+            ServerSideRequestProcessor::getQueuedCount)
+        .tag("area", "jsonrpc")
+        .description("The number of JSON RPC requests waiting for processing")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.jsonrpc.requests.rejected",
+            requestProcessor,
+            ServerSideRequestProcessor::getRejectedCount)
+        .tag("area", "jsonrpc")
+        .description("The number of JSON RPC requests rejected because of the queue overflow")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.jsonrpc.requests.wait",
+            requestProcessor,
+            ServerSideRequestProcessor::getProcessedCount,
+            p -> p.getTotalWaitTime(TimeUnit.MILLISECONDS),
+            TimeUnit.MILLISECONDS)
+        .tag("area", "jsonrpc")
+        .description("The time JSON RPC requests spent in the queue before processing")
+        .register(registry);
+  }
+}
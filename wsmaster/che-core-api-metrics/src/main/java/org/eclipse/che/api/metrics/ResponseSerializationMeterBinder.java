@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.everrest.ETagResponseFilter;
+import org.eclipse.che.everrest.SerializationListener;
+
+/**
+ * Provides per entity type metrics of the time spent serializing the JSON responses of the REST
+ * API by the {@link ETagResponseFilter}.
+ */
+@Singleton
+public class ResponseSerializationMeterBinder implements MeterBinder {
+
+  private final ETagResponseFilter eTagResponseFilter;
+
+  @Inject
+  public ResponseSerializationMeterBinder(ETagResponseFilter eTagResponseFilter) {
+    this.eTagResponseFilter = eTagResponseFilter;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    eTagResponseFilter.setSerializationListener(new TimingSerializationListener(registry));
+  }
+
+  private static class TimingSerializationListener implements SerializationListener {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private TimingSerializationListener(MeterRegistry registry) {
+      this.registry = registry;
+    }
+
+    @Override
+    public void onSerialized(String entityType, long nanos) {
+      timers
+          .computeIfAbsent(
+              entityType,
+              type ->
+                  Timer.builder("che.api.response.serialization")
+                      .tag("area", "api")
+                      .tag("type", type)
+                      .description("The time spent serializing JSON responses")
+                      .register(registry))
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.eclipse.che.api.metrics.WorkspaceBinders.withStandardTags;
+import static org.eclipse.che.api.metrics.WorkspaceBinders.workspaceMetric;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.event.ServerReadinessCheckedEvent;
+
+/**
+ * Collects the latency of the readiness checks of the servers of starting workspaces. The timers
+ * are distinguished by the "server" tag which holds the server reference (e.g. "wsagent/http") and
+ * by the "result" tag which tells whether the server became available or not.
+ */
+@Singleton
+public class ServerReadinessMeterBinder implements MeterBinder {
+  private final EventService eventService;
+
+  @Inject
+  public ServerReadinessMeterBinder(EventService eventService) {
+    this.eventService = eventService;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    eventService.subscribe(
+        event ->
+            Timer.builder(workspaceMetric("server.readiness.time"))
+                .tags(
+                    withStandardTags(
+                        "server",
+                        event.getServerRef(),
+                        "result",
+                        event.isAvailable() ? "available" : "unavailable"))
+                .description("The time of the readiness checks of the workspace servers")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(event.getDurationNanos(), TimeUnit.NANOSECONDS),
+        ServerReadinessCheckedEvent.class);
+  }
+}
@@ -11,44 +11,161 @@
  */
 package org.eclipse.che.api.metrics;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.eclipse.che.api.metrics.WorkspaceBinders.withStandardTags;
 import static org.eclipse.che.api.metrics.WorkspaceBinders.workspaceMetric;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.workspace.activity.WorkspaceActivityManager;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** Provides metrics of workspace activity. */
+/**
+ * Provides metrics of workspace activity.
+ *
+ * <p>The number of workspaces in each status is kept in memory and updated on {@link
+ * WorkspaceStatusEvent}s, so that scraping the metrics doesn't query the database. The counts are
+ * periodically replaced with the ones stored by {@link WorkspaceActivityManager} to recover from
+ * the changes which are not published as status events, e.g. creation or removal of workspaces.
+ */
 @Singleton
 public class WorkspaceActivityMeterBinder implements MeterBinder {
 
+  private static final Logger LOG = LoggerFactory.getLogger(WorkspaceActivityMeterBinder.class);
+
   private final WorkspaceActivityManager activityManager;
+  private final EventService eventService;
+  private final Map<WorkspaceStatus, AtomicLong> counts;
+  // the status of the workspace and the time it was entered, stopped workspaces are not tracked
+  private final Map<String, StatusSince> statuses;
+
+  private Timer startTimer;
+  private Timer stopTimer;
+  private Map<WorkspaceStatus, Timer> statusTimers;
 
   @Inject
-  public WorkspaceActivityMeterBinder(WorkspaceActivityManager activityManager) {
+  public WorkspaceActivityMeterBinder(
+      WorkspaceActivityManager activityManager, EventService eventService) {
     this.activityManager = activityManager;
+    this.eventService = eventService;
+    this.counts = new EnumMap<>(WorkspaceStatus.class);
+    for (WorkspaceStatus s : WorkspaceStatus.values()) {
+      counts.put(s, new AtomicLong());
+    }
+    this.statuses = new ConcurrentHashMap<>();
   }
 
   @Override
   public void bindTo(MeterRegistry registry) {
     for (WorkspaceStatus s : WorkspaceStatus.values()) {
-      Gauge.builder(workspaceMetric("status"), () -> count(s))
+      Gauge.builder(workspaceMetric("status"), counts.get(s), c -> Math.max(0, c.get()))
           .tags(withStandardTags("status", s.name()))
           .description("The number of workspaces in a given status")
           .register(registry);
     }
+
+    startTimer =
+        Timer.builder(workspaceMetric("start.time"))
+            .tags(withStandardTags())
+            .description("The time it takes to start a workspace")
+            .publishPercentileHistogram()
+            .register(registry);
+    stopTimer =
+        Timer.builder(workspaceMetric("stop.time"))
+            .tags(withStandardTags())
+            .description("The time it takes to stop a workspace")
+            .publishPercentileHistogram()
+            .register(registry);
+    statusTimers = new EnumMap<>(WorkspaceStatus.class);
+    for (WorkspaceStatus s : WorkspaceStatus.values()) {
+      if (s == WorkspaceStatus.STOPPED) {
+        continue;
+      }
+      statusTimers.put(
+          s,
+          Timer.builder(workspaceMetric("status.time"))
+              .tags(withStandardTags("status", s.name()))
+              .description("The time workspaces spend in a given status")
+              .publishPercentileHistogram()
+              .register(registry));
+    }
+
+    // only subscribe to the event once we have the timers ready
+    eventService.subscribe(this::onStatusChanged, WorkspaceStatusEvent.class);
+  }
+
+  /** Replaces the in-memory counts with the ones stored in the database. */
+  @VisibleForTesting
+  @ScheduleDelay(
+      initialDelay = 0,
+      delayParameterName = "che.metrics.workspace_status_reconcile_period_min",
+      unit = MINUTES)
+  void reconcile() {
+    long now = System.currentTimeMillis();
+    for (WorkspaceStatus s : WorkspaceStatus.values()) {
+      try {
+        counts.get(s).set(activityManager.countWorkspacesInStatus(s, now));
+      } catch (ServerException e) {
+        LOG.warn(
+            "Failed to count workspaces in status '{}'. Cause: {}", s.name(), e.getMessage(), e);
+      }
+    }
+  }
+
+  private void onStatusChanged(WorkspaceStatusEvent event) {
+    WorkspaceStatus status = event.getStatus();
+    WorkspaceStatus prevStatus = event.getPrevStatus();
+    if (prevStatus != null) {
+      counts.get(prevStatus).decrementAndGet();
+    }
+    counts.get(status).incrementAndGet();
+
+    long now = System.nanoTime();
+    StatusSince previous =
+        status == WorkspaceStatus.STOPPED
+            ? statuses.remove(event.getWorkspaceId())
+            : statuses.put(event.getWorkspaceId(), new StatusSince(status, now));
+    if (previous == null) {
+      // the workspace entered its previous status before the binder was initialized
+      return;
+    }
+
+    long duration = now - previous.since;
+    Timer statusTimer = statusTimers.get(previous.status);
+    if (statusTimer != null) {
+      statusTimer.record(duration, TimeUnit.NANOSECONDS);
+    }
+    if (previous.status == WorkspaceStatus.STARTING && status == WorkspaceStatus.RUNNING) {
+      startTimer.record(duration, TimeUnit.NANOSECONDS);
+    } else if (previous.status == WorkspaceStatus.STOPPING && status == WorkspaceStatus.STOPPED) {
+      stopTimer.record(duration, TimeUnit.NANOSECONDS);
+    }
   }
 
-  private double count(WorkspaceStatus status) {
-    try {
-      return activityManager.countWorkspacesInStatus(status, System.currentTimeMillis());
-    } catch (ServerException e) {
-      return Double.NaN;
+  private static class StatusSince {
+
+    private final WorkspaceStatus status;
+    private final long since;
+
+    private StatusSince(WorkspaceStatus status, long since) {
+      this.status = status;
+      this.since = since;
     }
   }
 }
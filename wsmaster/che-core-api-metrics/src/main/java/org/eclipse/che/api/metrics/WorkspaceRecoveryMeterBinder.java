@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.eclipse.che.api.metrics.WorkspaceBinders.withStandardTags;
+import static org.eclipse.che.api.metrics.WorkspaceBinders.workspaceMetric;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.workspace.server.RuntimeRecoveryProgress;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
+
+/** Provides metrics of the recovery of workspace runtimes on the start of Che Server. */
+@Singleton
+public class WorkspaceRecoveryMeterBinder implements MeterBinder {
+
+  private final RuntimeRecoveryProgress progress;
+
+  @Inject
+  public WorkspaceRecoveryMeterBinder(WorkspaceRuntimes runtimes) {
+    this.progress = runtimes.getRecoveryProgress();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(workspaceMetric("recovery.recovered"), progress::getRecovered)
+        .tags(withStandardTags())
+        .description("The number of recovered workspace runtimes")
+        .register(registry);
+    Gauge.builder(workspaceMetric("recovery.failed"), progress::getFailed)
+        .tags(withStandardTags())
+        .description("The number of workspace runtimes which failed to be recovered")
+        .register(registry);
+    Gauge.builder(workspaceMetric("recovery.remaining"), progress::getRemaining)
+        .tags(withStandardTags())
+        .description("The number of workspace runtimes waiting for recovery")
+        .register(registry);
+    FunctionTimer.builder(
+            workspaceMetric("recovery.time"),
+            progress,
+            RuntimeRecoveryProgress::getProcessed,
+            RuntimeRecoveryProgress::getTotalTimeNanos,
+            TimeUnit.NANOSECONDS)
+        .tags(withStandardTags())
+        .description("The time spent recovering workspace runtimes")
+        .register(registry);
+  }
+}
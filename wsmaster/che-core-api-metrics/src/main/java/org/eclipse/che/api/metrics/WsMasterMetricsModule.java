@@ -28,5 +28,10 @@ public class WsMasterMetricsModule extends AbstractModule {
 
     meterMultibinder.addBinding().to(WorkspaceActivityMeterBinder.class);
     meterMultibinder.addBinding().to(WorkspaceFailureMeterBinder.class);
+    meterMultibinder.addBinding().to(WorkspaceRecoveryMeterBinder.class);
+    meterMultibinder.addBinding().to(ServerReadinessMeterBinder.class);
+    meterMultibinder.addBinding().to(JsonRpcRequestProcessorMeterBinder.class);
+    meterMultibinder.addBinding().to(EventServiceMeterBinder.class);
+    meterMultibinder.addBinding().to(ResponseSerializationMeterBinder.class);
   }
 }
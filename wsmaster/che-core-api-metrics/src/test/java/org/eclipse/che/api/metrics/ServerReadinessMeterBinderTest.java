@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.workspace.server.event.ServerReadinessCheckedEvent;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ServerReadinessMeterBinderTest {
+
+  private MeterRegistry registry;
+  private EventSubscriber<ServerReadinessCheckedEvent> events;
+
+  @BeforeMethod
+  public void setup() {
+    registry = new SimpleMeterRegistry();
+
+    EventService eventService = mock(EventService.class);
+
+    new ServerReadinessMeterBinder(eventService).bindTo(registry);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<EventSubscriber<ServerReadinessCheckedEvent>> eventCaptor =
+        ArgumentCaptor.forClass(EventSubscriber.class);
+
+    verify(eventService).subscribe(eventCaptor.capture(), eq(ServerReadinessCheckedEvent.class));
+
+    events = eventCaptor.getValue();
+  }
+
+  @Test
+  public void shouldRecordReadinessCheckTimePerServer() {
+    RuntimeIdentity identity = mock(RuntimeIdentity.class);
+
+    events.onEvent(
+        new ServerReadinessCheckedEvent(
+            identity, "dev", "wsagent/http", true, TimeUnit.SECONDS.toNanos(3)));
+    events.onEvent(
+        new ServerReadinessCheckedEvent(
+            identity, "dev", "wsagent/http", true, TimeUnit.SECONDS.toNanos(5)));
+    events.onEvent(
+        new ServerReadinessCheckedEvent(
+            identity, "dev", "terminal", false, TimeUnit.SECONDS.toNanos(180)));
+
+    Timer wsAgent =
+        registry
+            .find("che.workspace.server.readiness.time")
+            .tags("server", "wsagent/http", "result", "available")
+            .timer();
+    Timer terminal =
+        registry
+            .find("che.workspace.server.readiness.time")
+            .tags("server", "terminal", "result", "unavailable")
+            .timer();
+
+    assertEquals(wsAgent.count(), 2);
+    assertEquals(wsAgent.totalTime(TimeUnit.SECONDS), 8d);
+    assertEquals(terminal.count(), 1);
+    assertNull(
+        registry
+            .find("che.workspace.server.readiness.time")
+            .tags("server", "terminal", "result", "available")
+            .timer());
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.workspace.activity.WorkspaceActivityManager;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class WorkspaceActivityMeterBinderTest {
+
+  private WorkspaceActivityManager activityManager;
+  private MeterRegistry registry;
+  private WorkspaceActivityMeterBinder meterBinder;
+  private EventSubscriber<WorkspaceStatusEvent> events;
+
+  @BeforeMethod
+  public void setup() {
+    registry = new SimpleMeterRegistry();
+    activityManager = mock(WorkspaceActivityManager.class);
+    EventService eventService = mock(EventService.class);
+
+    meterBinder = new WorkspaceActivityMeterBinder(activityManager, eventService);
+    meterBinder.bindTo(registry);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<EventSubscriber<WorkspaceStatusEvent>> statusChangeEventCaptor =
+        ArgumentCaptor.forClass(EventSubscriber.class);
+    verify(eventService)
+        .subscribe(statusChangeEventCaptor.capture(), eq(WorkspaceStatusEvent.class));
+    events = statusChangeEventCaptor.getValue();
+  }
+
+  @Test
+  public void shouldNotQueryDatabaseWhenStatusGaugesAreRead() throws Exception {
+    statusGauge(RUNNING);
+
+    verify(activityManager, never()).countWorkspacesInStatus(eq(RUNNING), anyLong());
+  }
+
+  @Test
+  public void shouldReplaceStatusCountsWithStoredOnReconcile() throws Exception {
+    when(activityManager.countWorkspacesInStatus(eq(RUNNING), anyLong())).thenReturn(3L);
+    when(activityManager.countWorkspacesInStatus(eq(STOPPED), anyLong())).thenReturn(7L);
+
+    meterBinder.reconcile();
+
+    assertEquals(statusGauge(RUNNING), 3d);
+    assertEquals(statusGauge(STOPPED), 7d);
+    assertEquals(statusGauge(STARTING), 0d);
+  }
+
+  @Test
+  public void shouldUpdateStatusCountsOnStatusChanges() throws Exception {
+    when(activityManager.countWorkspacesInStatus(eq(STOPPED), anyLong())).thenReturn(2L);
+    meterBinder.reconcile();
+
+    events.onEvent(statusChanged("1", STOPPED, STARTING));
+    events.onEvent(statusChanged("2", STOPPED, STARTING));
+    events.onEvent(statusChanged("1", STARTING, RUNNING));
+
+    assertEquals(statusGauge(STOPPED), 0d);
+    assertEquals(statusGauge(STARTING), 1d);
+    assertEquals(statusGauge(RUNNING), 1d);
+  }
+
+  @Test
+  public void shouldRecordStartStopAndStatusTimes() {
+    events.onEvent(statusChanged("1", STOPPED, STARTING));
+    events.onEvent(statusChanged("1", STARTING, RUNNING));
+    events.onEvent(statusChanged("1", RUNNING, STOPPING));
+    events.onEvent(statusChanged("1", STOPPING, STOPPED));
+
+    assertEquals(registry.get("che.workspace.start.time").timer().count(), 1);
+    assertEquals(registry.get("che.workspace.stop.time").timer().count(), 1);
+    for (WorkspaceStatus s : new WorkspaceStatus[] {STARTING, RUNNING, STOPPING}) {
+      assertEquals(
+          registry.get("che.workspace.status.time").tag("status", s.name()).timer().count(), 1);
+    }
+  }
+
+  @Test
+  public void shouldNotRecordStartTimeOfWorkspaceStartedBeforeInitialization() {
+    events.onEvent(statusChanged("1", STARTING, RUNNING));
+
+    assertEquals(registry.get("che.workspace.start.time").timer().count(), 0);
+  }
+
+  @Test
+  public void shouldNotRecordStartTimeWhenStartFailed() {
+    events.onEvent(statusChanged("1", STOPPED, STARTING));
+    events.onEvent(statusChanged("1", STARTING, STOPPED));
+
+    assertEquals(registry.get("che.workspace.start.time").timer().count(), 0);
+    assertEquals(
+        registry.get("che.workspace.status.time").tag("status", STARTING.name()).timer().count(),
+        1);
+  }
+
+  private double statusGauge(WorkspaceStatus status) {
+    return registry.get("che.workspace.status").tag("status", status.name()).gauge().value();
+  }
+
+  private static WorkspaceStatusEvent statusChanged(
+      String workspaceId, WorkspaceStatus prevStatus, WorkspaceStatus status) {
+    return DtoFactory.newDto(WorkspaceStatusEvent.class)
+        .withWorkspaceId(workspaceId)
+        .withPrevStatus(prevStatus)
+        .withStatus(status);
+  }
+}
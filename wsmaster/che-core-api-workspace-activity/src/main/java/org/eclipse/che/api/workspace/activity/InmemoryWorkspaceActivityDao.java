@@ -40,6 +40,11 @@ public class InmemoryWorkspaceActivityDao implements WorkspaceActivityDao {
     findActivity(workspaceId).setExpiration(expirationTime);
   }
 
+  @Override
+  public void setExpirationTimes(Map<String, Long> expirationTimes) {
+    expirationTimes.forEach(this::setExpirationTime);
+  }
+
   @Override
   public void removeExpiration(String workspaceId) {
     findActivity(workspaceId).setExpiration(null);
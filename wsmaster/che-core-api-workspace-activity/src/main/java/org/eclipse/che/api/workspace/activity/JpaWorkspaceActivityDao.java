@@ -13,14 +13,20 @@ package org.eclipse.che.api.workspace.activity;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.Lists;
 import com.google.inject.persist.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
@@ -33,6 +39,9 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 @Singleton
 public class JpaWorkspaceActivityDao implements WorkspaceActivityDao {
 
+  /** Maximum number of workspaces whose expiration times are updated by a single statement */
+  private static final int EXPIRATION_BATCH_SIZE = 100;
+
   @Inject private Provider<EntityManager> managerProvider;
 
   @Override
@@ -46,6 +55,58 @@ public class JpaWorkspaceActivityDao implements WorkspaceActivityDao {
     doUpdate(workspaceId, a -> a.setExpiration(expirationTime));
   }
 
+  @Override
+  @Transactional(rollbackOn = ServerException.class)
+  public void setExpirationTimes(Map<String, Long> expirationTimes) throws ServerException {
+    try {
+      EntityManager em = managerProvider.get();
+      List<String> workspaceIds = new ArrayList<>(expirationTimes.keySet());
+      for (List<String> batch : Lists.partition(workspaceIds, EXPIRATION_BATCH_SIZE)) {
+        Set<String> existing =
+            new HashSet<>(
+                em.createNamedQuery("WorkspaceActivity.getExistingIds", String.class)
+                    .setParameter("workspaceIds", batch)
+                    .getResultList());
+        if (!existing.isEmpty()) {
+          updateExpirations(em, existing, expirationTimes);
+        }
+        for (String workspaceId : batch) {
+          if (!existing.contains(workspaceId)) {
+            WorkspaceActivity activity = new WorkspaceActivity();
+            activity.setWorkspaceId(workspaceId);
+            activity.setExpiration(expirationTimes.get(workspaceId));
+            em.persist(activity);
+          }
+        }
+      }
+      em.flush();
+      // bulk updates bypass the persistence context
+      em.getEntityManagerFactory().getCache().evict(WorkspaceActivity.class);
+    } catch (RuntimeException x) {
+      throw new ServerException(x.getLocalizedMessage(), x);
+    }
+  }
+
+  /** Updates expiration times of the existing activities with a single statement. */
+  private void updateExpirations(
+      EntityManager em, Set<String> workspaceIds, Map<String, Long> expirationTimes) {
+    StringBuilder jpql =
+        new StringBuilder("UPDATE WorkspaceActivity a SET a.expiration = CASE a.workspaceId");
+    for (int i = 0; i < workspaceIds.size(); i++) {
+      jpql.append(" WHEN :id").append(i).append(" THEN :expiration").append(i);
+    }
+    jpql.append(" ELSE a.expiration END WHERE a.workspaceId IN :workspaceIds");
+
+    Query update = em.createQuery(jpql.toString()).setParameter("workspaceIds", workspaceIds);
+    int i = 0;
+    for (String workspaceId : workspaceIds) {
+      update.setParameter("id" + i, workspaceId);
+      update.setParameter("expiration" + i, expirationTimes.get(workspaceId));
+      i++;
+    }
+    update.executeUpdate();
+  }
+
   @Override
   public void removeExpiration(String workspaceId) throws ServerException {
     requireNonNull(workspaceId, "Required non-null workspace id");
@@ -12,6 +12,7 @@
 package org.eclipse.che.api.workspace.activity;
 
 import java.util.List;
+import java.util.Map;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
@@ -44,6 +45,15 @@ public interface WorkspaceActivityDao {
    */
   void setExpirationTime(String workspaceId, long expirationTime) throws ServerException;
 
+  /**
+   * Sets expiration times of several workspaces at once.
+   *
+   * @param expirationTimes the new expiration times mapped by the ids of the workspaces
+   * @throws ServerException when operation failed
+   * @see #setExpirationTime(String, long)
+   */
+  void setExpirationTimes(Map<String, Long> expirationTimes) throws ServerException;
+
   /**
    * Removes workspace expiration time (basically used on ws stop).
    *
@@ -12,12 +12,18 @@
 package org.eclipse.che.api.workspace.activity;
 
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOPPED_BY;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOP_REASON;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -48,6 +54,14 @@ import org.slf4j.LoggerFactory;
  * one minute rate. If workspace idle timeout is negative, then workspace would not be stopped
  * automatically.
  *
+ * <p>Expiration times are not written to the storage on every activity. They are buffered in memory
+ * and written in bulk once per {@code che.workspace.activity_flush_period_ms}, only the latest
+ * expiration time of each workspace is written. The buffer is flushed before searching for the
+ * expired workspaces. Only the local buffer is flushed though, so when several instances share the
+ * storage, the activity buffered by another instance is seen up to the flush period late and its
+ * workspace may be stopped if it was about to expire. A non positive flush period disables
+ * buffering.
+ *
  * @author Anton Korneta
  */
 @Singleton
@@ -60,11 +74,15 @@ public class WorkspaceActivityManager {
   private static final String ACTIVITY_CHECKER = "activity-checker";
 
   private final long defaultTimeout;
+  private final long flushPeriodMs;
   private final WorkspaceActivityDao activityDao;
   private final EventService eventService;
   private final EventSubscriber<WorkspaceStatusEvent> updateStatusChangedTimestampSubscriber;
   private final EventSubscriber<WorkspaceCreatedEvent> setCreatedTimestampSubscriber;
   private final EventSubscriber<BeforeWorkspaceRemovedEvent> workspaceActivityRemover;
+  private final Map<String, Long> pendingExpirations = new ConcurrentHashMap<>();
+  /** Prevents flushing of an expiration that is concurrently removed. */
+  private final Object flushLock = new Object();
 
   protected final WorkspaceManager workspaceManager;
 
@@ -73,11 +91,13 @@ public class WorkspaceActivityManager {
       WorkspaceManager workspaceManager,
       WorkspaceActivityDao activityDao,
       EventService eventService,
-      @Named("che.limits.workspace.idle.timeout") long timeout) {
+      @Named("che.limits.workspace.idle.timeout") long timeout,
+      @Named("che.workspace.activity_flush_period_ms") long flushPeriodMs) {
     this.workspaceManager = workspaceManager;
     this.eventService = eventService;
     this.activityDao = activityDao;
     this.defaultTimeout = timeout;
+    this.flushPeriodMs = flushPeriodMs;
     if (timeout > 0 && timeout < MINIMAL_TIMEOUT) {
       LOG.warn(
           "Value of property \"che.limits.workspace.idle.timeout\" is below recommended minimum ("
@@ -105,6 +125,9 @@ public class WorkspaceActivityManager {
         new CascadeEventSubscriber<BeforeWorkspaceRemovedEvent>() {
           @Override
           public void onCascadeEvent(BeforeWorkspaceRemovedEvent event) throws Exception {
+            synchronized (flushLock) {
+              pendingExpirations.remove(event.getWorkspace().getId());
+            }
             activityDao.removeActivity(event.getWorkspace().getId());
           }
         };
@@ -130,13 +153,30 @@ public class WorkspaceActivityManager {
     try {
       long timeout = getIdleTimeout(wsId);
       if (timeout > 0) {
-        activityDao.setExpirationTime(wsId, activityTime + timeout);
+        if (flushPeriodMs > 0) {
+          pendingExpirations.merge(wsId, activityTime + timeout, Math::max);
+        } else {
+          activityDao.setExpirationTime(wsId, activityTime + timeout);
+        }
       }
     } catch (ServerException e) {
       LOG.error(e.getLocalizedMessage(), e);
     }
   }
 
+  /**
+   * Update the expiry period of several workspaces.
+   *
+   * @param wsIds active workspaces identifiers
+   * @param activityTime moment in which the activity occurred
+   * @see #update(String, long)
+   */
+  public void update(Collection<String> wsIds, long activityTime) {
+    for (String wsId : wsIds) {
+      update(wsId, activityTime);
+    }
+  }
+
   /**
    * Finds workspaces that have been in the provided status since before the provided time.
    *
@@ -162,17 +202,58 @@ public class WorkspaceActivityManager {
     return defaultTimeout;
   }
 
+  /** Writes the buffered expiration times to the storage. */
+  @VisibleForTesting
+  @PreDestroy
+  @ScheduleDelay(
+      initialDelayParameterName = "che.workspace.activity_flush_period_ms",
+      delayParameterName = "che.workspace.activity_flush_period_ms",
+      unit = MILLISECONDS)
+  void flushExpirations() {
+    synchronized (flushLock) {
+      if (pendingExpirations.isEmpty()) {
+        return;
+      }
+      Map<String, Long> batch = new HashMap<>(pendingExpirations);
+      try {
+        activityDao.setExpirationTimes(batch);
+      } catch (ServerException e) {
+        // expirations stay in the buffer till the next flush
+        LOG.error("Failed to write expiration times of {} workspaces", batch.size(), e);
+        return;
+      }
+      // expirations updated during the write are flushed next time
+      batch.forEach(pendingExpirations::remove);
+    }
+  }
+
+  @VisibleForTesting
   @ScheduleDelay(
       initialDelayParameterName = "che.workspace.activity_check_scheduler_delay_s",
       delayParameterName = "che.workspace.activity_check_scheduler_period_s")
-  private void invalidate() {
+  void invalidate() {
+    flushExpirations();
     try {
-      activityDao.findExpired(System.currentTimeMillis()).forEach(this::stopExpired);
+      long now = System.currentTimeMillis();
+      for (String workspaceId : activityDao.findExpired(now)) {
+        Long pending = pendingExpirations.get(workspaceId);
+        // activity may be reported after the flush
+        if (pending == null || pending < now) {
+          stopExpired(workspaceId);
+        }
+      }
     } catch (ServerException e) {
       LOG.error(e.getLocalizedMessage(), e);
     }
   }
 
+  private void removeExpiration(String workspaceId) throws ServerException {
+    synchronized (flushLock) {
+      pendingExpirations.remove(workspaceId);
+      activityDao.removeExpiration(workspaceId);
+    }
+  }
+
   private void stopExpired(String workspaceId) {
     try {
       Workspace workspace = workspaceManager.getWorkspace(workspaceId);
@@ -189,7 +270,7 @@ public class WorkspaceActivityManager {
       LOG.debug(ex.getLocalizedMessage(), ex);
     } finally {
       try {
-        activityDao.removeExpiration(workspaceId);
+        removeExpiration(workspaceId);
       } catch (ServerException e) {
         LOG.error(e.getLocalizedMessage(), e);
       }
@@ -231,7 +312,7 @@ public class WorkspaceActivityManager {
           break;
         case STOPPED:
           try {
-            activityDao.removeExpiration(workspaceId);
+            removeExpiration(workspaceId);
           } catch (ServerException e) {
             LOG.error(e.getLocalizedMessage(), e);
           }
@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.api.workspace.activity;
 
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
 
 import com.google.common.annotations.Beta;
@@ -18,8 +19,11 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
@@ -39,6 +43,7 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.rest.Service;
 import org.eclipse.che.api.core.rest.annotations.Required;
 import org.eclipse.che.api.workspace.server.WorkspaceManager;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,12 +61,16 @@ public class WorkspaceActivityService extends Service {
 
   private final WorkspaceActivityManager workspaceActivityManager;
   private final WorkspaceManager workspaceManager;
+  private final WorkspaceRuntimes workspaceRuntimes;
 
   @Inject
   public WorkspaceActivityService(
-      WorkspaceActivityManager workspaceActivityManager, WorkspaceManager wsManager) {
+      WorkspaceActivityManager workspaceActivityManager,
+      WorkspaceManager wsManager,
+      WorkspaceRuntimes workspaceRuntimes) {
     this.workspaceActivityManager = workspaceActivityManager;
     this.workspaceManager = wsManager;
+    this.workspaceRuntimes = workspaceRuntimes;
   }
 
   @PUT
@@ -79,6 +88,29 @@ public class WorkspaceActivityService extends Service {
     }
   }
 
+  @PUT
+  @Consumes(MediaType.APPLICATION_JSON)
+  @ApiOperation(
+      value = "Notifies activity of several workspaces",
+      notes =
+          "Notifies activity of several workspaces at once to prevent their stop by timeout."
+              + " Workspaces that are not running or do not exist are ignored.")
+  @ApiResponses({
+    @ApiResponse(code = 204, message = "Activity counted"),
+    @ApiResponse(code = 400, message = "Workspace ids are not provided")
+  })
+  public void activeAll(@ApiParam(value = "Workspace ids", required = true) List<String> wsIds)
+      throws BadRequestException, ServerException {
+    if (wsIds == null || wsIds.isEmpty()) {
+      throw new BadRequestException("Workspace ids required");
+    }
+    // statuses of all the runtimes are read at once instead of loading each of the workspaces
+    Set<String> runningIds = workspaceRuntimes.getRunning();
+    List<String> running = wsIds.stream().filter(runningIds::contains).distinct().collect(toList());
+    workspaceActivityManager.update(running, System.currentTimeMillis());
+    LOG.debug("Updated activity on {} workspaces", running.size());
+  }
+
   @Beta
   @GET
   @ApiOperation("Retrieves the IDs of workspaces that have been in given state.")
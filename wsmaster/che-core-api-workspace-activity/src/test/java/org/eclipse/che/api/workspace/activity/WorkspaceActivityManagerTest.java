@@ -15,15 +15,20 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.AssertJUnit.assertEquals;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
 import java.util.stream.Stream;
 import org.eclipse.che.account.shared.model.Account;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
@@ -37,6 +42,7 @@ import org.eclipse.che.api.workspace.shared.event.WorkspaceCreatedEvent;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -68,7 +74,7 @@ public class WorkspaceActivityManagerTest {
   private void setUp() throws Exception {
     activityManager =
         new WorkspaceActivityManager(
-            workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT);
+            workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT, 0);
 
     lenient().when(account.getName()).thenReturn("accountName");
     lenient().when(account.getId()).thenReturn("account123");
@@ -88,6 +94,73 @@ public class WorkspaceActivityManagerTest {
         .setExpirationTime(eq(wsId), eq(activityTime + DEFAULT_TIMEOUT));
   }
 
+  @Test
+  public void shouldBufferExpirationsTillFlush() throws Exception {
+    activityManager = createBufferingManager();
+
+    activityManager.update("ws-1", 1000L);
+    activityManager.update("ws-1", 3000L);
+    activityManager.update("ws-1", 2000L);
+    activityManager.update(Arrays.asList("ws-2", "ws-3"), 1000L);
+    verify(workspaceActivityDao, never()).setExpirationTime(anyString(), anyLong());
+
+    activityManager.flushExpirations();
+
+    verify(workspaceActivityDao)
+        .setExpirationTimes(
+            ImmutableMap.of(
+                "ws-1", 3000L + DEFAULT_TIMEOUT,
+                "ws-2", 1000L + DEFAULT_TIMEOUT,
+                "ws-3", 1000L + DEFAULT_TIMEOUT));
+  }
+
+  @Test
+  public void shouldKeepBufferedExpirationsIfFlushFailed() throws Exception {
+    activityManager = createBufferingManager();
+    activityManager.update("ws-1", 1000L);
+    doThrow(new ServerException("failed"))
+        .doNothing()
+        .when(workspaceActivityDao)
+        .setExpirationTimes(any());
+
+    activityManager.flushExpirations();
+    activityManager.flushExpirations();
+    activityManager.flushExpirations();
+
+    verify(workspaceActivityDao, times(2))
+        .setExpirationTimes(ImmutableMap.of("ws-1", 1000L + DEFAULT_TIMEOUT));
+  }
+
+  @Test
+  public void shouldFlushExpirationsBeforeSearchingExpiredWorkspaces() throws Exception {
+    activityManager = createBufferingManager();
+    activityManager.update("ws-1", 1000L);
+
+    activityManager.invalidate();
+
+    InOrder inOrder = inOrder(workspaceActivityDao);
+    inOrder
+        .verify(workspaceActivityDao)
+        .setExpirationTimes(ImmutableMap.of("ws-1", 1000L + DEFAULT_TIMEOUT));
+    inOrder.verify(workspaceActivityDao).findExpired(anyLong());
+  }
+
+  @Test
+  public void shouldNotFlushExpirationOfStoppedWorkspace() throws Exception {
+    activityManager = createBufferingManager();
+    activityManager.update("ws-1", 1000L);
+    final EventSubscriber<WorkspaceStatusEvent> subscriber = subscribeAndGetStatusEventSubscriber();
+
+    subscriber.onEvent(
+        DtoFactory.newDto(WorkspaceStatusEvent.class)
+            .withStatus(WorkspaceStatus.STOPPED)
+            .withWorkspaceId("ws-1"));
+    activityManager.flushExpirations();
+
+    verify(workspaceActivityDao).removeExpiration("ws-1");
+    verify(workspaceActivityDao, never()).setExpirationTimes(any());
+  }
+
   @Test
   public void shouldAddWorkspaceForTrackActivityWhenWorkspaceRunning() throws Exception {
     final String wsId = "testWsId";
@@ -178,6 +251,11 @@ public class WorkspaceActivityManagerTest {
         .toArray(Object[][]::new);
   }
 
+  private WorkspaceActivityManager createBufferingManager() {
+    return new WorkspaceActivityManager(
+        workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT, 5_000);
+  }
+
   private EventSubscriber<WorkspaceStatusEvent> subscribeAndGetStatusEventSubscriber() {
     subscribeToEventService();
     return statusChangeEventCaptor.getValue();
@@ -12,6 +12,7 @@
 package org.eclipse.che.api.workspace.activity;
 
 import static com.jayway.restassured.RestAssured.given;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +25,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 
+import com.google.common.collect.ImmutableSet;
 import com.jayway.restassured.response.Response;
 import java.net.URI;
 import org.eclipse.che.account.spi.AccountImpl;
@@ -34,6 +36,7 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.rest.ApiExceptionMapper;
 import org.eclipse.che.api.workspace.server.WorkspaceManager;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.commons.env.EnvironmentContext;
@@ -72,13 +75,15 @@ public class WorkspaceActivityServiceTest {
 
   @Mock private WorkspaceManager workspaceManager;
 
+  @Mock private WorkspaceRuntimes workspaceRuntimes;
+
   @SuppressWarnings({"FieldCanBeLocal", "unused"})
   private WorkspaceActivityService workspaceActivityService;
 
   @BeforeMethod
   public void setUp() {
     workspaceActivityService =
-        new WorkspaceActivityService(workspaceActivityManager, workspaceManager);
+        new WorkspaceActivityService(workspaceActivityManager, workspaceManager, workspaceRuntimes);
   }
 
   @Test
@@ -109,6 +114,34 @@ public class WorkspaceActivityServiceTest {
     verifyZeroInteractions(workspaceActivityManager);
   }
 
+  @Test
+  public void shouldUpdateActivityOfRunningWorkspacesOnly() throws Exception {
+    // given
+    when(workspaceRuntimes.getRunning()).thenReturn(ImmutableSet.of("ws-1", "ws-4"));
+
+    // when
+    Response response =
+        given()
+            .contentType("application/json")
+            .body(asList("ws-1", "ws-2", "ws-3"))
+            .when()
+            .put(SERVICE_PATH);
+
+    // then
+    assertEquals(response.getStatusCode(), 204);
+    verify(workspaceActivityManager).update(eq(singletonList("ws-1")), anyLong());
+    verifyZeroInteractions(workspaceManager);
+  }
+
+  @Test
+  public void shouldRequireWorkspaceIdsForBulkActivityUpdate() {
+    Response response =
+        given().contentType("application/json").body(emptyList()).when().put(SERVICE_PATH);
+
+    assertEquals(response.getStatusCode(), 400);
+    verifyZeroInteractions(workspaceActivityManager);
+  }
+
   @Test
   public void shouldRequireStatusParameterForActivityQueries() {
     Response response = given().when().get(URI.create(SERVICE_PATH));
@@ -16,6 +16,7 @@ import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertEqualsNoOrder;
 import static org.testng.Assert.assertTrue;
 
 import com.google.common.collect.ImmutableList;
@@ -136,6 +137,20 @@ public class WorkspaceActivityDaoTest {
     assertEquals(found, expected);
   }
 
+  @Test(dependsOnMethods = "shouldFindExpirationsByTimestamp")
+  public void shouldUpdateSeveralExpirations() throws Exception {
+    Map<String, Long> expirations = new HashMap<>();
+    expirations.put(activities[0].getWorkspaceId(), 3_000_000L);
+    expirations.put(activities[2].getWorkspaceId(), 1_750_000L);
+
+    workspaceActivityDao.setExpirationTimes(expirations);
+
+    List<String> found = workspaceActivityDao.findExpired(2_500_000);
+    assertEqualsNoOrder(
+        found.toArray(),
+        new Object[] {activities[1].getWorkspaceId(), activities[2].getWorkspaceId()});
+  }
+
   @Test(dependsOnMethods = {"shouldFindExpirationsByTimestamp", "shouldRemoveExpirationsByWsId"})
   public void shouldAddExpirations() throws Exception {
 
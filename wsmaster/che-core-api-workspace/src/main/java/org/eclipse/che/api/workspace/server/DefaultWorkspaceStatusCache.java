@@ -11,19 +11,27 @@
  */
 package org.eclipse.che.api.workspace.server;
 
+import static java.util.Collections.emptyMap;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 
 /**
  * Default implementation of {@link WorkspaceStatusCache} based on {@link ConcurrentHashMap}.
+ * Snapshots are built lazily, at most once per status transition.
  *
  * @author Anton Korneta
  */
 public class DefaultWorkspaceStatusCache implements WorkspaceStatusCache {
 
   private final ConcurrentHashMap<String, WorkspaceStatus> delegate = new ConcurrentHashMap<>();
+  /** Incremented after each change of the statuses. */
+  private final AtomicLong version = new AtomicLong();
+
+  private volatile WorkspaceStatusSnapshot snapshot = new WorkspaceStatusSnapshot(0, emptyMap());
 
   @Override
   public WorkspaceStatus get(String workspaceId) {
@@ -32,27 +40,55 @@ public class DefaultWorkspaceStatusCache implements WorkspaceStatusCache {
 
   @Override
   public WorkspaceStatus replace(String workspaceId, WorkspaceStatus newStatus) {
-    return delegate.replace(workspaceId, newStatus);
+    WorkspaceStatus previous = delegate.replace(workspaceId, newStatus);
+    if (previous != null) {
+      version.incrementAndGet();
+    }
+    return previous;
   }
 
   @Override
   public boolean replace(
       String workspaceId, WorkspaceStatus prevStatus, WorkspaceStatus newStatus) {
-    return delegate.replace(workspaceId, prevStatus, newStatus);
+    boolean replaced = delegate.replace(workspaceId, prevStatus, newStatus);
+    if (replaced) {
+      version.incrementAndGet();
+    }
+    return replaced;
   }
 
   @Override
   public WorkspaceStatus remove(String workspaceId) {
-    return delegate.remove(workspaceId);
+    WorkspaceStatus removed = delegate.remove(workspaceId);
+    if (removed != null) {
+      version.incrementAndGet();
+    }
+    return removed;
   }
 
   @Override
   public WorkspaceStatus putIfAbsent(String workspaceId, WorkspaceStatus status) {
-    return delegate.putIfAbsent(workspaceId, status);
+    WorkspaceStatus existing = delegate.putIfAbsent(workspaceId, status);
+    if (existing == null) {
+      version.incrementAndGet();
+    }
+    return existing;
   }
 
   @Override
   public Map<String, WorkspaceStatus> asMap() {
     return new HashMap<>(delegate);
   }
+
+  @Override
+  public WorkspaceStatusSnapshot snapshot() {
+    WorkspaceStatusSnapshot current = snapshot;
+    // version is read before copying, so the snapshot contains at least the changes it counts
+    long currentVersion = version.get();
+    if (current.getVersion() != currentVersion) {
+      current = new WorkspaceStatusSnapshot(currentVersion, delegate);
+      snapshot = current;
+    }
+    return current;
+  }
 }
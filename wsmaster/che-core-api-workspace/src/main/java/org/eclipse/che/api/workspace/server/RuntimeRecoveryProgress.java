@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the recovery of the runtimes which are tracked by the infrastructure on the start of
+ * Che Server. Values are updated by the recovering threads and may be read by any thread.
+ *
+ * @see WorkspaceRuntimes#getRecoveryProgress()
+ */
+public class RuntimeRecoveryProgress {
+
+  private final AtomicLong recovered = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong remaining = new AtomicLong();
+  private final AtomicLong totalTimeNanos = new AtomicLong();
+
+  /** Returns the number of successfully recovered runtimes. */
+  public long getRecovered() {
+    return recovered.get();
+  }
+
+  /** Returns the number of runtimes which failed to be recovered. */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  /** Returns the number of runtimes which are not processed yet. */
+  public long getRemaining() {
+    return remaining.get();
+  }
+
+  /** Returns the number of processed runtimes, both recovered and failed ones. */
+  public long getProcessed() {
+    return recovered.get() + failed.get();
+  }
+
+  /** Returns the total time spent on processing of the runtimes in nanoseconds. */
+  public long getTotalTimeNanos() {
+    return totalTimeNanos.get();
+  }
+
+  void started(int runtimes) {
+    remaining.addAndGet(runtimes);
+  }
+
+  void recovered(long nanos) {
+    recovered.incrementAndGet();
+    processed(nanos);
+  }
+
+  void failed(long nanos) {
+    failed.incrementAndGet();
+    processed(nanos);
+  }
+
+  private void processed(long nanos) {
+    totalTimeNanos.addAndGet(nanos);
+    remaining.decrementAndGet();
+  }
+}
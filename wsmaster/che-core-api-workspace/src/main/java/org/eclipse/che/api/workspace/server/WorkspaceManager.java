@@ -182,9 +182,7 @@ public class WorkspaceManager {
       String user, boolean includeRuntimes, int maxItems, long skipCount) throws ServerException {
     requireNonNull(user, "Required non-null user id");
     final Page<WorkspaceImpl> workspaces = workspaceDao.getWorkspaces(user, maxItems, skipCount);
-    for (WorkspaceImpl workspace : workspaces.getItems()) {
-      normalizeState(workspace, includeRuntimes);
-    }
+    runtimes.injectRuntimes(workspaces.getItems(), includeRuntimes);
     return workspaces;
   }
 
@@ -210,9 +208,7 @@ public class WorkspaceManager {
     requireNonNull(namespace, "Required non-null namespace");
     final Page<WorkspaceImpl> workspaces =
         workspaceDao.getByNamespace(namespace, maxItems, skipCount);
-    for (WorkspaceImpl workspace : workspaces.getItems()) {
-      normalizeState(workspace, includeRuntimes);
-    }
+    runtimes.injectRuntimes(workspaces.getItems(), includeRuntimes);
     return workspaces;
   }
 
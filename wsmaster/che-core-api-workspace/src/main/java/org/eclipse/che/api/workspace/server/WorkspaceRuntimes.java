@@ -16,15 +16,19 @@ import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.reverseOrder;
+import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
+import static org.eclipse.che.api.workspace.shared.Constants.CREATED_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.ERROR_MESSAGE_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ABNORMALLY_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ATTRIBUTE_NAME;
+import static org.eclipse.che.api.workspace.shared.Constants.UPDATED_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_RUNTIMES_ID_ATTRIBUTE;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOPPED_BY;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOP_REASON;
@@ -32,22 +36,30 @@ import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOP_REAS
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
+import com.google.common.primitives.Longs;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -103,6 +115,9 @@ public class WorkspaceRuntimes {
 
   private static final Logger LOG = LoggerFactory.getLogger(WorkspaceRuntimes.class);
 
+  /** The maximum number of workspaces loaded by a single query on recovery. */
+  private static final int RECOVERY_BATCH_SIZE = 500;
+
   private ConcurrentMap<String, InternalRuntime<?>> runtimes;
   private final WorkspaceStatusCache statuses;
   private final WorkspaceLockService lockService;
@@ -113,6 +128,8 @@ public class WorkspaceRuntimes {
   private final Map<String, InternalEnvironmentFactory> environmentFactories;
   private final RuntimeInfrastructure infrastructure;
   private final ProbeScheduler probeScheduler;
+  private final int recoveryParallelism;
+  private final RuntimeRecoveryProgress recoveryProgress;
   // Unique identifier for this workspace runtimes
   private final String workspaceRuntimesId;
 
@@ -127,7 +144,8 @@ public class WorkspaceRuntimes {
       @SuppressWarnings("unused") DBInitializer ignored,
       ProbeScheduler probeScheduler,
       WorkspaceStatusCache statuses,
-      WorkspaceLockService lockService) {
+      WorkspaceLockService lockService,
+      int recoveryParallelism) {
     this(
         eventService,
         envFactories,
@@ -137,7 +155,8 @@ public class WorkspaceRuntimes {
         ignored,
         probeScheduler,
         statuses,
-        lockService);
+        lockService,
+        recoveryParallelism);
     this.runtimes = runtimes;
   }
 
@@ -151,7 +170,8 @@ public class WorkspaceRuntimes {
       @SuppressWarnings("unused") DBInitializer ignored,
       ProbeScheduler probeScheduler,
       WorkspaceStatusCache statuses,
-      WorkspaceLockService lockService) {
+      WorkspaceLockService lockService,
+      @Named("che.workspace.recovery.parallelism") int recoveryParallelism) {
     this.probeScheduler = probeScheduler;
     this.runtimes = new ConcurrentHashMap<>();
     this.statuses = statuses;
@@ -162,6 +182,8 @@ public class WorkspaceRuntimes {
     this.infrastructure = infra;
     this.environmentFactories = ImmutableMap.copyOf(envFactories);
     this.lockService = lockService;
+    this.recoveryParallelism = Math.max(1, recoveryParallelism);
+    this.recoveryProgress = new RuntimeRecoveryProgress();
     LOG.info("Configured factories for environments: '{}'", envFactories.keySet());
     LOG.info("Registered infrastructure '{}'", infra.getName());
     SetView<String> notSupportedByInfra =
@@ -278,6 +300,36 @@ public class WorkspaceRuntimes {
     }
   }
 
+  /**
+   * Injects runtime information into the given workspaces like {@link #injectRuntime} does, but
+   * reads the statuses from a single {@link WorkspaceStatusSnapshot} without acquiring workspace
+   * locks. Runtimes are taken from the runtimes cached by this Che Server instance, the locking
+   * lookup is used only for the active workspaces whose runtimes are not cached yet.
+   *
+   * @param workspaces the workspaces to inject runtimes into
+   * @param includeRuntimes if false only the statuses are injected
+   */
+  public void injectRuntimes(Collection<WorkspaceImpl> workspaces, boolean includeRuntimes)
+      throws ServerException {
+    WorkspaceStatusSnapshot snapshot = statuses.snapshot();
+    for (WorkspaceImpl workspace : workspaces) {
+      WorkspaceStatus status = snapshot.get(workspace.getId());
+      if (status == null) {
+        workspace.setStatus(STOPPED);
+      } else if (!includeRuntimes) {
+        workspace.setStatus(status);
+      } else {
+        InternalRuntime<?> runtime = runtimes.get(workspace.getId());
+        if (runtime == null) {
+          injectRuntime(workspace);
+        } else {
+          workspace.setRuntime(asRuntime(runtime));
+          workspace.setStatus(status);
+        }
+      }
+    }
+  }
+
   /**
    * Gets workspace status by its identifier.
    *
@@ -565,6 +617,11 @@ public class WorkspaceRuntimes {
     return statuses.get(workspaceId) != null;
   }
 
+  /** Returns the progress of the recovery of the runtimes on the start of Che Server. */
+  public RuntimeRecoveryProgress getRecoveryProgress() {
+    return recoveryProgress;
+  }
+
   @VisibleForTesting
   void recover() {
     if (isStartRefused.get()) {
@@ -602,6 +659,11 @@ public class WorkspaceRuntimes {
     sharedPool.execute(new RecoverRuntimesTask(identities));
   }
 
+  /**
+   * Recovers the runtimes in parallel on the {@link WorkspaceSharedPool}. Workspaces of the
+   * runtimes are loaded in bulk before the recovery, the runtimes of the recently started or
+   * updated workspaces are recovered first.
+   */
   @VisibleForTesting
   class RecoverRuntimesTask implements Runnable {
 
@@ -615,29 +677,117 @@ public class WorkspaceRuntimes {
     public void run() {
       long startTime = System.currentTimeMillis();
       LOG.info("Recovering of runtimes is started.");
+      recoveryProgress.started(identities.size());
+      if (identities.isEmpty()) {
+        // no workers are started, so none of them would report the completion
+        completed(startTime);
+        return;
+      }
 
-      for (RuntimeIdentity identity : identities) {
-        try {
+      Map<String, WorkspaceImpl> workspaces = loadWorkspaces();
+      List<RuntimeIdentity> ordered = new ArrayList<>(identities);
+      if (workspaces != null) {
+        ordered.sort(
+            comparing(
+                identity -> lastActivityTime(workspaces.get(identity.getWorkspaceId())),
+                reverseOrder()));
+      }
+      Queue<RuntimeIdentity> queue = new ConcurrentLinkedQueue<>(ordered);
+
+      int workers = Math.min(recoveryParallelism, ordered.size());
+      AtomicInteger activeWorkers = new AtomicInteger(workers);
+      Runnable worker =
+          () -> {
+            RuntimeIdentity identity;
+            while ((identity = queue.poll()) != null) {
+              recover(identity, workspaces);
+            }
+            if (activeWorkers.decrementAndGet() == 0) {
+              completed(startTime);
+            }
+          };
+      for (int i = 1; i < workers; i++) {
+        sharedPool.execute(worker);
+      }
+      worker.run();
+    }
+
+    private void completed(long startTime) {
+      LOG.info(
+          "All runtimes have been recovered in {} seconds. Recovered: {}, failed: {}",
+          TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startTime),
+          recoveryProgress.getRecovered(),
+          recoveryProgress.getFailed());
+    }
+
+    private void recover(RuntimeIdentity identity, Map<String, WorkspaceImpl> workspaces) {
+      long startNanos = System.nanoTime();
+      try {
+        if (workspaces == null) {
           recoverOne(infrastructure, identity);
-        } catch (ServerException | ConflictException e) {
-          LOG.error(
-              "An error occurred while attempting to recover runtime '{}' using infrastructure '{}'. Reason: '{}'",
-              identity.getWorkspaceId(),
-              infrastructure.getName(),
-              e.getMessage());
+        } else {
+          recoverOne(infrastructure, identity, workspaces.get(identity.getWorkspaceId()));
         }
+        recoveryProgress.recovered(System.nanoTime() - startNanos);
+      } catch (ServerException | ConflictException | RuntimeException e) {
+        recoveryProgress.failed(System.nanoTime() - startNanos);
+        LOG.error(
+            "An error occurred while attempting to recover runtime '{}' using infrastructure '{}'. Reason: '{}'",
+            identity.getWorkspaceId(),
+            infrastructure.getName(),
+            e.getMessage());
       }
+    }
 
-      long finishTime = System.currentTimeMillis();
-      LOG.info(
-          "All runtimes have been recovered in {} seconds.",
-          TimeUnit.MILLISECONDS.toSeconds(finishTime - startTime));
+    /** Returns workspaces by their ids or null if workspaces can't be loaded in bulk. */
+    private Map<String, WorkspaceImpl> loadWorkspaces() {
+      Map<String, WorkspaceImpl> workspaces = new HashMap<>();
+      Set<String> ids = identities.stream().map(RuntimeIdentity::getWorkspaceId).collect(toSet());
+      try {
+        for (List<String> batch : Iterables.partition(ids, RECOVERY_BATCH_SIZE)) {
+          for (WorkspaceImpl workspace : workspaceDao.getByIds(batch)) {
+            workspaces.put(workspace.getId(), workspace);
+          }
+        }
+      } catch (ServerException e) {
+        LOG.warn(
+            "Failed to load workspaces of the recovered runtimes, they are loaded one by one. "
+                + "Reason: '{}'",
+            e.getMessage());
+        return null;
+      }
+      return workspaces;
+    }
+  }
+
+  /** Returns the time of the latest start or update of the workspace, or 0 if it is unknown. */
+  private static long lastActivityTime(@Nullable Workspace workspace) {
+    if (workspace == null || workspace.getAttributes() == null) {
+      return 0;
     }
+    String time = workspace.getAttributes().get(UPDATED_ATTRIBUTE_NAME);
+    if (time == null) {
+      time = workspace.getAttributes().get(CREATED_ATTRIBUTE_NAME);
+    }
+    Long parsed = time == null ? null : Longs.tryParse(time);
+    return parsed == null ? 0 : parsed;
   }
 
   @VisibleForTesting
   InternalRuntime<?> recoverOne(RuntimeInfrastructure infra, RuntimeIdentity identity)
       throws ServerException, ConflictException {
+    Workspace workspace;
+    try {
+      workspace = workspaceDao.get(identity.getWorkspaceId());
+    } catch (NotFoundException x) {
+      workspace = null;
+    }
+    return recoverOne(infra, identity, workspace);
+  }
+
+  private InternalRuntime<?> recoverOne(
+      RuntimeInfrastructure infra, RuntimeIdentity identity, @Nullable Workspace workspace)
+      throws ServerException, ConflictException {
     if (isStartRefused.get()) {
       throw new ConflictException(
           format(
@@ -645,10 +795,7 @@ public class WorkspaceRuntimes {
                   + "no more workspaces are allowed to start",
               identity.getWorkspaceId()));
     }
-    Workspace workspace;
-    try {
-      workspace = workspaceDao.get(identity.getWorkspaceId());
-    } catch (NotFoundException x) {
+    if (workspace == null) {
       throw new ServerException(
           format(
               "Workspace configuration is missing for the runtime '%s:%s'. Runtime won't be recovered",
@@ -70,4 +70,11 @@ public interface WorkspaceStatusCache {
 
   /** Returns copy of this cache as map. */
   Map<String, WorkspaceStatus> asMap();
+
+  /**
+   * Returns the latest snapshot of this cache. Snapshot is never changed, a new one with greater
+   * version is published after any status transition. Unlike {@link #asMap()} consecutive calls
+   * return the same snapshot until statuses are changed.
+   */
+  WorkspaceStatusSnapshot snapshot();
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.commons.annotation.Nullable;
+
+/**
+ * Immutable snapshot of the statuses of active workspaces. Snapshots are published by {@link
+ * WorkspaceStatusCache} and may be read without any locks, the version of the snapshot is increased
+ * on each status transition.
+ *
+ * @see WorkspaceStatusCache#snapshot()
+ */
+public final class WorkspaceStatusSnapshot {
+
+  private final long version;
+  private final Map<String, WorkspaceStatus> statuses;
+
+  public WorkspaceStatusSnapshot(long version, Map<String, WorkspaceStatus> statuses) {
+    this.version = version;
+    this.statuses = ImmutableMap.copyOf(statuses);
+  }
+
+  /** Returns the version of the snapshot. */
+  public long getVersion() {
+    return version;
+  }
+
+  /** Returns the status of the workspace or null if the workspace is not active. */
+  @Nullable
+  public WorkspaceStatus get(String workspaceId) {
+    return statuses.get(workspaceId);
+  }
+
+  /** Returns unmodifiable map of the statuses of active workspaces. */
+  public Map<String, WorkspaceStatus> asMap() {
+    return statuses;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.event;
+
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+
+/** Published when readiness check of a server of a starting workspace is finished. */
+public class ServerReadinessCheckedEvent {
+
+  private final RuntimeIdentity identity;
+  private final String machineName;
+  private final String serverRef;
+  private final boolean available;
+  private final long durationNanos;
+
+  public ServerReadinessCheckedEvent(
+      RuntimeIdentity identity,
+      String machineName,
+      String serverRef,
+      boolean available,
+      long durationNanos) {
+    this.identity = identity;
+    this.machineName = machineName;
+    this.serverRef = serverRef;
+    this.available = available;
+    this.durationNanos = durationNanos;
+  }
+
+  public RuntimeIdentity getIdentity() {
+    return identity;
+  }
+
+  public String getMachineName() {
+    return machineName;
+  }
+
+  public String getServerRef() {
+    return serverRef;
+  }
+
+  /** Returns true if the server became available, false if it is considered unavailable. */
+  public boolean isAvailable() {
+    return available;
+  }
+
+  /** Returns the time elapsed from the start of the check till its result in nanoseconds. */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+}
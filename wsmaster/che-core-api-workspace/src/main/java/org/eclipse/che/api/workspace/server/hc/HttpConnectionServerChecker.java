@@ -11,26 +11,34 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
-import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 
 /**
  * Server checker that uses http connection response code as a criteria of availability of a server.
  * If response code is not less than 200 and less than 400 server is treated as available.
  *
+ * <p>Requests are sent asynchronously with the HTTP client shared by all the checkers, so the
+ * connections to the servers are reused between the checks.
+ *
  * @author Alexander Garagatyi
  */
 public class HttpConnectionServerChecker extends ServerChecker {
   private static final String AUTHORIZATION_HEADER = "Authorization";
-  private static final String CONNECTION_HEADER = "Connection";
-  private static final String CONNECTION_CLOSE = "close";
   private final URL url;
+  private final OkHttpClient httpClient;
   private final String token;
 
+  private volatile Call currentCall;
+
   public HttpConnectionServerChecker(
       URL url,
       String machineName,
@@ -39,46 +47,64 @@ public class HttpConnectionServerChecker extends ServerChecker {
       long timeout,
       int successThreshold,
       TimeUnit timeUnit,
-      Timer timer,
+      ScheduledExecutorService timer,
+      OkHttpClient httpClient,
       String token) {
     super(machineName, serverRef, period, timeout, successThreshold, timeUnit, timer);
     this.url = url;
+    this.httpClient = httpClient;
     this.token = token;
   }
 
   @Override
   public boolean isAvailable() {
-    HttpURLConnection httpURLConnection = null;
-    try {
-      httpURLConnection = createConnection(url);
-      // TODO consider how much time we should use as a limit
-      httpURLConnection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(3));
-      httpURLConnection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(3));
-      httpURLConnection.setRequestProperty(CONNECTION_HEADER, CONNECTION_CLOSE);
-      if (token != null) {
-        httpURLConnection.setRequestProperty(AUTHORIZATION_HEADER, "Bearer " + token);
-      }
-      return isConnectionSuccessful(httpURLConnection);
+    try (Response response = httpClient.newCall(createRequest()).execute()) {
+      return isConnectionSuccessful(response.code());
     } catch (IOException e) {
       return false;
-    } finally {
-      if (httpURLConnection != null) {
-        httpURLConnection.disconnect();
-      }
     }
   }
 
-  boolean isConnectionSuccessful(HttpURLConnection conn) {
-    try {
-      int responseCode = conn.getResponseCode();
-      return responseCode >= 200 && responseCode < 400;
-    } catch (IOException e) {
-      return false;
+  @Override
+  protected CompletableFuture<Boolean> checkAvailability() {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    Call call = httpClient.newCall(createRequest());
+    currentCall = call;
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            result.complete(false);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            try (Response closeable = response) {
+              result.complete(isConnectionSuccessful(closeable.code()));
+            }
+          }
+        });
+    return result;
+  }
+
+  @Override
+  public void stop() {
+    super.stop();
+    Call call = currentCall;
+    if (call != null) {
+      call.cancel();
     }
   }
 
-  @VisibleForTesting
-  HttpURLConnection createConnection(URL url) throws IOException {
-    return (HttpURLConnection) url.openConnection();
+  boolean isConnectionSuccessful(int responseCode) {
+    return responseCode >= 200 && responseCode < 400;
+  }
+
+  private Request createRequest() {
+    Request.Builder request = new Request.Builder().url(url);
+    if (token != null) {
+      request.header(AUTHORIZATION_HEADER, "Bearer " + token);
+    }
+    return request.build();
   }
 }
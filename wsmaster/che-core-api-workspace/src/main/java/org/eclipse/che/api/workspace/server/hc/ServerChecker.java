@@ -11,9 +11,10 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -31,7 +32,10 @@ public abstract class ServerChecker {
   private final long deadLine;
   private final int successThreshold;
   private final CompletableFuture<String> reportFuture;
-  private final Timer timer;
+  private final ScheduledExecutorService timer;
+
+  private volatile boolean stopped;
+  private volatile Future<?> scheduledCheck;
 
   /**
    * Creates server checker instance.
@@ -44,6 +48,7 @@ public abstract class ServerChecker {
    * @param timeout max time allowed for the server availability checks to last before server is
    *     treated unavailable, measured in {@code timeUnit}
    * @param timeUnit measurement unit for {@code period} and {@code timeout} parameters
+   * @param timer timer which schedules the checks, it is expected to be shared by the checkers
    */
   protected ServerChecker(
       String machineName,
@@ -52,7 +57,7 @@ public abstract class ServerChecker {
       long timeout,
       int successThreshold,
       TimeUnit timeUnit,
-      Timer timer) {
+      ScheduledExecutorService timer) {
     this.machineName = machineName;
     this.serverRef = serverRef;
     this.successThreshold = successThreshold;
@@ -67,7 +72,19 @@ public abstract class ServerChecker {
    * checking times out.
    */
   public void start() {
-    timer.schedule(new ServerCheckingTask(0), 0);
+    schedule(0, 0);
+  }
+
+  /**
+   * Stops server availability checking. Report future is not completed if the checking is stopped
+   * before the server become available or unavailable.
+   */
+  public void stop() {
+    stopped = true;
+    Future<?> check = scheduledCheck;
+    if (check != null) {
+      check.cancel(false);
+    }
   }
 
   /**
@@ -89,6 +106,21 @@ public abstract class ServerChecker {
    */
   public abstract boolean isAvailable();
 
+  /**
+   * Asynchronously checks whether the server is available. Checkers which perform I/O should
+   * override this method, so the shared timer thread is not blocked by the check.
+   *
+   * @return future which is completed with true if server is available, false otherwise
+   */
+  protected CompletableFuture<Boolean> checkAvailability() {
+    return CompletableFuture.completedFuture(isAvailable());
+  }
+
+  /** Returns reference of the checked server. */
+  public String getServerRef() {
+    return serverRef;
+  }
+
   /**
    * Returns {@code CompletableFuture} that will be completed when server become available or
    * unavailable. When server become available completable future returns server reference.
@@ -107,8 +139,26 @@ public abstract class ServerChecker {
     return System.currentTimeMillis() > deadLine;
   }
 
-  private class ServerCheckingTask extends TimerTask {
-    private int currentNumberOfSequentialSuccessfulPings;
+  private void schedule(int currentNumberOfSequentialSuccessfulPings, long delay) {
+    if (stopped) {
+      return;
+    }
+    try {
+      scheduledCheck =
+          timer.schedule(
+              new ServerCheckingTask(currentNumberOfSequentialSuccessfulPings),
+              delay,
+              TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      reportFuture.completeExceptionally(
+          new InfrastructureException(
+              String.format(
+                  "Checking of server '%s' in machine '%s' is rejected.", serverRef, machineName)));
+    }
+  }
+
+  private class ServerCheckingTask implements Runnable {
+    private final int currentNumberOfSequentialSuccessfulPings;
 
     public ServerCheckingTask(int currentNumberOfSequentialSuccessfulPings) {
       this.currentNumberOfSequentialSuccessfulPings = currentNumberOfSequentialSuccessfulPings;
@@ -116,21 +166,30 @@ public abstract class ServerChecker {
 
     @Override
     public void run() {
+      if (stopped) {
+        return;
+      }
       if (isTimedOut()) {
         reportFuture.completeExceptionally(
             new InfrastructureException(
                 String.format(
                     "Server '%s' in machine '%s' not available.", serverRef, machineName)));
-      } else if (isAvailable()) {
-        currentNumberOfSequentialSuccessfulPings++;
-        if (currentNumberOfSequentialSuccessfulPings == successThreshold) {
-          reportFuture.complete(serverRef);
-        } else {
-          timer.schedule(new ServerCheckingTask(currentNumberOfSequentialSuccessfulPings), period);
-        }
-      } else {
-        timer.schedule(new ServerCheckingTask(0), period);
+        return;
       }
+      checkAvailability()
+          .whenComplete(
+              (available, error) -> {
+                if (error == null && available) {
+                  int successfulPings = currentNumberOfSequentialSuccessfulPings + 1;
+                  if (successfulPings == successThreshold) {
+                    reportFuture.complete(serverRef);
+                  } else {
+                    schedule(successfulPings, period);
+                  }
+                } else {
+                  schedule(0, period);
+                }
+              });
     }
   }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Shares the resources used by {@link ServerChecker servers checkers} of all the workspaces.
+ *
+ * <p>Checks of all the servers are scheduled on the single timer thread which never blocks on I/O,
+ * HTTP requests are sent asynchronously with the HTTP client which reuses connections to the same
+ * servers and limits the number of requests in flight.
+ */
+@Singleton
+public class ServerCheckerScheduler {
+  /**
+   * Timeout of connecting to a server and of reading its response. A server that doesn't respond
+   * in time is considered not available by this check and is checked again in the next period.
+   */
+  private static final long CONNECTION_TIMEOUT_SECONDS = 3;
+
+  private final ScheduledThreadPoolExecutor timer;
+  private final ThreadPoolExecutor httpExecutor;
+  private final OkHttpClient httpClient;
+
+  @Inject
+  public ServerCheckerScheduler(
+      @Named("che.workspace.server.ping_max_concurrent_requests") int maxConcurrentRequests) {
+    timer =
+        new ScheduledThreadPoolExecutor(
+            1, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ServersChecker").build());
+    timer.setRemoveOnCancelPolicy(true);
+    httpExecutor =
+        new ThreadPoolExecutor(
+            0,
+            Integer.MAX_VALUE,
+            60L,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ServersCheckerHttp-%s")
+                .build());
+    Dispatcher dispatcher = new Dispatcher(httpExecutor);
+    dispatcher.setMaxRequests(maxConcurrentRequests);
+    // servers of different workspaces may be exposed on the same host e.g. by the ingress
+    dispatcher.setMaxRequestsPerHost(maxConcurrentRequests);
+    httpClient =
+        new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(maxConcurrentRequests, 1, TimeUnit.MINUTES))
+            .connectTimeout(CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .retryOnConnectionFailure(false)
+            .build();
+  }
+
+  /** Returns the timer which schedules checks of the servers. */
+  public ScheduledExecutorService getTimer() {
+    return timer;
+  }
+
+  /** Returns the HTTP client which is used for checking of the servers. */
+  public OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /** Cancels the scheduled checks and the HTTP requests in flight. */
+  @PreDestroy
+  public void shutdown() {
+    timer.shutdownNow();
+    httpClient.dispatcher().cancelAll();
+    httpExecutor.shutdown();
+    httpClient.connectionPool().evictAll();
+  }
+}
@@ -20,7 +20,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -32,6 +31,8 @@ import javax.inject.Named;
 import javax.ws.rs.core.UriBuilder;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.core.model.workspace.runtime.Server;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.event.ServerReadinessCheckedEvent;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.spi.InternalInfrastructureException;
 import org.eclipse.che.api.workspace.server.token.MachineTokenProvider;
@@ -49,8 +50,9 @@ public class ServersChecker {
   private final int serverPingSuccessThreshold;
   private final long serverPingIntervalMillis;
   private final Set<String> livenessProbes;
+  private final ServerCheckerScheduler scheduler;
+  private final EventService eventService;
 
-  private Timer timer;
   private long resultTimeoutSeconds;
   private CompletableFuture<?> result;
 
@@ -68,16 +70,19 @@ public class ServersChecker {
       MachineTokenProvider machineTokenProvider,
       @Named("che.workspace.server.ping_success_threshold") int serverPingSuccessThreshold,
       @Named("che.workspace.server.ping_interval_milliseconds") long serverPingInterval,
-      @Named("che.workspace.server.liveness_probes") String[] livenessProbes) {
+      @Named("che.workspace.server.liveness_probes") String[] livenessProbes,
+      ServerCheckerScheduler scheduler,
+      EventService eventService) {
     this.runtimeIdentity = runtimeIdentity;
     this.machineName = machineName;
     this.servers = servers;
-    this.timer = new Timer("ServersChecker", true);
     this.machineTokenProvider = machineTokenProvider;
     this.serverPingSuccessThreshold = serverPingSuccessThreshold;
     this.serverPingIntervalMillis = serverPingInterval;
     this.livenessProbes =
         Arrays.stream(livenessProbes).map(String::trim).collect(Collectors.toSet());
+    this.scheduler = scheduler;
+    this.eventService = eventService;
   }
 
   /**
@@ -91,22 +96,24 @@ public class ServersChecker {
    */
   public CompletableFuture<?> startAsync(Consumer<String> serverReadinessHandler)
       throws InfrastructureException {
-    timer = new Timer("ServersChecker", true);
     List<ServerChecker> serverCheckers = getServerCheckers();
+    long checksStart = System.nanoTime();
     // should be completed with an exception if a server considered unavailable
     CompletableFuture<Void> firstNonAvailable = new CompletableFuture<>();
     CompletableFuture[] checkTasks =
         serverCheckers
             .stream()
-            .map(ServerChecker::getReportCompFuture)
             .map(
-                compFut ->
-                    compFut
+                checker ->
+                    checker
+                        .getReportCompFuture()
+                        .whenComplete(
+                            (ref, e) -> publishCheckResult(checker, e == null, checksStart))
                         .thenAccept(serverReadinessHandler)
                         .exceptionally(
                             e -> {
                               // cleanup checkers tasks
-                              timer.cancel();
+                              serverCheckers.forEach(ServerChecker::stop);
                               firstNonAvailable.completeExceptionally(e);
                               return null;
                             }))
@@ -163,6 +170,16 @@ public class ServersChecker {
     }
   }
 
+  private void publishCheckResult(ServerChecker checker, boolean available, long checksStart) {
+    eventService.publish(
+        new ServerReadinessCheckedEvent(
+            runtimeIdentity,
+            machineName,
+            checker.getServerRef(),
+            available,
+            System.nanoTime() - checksStart));
+  }
+
   private List<ServerChecker> getServerCheckers() throws InfrastructureException {
     ArrayList<ServerChecker> checkers = new ArrayList<>(servers.size());
     for (Map.Entry<String, ? extends Server> serverEntry : servers.entrySet()) {
@@ -218,7 +235,8 @@ public class ServersChecker {
           TimeUnit.SECONDS.toMillis(180),
           serverPingSuccessThreshold,
           TimeUnit.MILLISECONDS,
-          timer,
+          scheduler.getTimer(),
+          scheduler.getHttpClient(),
           token);
     }
     // TODO do not hardcode timeouts, use server conf instead
@@ -230,7 +248,8 @@ public class ServersChecker {
         TimeUnit.SECONDS.toMillis(180),
         serverPingSuccessThreshold,
         TimeUnit.MILLISECONDS,
-        timer,
+        scheduler.getTimer(),
+        scheduler.getHttpClient(),
         token);
   }
 }
@@ -13,11 +13,13 @@ package org.eclipse.che.api.workspace.server.jpa;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.core.Pages.iterate;
 
 import com.google.inject.persist.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -113,6 +115,27 @@ public class JpaWorkspaceDao implements WorkspaceDao {
     }
   }
 
+  @Override
+  @Transactional
+  public List<WorkspaceImpl> getByIds(Collection<String> ids) throws ServerException {
+    requireNonNull(ids, "Required non-null ids");
+    if (ids.isEmpty()) {
+      return emptyList();
+    }
+    try {
+      return managerProvider
+          .get()
+          .createNamedQuery("Workspace.getByIds", WorkspaceImpl.class)
+          .setParameter("ids", ids)
+          .getResultList()
+          .stream()
+          .map(WorkspaceImpl::new)
+          .collect(toList());
+    } catch (RuntimeException x) {
+      throw new ServerException(x.getLocalizedMessage(), x);
+    }
+  }
+
   @Override
   @Transactional
   public WorkspaceImpl get(String name, String namespace)
@@ -57,6 +57,7 @@ import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
       name = "Workspace.getByName",
       query = "SELECT w FROM Workspace w WHERE w.account.name = :namespace AND w.name = :name"),
   @NamedQuery(name = "Workspace.getAll", query = "SELECT w FROM Workspace w"),
+  @NamedQuery(name = "Workspace.getByIds", query = "SELECT w FROM Workspace w WHERE w.id IN :ids"),
   @NamedQuery(
       name = "Workspace.getByTemporary",
       query = "SELECT w " + "FROM Workspace w " + "WHERE w.isTemporary = :temporary "),
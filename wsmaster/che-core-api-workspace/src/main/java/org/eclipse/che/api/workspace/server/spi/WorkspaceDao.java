@@ -11,6 +11,8 @@
  */
 package org.eclipse.che.api.workspace.server.spi;
 
+import java.util.Collection;
+import java.util.List;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.Page;
@@ -85,6 +87,16 @@ public interface WorkspaceDao {
    */
   WorkspaceImpl get(String id) throws NotFoundException, ServerException;
 
+  /**
+   * Gets workspaces by identifiers, the identifiers of non-existing workspaces are ignored.
+   *
+   * @param ids workspace identifiers
+   * @return list of found workspaces or empty list if no workspaces were found
+   * @throws NullPointerException when {@code ids} is null
+   * @throws ServerException when any other error occurs during workspaces fetching
+   */
+  List<WorkspaceImpl> getByIds(Collection<String> ids) throws ServerException;
+
   /**
    * Gets workspace by name in namespace.
    *
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server;
+
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests {@link DefaultWorkspaceStatusCache}. */
+public class DefaultWorkspaceStatusCacheTest {
+
+  private DefaultWorkspaceStatusCache cache;
+
+  @BeforeMethod
+  public void setUp() {
+    cache = new DefaultWorkspaceStatusCache();
+  }
+
+  @Test
+  public void returnsSameSnapshotWhileStatusesAreNotChanged() {
+    cache.putIfAbsent("ws1", STARTING);
+
+    WorkspaceStatusSnapshot snapshot = cache.snapshot();
+    cache.putIfAbsent("ws1", RUNNING);
+    cache.replace("ws2", RUNNING);
+    cache.remove("ws3");
+
+    assertSame(cache.snapshot(), snapshot);
+    assertEquals(snapshot.get("ws1"), STARTING);
+  }
+
+  @Test
+  public void publishesNewSnapshotOnStatusTransition() {
+    cache.putIfAbsent("ws1", STARTING);
+    cache.putIfAbsent("ws2", STARTING);
+    WorkspaceStatusSnapshot first = cache.snapshot();
+
+    cache.replace("ws1", RUNNING);
+    cache.replace("ws2", STARTING, STOPPING);
+    WorkspaceStatusSnapshot second = cache.snapshot();
+    cache.remove("ws1");
+    WorkspaceStatusSnapshot third = cache.snapshot();
+
+    assertTrue(second.getVersion() > first.getVersion());
+    assertTrue(third.getVersion() > second.getVersion());
+    assertEquals(first.get("ws1"), STARTING);
+    assertEquals(second.get("ws1"), RUNNING);
+    assertEquals(second.get("ws2"), STOPPING);
+    assertNull(third.get("ws1"));
+    assertEquals(third.asMap().size(), 1);
+  }
+}
@@ -25,6 +25,7 @@ import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ABNORMALLY_
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.UPDATED_ATTRIBUTE_NAME;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -128,6 +129,21 @@ public class WorkspaceManagerTest {
     lenient()
         .when(workspaceDao.update(any(WorkspaceImpl.class)))
         .thenAnswer(invocation -> invocation.getArguments()[0]);
+    lenient()
+        .doAnswer(
+            invocation -> {
+              // delegate to the single workspace methods mocked by the tests
+              for (WorkspaceImpl workspace : invocation.<List<WorkspaceImpl>>getArgument(0)) {
+                if (invocation.<Boolean>getArgument(1)) {
+                  runtimes.injectRuntime(workspace);
+                } else {
+                  workspace.setStatus(runtimes.getStatus(workspace.getId()));
+                }
+              }
+              return null;
+            })
+        .when(runtimes)
+        .injectRuntimes(any(), anyBoolean());
 
     EnvironmentContext.setCurrent(
         new EnvironmentContext() {
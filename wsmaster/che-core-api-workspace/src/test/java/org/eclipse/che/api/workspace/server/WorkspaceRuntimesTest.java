@@ -16,18 +16,23 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.workspace.shared.Constants.CREATED_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.ERROR_MESSAGE_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.NO_ENVIRONMENT_RECIPE_TYPE;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ABNORMALLY_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ATTRIBUTE_NAME;
+import static org.eclipse.che.api.workspace.shared.Constants.UPDATED_ATTRIBUTE_NAME;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -81,6 +86,7 @@ import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.core.db.DBInitializer;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -127,7 +133,8 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            1);
   }
 
   @Test
@@ -145,7 +152,8 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            1);
     InternalEnvironment expectedEnvironment = mock(InternalEnvironment.class);
     when(noEnvFactory.create(eq(null))).thenReturn(expectedEnvironment);
 
@@ -262,9 +270,10 @@ public class WorkspaceRuntimesTest {
             .build();
     doReturn(identities).when(infrastructure).getIdentities();
 
-    mockWorkspace(identity1);
-    mockWorkspace(identity2);
-    mockWorkspace(identity3);
+    WorkspaceImpl ws1 = mockWorkspace(identity1);
+    WorkspaceImpl ws2 = mockWorkspace(identity2);
+    WorkspaceImpl ws3 = mockWorkspace(identity3);
+    when(workspaceDao.getByIds(any())).thenReturn(asList(ws1, ws2, ws3));
     when(statuses.get(anyString())).thenReturn(WorkspaceStatus.STARTING);
 
     RuntimeContext context1 = mockContext(identity1);
@@ -304,6 +313,80 @@ public class WorkspaceRuntimesTest {
     runtimes.injectRuntime(workspace3);
     assertNotNull(workspace3.getRuntime());
     assertEquals(workspace3.getStatus(), WorkspaceStatus.STARTING);
+    RuntimeRecoveryProgress progress = runtimes.getRecoveryProgress();
+    assertEquals(progress.getRecovered(), 2);
+    assertEquals(progress.getFailed(), 1);
+    assertEquals(progress.getRemaining(), 0);
+  }
+
+  @Test
+  public void recentlyUpdatedWorkspacesAreRecoveredFirst() throws Exception {
+    RuntimeIdentityImpl identity1 = new RuntimeIdentityImpl("workspace1", "env1", "owner1");
+    RuntimeIdentityImpl identity2 = new RuntimeIdentityImpl("workspace2", "env2", "owner2");
+    RuntimeIdentityImpl identity3 = new RuntimeIdentityImpl("workspace3", "env3", "owner3");
+    WorkspaceImpl ws1 = mockWorkspace(identity1);
+    ws1.getAttributes().put(UPDATED_ATTRIBUTE_NAME, "100");
+    WorkspaceImpl ws2 = mockWorkspace(identity2);
+    ws2.getAttributes().put(CREATED_ATTRIBUTE_NAME, "50");
+    WorkspaceImpl ws3 = mockWorkspace(identity3);
+    ws3.getAttributes().put(UPDATED_ATTRIBUTE_NAME, "300");
+    when(workspaceDao.getByIds(any())).thenReturn(asList(ws1, ws2, ws3));
+    doReturn(mock(InternalEnvironment.class)).when(testEnvFactory).create(any(Environment.class));
+    doThrow(new InfrastructureException("oops!")).when(infrastructure).prepare(any(), any());
+
+    runtimes.new RecoverRuntimesTask(ImmutableSet.of(identity1, identity2, identity3)).run();
+
+    InOrder inOrder = inOrder(infrastructure);
+    inOrder.verify(infrastructure).prepare(eq(identity3), any());
+    inOrder.verify(infrastructure).prepare(eq(identity1), any());
+    inOrder.verify(infrastructure).prepare(eq(identity2), any());
+    verify(workspaceDao, never()).get(anyString());
+  }
+
+  @Test
+  public void runtimesAreRecoveredInParallel() throws Exception {
+    WorkspaceRuntimes parallelRuntimes =
+        new WorkspaceRuntimes(
+            eventService,
+            ImmutableMap.of(TEST_ENVIRONMENT_TYPE, testEnvFactory),
+            infrastructure,
+            sharedPool,
+            workspaceDao,
+            dbInitializer,
+            probeScheduler,
+            statuses,
+            lockService,
+            2);
+    RuntimeIdentityImpl identity1 = new RuntimeIdentityImpl("workspace1", "env1", "owner1");
+    RuntimeIdentityImpl identity2 = new RuntimeIdentityImpl("workspace2", "env2", "owner2");
+    RuntimeIdentityImpl identity3 = new RuntimeIdentityImpl("workspace3", "env3", "owner3");
+    WorkspaceImpl ws1 = mockWorkspace(identity1);
+    WorkspaceImpl ws2 = mockWorkspace(identity2);
+    WorkspaceImpl ws3 = mockWorkspace(identity3);
+    when(workspaceDao.getByIds(any())).thenReturn(asList(ws1, ws2, ws3));
+    doReturn(mock(InternalEnvironment.class)).when(testEnvFactory).create(any(Environment.class));
+    for (RuntimeIdentity identity : asList(identity1, identity2, identity3)) {
+      RuntimeContext context = mockContext(identity);
+      when(context.getRuntime())
+          .thenReturn(new TestInternalRuntime(context, emptyMap(), WorkspaceStatus.RUNNING));
+      doReturn(context).when(infrastructure).prepare(eq(identity), any());
+    }
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(sharedPool)
+        .execute(any());
+
+    parallelRuntimes.new RecoverRuntimesTask(ImmutableSet.of(identity1, identity2, identity3))
+        .run();
+
+    verify(sharedPool).execute(any());
+    RuntimeRecoveryProgress progress = parallelRuntimes.getRecoveryProgress();
+    assertEquals(progress.getRecovered(), 3);
+    assertEquals(progress.getFailed(), 0);
+    assertEquals(progress.getRemaining(), 0);
   }
 
   @Test
@@ -320,7 +403,8 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            1);
     localRuntimes.init();
     RuntimeIdentityDto identity =
         DtoFactory.newDto(RuntimeIdentityDto.class)
@@ -361,7 +445,8 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            1);
     localRuntimes.init();
     RuntimeIdentityDto identity =
         DtoFactory.newDto(RuntimeIdentityDto.class)
@@ -411,7 +496,8 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            1);
 
     // when
     localRuntimes.injectRuntime(workspace);
@@ -421,6 +507,56 @@ public class WorkspaceRuntimesTest {
     assertEquals(workspace.getRuntime(), asRuntime(testRuntime));
   }
 
+  @Test
+  public void shouldInjectRuntimesFromStatusSnapshotWithoutLocks() throws Exception {
+    // given
+    RuntimeIdentity identity = new RuntimeIdentityImpl("ws123", "my-env", "myId");
+    RuntimeContext context = mockContext(identity);
+    ImmutableMap<String, Machine> machines =
+        ImmutableMap.of("machine", new MachineImpl(emptyMap(), emptyMap(), MachineStatus.RUNNING));
+    ConcurrentHashMap<String, InternalRuntime<?>> runtimesStorage = new ConcurrentHashMap<>();
+    TestInternalRuntime testRuntime =
+        new TestInternalRuntime(context, machines, WorkspaceStatus.RUNNING);
+    runtimesStorage.put("ws123", testRuntime);
+    WorkspaceRuntimes localRuntimes =
+        new WorkspaceRuntimes(
+            runtimesStorage,
+            eventService,
+            ImmutableMap.of(TEST_ENVIRONMENT_TYPE, testEnvFactory),
+            infrastructure,
+            sharedPool,
+            workspaceDao,
+            dbInitializer,
+            probeScheduler,
+            statuses,
+            lockService,
+            1);
+    when(statuses.snapshot())
+        .thenReturn(
+            new WorkspaceStatusSnapshot(
+                1,
+                ImmutableMap.of(
+                    "ws123", WorkspaceStatus.RUNNING, "ws234", WorkspaceStatus.STARTING)));
+    WorkspaceImpl running = new WorkspaceImpl("ws123", null, null);
+    WorkspaceImpl starting = new WorkspaceImpl("ws234", null, null);
+    WorkspaceImpl stopped = new WorkspaceImpl("ws345", null, null);
+
+    // when
+    localRuntimes.injectRuntimes(asList(running, stopped), true);
+    localRuntimes.injectRuntimes(singletonList(starting), false);
+
+    // then
+    assertEquals(running.getStatus(), WorkspaceStatus.RUNNING);
+    assertEquals(running.getRuntime(), asRuntime(testRuntime));
+    assertEquals(starting.getStatus(), WorkspaceStatus.STARTING);
+    assertNull(starting.getRuntime());
+    assertEquals(stopped.getStatus(), WorkspaceStatus.STOPPED);
+    assertNull(stopped.getRuntime());
+    verify(lockService, never()).readLock(anyString());
+    verify(lockService, never()).writeLock(anyString());
+    verify(statuses, never()).get(anyString());
+  }
+
   @Test
   public void shouldRecoverRuntimeWhenThereIsNotCachedOneDuringInjecting() throws Exception {
     // given
@@ -11,20 +11,29 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.nullable;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.spy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -39,8 +48,9 @@ public class HttpConnectionServerCheckerTest {
   private String SERVER_REF = "ref1";
   private URL SERVER_URL;
 
-  @Mock private Timer timer;
-  @Mock private HttpURLConnection conn;
+  @Mock private ScheduledExecutorService timer;
+  @Mock private OkHttpClient httpClient;
+  @Mock private Call call;
 
   private HttpConnectionServerChecker checker;
 
@@ -49,19 +59,25 @@ public class HttpConnectionServerCheckerTest {
     SERVER_URL = new URL("http://localhost");
 
     checker =
-        spy(
-            new HttpConnectionServerChecker(
-                SERVER_URL, MACHINE_NAME, SERVER_REF, 1, 10, 1, TimeUnit.SECONDS, timer, null));
-
-    doReturn(conn).when(checker).createConnection(nullable(URL.class));
-    when(conn.getResponseCode()).thenReturn(200);
+        new HttpConnectionServerChecker(
+            SERVER_URL,
+            MACHINE_NAME,
+            SERVER_REF,
+            1,
+            10,
+            1,
+            TimeUnit.SECONDS,
+            timer,
+            httpClient,
+            null);
+
+    lenient().when(httpClient.newCall(any(Request.class))).thenReturn(call);
   }
 
   @Test(dataProvider = "successfulResponseCodeProvider")
   public void shouldConfirmConnectionSuccessIfResponseCodeIsBetween200And400(Integer responseCode)
       throws Exception {
-    when(conn.getResponseCode()).thenReturn(responseCode);
-    assertTrue(checker.isConnectionSuccessful(conn));
+    assertTrue(checker.isConnectionSuccessful(responseCode));
   }
 
   @DataProvider
@@ -72,8 +88,7 @@ public class HttpConnectionServerCheckerTest {
   @Test(dataProvider = "nonSuccessfulResponseCodeProvider")
   public void shouldNotConfirmConnectionSuccessIfResponseCodeIsLessThan200Or400OrMore(
       Integer responseCode) throws Exception {
-    when(conn.getResponseCode()).thenReturn(responseCode);
-    assertFalse(checker.isConnectionSuccessful(conn));
+    assertFalse(checker.isConnectionSuccessful(responseCode));
   }
 
   @DataProvider
@@ -82,53 +97,126 @@ public class HttpConnectionServerCheckerTest {
   }
 
   @Test
-  public void shouldOpenConnectionToProvidedUrl() throws Exception {
+  public void shouldSendRequestToProvidedUrl() throws Exception {
+    when(call.execute()).thenReturn(response(200));
+
     checker.isAvailable();
 
-    verify(checker).createConnection(eq(SERVER_URL));
+    assertEquals(captureRequest().url(), HttpUrl.get(SERVER_URL));
   }
 
   @Test
-  public void shouldSetTimeoutsToConnection() throws Exception {
+  public void shouldNotAddAuthorizationHeaderIfTokenIsNotProvided() throws Exception {
+    when(call.execute()).thenReturn(response(200));
+
     checker.isAvailable();
 
-    verify(conn).setReadTimeout((int) TimeUnit.SECONDS.toMillis(3));
-    verify(conn).setConnectTimeout((int) TimeUnit.SECONDS.toMillis(3));
+    assertNull(captureRequest().header("Authorization"));
+  }
+
+  @Test
+  public void shouldAddAuthorizationHeaderIfTokenIsProvided() throws Exception {
+    checker =
+        new HttpConnectionServerChecker(
+            SERVER_URL,
+            MACHINE_NAME,
+            SERVER_REF,
+            1,
+            10,
+            1,
+            TimeUnit.SECONDS,
+            timer,
+            httpClient,
+            "token");
+    when(call.execute()).thenReturn(response(200));
+
+    checker.isAvailable();
+
+    assertEquals(captureRequest().header("Authorization"), "Bearer token");
   }
 
   @Test
   public void shouldBeAbleToConfirmAvailability() throws Exception {
+    when(call.execute()).thenReturn(response(200));
+
     assertTrue(checker.isAvailable());
   }
 
   @Test
   public void shouldBeAbleToRejectAvailability() throws Exception {
-    when(conn.getResponseCode()).thenReturn(401);
+    when(call.execute()).thenReturn(response(401));
+
     assertFalse(checker.isAvailable());
   }
 
   @Test
-  public void shouldRejectAvailabilityInCaseOfExceptionOnResponseCodeRetrieving() throws Exception {
-    when(conn.getResponseCode()).thenThrow(new IOException());
+  public void shouldRejectAvailabilityInCaseOfExceptionOnRequestSending() throws Exception {
+    when(call.execute()).thenThrow(new IOException());
+
     assertFalse(checker.isAvailable());
   }
 
   @Test
-  public void shouldRejectAvailabilityInCaseOfExceptionOnConnectionOpening() throws Exception {
-    when(checker.createConnection(nullable(URL.class))).thenThrow(new IOException());
-    assertFalse(checker.isAvailable());
+  public void shouldAsynchronouslyConfirmAvailability() throws Exception {
+    doAnswer(
+            invocation -> {
+              invocation.<Callback>getArgument(0).onResponse(call, response(200));
+              return null;
+            })
+        .when(call)
+        .enqueue(any(Callback.class));
+
+    assertTrue(checker.checkAvailability().get());
   }
 
   @Test
-  public void shouldDisconnectIfAvailable() throws Exception {
-    assertTrue(checker.isAvailable());
-    verify(conn).disconnect();
+  public void shouldAsynchronouslyRejectAvailability() throws Exception {
+    doAnswer(
+            invocation -> {
+              invocation.<Callback>getArgument(0).onResponse(call, response(503));
+              return null;
+            })
+        .when(call)
+        .enqueue(any(Callback.class));
+
+    assertFalse(checker.checkAvailability().get());
   }
 
   @Test
-  public void shouldDisconnectIfNotAvailable() throws Exception {
-    when(conn.getResponseCode()).thenReturn(401);
-    assertFalse(checker.isAvailable());
-    verify(conn).disconnect();
+  public void shouldAsynchronouslyRejectAvailabilityInCaseOfRequestFailure() throws Exception {
+    doAnswer(
+            invocation -> {
+              invocation.<Callback>getArgument(0).onFailure(call, new IOException());
+              return null;
+            })
+        .when(call)
+        .enqueue(any(Callback.class));
+
+    assertFalse(checker.checkAvailability().get());
+  }
+
+  @Test
+  public void shouldCancelRequestInFlightWhenStopped() throws Exception {
+    checker.checkAvailability();
+
+    checker.stop();
+
+    verify(call).cancel();
+  }
+
+  private Request captureRequest() {
+    ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+    verify(httpClient).newCall(captor.capture());
+    return captor.getValue();
+  }
+
+  private Response response(int code) {
+    return new Response.Builder()
+        .request(new Request.Builder().url(SERVER_URL).build())
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("")
+        .body(ResponseBody.create(null, ""))
+        .build();
   }
 }
@@ -13,6 +13,7 @@ package org.eclipse.che.api.workspace.server.hc;
 
 import static java.lang.String.format;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -22,9 +23,12 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
-import java.util.Timer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.testng.annotations.AfterMethod;
@@ -39,12 +43,12 @@ public class ServerCheckerTest {
   private static final long TIMEOUT_MS = 500;
   private static final int SUCCESS_THRESHOLD = 1;
 
-  private Timer timer;
+  private ScheduledExecutorService timer;
   private TestServerChecker checker;
 
   @BeforeMethod
   public void setUp() throws Exception {
-    timer = new Timer(true);
+    timer = Executors.newSingleThreadScheduledExecutor();
     checker =
         spy(
             new TestServerChecker(
@@ -59,7 +63,7 @@ public class ServerCheckerTest {
 
   @AfterMethod
   public void tearDown() throws Exception {
-    timer.cancel();
+    timer.shutdownNow();
   }
 
   @Test(timeOut = TIMEOUT_MS)
@@ -112,11 +116,62 @@ public class ServerCheckerTest {
     }
   }
 
+  @Test(timeOut = TIMEOUT_MS)
+  public void shouldNotCheckServerAfterStop() throws Exception {
+    when(checker.isAvailable()).thenReturn(false);
+    checker.start();
+    verify(checker, timeout((int) (PERIOD_MS * 2)).atLeastOnce()).isAvailable();
+
+    checker.stop();
+    // let the check which may be in progress finish
+    Thread.sleep(PERIOD_MS * 2);
+    long checks = countAvailabilityChecks();
+    Thread.sleep(PERIOD_MS * 5);
+
+    assertEquals(countAvailabilityChecks(), checks);
+    assertFalse(checker.getReportCompFuture().isDone());
+  }
+
+  @Test(timeOut = 5000)
+  public void shouldCheckServersOfManyWorkspacesWithSharedTimer() throws Exception {
+    List<CompletableFuture<String>> reports = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ServerChecker serverChecker =
+          new TestServerChecker(
+              MACHINE_NAME,
+              SERVER_REF + i,
+              PERIOD_MS,
+              TimeUnit.SECONDS.toMillis(5),
+              2,
+              TimeUnit.MILLISECONDS,
+              timer) {
+            @Override
+            public boolean isAvailable() {
+              return true;
+            }
+          };
+      reports.add(serverChecker.getReportCompFuture());
+      serverChecker.start();
+    }
+
+    for (int i = 0; i < reports.size(); i++) {
+      assertEquals(reports.get(i).get(), SERVER_REF + i);
+    }
+  }
+
   @Test(expectedExceptions = InfrastructureException.class)
   public void checkOnceThrowsExceptionIfServerIsNotAvailable() throws InfrastructureException {
     new TestServerChecker("test", "test", 1, 1, 1, TimeUnit.SECONDS, null).checkOnce(ref -> {});
   }
 
+  private long countAvailabilityChecks() {
+    return mockingDetails(checker)
+        .getInvocations()
+        .stream()
+        .filter(invocation -> invocation.getMethod().getName().equals("isAvailable"))
+        .count();
+  }
+
   private static class TestServerChecker extends ServerChecker {
     protected TestServerChecker(
         String machineName,
@@ -125,7 +180,7 @@ public class ServerCheckerTest {
         long timeout,
         int successThreshold,
         TimeUnit timeUnit,
-        Timer timer) {
+        ScheduledExecutorService timer) {
       super(machineName, serverRef, period, timeout, successThreshold, timeUnit, timer);
     }
 
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 import com.google.common.collect.ImmutableMap;
@@ -31,6 +32,8 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.event.ServerReadinessCheckedEvent;
 import org.eclipse.che.api.workspace.server.model.impl.ServerImpl;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.token.MachineTokenProvider;
@@ -63,6 +66,8 @@ public class ServersCheckerTest {
   @Mock private MachineTokenProvider machineTokenProvider;
   @Mock private HttpConnectionServerChecker connectionChecker;
   @Mock private RuntimeIdentity runtimeIdentity;
+  @Mock private ServerCheckerScheduler scheduler;
+  @Mock private EventService eventService;
   private Map<String, ServerImpl> servers;
 
   private CompletableFuture<String> compFuture;
@@ -93,7 +98,9 @@ public class ServersCheckerTest {
                 machineTokenProvider,
                 SERVER_PING_SUCCESS_THRESHOLD,
                 SERVER_PING_INTERVAL_MILLIS,
-                CONFIGURED_SERVERS));
+                CONFIGURED_SERVERS,
+                scheduler,
+                eventService));
     when(checker.doCreateChecker(any(URL.class), anyString(), anyString()))
         .thenReturn(connectionChecker);
     when(machineTokenProvider.getToken(anyString(), anyString())).thenReturn(MACHINE_TOKEN);
@@ -191,6 +198,41 @@ public class ServersCheckerTest {
     }
   }
 
+  @Test(timeOut = 1000)
+  public void shouldStopAllCheckersOnFirstUnavailability() throws Exception {
+    CompletableFuture<String> failed = new CompletableFuture<>();
+    when(connectionChecker.getReportCompFuture())
+        .thenReturn(new CompletableFuture<>())
+        .thenReturn(failed)
+        .thenReturn(new CompletableFuture<>());
+
+    checker.startAsync(readinessHandler);
+    failed.completeExceptionally(new InfrastructureException("error"));
+
+    // the same checker mock is used for all the 3 servers
+    verify(connectionChecker, times(3)).stop();
+  }
+
+  @Test(timeOut = 1000)
+  public void shouldPublishReadinessCheckResults() throws Exception {
+    servers.clear();
+    servers.put(WSAGENT_HTTP_SERVER, new ServerImpl().withUrl("http://localhost"));
+    when(connectionChecker.getServerRef()).thenReturn(WSAGENT_HTTP_SERVER);
+
+    checker.startAsync(readinessHandler);
+    connectionChecker.getReportCompFuture().complete(WSAGENT_HTTP_SERVER);
+    checker.await();
+
+    ArgumentCaptor<ServerReadinessCheckedEvent> eventCaptor =
+        ArgumentCaptor.forClass(ServerReadinessCheckedEvent.class);
+    verify(eventService).publish(eventCaptor.capture());
+    ServerReadinessCheckedEvent event = eventCaptor.getValue();
+    assertEquals(event.getIdentity(), runtimeIdentity);
+    assertEquals(event.getMachineName(), MACHINE_NAME);
+    assertEquals(event.getServerRef(), WSAGENT_HTTP_SERVER);
+    assertTrue(event.isAvailable());
+  }
+
   @Test(
       expectedExceptions = InfrastructureException.class,
       expectedExceptionsMessageRegExp = "oops!")
@@ -11,14 +11,13 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
-import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
-import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -31,8 +30,8 @@ public class TerminalHttpConnectionServerCheckerTest {
   private String MACHINE_NAME = "mach1";
   private String SERVER_REF = "ref1";
 
-  @Mock private Timer timer;
-  @Mock private HttpURLConnection conn;
+  @Mock private ScheduledExecutorService timer;
+  @Mock private OkHttpClient httpClient;
 
   private TerminalHttpConnectionServerChecker checker;
 
@@ -48,20 +47,17 @@ public class TerminalHttpConnectionServerCheckerTest {
             1,
             TimeUnit.SECONDS,
             timer,
+            httpClient,
             null);
   }
 
   @Test
   public void shouldConfirmConnectionSuccessIfResponseCodeIs404() throws Exception {
-    when(conn.getResponseCode()).thenReturn(404);
-
-    assertTrue(checker.isConnectionSuccessful(conn));
+    assertTrue(checker.isConnectionSuccessful(404));
   }
 
   @Test
   public void shouldNotConfirmConnectionSuccessIfResponseCodeIsNot404() throws Exception {
-    when(conn.getResponseCode()).thenReturn(200);
-
-    assertFalse(checker.isConnectionSuccessful(conn));
+    assertFalse(checker.isConnectionSuccessful(200));
   }
 }
@@ -127,6 +127,23 @@ public class WorkspaceDaoTest {
     workspaceDao.get(null);
   }
 
+  @Test
+  public void shouldGetWorkspacesByIds() throws Exception {
+    final List<WorkspaceImpl> found =
+        workspaceDao.getByIds(
+            asList(workspaces[0].getId(), workspaces[3].getId(), "non-existing-id"));
+
+    assertEquals(
+        new HashSet<>(found),
+        new HashSet<>(
+            asList(new WorkspaceImpl(workspaces[0]), new WorkspaceImpl(workspaces[3]))));
+  }
+
+  @Test
+  public void emptyListShouldBeReturnedWhenGettingWorkspacesByEmptyIds() throws Exception {
+    assertTrue(workspaceDao.getByIds(new ArrayList<>()).isEmpty());
+  }
+
   @Test
   public void shouldGetWorkspacesByNamespace() throws Exception {
     final WorkspaceImpl workspace1 = workspaces[0];